@@ -1,9 +1,12 @@
 package com.leftsolutions.transactionsprocessor.config;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -13,15 +16,35 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 @EnableConfigurationProperties(ImportAsyncProperties.class)
 class ImportAsyncConfiguration {
 
+    /**
+     * Runs imports dispatched by the fair import scheduler, which already limits them to {@code maxPoolSize}
+     * at a time and keeps the waiting ones in its own per-workspace lanes. The small queue only covers the
+     * hand-over from a finishing import to the next one.
+     */
     @Bean(name = "importExecutor")
     @ConditionalOnMissingBean(name = "importExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     TaskExecutor importExecutor(ImportAsyncProperties properties) {
         var executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setCorePoolSize(properties.getMaxPoolSize());
         executor.setMaxPoolSize(properties.getMaxPoolSize());
-        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setQueueCapacity(properties.getMaxPoolSize());
+        executor.setAllowCoreThreadTimeOut(true);
         executor.setThreadNamePrefix(properties.getThreadNamePrefix());
         executor.initialize();
         return executor;
     }
+
+    /**
+     * With {@code spring.threads.virtual.enabled} every import gets its own virtual thread; the scheduler
+     * still caps running imports and {@link MongoOperationLimiter} caps the Mongo load they create.
+     */
+    @Bean(name = "importExecutor")
+    @ConditionalOnMissingBean(name = "importExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    TaskExecutor virtualImportExecutor(ImportAsyncProperties properties) {
+        var executor = new SimpleAsyncTaskExecutor(properties.getThreadNamePrefix());
+        executor.setVirtualThreads(true);
+        return executor;
+    }
 }
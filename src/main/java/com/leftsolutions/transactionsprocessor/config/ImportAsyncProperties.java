@@ -2,25 +2,38 @@ package com.leftsolutions.transactionsprocessor.config;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @ConfigurationProperties(prefix = "import.async")
 @Data
 public class ImportAsyncProperties {
 
     /**
-     * Core pool size for import executor
+     * Number of imports running at the same time
      */
-    private int corePoolSize = 2;
+    private int maxPoolSize = 4;
 
     /**
-     * Max pool size for import executor
+     * Max imports waiting for a free slot across all workspaces, further submissions are rejected with 429
      */
-    private int maxPoolSize = 4;
+    private int queueCapacity = 50;
 
     /**
-     * Queue capacity for import executor
+     * Max imports of a single workspace waiting for a free slot
      */
-    private int queueCapacity = 50;
+    private int maxQueuedPerWorkspace = 10;
+
+    /**
+     * Files up to this size are scheduled in the priority lane
+     */
+    private DataSize smallFileThreshold = DataSize.ofMegabytes(16);
+
+    /**
+     * Import duration assumed for Retry-After until real durations have been measured
+     */
+    private Duration initialImportDuration = Duration.ofSeconds(30);
 
     /**
      * Thread name prefix
@@ -0,0 +1,38 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "import.job-cache")
+@Data
+public class ImportJobCacheProperties {
+
+    /**
+     * Whether import job reads are served from the node-local copy kept current by a change stream
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long the server holds a change stream read open when nothing changed; a healthy stream reports back at
+     * least this often
+     */
+    private Duration maxAwaitTime = Duration.ofMillis(500);
+
+    /**
+     * How long the stream may stay silent before jobs are read from Mongo again. Also how long a job written on
+     * this node is read from Mongo, until its change arrived through the stream
+     */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    /**
+     * Max jobs kept; the least recently read ones are evicted first
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * Pause before the stream is reopened after it failed
+     */
+    private Duration retryInterval = Duration.ofSeconds(5);
+}
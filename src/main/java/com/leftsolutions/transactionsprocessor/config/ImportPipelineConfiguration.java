@@ -0,0 +1,58 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties({ImportPipelineProperties.class, ImportUploadProperties.class, ImportQueueProperties.class,
+        ImportProgressProperties.class, ImportJobCacheProperties.class})
+class ImportPipelineConfiguration {
+
+    private static final Duration PARSE_SPARE_KEEP_ALIVE = Duration.ofSeconds(60);
+
+    @Bean(name = "importWriteExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    TaskExecutor importWriteExecutor(ImportPipelineProperties properties) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWriterThreads());
+        executor.setMaxPoolSize(properties.getWriterThreads());
+        executor.setThreadNamePrefix("import-write-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * In-flight batches per import are still bounded by {@code maxInFlightBatches}, total bulk writes by the
+     * import write {@link MongoOperationLimiter}.
+     */
+    @Bean(name = "importWriteExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    TaskExecutor virtualImportWriteExecutor() {
+        var executor = new SimpleAsyncTaskExecutor("import-write-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Parse workers wait for the writing thread through a managed blocker; the pool starts spare threads for
+     * waiting workers, at most as many as its parallelism, and past that lets them wait rather than fail.
+     */
+    @Bean(name = "importParsePool", destroyMethod = "shutdown")
+    ForkJoinPool importParsePool(ImportPipelineProperties properties) {
+        var parallelism = properties.getParseParallelism() > 0
+                ? properties.getParseParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+                0, parallelism * 2, 1, pool -> true, PARSE_SPARE_KEEP_ALIVE.toSeconds(), TimeUnit.SECONDS);
+    }
+}
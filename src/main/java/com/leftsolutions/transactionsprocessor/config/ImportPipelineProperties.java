@@ -0,0 +1,72 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "import.pipeline")
+@Data
+public class ImportPipelineProperties {
+
+    /**
+     * Initial number of parsed transactions handed to the writer at once
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Lower bound for the adaptive batch size
+     */
+    private int minBatchSize = 100;
+
+    /**
+     * Upper bound for the adaptive batch size
+     */
+    private int maxBatchSize = 10000;
+
+    /**
+     * Bulk insert latency the adaptive batch size aims for
+     */
+    private Duration targetBatchLatency = Duration.ofMillis(250);
+
+    /**
+     * Max bulk inserts of a single import running at the same time (only outside a Mongo transaction)
+     */
+    private int maxInFlightBatches = 4;
+
+    /**
+     * Thread pool size shared by all in-flight bulk inserts
+     */
+    private int writerThreads = 8;
+
+    /**
+     * Files at least this large are split into newline-aligned chunks and parsed in parallel
+     */
+    private DataSize parallelParseThreshold = DataSize.ofMegabytes(64);
+
+    /**
+     * Target size of a single parallel parse chunk
+     */
+    private DataSize parseChunkSize = DataSize.ofMegabytes(8);
+
+    /**
+     * Parallelism of the parse fork/join pool, 0 means number of available processors
+     */
+    private int parseParallelism = 0;
+
+    /**
+     * How often transactions of superseded import generations are looked for and removed
+     */
+    private Duration reaperInterval = Duration.ofMinutes(1);
+
+    /**
+     * Max transactions removed by the reaper with a single delete
+     */
+    private int reaperBatchSize = 1000;
+
+    /**
+     * Pause between two reaper deletes, keeps the cleanup from competing with imports and readers
+     */
+    private Duration reaperBatchPause = Duration.ofMillis(100);
+}
@@ -0,0 +1,31 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "import.progress")
+@Data
+public class ImportProgressProperties {
+
+    /**
+     * How often the node running an import stores its progress
+     */
+    private Duration publishInterval = Duration.ofSeconds(2);
+
+    /**
+     * How often the statuses watched by long-polling and streaming clients are read, with one query for all of them
+     */
+    private Duration watchInterval = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound for the {@code wait} of a long-polling status request
+     */
+    private Duration maxWait = Duration.ofSeconds(60);
+
+    /**
+     * How long a status stream stays open before the client has to reconnect
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,57 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@ConfigurationProperties(prefix = "import.queue")
+@Data
+public class ImportQueueProperties {
+
+    /**
+     * What this node does with imports: {@code ALL} accepts and runs them, {@code API} only accepts them
+     * and {@code WORKER} only runs them
+     */
+    private NodeRole role = NodeRole.ALL;
+
+    /**
+     * Identifies this node as the lease owner of the imports it claimed; must be unique per node
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * How often a worker looks for queued imports when it has a free slot
+     */
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    /**
+     * How long a claimed import stays with its node without a heartbeat before another node may take it over
+     */
+    private Duration leaseDuration = Duration.ofMinutes(2);
+
+    /**
+     * How often a worker renews the leases of the imports it is running
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(20);
+
+    /**
+     * Claims of a single import before it is given up and marked failed
+     */
+    private int maxAttempts = 3;
+
+    public enum NodeRole {
+        ALL,
+        API,
+        WORKER;
+
+        public boolean acceptsImports() {
+            return this != WORKER;
+        }
+
+        public boolean runsImports() {
+            return this != API;
+        }
+    }
+}
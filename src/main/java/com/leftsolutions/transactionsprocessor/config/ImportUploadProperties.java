@@ -0,0 +1,43 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "import.upload")
+@Data
+public class ImportUploadProperties {
+
+    /**
+     * Directory uploaded CSV files are spooled to until their import finishes
+     */
+    private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "transactions-processor-spool");
+
+    /**
+     * Max size of a single (decompressed) upload
+     */
+    private DataSize maxUploadSize = DataSize.ofGigabytes(10);
+
+    /**
+     * Max number of bytes moved by a single channel transfer while spooling
+     */
+    private DataSize transferChunkSize = DataSize.ofMegabytes(8);
+
+    /**
+     * Max size of a single chunk of a resumable upload
+     */
+    private DataSize maxChunkSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Resumable upload sessions untouched for this long are removed together with their chunks
+     */
+    private Duration sessionTtl = Duration.ofHours(24);
+
+    /**
+     * How often stale resumable upload sessions are looked for
+     */
+    private Duration sessionGcInterval = Duration.ofMinutes(15);
+}
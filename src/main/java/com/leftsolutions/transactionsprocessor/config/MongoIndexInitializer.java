@@ -0,0 +1,64 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Creates the indexes declared on the documents and drops the ones they replaced. Runs after startup instead of
+ * during it, so the application starts while Mongo is still unavailable, and is retried until it succeeded once.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class MongoIndexInitializer {
+
+    /**
+     * Unique indexes of statistics pages and daily buckets from before they were kept per generation
+     */
+    private static final Set<String> REPLACED_INDEXES = Set.of(
+            "monthly_statistics_pages_workspace_year_month_part_page_uq",
+            "daily_statistics_workspace_date_uq"
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile boolean done;
+
+    @Scheduled(fixedDelayString = "${mongo.operations.index-setup-interval:PT1M}")
+    void createIndexes() {
+        if (done) {
+            return;
+        }
+
+        var mappingContext = mongoTemplate.getConverter().getMappingContext();
+        var resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        try {
+            for (var entity : mappingContext.getPersistentEntities()) {
+                if (entity.isAnnotationPresent(Document.class)) {
+                    var indexOps = mongoTemplate.indexOps(entity.getCollection());
+                    for (var index : resolver.resolveIndexForEntity(entity)) {
+                        mongoTemplate.indexOps(index.getCollection()).createIndex(index);
+                    }
+                    indexOps.getIndexInfo().stream()
+                            .map(IndexInfo::getName)
+                            .filter(REPLACED_INDEXES::contains)
+                            .forEach(name -> {
+                                indexOps.dropIndex(name);
+                                log.info("Dropped index {} of {}, replaced by a declared one", name, entity.getCollection());
+                            });
+                }
+            }
+            done = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not create Mongo indexes, retrying later: {}", e.getMessage());
+        }
+    }
+}
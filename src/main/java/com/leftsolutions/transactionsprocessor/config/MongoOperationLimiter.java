@@ -0,0 +1,66 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of concurrent Mongo operations with a fair semaphore. Waiting on the semaphore is cheap
+ * for virtual threads, so request and import concurrency can grow without growing the Mongo connection pool
+ * or a platform thread pool in front of it.
+ */
+public class MongoOperationLimiter {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public MongoOperationLimiter(int maxConcurrent, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * A limiter whose operations wait for a slot however long it takes, for background work that has nobody to
+     * answer with {@code 503}.
+     */
+    public MongoOperationLimiter(int maxConcurrent) {
+        this(maxConcurrent, null);
+    }
+
+    /**
+     * @throws MongoOperationsBusyException when no slot frees up within the acquire timeout
+     */
+    public <T> T call(Supplier<T> operation) {
+        acquire();
+        try {
+            return operation.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable operation) {
+        call(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            if (acquireTimeout == null) {
+                permits.acquire();
+            } else if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new MongoOperationsBusyException(acquireTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Mongo operation slot", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+public class MongoOperationsBusyException extends ResponseStatusException {
+
+    private static final String MSG_BUSY = "Too many concurrent database operations, no slot within %d ms";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    public MongoOperationsBusyException(Duration waited) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, MSG_BUSY.formatted(waited.toMillis()));
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return headers;
+    }
+}
@@ -0,0 +1,26 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+@EnableConfigurationProperties({MongoOperationsProperties.class, TransactionStorageProperties.class})
+class MongoOperationsConfiguration {
+
+    @Bean
+    @Primary
+    MongoOperationLimiter mongoOperationLimiter(MongoOperationsProperties properties) {
+        return new MongoOperationLimiter(properties.getMaxConcurrent(), properties.getAcquireTimeout());
+    }
+
+    /**
+     * Import bulk writes have their own slots, so a running import neither fails on a burst of reads nor takes
+     * the slots requests are answered from.
+     */
+    @Bean(name = "importWriteLimiter")
+    MongoOperationLimiter importWriteLimiter(MongoOperationsProperties properties) {
+        return new MongoOperationLimiter(properties.getImportMaxConcurrent());
+    }
+}
@@ -0,0 +1,33 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "mongo.operations")
+@Data
+public class MongoOperationsProperties {
+
+    /**
+     * Max Mongo operations (status reads, statistics aggregations) running at the same time. With virtual threads
+     * this replaces thread pool sizing as the limit on Mongo load
+     */
+    private int maxConcurrent = 64;
+
+    /**
+     * Max import bulk writes running at the same time, on top of {@code maxConcurrent}. A write waits for a free
+     * slot as long as it takes
+     */
+    private int importMaxConcurrent = 16;
+
+    /**
+     * How long an operation waits for a free slot before the request fails with 503
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How often the index setup is retried after startup until it succeeded once
+     */
+    private Duration indexSetupInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,58 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Periodic tasks run on the default scheduler unless they name one of the schedulers below, so that a task that
+ * blocks or runs for minutes never delays the import lease heartbeat past the lease duration.
+ */
+@Configuration
+@EnableScheduling
+class SchedulingConfiguration {
+
+    /**
+     * Boot's default scheduler, configured by {@code spring.task.scheduling}; declared here because Boot backs off
+     * as soon as any other scheduler bean exists. Runs the short tasks: queue polling, progress publishing and
+     * index setup.
+     */
+    @Bean
+    ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Renews the leases of running imports and nothing else.
+     */
+    @Bean(name = "importLeaseScheduler")
+    ThreadPoolTaskScheduler importLeaseScheduler() {
+        return scheduler("import-lease-");
+    }
+
+    /**
+     * Pushes import status changes to subscribers, whose writes block on slow clients.
+     */
+    @Bean(name = "importStatusScheduler")
+    ThreadPoolTaskScheduler importStatusScheduler() {
+        return scheduler("import-status-");
+    }
+
+    /**
+     * Background maintenance that scans collections or paces itself with sleeps: the generation reaper, the id
+     * migration, the transactions collection setup and the upload session cleanup.
+     */
+    @Bean(name = "maintenanceScheduler")
+    ThreadPoolTaskScheduler maintenanceScheduler() {
+        return scheduler("maintenance-");
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix) {
+        var scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+}
@@ -0,0 +1,36 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "statistics.cache")
+@Data
+public class StatisticsCacheProperties {
+
+    /**
+     * Whether statistics responses are cached in-process
+     */
+    private boolean enabled = true;
+
+    /**
+     * Max cached responses; the least recently used ones are evicted first
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * Max rows of all cached responses together, a response weighs its row count plus one
+     */
+    private long maxWeight = 1_000_000;
+
+    /**
+     * How long a request waits for the revalidation of an outdated response before it gets the outdated one
+     */
+    private Duration revalidateTimeout = Duration.ofMillis(200);
+
+    /**
+     * Max age of an outdated response served while the revalidation is slow or Mongo is busy
+     */
+    private Duration maxStale = Duration.ofMinutes(1);
+}
@@ -0,0 +1,23 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+@Configuration
+@EnableConfigurationProperties({StatisticsCacheProperties.class, StatisticsRangeProperties.class})
+class StatisticsConfiguration {
+
+    /**
+     * Runs the loads of the statistics cache, at most one per cached key, and the months of range queries;
+     * {@link MongoOperationLimiter} caps the Mongo load they create.
+     */
+    @Bean(name = "statisticsExecutor")
+    TaskExecutor statisticsExecutor() {
+        var executor = new SimpleAsyncTaskExecutor("statistics-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,14 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "statistics.range")
+@Data
+public class StatisticsRangeProperties {
+
+    /**
+     * Max months a range query or a timeline may span; the months of a range are loaded in parallel
+     */
+    private int maxMonths = 36;
+}
@@ -0,0 +1,27 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "mongo.transactions")
+@Data
+public class TransactionStorageProperties {
+
+    /**
+     * Creates the transactions collection clustered on {@code _id} when it does not exist yet, so rows are stored
+     * in id order and a workspace month is one contiguous range. An existing collection is never converted
+     */
+    private boolean clustered = false;
+
+    /**
+     * Rewrites rows stored under random ids to month-ordered ids, one workspace month at a time
+     */
+    private boolean idMigrationEnabled = false;
+
+    /**
+     * How often rows still stored under random ids are looked for while the id migration is enabled
+     */
+    private Duration idMigrationInterval = Duration.ofMinutes(10);
+}
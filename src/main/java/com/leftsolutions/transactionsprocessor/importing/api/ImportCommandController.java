@@ -1,40 +1,77 @@
 package com.leftsolutions.transactionsprocessor.importing.api;
 
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportUploadFacade;
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportSubmissionDto;
 import com.leftsolutions.transactionsprocessor.security.WorkspaceProvider;
 import com.leftsolutions.transactionsprocessor.transaction.domain.TransactionImportFacade;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.time.YearMonth;
 
 @RestController
+@ConditionalOnExpression("!'${import.queue.role:all}'.equalsIgnoreCase('worker')")
 @RequiredArgsConstructor
 @RequestMapping("/api/imports")
 class ImportCommandController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String CONTENT_SHA256_HEADER = "X-Content-SHA256";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TransactionImportFacade transactionImportFacade;
+    private final ImportUploadFacade importUploadFacade;
     private final WorkspaceProvider workspaceProvider;
 
     @PostMapping(value = "/{yearMonth}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ResponseStatus(HttpStatus.ACCEPTED)
     ImportJobStatusDto importMonth(@PathVariable YearMonth yearMonth,
-                                   @RequestPart("file") MultipartFile file) throws IOException {
+                                   @RequestPart("file") MultipartFile file,
+                                   @RequestParam(defaultValue = "REPLACE") ImportMode mode,
+                                   @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws IOException {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+
+        try (var input = file.getInputStream()) {
+            var upload = importUploadFacade.spool(workspaceId, yearMonth, input, null);
+            return transactionImportFacade.importMonthlyAsync(workspaceId, yearMonth,
+                    new ImportSubmissionDto(upload.file(), upload.sha256(), idempotencyKey, mode));
+        }
+    }
+
+    /**
+     * Takes the CSV as the raw request body (optionally gzip encoded), so it is written to disk only once.
+     */
+    @PostMapping(value = "/{yearMonth}", consumes = TEXT_CSV_VALUE)
+    ResponseEntity<ImportJobStatusDto> importMonthStream(@PathVariable YearMonth yearMonth,
+                                                         @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                         @RequestParam(defaultValue = "REPLACE") ImportMode mode,
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                         InputStream body) throws IOException {
         var workspaceId = workspaceProvider.currentWorkspaceId();
 
-        var tempFile = Files.createTempFile("transactions-" + workspaceId + "-" + yearMonth + "-", ".csv");
-        file.transferTo(tempFile);
+        var upload = importUploadFacade.spool(workspaceId, yearMonth, body, contentEncoding);
+        var status = transactionImportFacade.importMonthlyAsync(workspaceId, yearMonth,
+                new ImportSubmissionDto(upload.file(), upload.sha256(), idempotencyKey, mode));
 
-        return transactionImportFacade.importMonthlyAsync(workspaceId, yearMonth, tempFile);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(CONTENT_SHA256_HEADER, upload.sha256())
+                .body(status);
     }
 }
@@ -1,27 +1,169 @@
 package com.leftsolutions.transactionsprocessor.importing.api;
 
+import com.leftsolutions.transactionsprocessor.config.ImportProgressProperties;
 import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobKeyDto;
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportProgressEventDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportQueueStatsDto;
+import com.leftsolutions.transactionsprocessor.importing.exception.RejectedRowsReportNotFoundException;
 import com.leftsolutions.transactionsprocessor.security.WorkspaceProvider;
+import com.leftsolutions.transactionsprocessor.transaction.domain.ImportQueueFacade;
+import com.leftsolutions.transactionsprocessor.transaction.domain.RejectedRowsReportFacade;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/imports")
 class ImportQueryController {
 
+    private static final String EVENT_STATUS = "status";
+    private static final String EVENT_PROGRESS = "progress";
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
     private final ImportingFacade importingFacade;
+    private final ImportQueueFacade importQueueFacade;
+    private final RejectedRowsReportFacade rejectedRowsReportFacade;
     private final WorkspaceProvider workspaceProvider;
+    private final ImportStatusWatcher importStatusWatcher;
+    private final ImportProgressProperties progressProperties;
 
+    /**
+     * Answers {@code 304 Not Modified} when {@code If-None-Match} carries the current ETag.
+     */
     @GetMapping("/{yearMonth}/status")
-    ImportJobStatusDto status(@PathVariable YearMonth yearMonth) {
+    ResponseEntity<ImportJobStatusDto> status(@PathVariable YearMonth yearMonth) {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return withEtag(importingFacade.getStatus(workspaceId, yearMonth));
+    }
+
+    /**
+     * Long-polls the status: when {@code If-None-Match} carries the current ETag, the response is held until the
+     * status changes or {@code wait} seconds pass, and then answered with {@code 304 Not Modified}.
+     */
+    @GetMapping(value = "/{yearMonth}/status", params = "wait")
+    DeferredResult<ResponseEntity<ImportJobStatusDto>> awaitStatus(@PathVariable YearMonth yearMonth,
+                                                                    @RequestParam("wait") long waitSeconds,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         var workspaceId = workspaceProvider.currentWorkspaceId();
-        return importingFacade.getStatus(workspaceId, yearMonth);
+        var current = importingFacade.getStatus(workspaceId, yearMonth);
+        var knownEtag = ImportStatusWatcher.etag(current);
+
+        var timeout = Duration.ofSeconds(Math.max(0, waitSeconds));
+        if (timeout.compareTo(progressProperties.getMaxWait()) > 0) {
+            timeout = progressProperties.getMaxWait();
+        }
+
+        var notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(knownEtag).<ImportJobStatusDto>build();
+        var result = new DeferredResult<ResponseEntity<ImportJobStatusDto>>(timeout.toMillis(), notModified);
+
+        if (ifNoneMatch == null || !ifNoneMatch.contains(knownEtag) || timeout.isZero()) {
+            result.setResult(withEtag(current));
+            return result;
+        }
+
+        var cancel = importStatusWatcher.watch(new ImportJobKeyDto(workspaceId, yearMonth), status -> {
+            if (!ImportStatusWatcher.etag(status).equals(knownEtag)) {
+                result.setResult(withEtag(status));
+                return false;
+            }
+            return !result.isSetOrExpired();
+        });
+        result.onCompletion(cancel);
+        return result;
+    }
+
+    /**
+     * Streams the status as server-sent events: the full status first, then a compact {@code progress} event on
+     * every change, and the full status again once the import finished, which also closes the stream.
+     */
+    @GetMapping(value = "/{yearMonth}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter events(@PathVariable YearMonth yearMonth) throws IOException {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        var current = importingFacade.getStatus(workspaceId, yearMonth);
+
+        var emitter = new SseEmitter(progressProperties.getStreamTimeout().toMillis());
+        send(emitter, EVENT_STATUS, current);
+        if (ImportStatusWatcher.isFinished(current)) {
+            emitter.complete();
+            return emitter;
+        }
+
+        var lastEtag = new AtomicReference<>(ImportStatusWatcher.etag(current));
+        var cancel = importStatusWatcher.watch(new ImportJobKeyDto(workspaceId, yearMonth), status -> {
+            var etag = ImportStatusWatcher.etag(status);
+            if (etag.equals(lastEtag.getAndSet(etag))) {
+                return true;
+            }
+
+            try {
+                if (ImportStatusWatcher.isFinished(status)) {
+                    send(emitter, EVENT_STATUS, status);
+                    emitter.complete();
+                    return false;
+                }
+                send(emitter, EVENT_PROGRESS, ImportProgressEventDto.of(status));
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(error -> cancel.run());
+        return emitter;
+    }
+
+    /**
+     * Downloads every row rejected by the month's last completed import as gzip-compressed CSV
+     * ({@code line,reason,row}).
+     */
+    @GetMapping("/{yearMonth}/rejections")
+    ResponseEntity<InputStreamResource> rejections(@PathVariable YearMonth yearMonth) {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        var report = rejectedRowsReportFacade.findReport(workspaceId, yearMonth)
+                .orElseThrow(() -> new RejectedRowsReportNotFoundException(workspaceId, yearMonth));
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_GZIP)
+                .contentLength(report.length())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(report.filename()).build().toString())
+                .body(new InputStreamResource(report.content()));
+    }
+
+    @GetMapping("/queue")
+    ImportQueueStatsDto queue() {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return importQueueFacade.getQueueStats(workspaceId);
+    }
+
+    private static ResponseEntity<ImportJobStatusDto> withEtag(ImportJobStatusDto status) {
+        return ResponseEntity.ok()
+                .eTag(ImportStatusWatcher.etag(status))
+                .body(status);
+    }
+
+    private static void send(SseEmitter emitter, String event, Object data) throws IOException {
+        emitter.send(SseEmitter.event().name(event).data(data));
     }
 }
@@ -0,0 +1,94 @@
+package com.leftsolutions.transactionsprocessor.importing.api;
+
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobKeyDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the long-polling and streaming clients of import statuses from one read per interval for all
+ * watched jobs, instead of a read per client and poll.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class ImportStatusWatcher {
+
+    private final ImportingFacade importingFacade;
+
+    private final Map<ImportJobKeyDto, Set<Predicate<ImportJobStatusDto>>> watches = new ConcurrentHashMap<>();
+
+    /**
+     * @param listener called with every status read for the job until it returns {@code false}
+     * @return cancels the watch
+     */
+    Runnable watch(ImportJobKeyDto job, Predicate<ImportJobStatusDto> listener) {
+        watches.compute(job, (key, listeners) -> {
+            var current = listeners != null ? listeners : ConcurrentHashMap.<Predicate<ImportJobStatusDto>>newKeySet();
+            current.add(listener);
+            return current;
+        });
+        return () -> unwatch(job, listener);
+    }
+
+    @Scheduled(fixedDelayString = "${import.progress.watch-interval:PT1S}", scheduler = "importStatusScheduler")
+    void poll() {
+        if (watches.isEmpty()) {
+            return;
+        }
+
+        var statuses = importingFacade.getStatuses(List.copyOf(watches.keySet())).stream()
+                .collect(Collectors.toMap(status -> new ImportJobKeyDto(status.workspaceId(), status.month()), Function.identity()));
+
+        watches.forEach((job, listeners) -> {
+            var status = statuses.getOrDefault(job, ImportJobStatusDto.notFound(job.workspaceId(), job.month()));
+            for (var listener : listeners) {
+                if (!notify(listener, status)) {
+                    unwatch(job, listener);
+                }
+            }
+        });
+    }
+
+    /**
+     * Changes with every state change and every published progress of the job.
+     */
+    static String etag(ImportJobStatusDto status) {
+        var version = status.progress() == null
+                ? Long.toString(status.revision())
+                : status.revision() + "." + status.progress().revision();
+        return "\"" + version + "\"";
+    }
+
+    static boolean isFinished(ImportJobStatusDto status) {
+        return status.state() != ImportJobState.PROCESSING && status.state() != ImportJobState.NOT_FOUND;
+    }
+
+    private boolean notify(Predicate<ImportJobStatusDto> listener, ImportJobStatusDto status) {
+        try {
+            return listener.test(status);
+        } catch (RuntimeException e) {
+            log.debug("Import status watch of workspaceId={}, month={} dropped: {}", status.workspaceId(), status.month(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void unwatch(ImportJobKeyDto job, Predicate<ImportJobStatusDto> listener) {
+        watches.computeIfPresent(job, (key, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+}
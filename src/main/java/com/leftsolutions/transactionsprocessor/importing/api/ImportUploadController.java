@@ -0,0 +1,79 @@
+package com.leftsolutions.transactionsprocessor.importing.api;
+
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportUploadSessionFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportSubmissionDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.UploadSessionDto;
+import com.leftsolutions.transactionsprocessor.security.WorkspaceProvider;
+import com.leftsolutions.transactionsprocessor.transaction.domain.TransactionImportFacade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * Resumable upload protocol: open a session, PUT numbered chunks with their offsets (retrying any that failed),
+ * check the received ranges, then complete with the SHA-256 of the whole file to start the import.
+ */
+@RestController
+@ConditionalOnExpression("!'${import.queue.role:all}'.equalsIgnoreCase('worker')")
+@RequiredArgsConstructor
+@RequestMapping("/api/imports/{yearMonth}/uploads")
+class ImportUploadController {
+
+    private final ImportUploadSessionFacade importUploadSessionFacade;
+    private final TransactionImportFacade transactionImportFacade;
+    private final WorkspaceProvider workspaceProvider;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    UploadSessionDto open(@PathVariable YearMonth yearMonth,
+                          @RequestParam(required = false) Long totalSize) {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return importUploadSessionFacade.openSession(workspaceId, yearMonth, totalSize);
+    }
+
+    @PutMapping("/{uploadId}/chunks/{chunkNumber}")
+    UploadSessionDto writeChunk(@PathVariable YearMonth yearMonth,
+                                @PathVariable UUID uploadId,
+                                @PathVariable int chunkNumber,
+                                @RequestParam long offset,
+                                InputStream body) throws IOException {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return importUploadSessionFacade.writeChunk(workspaceId, yearMonth, uploadId, chunkNumber, offset, body);
+    }
+
+    @GetMapping("/{uploadId}")
+    UploadSessionDto status(@PathVariable YearMonth yearMonth, @PathVariable UUID uploadId) {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return importUploadSessionFacade.getSession(workspaceId, yearMonth, uploadId);
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    ImportJobStatusDto complete(@PathVariable YearMonth yearMonth,
+                                @PathVariable UUID uploadId,
+                                @RequestParam String sha256,
+                                @RequestParam(defaultValue = "REPLACE") ImportMode mode,
+                                @RequestHeader(value = ImportCommandController.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws IOException {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+
+        return importUploadSessionFacade.completeSession(workspaceId, yearMonth, uploadId, sha256,
+                upload -> transactionImportFacade.importMonthlyAsync(workspaceId, yearMonth,
+                        new ImportSubmissionDto(upload.file(), upload.sha256(), idempotencyKey, mode)));
+    }
+}
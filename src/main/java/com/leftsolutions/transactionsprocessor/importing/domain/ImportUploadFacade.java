@@ -0,0 +1,15 @@
+package com.leftsolutions.transactionsprocessor.importing.domain;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.SpooledUploadDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.YearMonth;
+
+public interface ImportUploadFacade {
+
+    /**
+     * Streams an upload body into the spool directory, decoding it on the fly when {@code contentEncoding} is gzip.
+     */
+    SpooledUploadDto spool(String workspaceId, YearMonth month, InputStream body, String contentEncoding) throws IOException;
+}
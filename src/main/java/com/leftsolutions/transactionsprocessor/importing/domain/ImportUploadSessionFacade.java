@@ -0,0 +1,40 @@
+package com.leftsolutions.transactionsprocessor.importing.domain;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.SpooledUploadDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.UploadSessionDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Resumable uploads: a file is sent as numbered chunks that can be retried independently,
+ * and is only spooled for import once all of it has arrived.
+ */
+public interface ImportUploadSessionFacade {
+
+    UploadSessionDto openSession(String workspaceId, YearMonth month, Long totalSize);
+
+    UploadSessionDto writeChunk(String workspaceId,
+                                YearMonth month,
+                                UUID uploadId,
+                                int chunkNumber,
+                                long offset,
+                                InputStream body) throws IOException;
+
+    UploadSessionDto getSession(String workspaceId, YearMonth month, UUID uploadId);
+
+    /**
+     * Assembles the chunks into the spool directory, checks them against the digest of the whole file and hands
+     * the file to {@code importer}. The session is completed and its chunks deleted only once the importer
+     * accepted the file; when it throws, e.g. because the import queue is full, the session is open again and
+     * the client can retry the completion without uploading anything.
+     */
+    <T> T completeSession(String workspaceId,
+                          YearMonth month,
+                          UUID uploadId,
+                          String sha256,
+                          Function<SpooledUploadDto, T> importer) throws IOException;
+}
@@ -1,20 +1,135 @@
 package com.leftsolutions.transactionsprocessor.importing.domain;
 
 
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportDeltaStatsDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobKeyDto;
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportLeaseDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportProgressDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportStartDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportWriteStatsDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.StaleGenerationDto;
 
+import java.time.Instant;
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface ImportingFacade {
 
-    void markProcessing(String workspaceId, YearMonth month);
+    /**
+     * Moves the month's job to {@code PROCESSING} in a single conditional update, unless it is already processing
+     * or was started by the same idempotency key or content and did not fail.
+     */
+    ImportStartDto startProcessing(String workspaceId, YearMonth month, String contentSha256, String idempotencyKey);
 
-    void markCompleted(String workspaceId, YearMonth month, int importedRows, int rejectedRows, List<String> errors);
+    /**
+     * What {@link #startProcessing} would answer when it would not start the job, read without changing it, so a
+     * repeated or concurrent submission is refused before any work is done for it.
+     *
+     * @return {@code KEY_REUSED}, {@code SAME_SUBMISSION} or {@code ALREADY_PROCESSING}; empty when the job may be
+     * started
+     */
+    Optional<ImportStartDto> findRefusedStart(String workspaceId, YearMonth month, String contentSha256, String idempotencyKey);
+
+    /**
+     * Records that the holder of the queue lease runs the month's import, unless a later attempt already took it
+     * over. From then on the job ignores writes made under an earlier lease.
+     *
+     * @return whether the lease is now recorded on the job
+     */
+    boolean acquireLease(String workspaceId, YearMonth month, ImportLeaseDto lease);
+
+    /**
+     * Publishes an {@link com.leftsolutions.transactionsprocessor.importing.dto.ImportCompletedEvent} when the job
+     * was processing; inside a transaction its listeners run after the commit.
+     *
+     * @param rejectedRowsReportId GridFS file of the import's rejected rows report, recorded in the same update so
+     *                             only the report of the completed import is served; {@code null} when no row
+     *                             was rejected
+     * @param generation           switched to for readers in the same update, the previous one becomes stale;
+     *                             {@code null} keeps the active generation
+     * @param lease                the import ran under, or {@code null} when it was not run from the queue
+     * @return whether the job was completed; {@code false} when it was not processing or the lease was taken over
+     */
+    boolean markCompleted(String workspaceId,
+                          YearMonth month,
+                          int importedRows,
+                          int rejectedRows,
+                          List<String> errors,
+                          Map<String, Long> rejectionCounts,
+                          ImportWriteStatsDto writeStats,
+                          ImportDeltaStatsDto deltaStats,
+                          String rejectedRowsReportId,
+                          Long generation,
+                          ImportLeaseDto lease);
 
     void markFailed(String workspaceId, YearMonth month, String error);
 
+    /**
+     * Fails the job only while the import still holds the lease, so a node that lost it cannot fail the attempt
+     * that took the import over.
+     */
+    void markFailed(String workspaceId, YearMonth month, String error, ImportLeaseDto lease);
+
+    /**
+     * Jobs that have been {@code PROCESSING} since before the threshold.
+     */
+    List<ImportJobStatusDto> findProcessingSince(Instant threshold);
+
+    /**
+     * Stores the progress of the month's running import; the revision and timestamp of the snapshot are
+     * assigned here.
+     */
+    void publishProgress(String workspaceId, YearMonth month, ImportProgressDto progress);
+
     ImportJobStatusDto getStatus(String workspaceId, YearMonth month);
 
+    /**
+     * Statuses of several jobs read with one query per collection; jobs that do not exist are left out.
+     */
+    List<ImportJobStatusDto> getStatuses(Collection<ImportJobKeyDto> jobs);
+
     boolean isCompleted(String workspaceId, YearMonth month);
+
+    /**
+     * Revision of the month's job, increased by every state change; {@code 0} for a month that was never imported.
+     */
+    long revision(String workspaceId, YearMonth month);
+
+    /**
+     * Rejected rows report of the month's last completed import, read from the job itself.
+     */
+    Optional<String> findRejectedRowsReportId(String workspaceId, YearMonth month);
+
+    /**
+     * Generation of the month's transactions that readers should see.
+     */
+    long activeGeneration(String workspaceId, YearMonth month);
+
+    /**
+     * {@link #activeGeneration} read from the job itself rather than the cache, for writers that build on it.
+     */
+    long readActiveGeneration(String workspaceId, YearMonth month);
+
+    /**
+     * Hands out a new, never used generation for a staged import of the month.
+     */
+    long allocateGeneration(String workspaceId, YearMonth month);
+
+    /**
+     * Switches readers to the generation only while the job is still at the given revision, i.e. no import of
+     * the month started or finished meanwhile.
+     *
+     * @return whether the generation was activated
+     */
+    boolean activateGeneration(String workspaceId, YearMonth month, long generation, long revision);
+
+    void discardGeneration(String workspaceId, YearMonth month, long generation);
+
+    List<StaleGenerationDto> findStaleGenerations();
+
+    void markGenerationReaped(String workspaceId, YearMonth month, long generation);
 }
@@ -0,0 +1,10 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+/**
+ * Received byte range, {@code end} exclusive.
+ */
+public record ByteRangeDto(
+        long start,
+        long end
+) {
+}
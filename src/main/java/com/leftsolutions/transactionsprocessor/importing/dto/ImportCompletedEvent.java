@@ -0,0 +1,12 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+import java.time.YearMonth;
+
+/**
+ * Published by the node that completed the month's import; other nodes learn about it only from the job.
+ */
+public record ImportCompletedEvent(
+        String workspaceId,
+        YearMonth month
+) {
+}
@@ -0,0 +1,8 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+public record ImportDeltaStatsDto(
+        int addedRows,
+        int removedRows,
+        int unchangedRows
+) {
+}
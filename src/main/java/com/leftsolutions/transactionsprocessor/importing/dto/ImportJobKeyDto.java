@@ -0,0 +1,9 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+import java.time.YearMonth;
+
+public record ImportJobKeyDto(
+        String workspaceId,
+        YearMonth month
+) {
+}
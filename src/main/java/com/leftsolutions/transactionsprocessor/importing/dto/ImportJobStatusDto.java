@@ -3,7 +3,14 @@ package com.leftsolutions.transactionsprocessor.importing.dto;
 import java.time.Instant;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * @param errors          messages of the first rejected rows
+ * @param rejectionCounts rejected rows per reason, over all rejected rows
+ * @param revision increases with every state change of the job
+ * @param progress only set while the job is {@code PROCESSING} and its node has published progress
+ */
 public record ImportJobStatusDto(
         String workspaceId,
         YearMonth month,
@@ -11,7 +18,12 @@ public record ImportJobStatusDto(
         int importedRows,
         int rejectedRows,
         List<String> errors,
-        Instant updatedAt
+        Map<String, Long> rejectionCounts,
+        Instant updatedAt,
+        ImportWriteStatsDto writeStats,
+        ImportDeltaStatsDto deltaStats,
+        long revision,
+        ImportProgressDto progress
 ) {
 
     public static ImportJobStatusDto notFound(String workspaceId, YearMonth month) {
@@ -22,7 +34,12 @@ public record ImportJobStatusDto(
                 0,
                 0,
                 List.of(),
-                Instant.now()
+                Map.of(),
+                Instant.now(),
+                null,
+                null,
+                0,
+                null
         );
     }
 }
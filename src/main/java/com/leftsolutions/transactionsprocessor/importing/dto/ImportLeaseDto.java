@@ -0,0 +1,14 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+/**
+ * Queue lease a node runs a month's import under. Every claim of the queue entry counts an attempt, so a later
+ * attempt always carries a higher number than the one it took the import over from.
+ *
+ * @param owner   node holding the lease
+ * @param attempt claims of the queue entry so far, including this one
+ */
+public record ImportLeaseDto(
+        String owner,
+        int attempt
+) {
+}
@@ -0,0 +1,17 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+public enum ImportMode {
+    /**
+     * Deletes every stored transaction of the month and inserts the file again
+     */
+    REPLACE,
+    /**
+     * Compares row fingerprints with the stored month and only inserts added / deletes removed rows
+     */
+    DELTA,
+    /**
+     * Writes the file outside a transaction under a new generation and switches the month to it at the end;
+     * the previous generation is removed in the background. Not bounded by Mongo transaction limits
+     */
+    STAGED
+}
@@ -0,0 +1,22 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress of a running import as last published by the node running it.
+ *
+ * @param revision      increases with every published snapshot
+ * @param rowsPerSecond rows written per second since the import started
+ * @param etaSeconds    estimated time left from the share of the file read so far, {@code null} until known
+ */
+public record ImportProgressDto(
+        long revision,
+        long bytesRead,
+        long totalBytes,
+        long rowsParsed,
+        long rowsWritten,
+        double rowsPerSecond,
+        Long etaSeconds,
+        Instant updatedAt
+) {
+}
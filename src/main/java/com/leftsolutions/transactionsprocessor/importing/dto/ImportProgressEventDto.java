@@ -0,0 +1,16 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+/**
+ * Compact status pushed to subscribers of a running import; the error list is only sent with the final status.
+ */
+public record ImportProgressEventDto(
+        ImportJobState state,
+        int importedRows,
+        int rejectedRows,
+        ImportProgressDto progress
+) {
+
+    public static ImportProgressEventDto of(ImportJobStatusDto status) {
+        return new ImportProgressEventDto(status.state(), status.importedRows(), status.rejectedRows(), status.progress());
+    }
+}
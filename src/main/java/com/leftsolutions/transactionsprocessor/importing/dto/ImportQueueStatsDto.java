@@ -0,0 +1,19 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+/**
+ * Import scheduler load as seen by one workspace.
+ *
+ * @param oldestWaitMillis  how long the workspace's longest waiting import has been queued
+ * @param averageWaitMillis average time the workspace's imports waited for a slot
+ */
+public record ImportQueueStatsDto(
+        String workspaceId,
+        int queuedImports,
+        int runningImports,
+        long oldestWaitMillis,
+        long averageWaitMillis,
+        int totalQueuedImports,
+        int totalRunningImports,
+        int queueCapacity
+) {
+}
@@ -0,0 +1,25 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+/**
+ * Result of atomically moving a month's import job to {@code PROCESSING}.
+ *
+ * @param status the job after the transition, or as found when it did not happen
+ */
+public record ImportStartDto(
+        Outcome outcome,
+        ImportJobStatusDto status
+) {
+
+    public enum Outcome {
+        STARTED,
+        /**
+         * The job was already started by the same idempotency key or content and did not fail
+         */
+        SAME_SUBMISSION,
+        /**
+         * The job was started by the same idempotency key for a different content and did not fail
+         */
+        KEY_REUSED,
+        ALREADY_PROCESSING
+    }
+}
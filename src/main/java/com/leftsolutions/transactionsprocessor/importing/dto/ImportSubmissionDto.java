@@ -0,0 +1,21 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+import java.nio.file.Path;
+
+/**
+ * A spooled CSV file handed over for import.
+ *
+ * @param contentSha256  hex SHA-256 of the file, computed from the file when {@code null}
+ * @param idempotencyKey client supplied key of the submission, optional
+ */
+public record ImportSubmissionDto(
+        Path csvFile,
+        String contentSha256,
+        String idempotencyKey,
+        ImportMode mode
+) {
+
+    public static ImportSubmissionDto of(Path csvFile, ImportMode mode) {
+        return new ImportSubmissionDto(csvFile, null, null, mode);
+    }
+}
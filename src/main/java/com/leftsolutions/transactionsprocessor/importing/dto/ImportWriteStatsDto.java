@@ -0,0 +1,9 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+public record ImportWriteStatsDto(
+        long rowsWritten,
+        int batches,
+        long writeMillis,
+        double rowsPerSecond
+) {
+}
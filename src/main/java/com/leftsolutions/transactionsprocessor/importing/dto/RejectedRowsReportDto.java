@@ -0,0 +1,15 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+import java.io.InputStream;
+
+/**
+ * Gzip-compressed CSV of all rows rejected by the month's last completed import.
+ *
+ * @param content opened for the caller, which has to close it
+ */
+public record RejectedRowsReportDto(
+        String filename,
+        long length,
+        InputStream content
+) {
+}
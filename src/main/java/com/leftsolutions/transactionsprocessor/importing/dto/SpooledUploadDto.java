@@ -0,0 +1,10 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+import java.nio.file.Path;
+
+public record SpooledUploadDto(
+        Path file,
+        long sizeBytes,
+        String sha256
+) {
+}
@@ -0,0 +1,13 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+import java.time.YearMonth;
+
+/**
+ * Transactions of a month written under a generation that is no longer (or never became) active.
+ */
+public record StaleGenerationDto(
+        String workspaceId,
+        YearMonth month,
+        long generation
+) {
+}
@@ -0,0 +1,17 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+public record UploadSessionDto(
+        UUID uploadId,
+        YearMonth yearMonth,
+        UploadSessionState state,
+        Long totalSize,
+        long receivedBytes,
+        List<ByteRangeDto> receivedRanges,
+        Instant expiresAt
+) {
+}
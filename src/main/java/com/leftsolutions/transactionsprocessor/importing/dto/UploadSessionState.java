@@ -0,0 +1,7 @@
+package com.leftsolutions.transactionsprocessor.importing.dto;
+
+public enum UploadSessionState {
+    OPEN,
+    COMPLETING,
+    COMPLETED
+}
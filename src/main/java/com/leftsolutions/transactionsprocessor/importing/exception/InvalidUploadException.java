@@ -0,0 +1,47 @@
+package com.leftsolutions.transactionsprocessor.importing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class InvalidUploadException extends ResponseStatusException {
+
+    private static final String MSG_INVALID_CHUNK = "Invalid chunk %d at offset %d";
+    private static final String MSG_CHUNK_TOO_LARGE = "Chunk exceeds the limit of %d bytes";
+    private static final String MSG_NOT_OPEN = "Upload session is %s and does not accept changes";
+    private static final String MSG_INCOMPLETE = "Upload is incomplete, missing bytes from offset %d";
+    private static final String MSG_OVERLAPPING = "Chunk %d overlaps previously received data at offset %d";
+    private static final String MSG_SIZE_MISMATCH = "Upload has %d bytes, expected %d";
+    private static final String MSG_DIGEST_MISMATCH = "Upload SHA-256 %s does not match expected %s";
+
+    private InvalidUploadException(HttpStatus status, String message) {
+        super(status, message);
+    }
+
+    public static InvalidUploadException invalidChunk(int chunkNumber, long offset) {
+        return new InvalidUploadException(HttpStatus.BAD_REQUEST, MSG_INVALID_CHUNK.formatted(chunkNumber, offset));
+    }
+
+    public static InvalidUploadException chunkTooLarge(long limit) {
+        return new InvalidUploadException(HttpStatus.CONTENT_TOO_LARGE, MSG_CHUNK_TOO_LARGE.formatted(limit));
+    }
+
+    public static InvalidUploadException notOpen(Object state) {
+        return new InvalidUploadException(HttpStatus.CONFLICT, MSG_NOT_OPEN.formatted(state));
+    }
+
+    public static InvalidUploadException incomplete(long missingFrom) {
+        return new InvalidUploadException(HttpStatus.CONFLICT, MSG_INCOMPLETE.formatted(missingFrom));
+    }
+
+    public static InvalidUploadException overlapping(int chunkNumber, long offset) {
+        return new InvalidUploadException(HttpStatus.CONFLICT, MSG_OVERLAPPING.formatted(chunkNumber, offset));
+    }
+
+    public static InvalidUploadException sizeMismatch(long actual, long expected) {
+        return new InvalidUploadException(HttpStatus.CONFLICT, MSG_SIZE_MISMATCH.formatted(actual, expected));
+    }
+
+    public static InvalidUploadException digestMismatch(String actual, String expected) {
+        return new InvalidUploadException(HttpStatus.UNPROCESSABLE_CONTENT, MSG_DIGEST_MISMATCH.formatted(actual, expected));
+    }
+}
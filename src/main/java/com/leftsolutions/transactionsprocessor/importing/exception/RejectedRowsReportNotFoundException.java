@@ -0,0 +1,15 @@
+package com.leftsolutions.transactionsprocessor.importing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.YearMonth;
+
+public class RejectedRowsReportNotFoundException extends ResponseStatusException {
+
+    private static final String MSG_NOT_FOUND = "No rejected rows report for workspaceId=%s and month=%s";
+
+    public RejectedRowsReportNotFoundException(String workspaceId, YearMonth month) {
+        super(HttpStatus.NOT_FOUND, MSG_NOT_FOUND.formatted(workspaceId, month));
+    }
+}
@@ -0,0 +1,13 @@
+package com.leftsolutions.transactionsprocessor.importing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class UnsupportedContentEncodingException extends ResponseStatusException {
+
+    private static final String MSG_UNSUPPORTED_ENCODING = "Unsupported Content-Encoding: %s (expected gzip or identity)";
+
+    public UnsupportedContentEncodingException(String contentEncoding) {
+        super(HttpStatus.UNSUPPORTED_MEDIA_TYPE, MSG_UNSUPPORTED_ENCODING.formatted(contentEncoding));
+    }
+}
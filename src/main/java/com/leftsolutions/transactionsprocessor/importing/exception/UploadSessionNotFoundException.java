@@ -0,0 +1,16 @@
+package com.leftsolutions.transactionsprocessor.importing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.YearMonth;
+import java.util.UUID;
+
+public class UploadSessionNotFoundException extends ResponseStatusException {
+
+    private static final String MSG_NOT_FOUND = "Upload session %s not found for workspaceId=%s and month=%s";
+
+    public UploadSessionNotFoundException(UUID uploadId, String workspaceId, YearMonth month) {
+        super(HttpStatus.NOT_FOUND, MSG_NOT_FOUND.formatted(uploadId, workspaceId, month));
+    }
+}
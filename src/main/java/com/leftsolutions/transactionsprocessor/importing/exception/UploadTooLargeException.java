@@ -0,0 +1,14 @@
+package com.leftsolutions.transactionsprocessor.importing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+public class UploadTooLargeException extends ResponseStatusException {
+
+    private static final String MSG_UPLOAD_TOO_LARGE = "Upload exceeds the limit of %s bytes";
+
+    public UploadTooLargeException(DataSize limit) {
+        super(HttpStatus.CONTENT_TOO_LARGE, MSG_UPLOAD_TOO_LARGE.formatted(limit.toBytes()));
+    }
+}
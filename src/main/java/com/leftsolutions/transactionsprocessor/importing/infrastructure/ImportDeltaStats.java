@@ -0,0 +1,8 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+record ImportDeltaStats(
+        int addedRows,
+        int removedRows,
+        int unchangedRows
+) {
+}
@@ -1,6 +1,7 @@
 package com.leftsolutions.transactionsprocessor.importing.infrastructure;
 
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportLeaseDto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -8,10 +9,13 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.Instant;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Getter
@@ -26,6 +30,28 @@ import java.util.UUID;
 )
 class ImportJobDocument {
 
+    static final String FIELD_ID = "_id";
+    static final String FIELD_WORKSPACE_ID = "workspaceId";
+    static final String FIELD_YEAR = "year";
+    static final String FIELD_MONTH = "month";
+    static final String FIELD_STATE = "state";
+    static final String FIELD_IMPORTED_ROWS = "importedRows";
+    static final String FIELD_REJECTED_ROWS = "rejectedRows";
+    static final String FIELD_ERRORS = "errors";
+    static final String FIELD_REJECTION_COUNTS = "rejectionCounts";
+    static final String FIELD_UPDATED_AT = "updatedAt";
+    static final String FIELD_WRITE_STATS = "writeStats";
+    static final String FIELD_DELTA_STATS = "deltaStats";
+    static final String FIELD_CONTENT_SHA256 = "contentSha256";
+    static final String FIELD_IDEMPOTENCY_KEY = "idempotencyKey";
+    static final String FIELD_ACTIVE_GENERATION = "activeGeneration";
+    static final String FIELD_LATEST_GENERATION = "latestGeneration";
+    static final String FIELD_STALE_GENERATIONS = "staleGenerations";
+    static final String FIELD_REVISION = "revision";
+    static final String FIELD_LEASE_OWNER = "leaseOwner";
+    static final String FIELD_LEASE_ATTEMPT = "leaseAttempt";
+    static final String FIELD_REJECTED_ROWS_REPORT_ID = "rejectedRowsReportId";
+
     @Id
     private UUID id;
 
@@ -40,8 +66,64 @@ class ImportJobDocument {
     private int rejectedRows;
 
     private List<String> errors; // <--- change
+
+    /**
+     * Rejected rows of the last completed import per rejection reason
+     */
+    private Map<String, Long> rejectionCounts;
+
     private Instant updatedAt;
 
+    private ImportWriteStats writeStats;
+
+    private ImportDeltaStats deltaStats;
+
+    /**
+     * Hex SHA-256 of the last submitted file
+     */
+    private String contentSha256;
+
+    /**
+     * Idempotency-Key header of the last submission, if the client sent one
+     */
+    private String idempotencyKey;
+
+    /**
+     * Generation of the transactions readers see. 0 until the first staged import, which also covers
+     * transactions stored without a generation
+     */
+    private long activeGeneration;
+
+    /**
+     * Highest generation handed out to a staged import
+     */
+    private long latestGeneration;
+
+    /**
+     * Superseded or abandoned generations whose transactions are still waiting for the reaper
+     */
+    private List<Long> staleGenerations;
+
+    /**
+     * Increased by every state change, so clients can tell whether the status changed since they last saw it
+     */
+    private long revision;
+
+    /**
+     * Node running the current import, from the queue lease it holds
+     */
+    private String leaseOwner;
+
+    /**
+     * Queue attempt running the current import; writes made under an earlier attempt are ignored
+     */
+    private int leaseAttempt;
+
+    /**
+     * GridFS file of the last completed import's rejected rows report, absent when it rejected no row
+     */
+    private String rejectedRowsReportId;
+
     static ImportJobDocument newProcessing(String workspaceId, YearMonth month) {
         return ImportJobDocument.builder()
                 .id(UUID.randomUUID())
@@ -56,34 +138,137 @@ class ImportJobDocument {
                 .build();
     }
 
-    ImportJobDocument markProcessing() {
-        return this.toBuilder()
-                .state(ImportJobState.PROCESSING)
-                .errors(List.of())
-                .updatedAt(Instant.now())
-                .build();
+    /**
+     * Update moving the job to {@code PROCESSING} for a new submission; counters of the previous import are kept
+     * until the new one finishes. Also creates the job when upserting.
+     */
+    static Update processing(String contentSha256, String idempotencyKey) {
+        return new Update()
+                .set(FIELD_STATE, ImportJobState.PROCESSING)
+                .set(FIELD_CONTENT_SHA256, contentSha256)
+                .set(FIELD_IDEMPOTENCY_KEY, idempotencyKey)
+                .set(FIELD_ERRORS, List.of())
+                .set(FIELD_UPDATED_AT, Instant.now())
+                .unset(FIELD_WRITE_STATS)
+                .unset(FIELD_DELTA_STATS)
+                .unset(FIELD_LEASE_OWNER)
+                .unset(FIELD_LEASE_ATTEMPT)
+                .setOnInsert(FIELD_ID, UUID.randomUUID())
+                .setOnInsert(FIELD_IMPORTED_ROWS, 0)
+                .setOnInsert(FIELD_REJECTED_ROWS, 0)
+                .inc(FIELD_REVISION, 1);
     }
 
-    ImportJobDocument markCompleted(int importedRows, int rejectedRows, List<String> errors) {
+    static Update completed(int importedRows,
+                            int rejectedRows,
+                            List<String> errors,
+                            Map<String, Long> rejectionCounts,
+                            ImportWriteStats writeStats,
+                            ImportDeltaStats deltaStats,
+                            String rejectedRowsReportId) {
         var finalState = rejectedRows > 0 ? ImportJobState.WITH_WARNING : ImportJobState.COMPLETED;
 
+        var update = new Update();
+        if (rejectedRowsReportId != null) {
+            update.set(FIELD_REJECTED_ROWS_REPORT_ID, rejectedRowsReportId);
+        } else {
+            update.unset(FIELD_REJECTED_ROWS_REPORT_ID);
+        }
+        return update
+                .set(FIELD_STATE, finalState)
+                .set(FIELD_IMPORTED_ROWS, importedRows)
+                .set(FIELD_REJECTED_ROWS, rejectedRows)
+                .set(FIELD_ERRORS, errors == null ? List.of() : errors)
+                .set(FIELD_REJECTION_COUNTS, rejectionCounts == null ? Map.of() : rejectionCounts)
+                .set(FIELD_WRITE_STATS, writeStats)
+                .set(FIELD_DELTA_STATS, deltaStats)
+                .set(FIELD_UPDATED_AT, Instant.now())
+                .inc(FIELD_REVISION, 1);
+    }
+
+    static Update failed(String error) {
+        return new Update()
+                .set(FIELD_STATE, ImportJobState.FAILED)
+                .set(FIELD_ERRORS, error == null ? List.of() : List.of(error))
+                .set(FIELD_UPDATED_AT, Instant.now())
+                .inc(FIELD_REVISION, 1);
+    }
+
+    /**
+     * A submission repeats this job when it carries the same content, or the same idempotency key without a
+     * different content, and the job did not fail.
+     */
+    boolean isSameSubmission(String contentSha256, String idempotencyKey) {
+        if (this.state == ImportJobState.FAILED) {
+            return false;
+        }
+
+        return (idempotencyKey != null && idempotencyKey.equals(this.idempotencyKey) && !isKeyReused(contentSha256, idempotencyKey))
+                || (contentSha256 != null && contentSha256.equals(this.contentSha256));
+    }
+
+    /**
+     * A submission carries the idempotency key of this job but a different content, i.e. the client reused the key
+     * for another file; a failed job's key may be reused.
+     */
+    boolean isKeyReused(String contentSha256, String idempotencyKey) {
+        return this.state != ImportJobState.FAILED
+                && idempotencyKey != null && idempotencyKey.equals(this.idempotencyKey)
+                && contentSha256 != null && this.contentSha256 != null && !contentSha256.equals(this.contentSha256);
+    }
+
+    /**
+     * Whether the current import runs under the lease; without a lease the caller is not fenced.
+     */
+    boolean isLeasedTo(ImportLeaseDto lease) {
+        return lease == null || (lease.owner().equals(leaseOwner) && lease.attempt() == leaseAttempt);
+    }
+
+    /**
+     * Hands out a new generation. A previously handed out generation that was never activated belongs to an
+     * import whose node died, so it is marked for removal as well.
+     */
+    ImportJobDocument nextGeneration() {
+        var builder = this.toBuilder()
+                .latestGeneration(Math.max(latestGeneration, activeGeneration) + 1);
+        if (latestGeneration > activeGeneration) {
+            builder.staleGenerations(withStaleGeneration(latestGeneration));
+        }
+        return builder.build();
+    }
+
+    ImportJobDocument activateGeneration(long generation) {
+        if (generation == activeGeneration) {
+            return this;
+        }
+
         return this.toBuilder()
-                .state(finalState)
-                .importedRows(importedRows)
-                .rejectedRows(rejectedRows)
-                .errors(errors == null ? List.of() : errors)
-                .updatedAt(Instant.now())
+                .activeGeneration(generation)
+                .staleGenerations(withStaleGeneration(activeGeneration))
                 .build();
     }
 
-    ImportJobDocument markFailed(String error) {
+    /**
+     * Marks the rows of an abandoned staged import for removal; the active generation is never discarded.
+     */
+    ImportJobDocument discardGeneration(long generation) {
+        if (generation == activeGeneration) {
+            return this;
+        }
+
         return this.toBuilder()
-                .state(ImportJobState.FAILED)
-                .errors(error == null ? List.of() : List.of(error))
-                .updatedAt(Instant.now())
+                .staleGenerations(withStaleGeneration(generation))
                 .build();
     }
 
+    private List<Long> withStaleGeneration(long generation) {
+        var generations = staleGenerations == null ? new ArrayList<Long>() : new ArrayList<>(staleGenerations);
+        if (!generations.contains(generation)) {
+            generations.add(generation);
+        }
+        return generations;
+    }
+
     boolean isCompleted() {
         return this.state == ImportJobState.COMPLETED || this.state == ImportJobState.WITH_WARNING;
     }
@@ -1,6 +1,9 @@
 package com.leftsolutions.transactionsprocessor.importing.infrastructure;
 
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportDeltaStatsDto;
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportProgressDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportWriteStatsDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -10,8 +13,33 @@ import java.time.YearMonth;
 interface ImportJobMapper {
 
     @Mapping(target = "month", expression = "java(toYearMonth(document.getYear(), document.getMonth()))")
+    @Mapping(target = "progress", ignore = true)
     ImportJobStatusDto toDto(ImportJobDocument document);
 
+    ImportProgressDto toDto(ImportProgressDocument document);
+
+    default ImportJobStatusDto toDto(ImportJobDocument document, ImportProgressDocument progress) {
+        var status = toDto(document);
+        return new ImportJobStatusDto(
+                status.workspaceId(),
+                status.month(),
+                status.state(),
+                status.importedRows(),
+                status.rejectedRows(),
+                status.errors(),
+                status.rejectionCounts(),
+                status.updatedAt(),
+                status.writeStats(),
+                status.deltaStats(),
+                status.revision(),
+                toDto(progress)
+        );
+    }
+
+    ImportWriteStats toDocument(ImportWriteStatsDto writeStats);
+
+    ImportDeltaStats toDocument(ImportDeltaStatsDto deltaStats);
+
     default YearMonth toYearMonth(int year, int month) {
         return YearMonth.of(year, month);
     }
@@ -0,0 +1,308 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportJobCacheProperties;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobKeyDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Node-local copy of the state, revision and active generation of the import jobs this node read, kept current by a
+ * change stream on {@code import_jobs}, so a readiness check is a map lookup on every node.
+ * <p>
+ * A job is copied when it is first read and replaced by every change the stream delivers for it; changes of jobs
+ * the node never read are skipped, and the least recently read jobs are evicted beyond {@code maxEntries}. A read is
+ * not copied when any change arrived while it ran, so it cannot roll back a change it did not see. Jobs are read from Mongo instead while the stream is
+ * closed or has been silent for longer than {@code maxLag}, and for {@code maxLag} after this node wrote them, until
+ * the stream caught up with its own write. After a failure the stream resumes from the last resume token; when
+ * that is no longer possible the copy is dropped and rebuilt from reads.
+ */
+@Component
+@Slf4j
+class ImportJobStateCache implements SmartLifecycle {
+
+    private static final String COLLECTION = "import_jobs";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final ImportJobCacheProperties properties;
+    private final MongoTemplate mongoTemplate;
+    private final LongSupplier nanoTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<ImportJobKeyDto, Cached> jobs = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<ImportJobKeyDto, Long> writtenAt = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    private volatile boolean open;
+    private volatile long heardAt;
+    private volatile boolean running;
+    private BsonDocument resumeToken;
+    private Thread watcher;
+
+    @Autowired
+    ImportJobStateCache(ImportJobCacheProperties properties, MongoTemplate mongoTemplate) {
+        this(properties, mongoTemplate, System::nanoTime);
+    }
+
+    ImportJobStateCache(ImportJobCacheProperties properties, MongoTemplate mongoTemplate, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.mongoTemplate = mongoTemplate;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @param read reads the job from Mongo; used when the copy is missing or cannot be trusted
+     */
+    Optional<CachedJob> find(String workspaceId, YearMonth month, Supplier<Optional<ImportJobDocument>> read) {
+        var key = new ImportJobKeyDto(workspaceId, month);
+        if (!isLive() || isRecentlyWritten(key)) {
+            return read.get().map(CachedJob::of);
+        }
+
+        var cached = locked(() -> jobs.get(key));
+        if (cached != null) {
+            return Optional.ofNullable(cached.job());
+        }
+
+        var readEpoch = epoch.get();
+        var job = read.get().map(CachedJob::of);
+        locked(() -> {
+            if (epoch.get() == readEpoch) {
+                jobs.putIfAbsent(key, new Cached(job.orElse(null)));
+                evict();
+            }
+            return null;
+        });
+        return job;
+    }
+
+    /**
+     * Called before this node writes the job. Marks of jobs written longer than {@code maxLag} ago are dropped once
+     * there are more than {@code maxEntries}.
+     */
+    void written(String workspaceId, YearMonth month) {
+        var now = nanoTime.getAsLong();
+        writtenAt.put(new ImportJobKeyDto(workspaceId, month), now);
+        if (writtenAt.size() > properties.getMaxEntries()) {
+            writtenAt.values().removeIf(written -> now - written >= properties.getMaxLag().toNanos());
+        }
+    }
+
+    boolean isLive() {
+        return open && nanoTime.getAsLong() - heardAt < properties.getMaxLag().toNanos();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        watcher = Thread.ofPlatform().daemon().name("import-job-stream").start(this::watch);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closed();
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void opened(boolean resumed) {
+        if (!resumed) {
+            clear();
+        }
+        heard();
+        open = true;
+    }
+
+    void closed() {
+        open = false;
+    }
+
+    void heard() {
+        heardAt = nanoTime.getAsLong();
+    }
+
+    /**
+     * Updates the copy of a job this node read; a read running meanwhile is not copied.
+     */
+    void changed(ImportJobDocument job) {
+        var key = new ImportJobKeyDto(job.getWorkspaceId(), YearMonth.of(job.getYear(), job.getMonth()));
+        var state = CachedJob.of(job);
+        locked(() -> {
+            epoch.incrementAndGet();
+            return jobs.computeIfPresent(key, (ignored, cached) -> new Cached(state));
+        });
+    }
+
+    /**
+     * A delete event carries the job's id only, so the whole copy goes; deleting jobs is not part of normal
+     * operation.
+     */
+    void clear() {
+        locked(() -> {
+            epoch.incrementAndGet();
+            jobs.clear();
+            return null;
+        });
+    }
+
+    int size() {
+        return locked(jobs::size);
+    }
+
+    private void watch() {
+        while (running) {
+            try (var cursor = openStream()) {
+                log.info("Import job change stream opened, resumed={}", resumeToken != null);
+                opened(resumeToken != null);
+                while (running) {
+                    var change = cursor.tryNext();
+                    heard();
+                    if (change != null) {
+                        apply(change);
+                    }
+                    resumeToken = cursor.getResumeToken();
+                }
+            } catch (MongoException e) {
+                closed();
+                if (isHistoryLost(e)) {
+                    resumeToken = null;
+                }
+                if (running) {
+                    log.warn("Import job change stream failed, jobs are read from Mongo until it is reopened: {}", e.getMessage());
+                    pause();
+                }
+            } catch (RuntimeException e) {
+                closed();
+                resumeToken = null;
+                if (running) {
+                    log.warn("Import job change stream failed, jobs are read from Mongo until it is reopened", e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openStream() {
+        var stream = mongoTemplate.getCollection(COLLECTION)
+                .watch(List.of(Aggregates.match(Filters.in("operationType",
+                        List.of("insert", "update", "replace", "delete", "drop", "invalidate")))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(properties.getMaxAwaitTime().toMillis(), TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    private void apply(ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                if (change.getFullDocument() != null) {
+                    changed(mongoTemplate.getConverter().read(ImportJobDocument.class, change.getFullDocument()));
+                }
+            }
+            case DELETE -> clear();
+            default -> {
+                clear();
+                resumeToken = null;
+                throw new IllegalStateException("Import job change stream invalidated by " + change.getOperationType());
+            }
+        }
+    }
+
+    private void evict() {
+        var eldest = jobs.entrySet().iterator();
+        while (jobs.size() > properties.getMaxEntries() && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private <T> T locked(Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isRecentlyWritten(ImportJobKeyDto key) {
+        var written = writtenAt.get(key);
+        if (written == null) {
+            return false;
+        }
+        if (nanoTime.getAsLong() - written < properties.getMaxLag().toNanos()) {
+            return true;
+        }
+        writtenAt.remove(key, written);
+        return false;
+    }
+
+    private static boolean isHistoryLost(MongoException e) {
+        return e instanceof MongoCommandException command && command.getErrorCode() == CHANGE_STREAM_HISTORY_LOST;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getRetryInterval());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * The fields of a job that reads of other modules depend on.
+     */
+    record CachedJob(ImportJobState state, long revision, long activeGeneration) {
+
+        static CachedJob of(ImportJobDocument job) {
+            return new CachedJob(job.getState(), job.getRevision(), job.getActiveGeneration());
+        }
+
+        boolean isCompleted() {
+            return state == ImportJobState.COMPLETED || state == ImportJobState.WITH_WARNING;
+        }
+    }
+
+    /**
+     * @param job {@code null} when the month has no job
+     */
+    private record Cached(CachedJob job) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+/**
+ * Progress of the month's running import. Kept apart from the job, so the frequent progress writes never
+ * conflict with the Mongo transaction that completes the job. The document is overwritten by the next
+ * import of the month and expires once no import has published progress for a day.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document("import_progress")
+@CompoundIndex(
+        name = "import_progress_workspace_year_month_uq",
+        def = "{'workspaceId': 1, 'year': 1, 'month': 1}",
+        unique = true
+)
+class ImportProgressDocument {
+
+    static final String FIELD_WORKSPACE_ID = "workspaceId";
+    static final String FIELD_YEAR = "year";
+    static final String FIELD_MONTH = "month";
+    static final String FIELD_REVISION = "revision";
+    static final String FIELD_UPDATED_AT = "updatedAt";
+
+    @Id
+    private String id;
+
+    private String workspaceId;
+
+    private int year;
+    private int month;
+
+    private long revision;
+
+    private long bytesRead;
+    private long totalBytes;
+    private long rowsParsed;
+    private long rowsWritten;
+    private double rowsPerSecond;
+    private Long etaSeconds;
+
+    @Indexed(name = "import_progress_updated_at_ttl", expireAfter = "1d")
+    private Instant updatedAt;
+
+    static Update published(long bytesRead,
+                            long totalBytes,
+                            long rowsParsed,
+                            long rowsWritten,
+                            double rowsPerSecond,
+                            Long etaSeconds) {
+        return new Update()
+                .set("bytesRead", bytesRead)
+                .set("totalBytes", totalBytes)
+                .set("rowsParsed", rowsParsed)
+                .set("rowsWritten", rowsWritten)
+                .set("rowsPerSecond", rowsPerSecond)
+                .set("etaSeconds", etaSeconds)
+                .set(FIELD_UPDATED_AT, Instant.now())
+                .inc(FIELD_REVISION, 1);
+    }
+}
@@ -0,0 +1,149 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportUploadProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportUploadFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.SpooledUploadDto;
+import com.leftsolutions.transactionsprocessor.importing.exception.UnsupportedContentEncodingException;
+import com.leftsolutions.transactionsprocessor.importing.exception.UploadTooLargeException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Writes upload bodies straight into the spool directory with channel transfers, so an upload hits
+ * the disk exactly once. The size limit and the SHA-256 of the (decoded) content are enforced and
+ * computed while the data streams through.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+class ImportSpoolService implements ImportUploadFacade {
+
+    private static final String ENCODING_GZIP = "gzip";
+    private static final String ENCODING_X_GZIP = "x-gzip";
+    private static final String ENCODING_IDENTITY = "identity";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ImportUploadProperties properties;
+
+    @Override
+    public SpooledUploadDto spool(String workspaceId,
+                                  YearMonth month,
+                                  InputStream body,
+                                  String contentEncoding) throws IOException {
+        var input = decode(body, contentEncoding);
+
+        var directory = properties.getSpoolDirectory();
+        Files.createDirectories(directory);
+        var file = Files.createTempFile(directory, "transactions-" + workspaceId + "-" + month + "-", ".csv");
+
+        try (var source = new DigestingChannel(Channels.newChannel(input), properties.getMaxUploadSize().toBytes());
+             var target = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            var chunkSize = properties.getTransferChunkSize().toBytes();
+            var position = 0L;
+            while (!source.isFinished()) {
+                position += target.transferFrom(source, position, chunkSize);
+            }
+
+            var upload = new SpooledUploadDto(file, position, source.hexDigest());
+            log.info("Spooled upload workspaceId={}, month={}, bytes={}, sha256={}",
+                    workspaceId, month, upload.sizeBytes(), upload.sha256());
+            return upload;
+        } catch (SizeLimitExceeded e) {
+            Files.deleteIfExists(file);
+            throw new UploadTooLargeException(properties.getMaxUploadSize());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding == null || contentEncoding.isBlank() || ENCODING_IDENTITY.equalsIgnoreCase(contentEncoding.trim())) {
+            return body;
+        }
+        if (ENCODING_GZIP.equalsIgnoreCase(contentEncoding.trim()) || ENCODING_X_GZIP.equalsIgnoreCase(contentEncoding.trim())) {
+            return new GZIPInputStream(body, GZIP_BUFFER_SIZE);
+        }
+        throw new UnsupportedContentEncodingException(contentEncoding);
+    }
+
+    /**
+     * Counts and digests every byte read through it and fails once the size limit is crossed.
+     */
+    private static final class DigestingChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel delegate;
+        private final long maxBytes;
+        private final MessageDigest digest;
+
+        private long bytesRead;
+        private boolean finished;
+
+        private DigestingChannel(ReadableByteChannel delegate, long maxBytes) {
+            this.delegate = delegate;
+            this.maxBytes = maxBytes;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        @Override
+        public int read(ByteBuffer target) throws IOException {
+            var start = target.position();
+            var read = delegate.read(target);
+            if (read < 0) {
+                finished = true;
+                return read;
+            }
+
+            bytesRead += read;
+            if (bytesRead > maxBytes) {
+                throw new SizeLimitExceeded();
+            }
+            digest.update(target.duplicate().position(start).limit(start + read));
+            return read;
+        }
+
+        boolean isFinished() {
+            return finished;
+        }
+
+        String hexDigest() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static final class SizeLimitExceeded extends IOException {
+        private SizeLimitExceeded() {
+            super("Upload size limit exceeded");
+        }
+    }
+}
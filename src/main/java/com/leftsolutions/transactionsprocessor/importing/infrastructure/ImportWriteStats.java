@@ -0,0 +1,9 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+record ImportWriteStats(
+        long rowsWritten,
+        int batches,
+        long writeMillis,
+        double rowsPerSecond
+) {
+}
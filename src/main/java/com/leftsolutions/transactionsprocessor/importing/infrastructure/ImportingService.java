@@ -1,63 +1,514 @@
 package com.leftsolutions.transactionsprocessor.importing.infrastructure;
 
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
 import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportCompletedEvent;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportDeltaStatsDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobKeyDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportLeaseDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportProgressDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportStartDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportWriteStatsDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.StaleGenerationDto;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_ACTIVE_GENERATION;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_CONTENT_SHA256;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_ID;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_IDEMPOTENCY_KEY;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_LATEST_GENERATION;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_LEASE_ATTEMPT;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_LEASE_OWNER;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_MONTH;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_REVISION;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_STALE_GENERATIONS;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_STATE;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_UPDATED_AT;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_WORKSPACE_ID;
+import static com.leftsolutions.transactionsprocessor.importing.infrastructure.ImportJobDocument.FIELD_YEAR;
+
+/**
+ * Every state transition is a single conditional update: the precondition on the current state is part of the
+ * query, so concurrent callers cannot both win and only the changed fields are written.
+ */
 @Service
+@Slf4j
 @RequiredArgsConstructor
 class ImportingService implements ImportingFacade {
 
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+
     private final ImportJobRepository importJobRepository;
     private final ImportJobMapper importJobMapper;
+    private final MongoTemplate mongoTemplate;
+    private final MongoOperationLimiter mongoOperationLimiter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImportJobStateCache importJobStateCache;
 
+    /**
+     * Upserts the job to {@code PROCESSING} when it is neither processing nor a repeat of this submission. When
+     * the precondition fails the upsert runs into the unique month index, and only then is the job read to
+     * tell the two cases apart.
+     */
     @Override
-    public void markProcessing(String workspaceId, YearMonth month) {
-        var job = importJobRepository
-                .findByWorkspaceIdAndYearAndMonth(workspaceId, month.getYear(), month.getMonthValue())
-                .map(ImportJobDocument::markProcessing)
-                .orElseGet(() -> ImportJobDocument.newProcessing(workspaceId, month));
+    public ImportStartDto startProcessing(String workspaceId, YearMonth month, String contentSha256, String idempotencyKey) {
+        importJobStateCache.written(workspaceId, month);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                var job = mongoTemplate.findAndModify(
+                        Query.query(startable(workspaceId, month, contentSha256, idempotencyKey)),
+                        ImportJobDocument.processing(contentSha256, idempotencyKey),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        ImportJobDocument.class
+                );
+                return new ImportStartDto(ImportStartDto.Outcome.STARTED, importJobMapper.toDto(job));
+            } catch (DuplicateKeyException e) {
+                var refused = findRefusedStart(workspaceId, month, contentSha256, idempotencyKey);
+                if (refused.isPresent()) {
+                    return refused.get();
+                }
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-        importJobRepository.save(job);
+    @Override
+    public Optional<ImportStartDto> findRefusedStart(String workspaceId,
+                                                     YearMonth month,
+                                                     String contentSha256,
+                                                     String idempotencyKey) {
+        var current = findJob(workspaceId, month).orElse(null);
+        if (current != null && current.isKeyReused(contentSha256, idempotencyKey)) {
+            return Optional.of(new ImportStartDto(ImportStartDto.Outcome.KEY_REUSED, importJobMapper.toDto(current)));
+        }
+        if (current != null && current.isSameSubmission(contentSha256, idempotencyKey)) {
+            return Optional.of(new ImportStartDto(ImportStartDto.Outcome.SAME_SUBMISSION, importJobMapper.toDto(current)));
+        }
+        if (current != null && current.getState() == ImportJobState.PROCESSING) {
+            return Optional.of(new ImportStartDto(ImportStartDto.Outcome.ALREADY_PROCESSING, importJobMapper.toDto(current)));
+        }
+        return Optional.empty();
     }
 
+    /**
+     * Only a later attempt takes the lease over, so a node that lost it cannot claim the job back.
+     */
     @Override
-    public void markCompleted(String workspaceId, YearMonth month, int importedRows, int rejectedRows, List<String> errors) {
-        var job = importJobRepository
-                .findByWorkspaceIdAndYearAndMonth(workspaceId, month.getYear(), month.getMonthValue())
-                .orElseGet(() -> ImportJobDocument.newProcessing(workspaceId, month))
-                .markCompleted(importedRows, rejectedRows, errors);
+    public boolean acquireLease(String workspaceId, YearMonth month, ImportLeaseDto lease) {
+        importJobStateCache.written(workspaceId, month);
+        return mongoTemplate.updateFirst(
+                Query.query(monthCriteria(workspaceId, month)
+                        .and(FIELD_STATE).is(ImportJobState.PROCESSING)
+                        .orOperator(
+                                Criteria.where(FIELD_LEASE_ATTEMPT).exists(false),
+                                Criteria.where(FIELD_LEASE_ATTEMPT).lt(lease.attempt())
+                        )),
+                new Update()
+                        .set(FIELD_LEASE_OWNER, lease.owner())
+                        .set(FIELD_LEASE_ATTEMPT, lease.attempt()),
+                ImportJobDocument.class
+        ).getMatchedCount() > 0;
+    }
 
-        importJobRepository.save(job);
+    @Override
+    public boolean markCompleted(String workspaceId,
+                                 YearMonth month,
+                                 int importedRows,
+                                 int rejectedRows,
+                                 List<String> errors,
+                                 Map<String, Long> rejectionCounts,
+                                 ImportWriteStatsDto writeStats,
+                                 ImportDeltaStatsDto deltaStats,
+                                 String rejectedRowsReportId,
+                                 Long generation,
+                                 ImportLeaseDto lease) {
+        Supplier<Update> update = () -> ImportJobDocument.completed(importedRows, rejectedRows, errors, rejectionCounts,
+                importJobMapper.toDocument(writeStats), importJobMapper.toDocument(deltaStats), rejectedRowsReportId);
+        var completed = generation == null
+                ? finishProcessing(workspaceId, month, update.get(), lease)
+                : completeInGeneration(workspaceId, month, generation, update, lease);
+        if (!completed) {
+            return false;
+        }
+        eventPublisher.publishEvent(new ImportCompletedEvent(workspaceId, month));
+        return true;
     }
 
     @Override
     public void markFailed(String workspaceId, YearMonth month, String error) {
-        var job = importJobRepository
-                .findByWorkspaceIdAndYearAndMonth(workspaceId, month.getYear(), month.getMonthValue())
-                .orElseGet(() -> ImportJobDocument.newProcessing(workspaceId, month))
-                .markFailed(error);
+        markFailed(workspaceId, month, error, null);
+    }
 
-        importJobRepository.save(job);
+    @Override
+    public void markFailed(String workspaceId, YearMonth month, String error, ImportLeaseDto lease) {
+        finishProcessing(workspaceId, month, ImportJobDocument.failed(error), lease);
     }
 
     @Override
-    public ImportJobStatusDto getStatus(String workspaceId, YearMonth month) {
-        return importJobRepository
-                .findByWorkspaceIdAndYearAndMonth(workspaceId, month.getYear(), month.getMonthValue())
+    public List<ImportJobStatusDto> findProcessingSince(Instant threshold) {
+        return mongoTemplate.find(
+                        Query.query(Criteria.where(FIELD_STATE).is(ImportJobState.PROCESSING)
+                                .and(FIELD_UPDATED_AT).lt(threshold)),
+                        ImportJobDocument.class
+                ).stream()
                 .map(importJobMapper::toDto)
-                .orElseGet(() -> ImportJobStatusDto.notFound(workspaceId, month));
+                .toList();
+    }
+
+    /**
+     * Only touches the progress of a job that is still processing, so a late snapshot of a finished import is
+     * never published.
+     */
+    @Override
+    public void publishProgress(String workspaceId, YearMonth month, ImportProgressDto progress) {
+        var processing = mongoTemplate.exists(
+                Query.query(monthCriteria(workspaceId, month).and(FIELD_STATE).is(ImportJobState.PROCESSING)),
+                ImportJobDocument.class
+        );
+        if (!processing) {
+            return;
+        }
+
+        mongoTemplate.upsert(
+                Query.query(monthCriteria(workspaceId, month)),
+                ImportProgressDocument.published(progress.bytesRead(), progress.totalBytes(), progress.rowsParsed(),
+                        progress.rowsWritten(), progress.rowsPerSecond(), progress.etaSeconds()),
+                ImportProgressDocument.class
+        );
+    }
+
+    /**
+     * The progress document is only read for a job that is processing.
+     */
+    @Override
+    public ImportJobStatusDto getStatus(String workspaceId, YearMonth month) {
+        return mongoOperationLimiter.call(() -> findJob(workspaceId, month)
+                .map(job -> withProgress(job, () -> mongoTemplate.findOne(
+                        Query.query(monthCriteria(workspaceId, month)), ImportProgressDocument.class)))
+                .orElseGet(() -> ImportJobStatusDto.notFound(workspaceId, month)));
+    }
+
+    @Override
+    public List<ImportJobStatusDto> getStatuses(Collection<ImportJobKeyDto> jobs) {
+        if (jobs.isEmpty()) {
+            return List.of();
+        }
+
+        var keys = jobs.stream()
+                .map(job -> monthCriteria(job.workspaceId(), job.month()))
+                .toList();
+
+        return mongoOperationLimiter.call(() -> {
+            var found = mongoTemplate.find(Query.query(new Criteria().orOperator(keys)), ImportJobDocument.class);
+            var processing = found.stream()
+                    .filter(job -> job.getState() == ImportJobState.PROCESSING)
+                    .map(job -> monthCriteria(job.getWorkspaceId(), YearMonth.of(job.getYear(), job.getMonth())))
+                    .toList();
+
+            Map<ImportJobKeyDto, ImportProgressDocument> progress = processing.isEmpty()
+                    ? Map.of()
+                    : mongoTemplate.find(Query.query(new Criteria().orOperator(processing)), ImportProgressDocument.class)
+                    .stream()
+                    .collect(Collectors.toMap(
+                            document -> new ImportJobKeyDto(document.getWorkspaceId(), YearMonth.of(document.getYear(), document.getMonth())),
+                            Function.identity()
+                    ));
+
+            return found.stream()
+                    .map(job -> withProgress(job, () -> progress.get(
+                            new ImportJobKeyDto(job.getWorkspaceId(), YearMonth.of(job.getYear(), job.getMonth())))))
+                    .toList();
+        });
     }
 
     @Override
     public boolean isCompleted(String workspaceId, YearMonth month) {
-        return importJobRepository
-                .findByWorkspaceIdAndYearAndMonth(workspaceId, month.getYear(), month.getMonthValue())
-                .map(ImportJobDocument::isCompleted)
+        return findCachedJob(workspaceId, month)
+                .map(ImportJobStateCache.CachedJob::isCompleted)
                 .orElse(false);
     }
+
+    @Override
+    public long revision(String workspaceId, YearMonth month) {
+        return findCachedJob(workspaceId, month)
+                .map(ImportJobStateCache.CachedJob::revision)
+                .orElse(0L);
+    }
+
+    @Override
+    public Optional<String> findRejectedRowsReportId(String workspaceId, YearMonth month) {
+        return mongoOperationLimiter.call(() -> findJob(workspaceId, month))
+                .map(ImportJobDocument::getRejectedRowsReportId);
+    }
+
+    @Override
+    public long activeGeneration(String workspaceId, YearMonth month) {
+        return findCachedJob(workspaceId, month)
+                .map(ImportJobStateCache.CachedJob::activeGeneration)
+                .orElse(0L);
+    }
+
+    @Override
+    public long readActiveGeneration(String workspaceId, YearMonth month) {
+        return mongoOperationLimiter.call(() -> findJob(workspaceId, month))
+                .map(ImportJobDocument::getActiveGeneration)
+                .orElse(0L);
+    }
+
+    @Override
+    public long allocateGeneration(String workspaceId, YearMonth month) {
+        return updateGenerations(workspaceId, month, ImportJobDocument::nextGeneration).getLatestGeneration();
+    }
+
+    @Override
+    public boolean activateGeneration(String workspaceId, YearMonth month, long generation, long revision) {
+        return updateGenerations(workspaceId, month, job -> job.activateGeneration(generation),
+                Precondition.atRevision(revision), null).isPresent();
+    }
+
+    @Override
+    public void discardGeneration(String workspaceId, YearMonth month, long generation) {
+        if (findJob(workspaceId, month).isPresent()) {
+            updateGenerations(workspaceId, month, job -> job.discardGeneration(generation));
+        }
+    }
+
+    @Override
+    public List<StaleGenerationDto> findStaleGenerations() {
+        var jobs = mongoTemplate.find(
+                Query.query(Criteria.where(FIELD_STALE_GENERATIONS + ".0").exists(true)),
+                ImportJobDocument.class
+        );
+
+        return jobs.stream()
+                .flatMap(job -> job.getStaleGenerations().stream()
+                        .map(generation -> new StaleGenerationDto(
+                                job.getWorkspaceId(),
+                                YearMonth.of(job.getYear(), job.getMonth()),
+                                generation
+                        )))
+                .toList();
+    }
+
+    /**
+     * Pulls the generation atomically, so a concurrent activation that adds another stale generation
+     * is not lost.
+     */
+    @Override
+    public void markGenerationReaped(String workspaceId, YearMonth month, long generation) {
+        importJobStateCache.written(workspaceId, month);
+        mongoTemplate.updateFirst(
+                Query.query(monthCriteria(workspaceId, month)),
+                new Update().pull(FIELD_STALE_GENERATIONS, generation),
+                ImportJobDocument.class
+        );
+    }
+
+    /**
+     * Applies a finishing transition only to a job that is still {@code PROCESSING} and, given a lease, still run
+     * under it; a job that was already finished (e.g. failed after its node stopped responding) keeps its state,
+     * and a node that lost the lease cannot finish the attempt that took over.
+     */
+    private boolean finishProcessing(String workspaceId, YearMonth month, Update update, ImportLeaseDto lease) {
+        importJobStateCache.written(workspaceId, month);
+        var criteria = monthCriteria(workspaceId, month).and(FIELD_STATE).is(ImportJobState.PROCESSING);
+        if (lease != null) {
+            criteria.and(FIELD_LEASE_OWNER).is(lease.owner()).and(FIELD_LEASE_ATTEMPT).is(lease.attempt());
+        }
+        var matched = mongoTemplate.updateFirst(Query.query(criteria), update, ImportJobDocument.class).getMatchedCount();
+
+        if (matched == 0) {
+            log.warn("Import job workspaceId={}, month={} is not processing under lease {} anymore, state change ignored",
+                    workspaceId, month, lease);
+        }
+        return matched > 0;
+    }
+
+    /**
+     * Computes the generation change from the current job and writes only the generation fields, on condition
+     * that no other caller moved the generations meanwhile. Stale generations are added with {@code $addToSet},
+     * so a concurrent reaper {@code $pull} is never undone.
+     */
+    private ImportJobDocument updateGenerations(String workspaceId, YearMonth month, UnaryOperator<ImportJobDocument> change) {
+        return updateGenerations(workspaceId, month, change, null, null).orElseThrow();
+    }
+
+    /**
+     * Switches readers to the generation in the same document update that completes the job, so a job is never
+     * completed without its generation or the other way round.
+     */
+    private boolean completeInGeneration(String workspaceId,
+                                         YearMonth month,
+                                         long generation,
+                                         Supplier<Update> completed,
+                                         ImportLeaseDto lease) {
+        var applied = updateGenerations(workspaceId, month, job -> job.activateGeneration(generation),
+                Precondition.processing(lease), completed).isPresent();
+        if (!applied) {
+            log.warn("Import job workspaceId={}, month={} is not processing under lease {} anymore, state change ignored",
+                    workspaceId, month, lease);
+        }
+        return applied;
+    }
+
+    /**
+     * With a precondition the change is applied only to a job that meets it; empty when it does not. Other fields
+     * to set along with the generations are given as an update, which is then written even when the generations
+     * stay as they are.
+     */
+    private Optional<ImportJobDocument> updateGenerations(String workspaceId,
+                                                          YearMonth month,
+                                                          UnaryOperator<ImportJobDocument> change,
+                                                          Precondition precondition,
+                                                          Supplier<Update> along) {
+        importJobStateCache.written(workspaceId, month);
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            var current = findJob(workspaceId, month).orElseGet(() -> insertProcessing(workspaceId, month));
+            if (precondition != null && !precondition.holds().test(current)) {
+                return Optional.empty();
+            }
+            var changed = change.apply(current);
+            if (changed == current && along == null) {
+                return Optional.of(current);
+            }
+
+            var added = new ArrayList<>(changed.getStaleGenerations() == null ? List.of() : changed.getStaleGenerations());
+            if (current.getStaleGenerations() != null) {
+                added.removeAll(current.getStaleGenerations());
+            }
+
+            var update = (along == null ? new Update() : along.get())
+                    .set(FIELD_ACTIVE_GENERATION, changed.getActiveGeneration())
+                    .set(FIELD_LATEST_GENERATION, changed.getLatestGeneration());
+            if (!added.isEmpty()) {
+                update.addToSet(FIELD_STALE_GENERATIONS).each(added.toArray());
+            }
+
+            var criteria = Criteria.where(FIELD_ID).is(current.getId())
+                    .and(FIELD_ACTIVE_GENERATION).is(current.getActiveGeneration())
+                    .and(FIELD_LATEST_GENERATION).is(current.getLatestGeneration());
+            if (precondition != null) {
+                criteria.andOperator(precondition.criteria());
+            }
+
+            var matched = mongoTemplate.updateFirst(Query.query(criteria), update, ImportJobDocument.class).getMatchedCount();
+            if (matched > 0) {
+                return Optional.of(changed);
+            }
+        }
+
+        throw new IllegalStateException("Generations of import job workspaceId=%s, month=%s keep changing concurrently"
+                .formatted(workspaceId, month));
+    }
+
+    private ImportJobDocument insertProcessing(String workspaceId, YearMonth month) {
+        try {
+            return importJobRepository.insert(ImportJobDocument.newProcessing(workspaceId, month));
+        } catch (DuplicateKeyException e) {
+            return findJob(workspaceId, month).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Adds the progress of a processing job, unless it was published by an earlier run of the month.
+     */
+    private ImportJobStatusDto withProgress(ImportJobDocument job, Supplier<ImportProgressDocument> progress) {
+        if (job.getState() != ImportJobState.PROCESSING) {
+            return importJobMapper.toDto(job);
+        }
+
+        var current = progress.get();
+        if (current == null || current.getUpdatedAt() == null || current.getUpdatedAt().isBefore(job.getUpdatedAt())) {
+            return importJobMapper.toDto(job);
+        }
+        return importJobMapper.toDto(job, current);
+    }
+
+    /**
+     * For reads only; a job about to be changed is read with {@link #findJob(String, YearMonth)}.
+     */
+    private Optional<ImportJobStateCache.CachedJob> findCachedJob(String workspaceId, YearMonth month) {
+        return importJobStateCache.find(workspaceId, month, () -> findJob(workspaceId, month));
+    }
+
+    private Optional<ImportJobDocument> findJob(String workspaceId, YearMonth month) {
+        return importJobRepository.findByWorkspaceIdAndYearAndMonth(workspaceId, month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * Matches the month's job when it may be started again: it is not processing, and unless it failed,
+     * carries neither the submission's idempotency key nor its content hash.
+     */
+    private static Criteria startable(String workspaceId, YearMonth month, String contentSha256, String idempotencyKey) {
+        var criteria = monthCriteria(workspaceId, month).and(FIELD_STATE).ne(ImportJobState.PROCESSING);
+
+        var sameSubmission = new ArrayList<Criteria>();
+        if (idempotencyKey != null) {
+            sameSubmission.add(Criteria.where(FIELD_IDEMPOTENCY_KEY).is(idempotencyKey));
+        }
+        if (contentSha256 != null) {
+            sameSubmission.add(Criteria.where(FIELD_CONTENT_SHA256).is(contentSha256));
+        }
+        if (sameSubmission.isEmpty()) {
+            return criteria;
+        }
+
+        return criteria.orOperator(
+                Criteria.where(FIELD_STATE).is(ImportJobState.FAILED),
+                new Criteria().norOperator(sameSubmission)
+        );
+    }
+
+    /**
+     * Condition a generation change depends on, checked on the job read and again by the update's query.
+     */
+    private record Precondition(Predicate<ImportJobDocument> holds, Criteria criteria) {
+
+        static Precondition atRevision(long revision) {
+            return new Precondition(job -> job.getRevision() == revision, Criteria.where(FIELD_REVISION).is(revision));
+        }
+
+        /**
+         * The job is still processing and, given a lease, still run under it.
+         */
+        static Precondition processing(ImportLeaseDto lease) {
+            var criteria = Criteria.where(FIELD_STATE).is(ImportJobState.PROCESSING);
+            if (lease != null) {
+                criteria.and(FIELD_LEASE_OWNER).is(lease.owner()).and(FIELD_LEASE_ATTEMPT).is(lease.attempt());
+            }
+            return new Precondition(job -> job.getState() == ImportJobState.PROCESSING && job.isLeasedTo(lease), criteria);
+        }
+    }
+
+    private static Criteria monthCriteria(String workspaceId, YearMonth month) {
+        return Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId)
+                .and(FIELD_YEAR).is(month.getYear())
+                .and(FIELD_MONTH).is(month.getMonthValue());
+    }
 }
@@ -0,0 +1,17 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import org.bson.types.ObjectId;
+
+/**
+ * One received chunk; its bytes live in GridFS under {@code fileId}.
+ */
+record UploadChunk(
+        int chunkNumber,
+        long offset,
+        long length,
+        ObjectId fileId
+) {
+    long end() {
+        return offset + length;
+    }
+}
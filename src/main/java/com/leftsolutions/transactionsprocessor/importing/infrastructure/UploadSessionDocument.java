@@ -0,0 +1,92 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.UploadSessionState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Document("upload_sessions")
+class UploadSessionDocument {
+
+    @Id
+    private UUID id;
+
+    private String workspaceId;
+
+    private int year;
+    private int month;
+
+    private UploadSessionState state;
+
+    private Long totalSize;
+
+    /**
+     * Received chunks keyed by chunk number, so every chunk is written with its own atomic {@code $set}
+     */
+    private Map<String, UploadChunk> chunks;
+
+    /**
+     * Sum of the lengths of the received chunks, changed only together with them, so a session never holds
+     * more than the upload size limit; absent on sessions opened before it was kept
+     */
+    private Long receivedBytes;
+
+    private Instant createdAt;
+
+    @Indexed(name = "upload_sessions_updated_at")
+    private Instant updatedAt;
+
+    static UploadSessionDocument newSession(String workspaceId, YearMonth month, Long totalSize) {
+        var now = Instant.now();
+        return UploadSessionDocument.builder()
+                .id(UUID.randomUUID())
+                .workspaceId(workspaceId)
+                .year(month.getYear())
+                .month(month.getMonthValue())
+                .state(UploadSessionState.OPEN)
+                .totalSize(totalSize)
+                .chunks(Map.of())
+                .receivedBytes(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    List<UploadChunk> chunksByOffset() {
+        if (chunks == null) {
+            return List.of();
+        }
+        return chunks.values().stream()
+                .sorted(Comparator.comparingLong(UploadChunk::offset))
+                .toList();
+    }
+
+    long receivedBytesOrSum() {
+        return receivedBytes != null
+                ? receivedBytes
+                : chunksByOffset().stream().mapToLong(UploadChunk::length).sum();
+    }
+
+    UploadChunk chunk(int chunkNumber) {
+        return chunks == null ? null : chunks.get(String.valueOf(chunkNumber));
+    }
+
+    YearMonth yearMonth() {
+        return YearMonth.of(year, month);
+    }
+}
@@ -0,0 +1,396 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportUploadProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportUploadFacade;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportUploadSessionFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ByteRangeDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.SpooledUploadDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.UploadSessionDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.UploadSessionState;
+import com.leftsolutions.transactionsprocessor.importing.exception.InvalidUploadException;
+import com.leftsolutions.transactionsprocessor.importing.exception.UploadSessionNotFoundException;
+import com.leftsolutions.transactionsprocessor.importing.exception.UploadTooLargeException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keeps upload sessions in Mongo and chunk bytes in GridFS, so any node can accept the next chunk
+ * or finalize the upload.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+class UploadSessionService implements ImportUploadSessionFacade {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_WORKSPACE_ID = "workspaceId";
+    private static final String FIELD_YEAR = "year";
+    private static final String FIELD_MONTH = "month";
+    private static final String FIELD_STATE = "state";
+    private static final String FIELD_CHUNKS = "chunks";
+    private static final String FIELD_RECEIVED_BYTES = "receivedBytes";
+    private static final String FIELD_CHUNK_FILE_ID = "fileId";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+    private static final String METADATA_UPLOAD_ID = "metadata.uploadId";
+
+    private final MongoTemplate mongoTemplate;
+    private final GridFsTemplate gridFsTemplate;
+    private final ImportUploadFacade importUploadFacade;
+    private final ImportUploadProperties properties;
+
+    @Override
+    public UploadSessionDto openSession(String workspaceId, YearMonth month, Long totalSize) {
+        if (totalSize != null && totalSize > properties.getMaxUploadSize().toBytes()) {
+            throw new UploadTooLargeException(properties.getMaxUploadSize());
+        }
+
+        var session = mongoTemplate.insert(UploadSessionDocument.newSession(workspaceId, month, totalSize));
+        return toDto(session);
+    }
+
+    @Override
+    public UploadSessionDto writeChunk(String workspaceId,
+                                       YearMonth month,
+                                       UUID uploadId,
+                                       int chunkNumber,
+                                       long offset,
+                                       InputStream body) throws IOException {
+        var session = findSession(workspaceId, month, uploadId);
+        if (session.getState() != UploadSessionState.OPEN) {
+            throw InvalidUploadException.notOpen(session.getState());
+        }
+        if (chunkNumber < 0 || offset < 0) {
+            throw InvalidUploadException.invalidChunk(chunkNumber, offset);
+        }
+        if (offset >= properties.getMaxUploadSize().toBytes()) {
+            throw new UploadTooLargeException(properties.getMaxUploadSize());
+        }
+
+        var chunk = storeChunk(uploadId, chunkNumber, offset, body);
+        try {
+            while (!recordChunk(session, chunk)) {
+                session = findSession(workspaceId, month, uploadId);
+                if (session.getState() != UploadSessionState.OPEN) {
+                    throw InvalidUploadException.notOpen(session.getState());
+                }
+            }
+        } catch (RuntimeException e) {
+            deleteFile(chunk.fileId());
+            throw e;
+        }
+
+        return getSession(workspaceId, month, uploadId);
+    }
+
+    @Override
+    public UploadSessionDto getSession(String workspaceId, YearMonth month, UUID uploadId) {
+        return toDto(findSession(workspaceId, month, uploadId));
+    }
+
+    @Override
+    public <T> T completeSession(String workspaceId,
+                                 YearMonth month,
+                                 UUID uploadId,
+                                 String sha256,
+                                 Function<SpooledUploadDto, T> importer) throws IOException {
+        var session = mongoTemplate.findAndModify(
+                sessionQuery(workspaceId, month, uploadId).addCriteria(Criteria.where(FIELD_STATE).is(UploadSessionState.OPEN)),
+                new Update().set(FIELD_STATE, UploadSessionState.COMPLETING).set(FIELD_UPDATED_AT, Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                UploadSessionDocument.class
+        );
+        if (session == null) {
+            throw InvalidUploadException.notOpen(findSession(workspaceId, month, uploadId).getState());
+        }
+
+        try {
+            var chunks = session.chunksByOffset();
+            verifyContiguous(chunks, session.getTotalSize());
+
+            var upload = importUploadFacade.spool(workspaceId, month, assemble(chunks), null);
+            if (!upload.sha256().equalsIgnoreCase(sha256)) {
+                Files.deleteIfExists(upload.file());
+                throw InvalidUploadException.digestMismatch(upload.sha256(), sha256);
+            }
+
+            T accepted;
+            try {
+                accepted = importer.apply(upload);
+            } catch (RuntimeException e) {
+                Files.deleteIfExists(upload.file());
+                throw e;
+            }
+
+            updateState(session, UploadSessionState.COMPLETED);
+            chunks.forEach(chunk -> deleteFile(chunk.fileId()));
+            return accepted;
+        } catch (IOException | RuntimeException e) {
+            updateState(session, UploadSessionState.OPEN);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes sessions (and their chunks) that have not been touched for the configured session TTL.
+     */
+    @Scheduled(fixedDelayString = "${import.upload.session-gc-interval:PT15M}", scheduler = "maintenanceScheduler")
+    void removeStaleSessions() {
+        var threshold = Instant.now().minus(properties.getSessionTtl());
+        var stale = mongoTemplate.find(
+                Query.query(Criteria.where(FIELD_UPDATED_AT).lt(threshold)),
+                UploadSessionDocument.class
+        );
+
+        for (var session : stale) {
+            gridFsTemplate.delete(Query.query(Criteria.where(METADATA_UPLOAD_ID).is(session.getId().toString())));
+            mongoTemplate.remove(Query.query(Criteria.where(FIELD_ID).is(session.getId())), UploadSessionDocument.class);
+        }
+
+        if (!stale.isEmpty()) {
+            log.info("Removed {} stale upload sessions", stale.size());
+        }
+    }
+
+    private UploadChunk storeChunk(UUID uploadId, int chunkNumber, long offset, InputStream body) {
+        var limit = properties.getMaxChunkSize().toBytes();
+        var input = new BoundedInputStream(body, limit);
+        var metadata = new Document("uploadId", uploadId.toString())
+                .append("chunkNumber", chunkNumber)
+                .append("offset", offset);
+
+        ObjectId fileId;
+        try {
+            fileId = gridFsTemplate.store(input, "upload-" + uploadId + "-" + chunkNumber, metadata);
+        } catch (ChunkTooLargeException e) {
+            throw InvalidUploadException.chunkTooLarge(limit);
+        }
+        return new UploadChunk(chunkNumber, offset, input.count(), fileId);
+    }
+
+    /**
+     * Records the chunk on condition that neither the received bytes nor the chunk's previous entry changed since
+     * the session was read, so the byte limit holds however many chunks arrive at once; the chunk it replaces is
+     * deleted.
+     *
+     * @return {@code false} when the session changed meanwhile and has to be read again
+     */
+    private boolean recordChunk(UploadSessionDocument session, UploadChunk chunk) {
+        validateChunk(session, chunk);
+
+        var replaced = session.chunk(chunk.chunkNumber());
+        var receivedBytes = session.receivedBytesOrSum() - (replaced == null ? 0 : replaced.length()) + chunk.length();
+        if (receivedBytes > properties.getMaxUploadSize().toBytes()) {
+            throw new UploadTooLargeException(properties.getMaxUploadSize());
+        }
+
+        var chunkField = FIELD_CHUNKS + "." + chunk.chunkNumber();
+        var unchanged = Criteria.where(FIELD_ID).is(session.getId())
+                .and(FIELD_STATE).is(UploadSessionState.OPEN)
+                .and(chunkField + "." + FIELD_CHUNK_FILE_ID).is(replaced == null ? null : replaced.fileId());
+        if (session.getReceivedBytes() != null) {
+            unchanged.and(FIELD_RECEIVED_BYTES).is(session.getReceivedBytes());
+        } else {
+            unchanged.and(FIELD_RECEIVED_BYTES).exists(false);
+        }
+        var update = new Update()
+                .set(chunkField, chunk)
+                .set(FIELD_RECEIVED_BYTES, receivedBytes)
+                .set(FIELD_UPDATED_AT, Instant.now());
+        if (mongoTemplate.updateFirst(Query.query(unchanged), update, UploadSessionDocument.class).getMatchedCount() == 0) {
+            return false;
+        }
+
+        if (replaced != null) {
+            deleteFile(replaced.fileId());
+        }
+        return true;
+    }
+
+    /**
+     * A session without a declared total size is still bounded by the upload size limit.
+     */
+    private void validateChunk(UploadSessionDocument session, UploadChunk chunk) {
+        var totalSize = session.getTotalSize();
+        if (chunk.length() == 0 || (totalSize != null && chunk.end() > totalSize)) {
+            throw InvalidUploadException.invalidChunk(chunk.chunkNumber(), chunk.offset());
+        }
+        if (chunk.end() > properties.getMaxUploadSize().toBytes()) {
+            throw new UploadTooLargeException(properties.getMaxUploadSize());
+        }
+
+        for (var other : session.chunksByOffset()) {
+            if (other.chunkNumber() != chunk.chunkNumber()
+                    && other.offset() < chunk.end()
+                    && chunk.offset() < other.end()) {
+                throw InvalidUploadException.overlapping(chunk.chunkNumber(), other.offset());
+            }
+        }
+    }
+
+    private static void verifyContiguous(List<UploadChunk> chunks, Long totalSize) {
+        var expectedOffset = 0L;
+        for (var chunk : chunks) {
+            if (chunk.offset() > expectedOffset) {
+                throw InvalidUploadException.incomplete(expectedOffset);
+            }
+            if (chunk.offset() < expectedOffset) {
+                throw InvalidUploadException.overlapping(chunk.chunkNumber(), chunk.offset());
+            }
+            expectedOffset = chunk.end();
+        }
+
+        if (totalSize != null && expectedOffset != totalSize) {
+            if (expectedOffset < totalSize) {
+                throw InvalidUploadException.incomplete(expectedOffset);
+            }
+            throw InvalidUploadException.sizeMismatch(expectedOffset, totalSize);
+        }
+    }
+
+    /**
+     * Concatenates the chunks, opening each GridFS file only when the previous one is fully read.
+     */
+    private InputStream assemble(List<UploadChunk> chunks) {
+        Iterator<UploadChunk> remaining = chunks.iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return remaining.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                var chunk = remaining.next();
+                var file = gridFsTemplate.findOne(Query.query(Criteria.where(FIELD_ID).is(chunk.fileId())));
+                try {
+                    return gridFsTemplate.getResource(file).getInputStream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    private void updateState(UploadSessionDocument session, UploadSessionState state) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where(FIELD_ID).is(session.getId())),
+                new Update().set(FIELD_STATE, state).set(FIELD_UPDATED_AT, Instant.now()),
+                UploadSessionDocument.class
+        );
+    }
+
+    private void deleteFile(ObjectId fileId) {
+        gridFsTemplate.delete(Query.query(Criteria.where(FIELD_ID).is(fileId)));
+    }
+
+    private UploadSessionDocument findSession(String workspaceId, YearMonth month, UUID uploadId) {
+        var session = mongoTemplate.findOne(sessionQuery(workspaceId, month, uploadId), UploadSessionDocument.class);
+        if (session == null) {
+            throw new UploadSessionNotFoundException(uploadId, workspaceId, month);
+        }
+        return session;
+    }
+
+    private static Query sessionQuery(String workspaceId, YearMonth month, UUID uploadId) {
+        return Query.query(Criteria.where(FIELD_ID).is(uploadId)
+                .and(FIELD_WORKSPACE_ID).is(workspaceId)
+                .and(FIELD_YEAR).is(month.getYear())
+                .and(FIELD_MONTH).is(month.getMonthValue()));
+    }
+
+    private UploadSessionDto toDto(UploadSessionDocument session) {
+        var ranges = new ArrayList<ByteRangeDto>();
+        var receivedBytes = 0L;
+        for (var chunk : session.chunksByOffset()) {
+            receivedBytes += chunk.length();
+            var last = ranges.isEmpty() ? null : ranges.getLast();
+            if (last != null && last.end() >= chunk.offset()) {
+                ranges.set(ranges.size() - 1, new ByteRangeDto(last.start(), Math.max(last.end(), chunk.end())));
+            } else {
+                ranges.add(new ByteRangeDto(chunk.offset(), chunk.end()));
+            }
+        }
+
+        return new UploadSessionDto(
+                session.getId(),
+                session.yearMonth(),
+                session.getState(),
+                session.getTotalSize(),
+                receivedBytes,
+                Collections.unmodifiableList(ranges),
+                session.getUpdatedAt().plus(properties.getSessionTtl())
+        );
+    }
+
+    /**
+     * Counts the bytes of a chunk body and stops reading once it crosses the chunk size limit.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        private BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = super.read();
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            var read = super.read(buffer, offset, length);
+            if (read > 0) {
+                advance(read);
+            }
+            return read;
+        }
+
+        long count() {
+            return count;
+        }
+
+        private void advance(int read) {
+            count += read;
+            if (count > limit) {
+                throw new ChunkTooLargeException();
+            }
+        }
+    }
+
+    private static final class ChunkTooLargeException extends RuntimeException {
+    }
+}
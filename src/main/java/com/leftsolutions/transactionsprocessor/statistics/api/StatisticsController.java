@@ -3,10 +3,20 @@ package com.leftsolutions.transactionsprocessor.statistics.api;
 import com.leftsolutions.transactionsprocessor.security.WorkspaceProvider;
 import com.leftsolutions.transactionsprocessor.statistics.domain.StatisticsFacade;
 import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCacheStatsDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDistributionResponseDto;
 import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRollupRebuildDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineResponseDto;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -23,4 +33,39 @@ class StatisticsController {
         var workspaceId = workspaceProvider.currentWorkspaceId();
         return statisticsFacade.getMonthlyStatistics(workspaceId, query);
     }
+
+    @GetMapping("/range")
+    StatisticsRangeResponseDto getRange(@Valid StatisticsRangeQuery query) {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return statisticsFacade.getRangeStatistics(workspaceId, query);
+    }
+
+    @GetMapping("/cube")
+    StatisticsCubeResponseDto getCube(@Valid StatisticsCubeQuery query) {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return statisticsFacade.getCubeStatistics(workspaceId, query);
+    }
+
+    @GetMapping("/timeline")
+    StatisticsTimelineResponseDto getTimeline(@Valid StatisticsTimelineQuery query) {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return statisticsFacade.getTimeline(workspaceId, query);
+    }
+
+    @GetMapping("/distribution")
+    StatisticsDistributionResponseDto getDistribution(@Valid StatisticsRangeQuery query) {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return statisticsFacade.getDistribution(workspaceId, query);
+    }
+
+    @GetMapping("/cache")
+    StatisticsCacheStatsDto cacheStats() {
+        return statisticsFacade.getCacheStats();
+    }
+
+    @PostMapping("/rollups/rebuild")
+    StatisticsRollupRebuildDto rebuildRollups() {
+        var workspaceId = workspaceProvider.currentWorkspaceId();
+        return new StatisticsRollupRebuildDto(workspaceId, statisticsFacade.rebuildRollups(workspaceId));
+    }
 }
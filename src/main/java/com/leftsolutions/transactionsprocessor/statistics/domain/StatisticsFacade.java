@@ -1,9 +1,77 @@
 package com.leftsolutions.transactionsprocessor.statistics.domain;
 
 import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRollupDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCacheStatsDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDistributionResponseDto;
 import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineResponseDto;
+
+import java.time.YearMonth;
+import java.util.List;
 
 public interface StatisticsFacade {
 
+    /**
+     * Served from the month's rollup when it describes the active import generation, otherwise aggregated from
+     * the transactions. Responses are cached in-process until the month's import job changes.
+     */
     MonthlyStatisticsResponseDto getMonthlyStatistics(String workspaceId, StatisticsQuery query);
+
+    /**
+     * Statistics of every month of the range plus their totals; months whose import did not complete are listed
+     * instead of failing the request.
+     */
+    StatisticsRangeResponseDto getRangeStatistics(String workspaceId, StatisticsRangeQuery query);
+
+    /**
+     * Totals per currency and per any combination of category and IBAN, rolled up in memory from the month's
+     * category, IBAN and currency cube. The cube is read from the rollup of the active import generation, or
+     * aggregated from the transactions in one pass when there is none.
+     */
+    StatisticsCubeResponseDto getCubeStatistics(String workspaceId, StatisticsCubeQuery query);
+
+    /**
+     * Daily or weekly buckets of the transactions dated within the range, which may cross month boundaries. Read
+     * from the per-day buckets stored with the rollups; months whose import did not complete are listed instead
+     * of failing the request.
+     */
+    StatisticsTimelineResponseDto getTimeline(String workspaceId, StatisticsTimelineQuery query);
+
+    /**
+     * Approximate median, p90 and p99 amounts and distinct IBAN counts over a range of months, merged from the
+     * sketches stored with the rollups; months whose import did not complete are listed instead of failing the
+     * request.
+     */
+    StatisticsDistributionResponseDto getDistribution(String workspaceId, StatisticsRangeQuery query);
+
+    /**
+     * Counters of this node's statistics cache.
+     */
+    StatisticsCacheStatsDto getCacheStats();
+
+    /**
+     * Replaces the month's rollup and daily buckets; called inside the Mongo transaction of an import, they become
+     * visible together with the imported transactions.
+     */
+    void storeRollup(MonthlyStatisticsRollupDto rollup);
+
+    /**
+     * Aggregates a rollup for the active generation of the month, unless it already has one.
+     *
+     * @return whether a rollup was stored
+     */
+    boolean rebuildRollup(String workspaceId, YearMonth month);
+
+    /**
+     * Backfills the rollups of the workspace's completed months that have none for their active generation.
+     *
+     * @return months whose rollup was stored
+     */
+    List<YearMonth> rebuildRollups(String workspaceId);
 }
@@ -0,0 +1,42 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.util.Arrays;
+
+/**
+ * Stored form of an {@code AmountSketch}: counts of the logarithmic bins of positive and of negative amounts, the
+ * first one at index {@code positiveOffset} and {@code negativeOffset}, plus the count of zeros.
+ */
+public record AmountSketchDto(
+        long zeroCount,
+        int positiveOffset,
+        long[] positiveCounts,
+        int negativeOffset,
+        long[] negativeCounts
+) {
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AmountSketchDto that
+                && zeroCount == that.zeroCount
+                && positiveOffset == that.positiveOffset
+                && negativeOffset == that.negativeOffset
+                && Arrays.equals(positiveCounts, that.positiveCounts)
+                && Arrays.equals(negativeCounts, that.negativeCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        var hash = Long.hashCode(zeroCount);
+        hash = 31 * hash + positiveOffset;
+        hash = 31 * hash + Arrays.hashCode(positiveCounts);
+        hash = 31 * hash + negativeOffset;
+        return 31 * hash + Arrays.hashCode(negativeCounts);
+    }
+
+    @Override
+    public String toString() {
+        return "AmountSketchDto[zeroCount=" + zeroCount
+                + ", positive=" + positiveOffset + Arrays.toString(positiveCounts)
+                + ", negative=" + negativeOffset + Arrays.toString(negativeCounts) + "]";
+    }
+}
@@ -0,0 +1,14 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Statistics of the transactions dated on one day; {@code summary} is {@code null} for a day without any.
+ */
+public record DailyStatisticsDto(
+        LocalDate date,
+        MonthlyStatisticsRowDto summary,
+        List<MonthlyStatisticsRowDto> categories
+) {
+}
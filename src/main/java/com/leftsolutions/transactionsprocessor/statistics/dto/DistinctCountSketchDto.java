@@ -0,0 +1,26 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.util.Arrays;
+
+/**
+ * Stored form of a {@code DistinctCountSketch}: its HyperLogLog registers.
+ */
+public record DistinctCountSketchDto(
+        byte[] registers
+) {
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof DistinctCountSketchDto that && Arrays.equals(registers, that.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+
+    @Override
+    public String toString() {
+        return "DistinctCountSketchDto[registers=" + registers.length + "]";
+    }
+}
@@ -0,0 +1,23 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Statistics of one import generation of a month, in all groupings. Grouped rows are ordered by total amount,
+ * descending; {@code summary} is {@code null} for a month without transactions. The {@code cube} holds a cell per
+ * category, IBAN and currency, the finest grouping every other one is rolled up from, {@code days} the
+ * statistics of every day with transactions, and {@code sketches} the mergeable amount and IBAN sketches.
+ */
+public record MonthlyStatisticsRollupDto(
+        String workspaceId,
+        YearMonth month,
+        long generation,
+        MonthlyStatisticsRowDto summary,
+        List<MonthlyStatisticsRowDto> categories,
+        List<MonthlyStatisticsRowDto> ibans,
+        List<StatisticsCubeCellDto> cube,
+        List<DailyStatisticsDto> days,
+        MonthlyStatisticsSketchesDto sketches
+) {
+}
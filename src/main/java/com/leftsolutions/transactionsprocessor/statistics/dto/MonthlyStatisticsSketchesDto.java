@@ -0,0 +1,13 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.util.List;
+
+/**
+ * @param summary    sketches of all transactions of the month
+ * @param categories sketches per category, ordered by category
+ */
+public record MonthlyStatisticsSketchesDto(
+        StatisticsSketchDto summary,
+        List<StatisticsSketchDto> categories
+) {
+}
@@ -0,0 +1,14 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @param start first day of the bucket; a week cut by the timeline's bounds holds only the days within them
+ * @param rows  ordered by total amount, descending; empty when no transaction is dated within the bucket
+ */
+public record StatisticsBucketDto(
+        LocalDate start,
+        List<MonthlyStatisticsRowDto> rows
+) {
+}
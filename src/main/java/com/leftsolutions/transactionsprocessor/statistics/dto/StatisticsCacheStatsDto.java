@@ -0,0 +1,19 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+/**
+ * Counters of a node's statistics cache since startup.
+ *
+ * @param hits      requests answered by a cached response that was fresh or whose import job had not changed
+ * @param staleHits requests answered by an outdated response because its revalidation was slow or Mongo was busy
+ * @param misses    requests that waited for an aggregation, shared by concurrent requests for the same statistics
+ * @param weight    rows of all cached responses together
+ */
+public record StatisticsCacheStatsDto(
+        long hits,
+        long staleHits,
+        long misses,
+        long evictions,
+        int entries,
+        long weight
+) {
+}
@@ -0,0 +1,15 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals of one currency within a group; {@code category} and {@code iban} are {@code null} unless grouped by.
+ */
+public record StatisticsCubeCellDto(
+        String category,
+        String iban,
+        String currency,
+        long transactionsCount,
+        BigDecimal totalAmount
+) {
+}
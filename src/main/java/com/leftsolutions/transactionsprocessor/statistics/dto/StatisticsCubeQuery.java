@@ -0,0 +1,15 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * @param dimensions grouped by besides currency; none groups by currency only
+ */
+public record StatisticsCubeQuery(
+        @NotNull YearMonth yearMonth,
+        Set<StatisticsDimension> dimensions
+) {
+}
@@ -0,0 +1,13 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+public record StatisticsCubeResponseDto(
+        String workspaceId,
+        YearMonth month,
+        Set<StatisticsDimension> groupedBy,
+        List<StatisticsCubeCellDto> cells
+) {
+}
@@ -0,0 +1,9 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+/**
+ * Dimensions a cube query can group by; cells are always grouped by currency as well.
+ */
+public enum StatisticsDimension {
+    CATEGORY,
+    IBAN
+}
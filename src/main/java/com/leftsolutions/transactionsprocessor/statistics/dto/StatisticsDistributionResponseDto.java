@@ -0,0 +1,18 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * @param rows           sketches of the ready months merged per key, ordered by transactions count, descending
+ * @param notReadyMonths months left out because their import did not complete
+ */
+public record StatisticsDistributionResponseDto(
+        String workspaceId,
+        YearMonth from,
+        YearMonth to,
+        StatisticsGroupBy groupedBy,
+        List<StatisticsDistributionRowDto> rows,
+        List<YearMonth> notReadyMonths
+) {
+}
@@ -0,0 +1,17 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Approximate distribution of one group: quantiles of its amounts are within 1% of the exact ones, the distinct
+ * IBAN count within a few percent.
+ */
+public record StatisticsDistributionRowDto(
+        String key,
+        long transactionsCount,
+        BigDecimal medianAmount,
+        BigDecimal p90Amount,
+        BigDecimal p99Amount,
+        long distinctIbans
+) {
+}
@@ -0,0 +1,9 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+public enum StatisticsGranularity {
+    DAY,
+    /**
+     * ISO weeks, starting on Monday
+     */
+    WEEK
+}
@@ -0,0 +1,19 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import jakarta.validation.constraints.Positive;
+
+import java.time.YearMonth;
+
+/**
+ * A range ending at {@code to} (the current month when missing) and starting at {@code from}, {@code trailingMonths}
+ * months back including {@code to}, or at January of {@code to}'s year with {@code yearToDate}; exactly one of the
+ * three is expected.
+ */
+public record StatisticsRangeQuery(
+        YearMonth from,
+        YearMonth to,
+        @Positive Integer trailingMonths,
+        boolean yearToDate,
+        StatisticsGroupBy groupBy
+) {
+}
@@ -0,0 +1,20 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * @param months         statistics of the range's months whose import completed, in month order
+ * @param totals         rows of {@code months} summed per key, ordered by total amount, descending
+ * @param notReadyMonths months left out because their import did not complete
+ */
+public record StatisticsRangeResponseDto(
+        String workspaceId,
+        YearMonth from,
+        YearMonth to,
+        StatisticsGroupBy groupedBy,
+        List<MonthlyStatisticsResponseDto> months,
+        List<MonthlyStatisticsRowDto> totals,
+        List<YearMonth> notReadyMonths
+) {
+}
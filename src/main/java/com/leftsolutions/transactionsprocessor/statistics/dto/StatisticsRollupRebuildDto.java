@@ -0,0 +1,10 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public record StatisticsRollupRebuildDto(
+        String workspaceId,
+        List<YearMonth> rebuiltMonths
+) {
+}
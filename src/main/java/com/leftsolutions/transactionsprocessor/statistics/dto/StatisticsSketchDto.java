@@ -0,0 +1,11 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+/**
+ * Sketches of the transactions of one group: their amounts and their distinct IBANs.
+ */
+public record StatisticsSketchDto(
+        String key,
+        AmountSketchDto amounts,
+        DistinctCountSketchDto ibans
+) {
+}
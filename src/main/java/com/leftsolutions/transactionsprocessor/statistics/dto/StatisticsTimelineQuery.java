@@ -0,0 +1,18 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Transactions dated from {@code from} to {@code to}, both included, bucketed by day unless {@code granularity}
+ * says otherwise. Grouped by {@code CATEGORY} or {@code SUMMARY}, the default.
+ */
+public record StatisticsTimelineQuery(
+        @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        StatisticsGranularity granularity,
+        StatisticsGroupBy groupBy
+) {
+}
@@ -0,0 +1,20 @@
+package com.leftsolutions.transactionsprocessor.statistics.dto;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * @param buckets        one per day or week of the timeline, in order, without the days of {@code notReadyMonths}
+ * @param notReadyMonths months left out because their import did not complete
+ */
+public record StatisticsTimelineResponseDto(
+        String workspaceId,
+        LocalDate from,
+        LocalDate to,
+        StatisticsGranularity granularity,
+        StatisticsGroupBy groupedBy,
+        List<StatisticsBucketDto> buckets,
+        List<YearMonth> notReadyMonths
+) {
+}
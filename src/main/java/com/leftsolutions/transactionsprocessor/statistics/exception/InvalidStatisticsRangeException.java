@@ -0,0 +1,45 @@
+package com.leftsolutions.transactionsprocessor.statistics.exception;
+
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+public class InvalidStatisticsRangeException extends ResponseStatusException {
+
+    private static final String MSG_AMBIGUOUS = "Expected exactly one of from, trailingMonths and yearToDate";
+    private static final String MSG_REVERSED = "Range start %s is after its end %s";
+    private static final String MSG_TOO_LONG = "Range spans %d months, at most %d are allowed";
+    private static final String MSG_NOT_BUCKETED = "Timelines are grouped by CATEGORY or SUMMARY, not %s";
+    private static final String MSG_NOT_SKETCHED = "Distributions are grouped by CATEGORY or SUMMARY, not %s";
+
+    private InvalidStatisticsRangeException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+
+    public static InvalidStatisticsRangeException ambiguous() {
+        return new InvalidStatisticsRangeException(MSG_AMBIGUOUS);
+    }
+
+    public static InvalidStatisticsRangeException reversed(YearMonth from, YearMonth to) {
+        return new InvalidStatisticsRangeException(MSG_REVERSED.formatted(from, to));
+    }
+
+    public static InvalidStatisticsRangeException reversed(LocalDate from, LocalDate to) {
+        return new InvalidStatisticsRangeException(MSG_REVERSED.formatted(from, to));
+    }
+
+    public static InvalidStatisticsRangeException tooLong(long months, int maxMonths) {
+        return new InvalidStatisticsRangeException(MSG_TOO_LONG.formatted(months, maxMonths));
+    }
+
+    public static InvalidStatisticsRangeException notBucketed(StatisticsGroupBy groupBy) {
+        return new InvalidStatisticsRangeException(MSG_NOT_BUCKETED.formatted(groupBy));
+    }
+
+    public static InvalidStatisticsRangeException notSketched(StatisticsGroupBy groupBy) {
+        return new InvalidStatisticsRangeException(MSG_NOT_SKETCHED.formatted(groupBy));
+    }
+}
@@ -0,0 +1,255 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
+import com.leftsolutions.transactionsprocessor.config.StatisticsRangeProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.statistics.dto.DailyStatisticsDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsBucketDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGranularity;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.exception.InvalidStatisticsRangeException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+
+/**
+ * Per-day statistics buckets, written with the monthly rollup and read to build timelines. A timeline reads the
+ * buckets of all its days with one range scan of {@code (workspaceId, date)}; a month whose buckets do not describe
+ * its active generation, for example one imported before buckets existed, is aggregated from its transactions.
+ */
+@Component
+@RequiredArgsConstructor
+class DailyStatisticsBuckets {
+
+    private static final String TRANSACTIONS_COLLECTION = "transactions";
+    private static final String FIELD_WORKSPACE_ID = "workspaceId";
+    private static final String FIELD_YEAR = "year";
+    private static final String FIELD_MONTH = "month";
+    private static final String FIELD_GENERATION = "generation";
+    private static final String FIELD_TRANSACTION_DATE = "transactionDate";
+    private static final String FIELD_CATEGORY = "category";
+
+    private static final String AGG_SUMMARY_KEY = "SUMMARY";
+    private static final String AGG_TRANSACTIONS_COUNT = "transactionsCount";
+    private static final String AGG_TOTAL_AMOUNT = "totalAmount";
+    private static final String AMOUNT = "amount";
+
+    private final ImportingFacade importingFacade;
+    private final MongoTemplate mongoTemplate;
+    private final StatisticsMapper mapper;
+    private final MongoOperationLimiter mongoOperationLimiter;
+    private final StatisticsRangeProperties rangeProperties;
+
+    StatisticsTimelineResponseDto timeline(String workspaceId, StatisticsTimelineQuery query) {
+        var groupBy = query.groupBy() == null ? StatisticsGroupBy.SUMMARY : query.groupBy();
+        var granularity = query.granularity() == null ? StatisticsGranularity.DAY : query.granularity();
+        var months = months(query.from(), query.to(), groupBy);
+
+        var generations = new LinkedHashMap<YearMonth, Long>();
+        var notReady = new ArrayList<YearMonth>();
+        for (var month : months) {
+            if (importingFacade.isCompleted(workspaceId, month)) {
+                generations.put(month, importingFacade.activeGeneration(workspaceId, month));
+            } else {
+                notReady.add(month);
+            }
+        }
+
+        var stored = find(workspaceId, query.from(), query.to(), groupBy).stream()
+                .collect(Collectors.groupingBy(bucket -> YearMonth.from(bucket.getDate())));
+
+        var days = new TreeMap<LocalDate, List<MonthlyStatisticsRowDto>>();
+        generations.forEach((month, generation) -> {
+            var first = max(query.from(), month.atDay(1));
+            var last = min(query.to(), month.atEndOfMonth());
+            var current = stored.getOrDefault(month, List.of()).stream()
+                    .filter(bucket -> bucket.getGeneration() == generation)
+                    .map(mapper::toDailyDto)
+                    .toList();
+            var monthDays = current.size() == ChronoUnit.DAYS.between(first, last) + 1
+                    ? current
+                    : aggregate(workspaceId, month, generation);
+
+            first.datesUntil(last.plusDays(1)).forEach(date -> days.put(date, List.of()));
+            monthDays.stream()
+                    .filter(day -> days.containsKey(day.date()))
+                    .forEach(day -> days.put(day.date(), rows(day, groupBy)));
+        });
+
+        return new StatisticsTimelineResponseDto(
+                workspaceId,
+                query.from(),
+                query.to(),
+                granularity,
+                groupBy,
+                granularity == StatisticsGranularity.WEEK ? weeks(days, query.from()) : days(days),
+                notReady
+        );
+    }
+
+    /**
+     * Replaces the month's buckets of the generation and of older ones with one per day of the month; buckets of
+     * a newer generation are kept.
+     *
+     * @param days days with transactions; the other days get an empty bucket
+     */
+    void store(String workspaceId, YearMonth month, long generation, List<DailyStatisticsDto> days) {
+        var byDate = new HashMap<LocalDate, DailyStatisticsDto>();
+        days.forEach(day -> byDate.put(day.date(), day));
+
+        var buckets = month.atDay(1).datesUntil(month.atEndOfMonth().plusDays(1))
+                .map(date -> bucket(workspaceId, date, generation, byDate.get(date)))
+                .toList();
+
+        var replaced = dateCriteria(workspaceId, month.atDay(1), month.atEndOfMonth())
+                .and(DailyStatisticsDocument.FIELD_GENERATION).lte(generation);
+        mongoOperationLimiter.run(() -> {
+            mongoTemplate.remove(Query.query(replaced), DailyStatisticsDocument.class);
+            mongoTemplate.insert(buckets, DailyStatisticsDocument.class);
+        });
+    }
+
+    /**
+     * Days of the month with transactions of the generation, in date order.
+     */
+    List<DailyStatisticsDto> aggregate(String workspaceId, YearMonth month, long generation) {
+        var aggregation = newAggregation(
+                match(Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId)
+                        .and(FIELD_YEAR).is(month.getYear())
+                        .and(FIELD_MONTH).is(month.getMonthValue())
+                        .and(FIELD_GENERATION).is(generation)),
+                group(FIELD_TRANSACTION_DATE, FIELD_CATEGORY)
+                        .count().as(AGG_TRANSACTIONS_COUNT)
+                        .sum(AMOUNT).as(AGG_TOTAL_AMOUNT),
+                project(FIELD_TRANSACTION_DATE, FIELD_CATEGORY, AGG_TRANSACTIONS_COUNT, AGG_TOTAL_AMOUNT)
+                        .andExclude("_id")
+        ).withOptions(StatisticsService.MONTH_SCAN);
+
+        var rows = mongoOperationLimiter.call(() -> mongoTemplate
+                .aggregate(aggregation, TRANSACTIONS_COLLECTION, DailyStatsAggregationRow.class)
+                .getMappedResults());
+
+        return rows.stream()
+                .collect(Collectors.groupingBy(DailyStatsAggregationRow::getTransactionDate, TreeMap::new, Collectors.toList()))
+                .entrySet().stream()
+                .map(day -> {
+                    var categories = StatisticsRangeAggregator.sum(day.getValue().stream()
+                            .map(row -> new MonthlyStatisticsRowDto(row.getCategory(), row.getTransactionsCount(), row.getTotalAmount())));
+                    return new DailyStatisticsDto(day.getKey(), summary(categories), categories);
+                })
+                .toList();
+    }
+
+    private List<YearMonth> months(LocalDate from, LocalDate to, StatisticsGroupBy groupBy) {
+        if (groupBy == StatisticsGroupBy.IBAN) {
+            throw InvalidStatisticsRangeException.notBucketed(groupBy);
+        }
+        if (from.isAfter(to)) {
+            throw InvalidStatisticsRangeException.reversed(from, to);
+        }
+        var first = YearMonth.from(from);
+        var last = YearMonth.from(to);
+        var length = ChronoUnit.MONTHS.between(first, last) + 1;
+        if (length > rangeProperties.getMaxMonths()) {
+            throw InvalidStatisticsRangeException.tooLong(length, rangeProperties.getMaxMonths());
+        }
+        return Stream.iterate(first, month -> !month.isAfter(last), month -> month.plusMonths(1)).toList();
+    }
+
+    /**
+     * Reads only the grouping asked for.
+     */
+    private List<DailyStatisticsDocument> find(String workspaceId, LocalDate from, LocalDate to, StatisticsGroupBy groupBy) {
+        var query = Query.query(dateCriteria(workspaceId, from, to))
+                .with(Sort.by(DailyStatisticsDocument.FIELD_DATE));
+        query.fields()
+                .include(DailyStatisticsDocument.FIELD_DATE)
+                .include(DailyStatisticsDocument.FIELD_GENERATION)
+                .include(groupBy == StatisticsGroupBy.CATEGORY
+                        ? DailyStatisticsDocument.FIELD_CATEGORIES
+                        : DailyStatisticsDocument.FIELD_SUMMARY);
+
+        return mongoOperationLimiter.call(() -> mongoTemplate.find(query, DailyStatisticsDocument.class));
+    }
+
+    private DailyStatisticsDocument bucket(String workspaceId, LocalDate date, long generation, DailyStatisticsDto day) {
+        return DailyStatisticsDocument.builder()
+                .workspaceId(workspaceId)
+                .date(date)
+                .generation(generation)
+                .summary(day == null || day.summary() == null ? null : mapper.toRow(day.summary()))
+                .categories(day == null ? List.of() : mapper.toRows(day.categories()))
+                .build();
+    }
+
+    private static List<MonthlyStatisticsRowDto> rows(DailyStatisticsDto day, StatisticsGroupBy groupBy) {
+        if (groupBy == StatisticsGroupBy.CATEGORY) {
+            return day.categories() == null ? List.of() : day.categories();
+        }
+        return day.summary() == null ? List.of() : List.of(day.summary());
+    }
+
+    private static List<StatisticsBucketDto> days(Map<LocalDate, List<MonthlyStatisticsRowDto>> days) {
+        return days.entrySet().stream()
+                .map(day -> new StatisticsBucketDto(day.getKey(), day.getValue()))
+                .toList();
+    }
+
+    private static List<StatisticsBucketDto> weeks(Map<LocalDate, List<MonthlyStatisticsRowDto>> days, LocalDate from) {
+        var weeks = new TreeMap<LocalDate, List<MonthlyStatisticsRowDto>>();
+        days.forEach((date, rows) -> weeks
+                .computeIfAbsent(max(from, date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))), start -> new ArrayList<>())
+                .addAll(rows));
+
+        return weeks.entrySet().stream()
+                .map(week -> new StatisticsBucketDto(week.getKey(), StatisticsRangeAggregator.sum(week.getValue().stream())))
+                .toList();
+    }
+
+    private static MonthlyStatisticsRowDto summary(List<MonthlyStatisticsRowDto> categories) {
+        return new MonthlyStatisticsRowDto(
+                AGG_SUMMARY_KEY,
+                categories.stream().mapToLong(MonthlyStatisticsRowDto::transactionsCount).sum(),
+                categories.stream().map(MonthlyStatisticsRowDto::totalAmount).reduce(BigDecimal.ZERO, BigDecimal::add)
+        );
+    }
+
+    private static Criteria dateCriteria(String workspaceId, LocalDate from, LocalDate to) {
+        return Criteria.where(DailyStatisticsDocument.FIELD_WORKSPACE_ID).is(workspaceId)
+                .and(DailyStatisticsDocument.FIELD_DATE).gte(from).lte(to);
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
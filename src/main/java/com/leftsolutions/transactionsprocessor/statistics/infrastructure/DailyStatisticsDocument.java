@@ -0,0 +1,51 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Statistics bucket of one day, computed while its month was imported. Every day of an imported month has one,
+ * days without transactions included, so a timeline is read with one range scan of the index. Like the monthly
+ * rollup, a bucket describes a single import generation and is only served while that generation is the active one.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document("daily_statistics")
+@CompoundIndex(
+        name = "daily_statistics_workspace_date_generation_uq",
+        def = "{'workspaceId': 1, 'date': 1, 'generation': 1}",
+        unique = true
+)
+class DailyStatisticsDocument {
+
+    static final String FIELD_WORKSPACE_ID = "workspaceId";
+    static final String FIELD_DATE = "date";
+    static final String FIELD_GENERATION = "generation";
+    static final String FIELD_SUMMARY = "summary";
+    static final String FIELD_CATEGORIES = "categories";
+
+    @Id
+    private String id;
+
+    private String workspaceId;
+
+    private LocalDate date;
+
+    private long generation;
+
+    /**
+     * {@code null} for a day without transactions
+     */
+    private MonthlyStatsAggregationRow summary;
+    private List<MonthlyStatsAggregationRow> categories;
+}
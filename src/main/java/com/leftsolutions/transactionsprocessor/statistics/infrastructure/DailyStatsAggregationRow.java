@@ -0,0 +1,18 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+class DailyStatsAggregationRow {
+    private LocalDate transactionDate;
+    private String category;
+    private long transactionsCount;
+    private BigDecimal totalAmount;
+}
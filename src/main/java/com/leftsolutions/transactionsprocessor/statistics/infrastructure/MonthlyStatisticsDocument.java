@@ -0,0 +1,96 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsSketchDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Statistics rollup of a month, computed while the month was imported. It describes a single import
+ * generation and is only served while that generation is the active one. It holds only the parts of a bounded
+ * size; the IBAN rows, the cube and the category sketches are stored as {@link MonthlyStatisticsPageDocument}s.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document("monthly_statistics")
+@CompoundIndex(
+        name = "monthly_statistics_workspace_year_month_uq",
+        def = "{'workspaceId': 1, 'year': 1, 'month': 1}",
+        unique = true
+)
+class MonthlyStatisticsDocument {
+
+    static final String FIELD_WORKSPACE_ID = "workspaceId";
+    static final String FIELD_YEAR = "year";
+    static final String FIELD_MONTH = "month";
+    static final String FIELD_GENERATION = "generation";
+    static final String FIELD_SUMMARY = "summary";
+    static final String FIELD_CATEGORIES = "categories";
+    static final String FIELD_ACTIVE_DAYS = "activeDays";
+    static final String FIELD_SUMMARY_SKETCH = "summarySketch";
+    static final String FIELD_PAGED = "paged";
+
+    /**
+     * Parts rollups kept inline before they were moved to pages
+     */
+    private static final List<String> INLINE_FIELDS = List.of("ibans", "cube", "sketches");
+
+    @Id
+    private String id;
+
+    private String workspaceId;
+
+    private int year;
+    private int month;
+
+    private long generation;
+
+    private MonthlyStatsAggregationRow summary;
+    private List<MonthlyStatsAggregationRow> categories;
+
+    /**
+     * Days with transactions, each also stored as a {@link DailyStatisticsDocument}; missing in rollups stored
+     * before daily buckets existed
+     */
+    private Integer activeDays;
+
+    /**
+     * Sketches of all transactions of the month
+     */
+    private StatisticsSketchDto summarySketch;
+
+    /**
+     * Whether the IBAN rows, the cube and the category sketches are stored in pages; missing in rollups stored
+     * before, which are rebuilt
+     */
+    private Boolean paged;
+
+    private Instant computedAt;
+
+    static Update stored(long generation,
+                         MonthlyStatsAggregationRow summary,
+                         List<MonthlyStatsAggregationRow> categories,
+                         int activeDays,
+                         StatisticsSketchDto summarySketch) {
+        var update = new Update()
+                .set(FIELD_GENERATION, generation)
+                .set(FIELD_SUMMARY, summary)
+                .set(FIELD_CATEGORIES, categories)
+                .set(FIELD_ACTIVE_DAYS, activeDays)
+                .set(FIELD_SUMMARY_SKETCH, summarySketch)
+                .set(FIELD_PAGED, true)
+                .set("computedAt", Instant.now());
+        INLINE_FIELDS.forEach(update::unset);
+        return update;
+    }
+}
@@ -0,0 +1,70 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsSketchDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * One page of a part of a monthly rollup that grows with the data: the IBAN rows, the cube cells or the
+ * category sketches. Like the rollup, a page describes a single import generation and is only served while that
+ * generation is the active one.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document("monthly_statistics_pages")
+@CompoundIndex(
+        name = "monthly_statistics_pages_workspace_year_month_generation_part_page_uq",
+        def = "{'workspaceId': 1, 'year': 1, 'month': 1, 'generation': 1, 'part': 1, 'page': 1}",
+        unique = true
+)
+class MonthlyStatisticsPageDocument {
+
+    static final String FIELD_WORKSPACE_ID = "workspaceId";
+    static final String FIELD_YEAR = "year";
+    static final String FIELD_MONTH = "month";
+    static final String FIELD_GENERATION = "generation";
+    static final String FIELD_PART = "part";
+    static final String FIELD_PAGE = "page";
+    static final String FIELD_PAGES = "pages";
+    static final String FIELD_IBANS = "ibans";
+    static final String FIELD_CUBE = "cube";
+    static final String FIELD_SKETCHES = "sketches";
+
+    @Id
+    private String id;
+
+    private String workspaceId;
+
+    private int year;
+    private int month;
+
+    private long generation;
+
+    private Part part;
+
+    private int page;
+
+    /**
+     * Pages the part was stored in, the same on each of them, so a single read tells whether the part is complete
+     */
+    private int pages;
+
+    private List<MonthlyStatsAggregationRow> ibans;
+    private List<MonthlyStatsCubeCell> cube;
+    private List<StatisticsSketchDto> sketches;
+
+    enum Part {
+        IBANS,
+        CUBE,
+        SKETCHES
+    }
+}
@@ -0,0 +1,180 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsSketchDto;
+import com.leftsolutions.transactionsprocessor.statistics.infrastructure.MonthlyStatisticsPageDocument.Part;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the parts of a monthly rollup whose size depends on the data, the IBAN rows, the cube cells and the
+ * category sketches, as pages of a bounded number of entries, so the rollup stays far below Mongo's document size
+ * limit however many IBANs or categories a month has. Every part is stored in at least one page, an empty one
+ * included; a part whose pages of the generation are not all there is not served, and the caller aggregates it.
+ */
+@Component
+@RequiredArgsConstructor
+class MonthlyStatisticsPages {
+
+    /**
+     * A few hundred kilobytes per page of rows or cells
+     */
+    static final int ROWS_PER_PAGE = 2000;
+
+    /**
+     * An amount sketch keeps at most 2200 bins, about 30 KB as BSON, and an IBAN sketch 4 KB, so under 4 MB per page
+     */
+    static final int SKETCHES_PER_PAGE = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoOperationLimiter mongoOperationLimiter;
+
+    /**
+     * Replaces the month's pages of the generation and of older ones. Pages of a newer generation are kept, so a
+     * writer that lost the race against a later import never removes what the import stored.
+     */
+    void store(String workspaceId,
+               YearMonth month,
+               long generation,
+               List<MonthlyStatsAggregationRow> ibans,
+               List<MonthlyStatsCubeCell> cube,
+               List<StatisticsSketchDto> sketches) {
+        var pages = new ArrayList<MonthlyStatisticsPageDocument>();
+        pages.addAll(pages(workspaceId, month, generation, Part.IBANS, ibans, ROWS_PER_PAGE,
+                (page, entries) -> page.ibans(entries)));
+        pages.addAll(pages(workspaceId, month, generation, Part.CUBE, cube, ROWS_PER_PAGE,
+                (page, entries) -> page.cube(entries)));
+        pages.addAll(pages(workspaceId, month, generation, Part.SKETCHES, sketches, SKETCHES_PER_PAGE,
+                (page, entries) -> page.sketches(entries)));
+
+        var replaced = monthCriteria(workspaceId, month).and(MonthlyStatisticsPageDocument.FIELD_GENERATION).lte(generation);
+        mongoOperationLimiter.run(() -> {
+            mongoTemplate.remove(Query.query(replaced), MonthlyStatisticsPageDocument.class);
+            mongoTemplate.insert(pages, MonthlyStatisticsPageDocument.class);
+        });
+    }
+
+    Optional<List<MonthlyStatsAggregationRow>> findIbans(String workspaceId, YearMonth month, long generation) {
+        return find(workspaceId, month, generation, Part.IBANS, MonthlyStatisticsPageDocument::getIbans);
+    }
+
+    Optional<List<MonthlyStatsCubeCell>> findCube(String workspaceId, YearMonth month, long generation) {
+        return find(workspaceId, month, generation, Part.CUBE, MonthlyStatisticsPageDocument::getCube);
+    }
+
+    /**
+     * Reads the category sketches of several months with one query; months whose sketches are incomplete are
+     * left out.
+     */
+    Map<YearMonth, List<StatisticsSketchDto>> findSketches(String workspaceId, Map<YearMonth, Long> generations) {
+        if (generations.isEmpty()) {
+            return Map.of();
+        }
+        var query = Query.query(Criteria.where(MonthlyStatisticsPageDocument.FIELD_WORKSPACE_ID).is(workspaceId)
+                        .and(MonthlyStatisticsPageDocument.FIELD_PART).is(Part.SKETCHES)
+                        .orOperator(generations.entrySet().stream()
+                                .map(month -> Criteria.where(MonthlyStatisticsPageDocument.FIELD_YEAR).is(month.getKey().getYear())
+                                        .and(MonthlyStatisticsPageDocument.FIELD_MONTH).is(month.getKey().getMonthValue())
+                                        .and(MonthlyStatisticsPageDocument.FIELD_GENERATION).is(month.getValue()))
+                                .toList()))
+                .with(Sort.by(MonthlyStatisticsPageDocument.FIELD_PAGE));
+        include(query, MonthlyStatisticsPageDocument.FIELD_SKETCHES);
+        query.fields()
+                .include(MonthlyStatisticsPageDocument.FIELD_YEAR)
+                .include(MonthlyStatisticsPageDocument.FIELD_MONTH);
+
+        return mongoOperationLimiter.call(() -> mongoTemplate.find(query, MonthlyStatisticsPageDocument.class)).stream()
+                .collect(Collectors.groupingBy(page -> YearMonth.of(page.getYear(), page.getMonth())))
+                .entrySet().stream()
+                .filter(month -> isComplete(month.getValue()))
+                .collect(Collectors.toMap(Map.Entry::getKey, month -> entries(month.getValue(), MonthlyStatisticsPageDocument::getSketches)));
+    }
+
+    private <T> Optional<List<T>> find(String workspaceId,
+                                       YearMonth month,
+                                       long generation,
+                                       Part part,
+                                       Function<MonthlyStatisticsPageDocument, List<T>> entries) {
+        var query = Query.query(monthCriteria(workspaceId, month)
+                        .and(MonthlyStatisticsPageDocument.FIELD_PART).is(part)
+                        .and(MonthlyStatisticsPageDocument.FIELD_GENERATION).is(generation))
+                .with(Sort.by(MonthlyStatisticsPageDocument.FIELD_PAGE));
+        include(query, switch (part) {
+            case IBANS -> MonthlyStatisticsPageDocument.FIELD_IBANS;
+            case CUBE -> MonthlyStatisticsPageDocument.FIELD_CUBE;
+            case SKETCHES -> MonthlyStatisticsPageDocument.FIELD_SKETCHES;
+        });
+
+        var pages = mongoOperationLimiter.call(() -> mongoTemplate.find(query, MonthlyStatisticsPageDocument.class));
+        return isComplete(pages) ? Optional.of(entries(pages, entries)) : Optional.empty();
+    }
+
+    private static void include(Query query, String entriesField) {
+        query.fields()
+                .include(MonthlyStatisticsPageDocument.FIELD_PAGE)
+                .include(MonthlyStatisticsPageDocument.FIELD_PAGES)
+                .include(entriesField);
+    }
+
+    private static boolean isComplete(List<MonthlyStatisticsPageDocument> pages) {
+        return !pages.isEmpty() && pages.size() == pages.getFirst().getPages();
+    }
+
+    private static <T> List<T> entries(List<MonthlyStatisticsPageDocument> pages,
+                                       Function<MonthlyStatisticsPageDocument, List<T>> entries) {
+        return pages.stream()
+                .map(entries)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private static <T> List<MonthlyStatisticsPageDocument> pages(String workspaceId,
+                                                                 YearMonth month,
+                                                                 long generation,
+                                                                 Part part,
+                                                                 List<T> entries,
+                                                                 int pageSize,
+                                                                 PageFiller<T> filler) {
+        var all = entries == null ? List.<T>of() : entries;
+        var count = Math.max(1, (all.size() + pageSize - 1) / pageSize);
+        var pages = new ArrayList<MonthlyStatisticsPageDocument>(count);
+        for (int page = 0; page < count; page++) {
+            var builder = MonthlyStatisticsPageDocument.builder()
+                    .workspaceId(workspaceId)
+                    .year(month.getYear())
+                    .month(month.getMonthValue())
+                    .generation(generation)
+                    .part(part)
+                    .page(page)
+                    .pages(count);
+            filler.fill(builder, all.subList(page * pageSize, Math.min(all.size(), (page + 1) * pageSize)));
+            pages.add(builder.build());
+        }
+        return pages;
+    }
+
+    private static Criteria monthCriteria(String workspaceId, YearMonth month) {
+        return Criteria.where(MonthlyStatisticsPageDocument.FIELD_WORKSPACE_ID).is(workspaceId)
+                .and(MonthlyStatisticsPageDocument.FIELD_YEAR).is(month.getYear())
+                .and(MonthlyStatisticsPageDocument.FIELD_MONTH).is(month.getMonthValue());
+    }
+
+    @FunctionalInterface
+    private interface PageFiller<T> {
+        void fill(MonthlyStatisticsPageDocument.MonthlyStatisticsPageDocumentBuilder page, List<T> entries);
+    }
+}
@@ -0,0 +1,18 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+class MonthlyStatsCubeCell {
+    private String category;
+    private String iban;
+    private String currency;
+    private long transactionsCount;
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,292 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.MongoOperationsBusyException;
+import com.leftsolutions.transactionsprocessor.config.StatisticsCacheProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportCompletedEvent;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCacheStatsDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of statistics responses, least recently used first out.
+ * <p>
+ * An entry remembers the revision of the import job it was computed at and is served only while the job is still
+ * at that revision, checked on every hit against the node's copy of the job state; the response is aggregated again
+ * once the revision moved. A completed import on this node evicts the month's entries right away, after its
+ * transaction committed. Concurrent requests for the same key share one load, and while an outdated entry is being
+ * revalidated slower than {@code revalidateTimeout}, or Mongo is busy, requests get the outdated entry.
+ */
+@Component
+class StatisticsCache {
+
+    private final StatisticsCacheProperties properties;
+    private final ImportingFacade importingFacade;
+    private final TaskExecutor executor;
+    private final LongSupplier nanoTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, Load> loads = new HashMap<>();
+    private long weight;
+
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private long evictions;
+
+    @Autowired
+    StatisticsCache(StatisticsCacheProperties properties,
+                    ImportingFacade importingFacade,
+                    @Qualifier("statisticsExecutor") TaskExecutor executor) {
+        this(properties, importingFacade, executor, System::nanoTime);
+    }
+
+    StatisticsCache(StatisticsCacheProperties properties,
+                    ImportingFacade importingFacade,
+                    TaskExecutor executor,
+                    LongSupplier nanoTime) {
+        this.properties = properties;
+        this.importingFacade = importingFacade;
+        this.executor = executor;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @param loader computes the response; it is not cached when it throws
+     */
+    MonthlyStatisticsResponseDto get(String workspaceId,
+                                     YearMonth month,
+                                     StatisticsGroupBy groupBy,
+                                     Supplier<MonthlyStatisticsResponseDto> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+
+        var key = new Key(workspaceId, month, groupBy);
+        var cached = find(key);
+        if (cached != null && isCurrent(key, cached)) {
+            count(() -> hits++);
+            return cached.response();
+        }
+
+        Load load;
+        lock.lock();
+        try {
+            load = loads.get(key);
+            if (load == null) {
+                load = new Load();
+                loads.put(key, load);
+                start(key, load, cached, loader);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (cached == null) {
+            return await(load);
+        }
+        return awaitRevalidation(load, cached);
+    }
+
+    /**
+     * Runs after the import's transaction committed, so a load started afterwards sees the imported rows.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void onImportCompleted(ImportCompletedEvent event) {
+        lock.lock();
+        try {
+            for (var groupBy : groupings()) {
+                var key = new Key(event.workspaceId(), event.month(), groupBy);
+                remove(key);
+                var load = loads.remove(key);
+                if (load != null) {
+                    load.cacheable = false;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    StatisticsCacheStatsDto stats() {
+        lock.lock();
+        try {
+            return new StatisticsCacheStatsDto(hits, staleHits, misses, evictions, entries.size(), weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry find(Key key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * While Mongo is busy the entry is revalidated like an outdated one, which may serve it as stale.
+     */
+    private boolean isCurrent(Key key, Entry cached) {
+        try {
+            return importingFacade.revision(key.workspaceId(), key.month()) == cached.revision();
+        } catch (MongoOperationsBusyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the revision before loading, so a response is never stored with a revision newer than its data.
+     */
+    private void start(Key key, Load load, Entry cached, Supplier<MonthlyStatisticsResponseDto> loader) {
+        load.future = CompletableFuture
+                .supplyAsync(() -> {
+                    var revision = importingFacade.revision(key.workspaceId(), key.month());
+                    if (cached != null && cached.revision() == revision) {
+                        return new Load.Result(cached.response(), revision, false);
+                    }
+                    return new Load.Result(loader.get(), revision, true);
+                }, executor)
+                .whenComplete((result, error) -> finish(key, load, result));
+    }
+
+    private void finish(Key key, Load load, Load.Result result) {
+        lock.lock();
+        try {
+            loads.remove(key, load);
+            if (result != null && load.cacheable) {
+                put(key, new Entry(result.response(), result.revision(), nanoTime.getAsLong()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private MonthlyStatisticsResponseDto await(Load load) {
+        try {
+            return counted(load.future.join());
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private MonthlyStatisticsResponseDto awaitRevalidation(Load load, Entry cached) {
+        try {
+            return counted(load.future.get(properties.getRevalidateTimeout().toNanos(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            if (isServableWhenStale(cached)) {
+                return cached.response();
+            }
+            return await(load);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MongoOperationsBusyException && isServableWhenStale(cached)) {
+                return cached.response();
+            }
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for statistics", e);
+        }
+    }
+
+    private boolean isServableWhenStale(Entry cached) {
+        if (ageNanos(cached) >= properties.getMaxStale().toNanos()) {
+            return false;
+        }
+        count(() -> staleHits++);
+        return true;
+    }
+
+    private void put(Key key, Entry entry) {
+        remove(key);
+        entries.put(key, entry);
+        weight += entry.weight();
+
+        var eldest = entries.entrySet().iterator();
+        while ((entries.size() > properties.getMaxEntries() || weight > properties.getMaxWeight()) && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(Key key) {
+        var removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+
+    private MonthlyStatisticsResponseDto counted(Load.Result result) {
+        count(result.loaded() ? () -> misses++ : () -> hits++);
+        return result.response();
+    }
+
+    private void count(Runnable counter) {
+        lock.lock();
+        try {
+            counter.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long ageNanos(Entry entry) {
+        return nanoTime.getAsLong() - entry.storedAt();
+    }
+
+    /**
+     * Every grouping plus {@code null}, the grouping of a query that names none.
+     */
+    private static StatisticsGroupBy[] groupings() {
+        return Arrays.copyOf(StatisticsGroupBy.values(), StatisticsGroupBy.values().length + 1);
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        if (error instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException(error);
+    }
+
+    private record Key(String workspaceId, YearMonth month, StatisticsGroupBy groupBy) {
+    }
+
+    private record Entry(MonthlyStatisticsResponseDto response, long revision, long storedAt) {
+
+        long weight() {
+            return response.rows().size() + 1L;
+        }
+    }
+
+    private static final class Load {
+
+        private CompletableFuture<Result> future;
+        private volatile boolean cacheable = true;
+
+        private record Result(MonthlyStatisticsResponseDto response, long revision, boolean loaded) {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeCellDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDimension;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rolls the cells of a month's cube up to the dimensions asked for. Dimensions left out are dropped from the cells,
+ * currency is kept, and cells that became equal are summed.
+ */
+class StatisticsCube {
+
+    private static final Comparator<StatisticsCubeCellDto> BY_CURRENCY_THEN_TOTAL_AMOUNT_DESC =
+            Comparator.comparing(StatisticsCubeCellDto::currency, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(StatisticsCubeCellDto::totalAmount, Comparator.reverseOrder())
+                    .thenComparing(StatisticsCubeCellDto::category, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(StatisticsCubeCellDto::iban, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * @return cells ordered by currency, then by total amount, descending
+     */
+    static List<StatisticsCubeCellDto> rollUp(List<StatisticsCubeCellDto> cells, Set<StatisticsDimension> dimensions) {
+        var byCategory = dimensions.contains(StatisticsDimension.CATEGORY);
+        var byIban = dimensions.contains(StatisticsDimension.IBAN);
+
+        var rolledUp = new HashMap<Key, StatisticsCubeCellDto>();
+        for (var cell : cells) {
+            var key = new Key(byCategory ? cell.category() : null, byIban ? cell.iban() : null, cell.currency());
+            rolledUp.merge(key, relabeled(cell, key), (total, next) -> new StatisticsCubeCellDto(
+                    key.category(),
+                    key.iban(),
+                    key.currency(),
+                    total.transactionsCount() + next.transactionsCount(),
+                    total.totalAmount().add(next.totalAmount())
+            ));
+        }
+        return rolledUp.values().stream()
+                .sorted(BY_CURRENCY_THEN_TOTAL_AMOUNT_DESC)
+                .toList();
+    }
+
+    private static StatisticsCubeCellDto relabeled(StatisticsCubeCellDto cell, Key key) {
+        return new StatisticsCubeCellDto(key.category(), key.iban(), key.currency(), cell.transactionsCount(), cell.totalAmount());
+    }
+
+    private record Key(String category, String iban, String currency) {
+    }
+}
@@ -1,10 +1,30 @@
 package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
 
+import com.leftsolutions.transactionsprocessor.statistics.dto.DailyStatisticsDto;
 import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeCellDto;
 import org.mapstruct.Mapper;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring")
 interface StatisticsMapper {
 
     MonthlyStatisticsRowDto toDto(MonthlyStatsAggregationRow row);
+
+    List<MonthlyStatisticsRowDto> toDtos(List<MonthlyStatsAggregationRow> rows);
+
+    MonthlyStatsAggregationRow toRow(MonthlyStatisticsRowDto row);
+
+    List<MonthlyStatsAggregationRow> toRows(List<MonthlyStatisticsRowDto> rows);
+
+    DailyStatisticsDto toDailyDto(DailyStatisticsDocument bucket);
+
+    StatisticsCubeCellDto toCubeDto(MonthlyStatsCubeCell cell);
+
+    List<StatisticsCubeCellDto> toCubeDtos(List<MonthlyStatsCubeCell> cells);
+
+    MonthlyStatsCubeCell toCubeCell(StatisticsCubeCellDto cell);
+
+    List<MonthlyStatsCubeCell> toCubeCells(List<StatisticsCubeCellDto> cells);
 }
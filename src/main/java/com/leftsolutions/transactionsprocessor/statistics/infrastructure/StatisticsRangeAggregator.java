@@ -0,0 +1,166 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.StatisticsRangeProperties;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.exception.InvalidStatisticsRangeException;
+import com.leftsolutions.transactionsprocessor.statistics.exception.StatisticsNotReadyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Loads the months of a range in parallel and sums them up. Each month is read like a single month query, from its
+ * rollup and through the statistics cache, so the latency of a range stays close to that of its slowest month.
+ */
+@Component
+class StatisticsRangeAggregator {
+
+    private static final Comparator<MonthlyStatisticsRowDto> BY_TOTAL_AMOUNT_DESC =
+            Comparator.comparing(MonthlyStatisticsRowDto::totalAmount).reversed()
+                    .thenComparing(MonthlyStatisticsRowDto::key, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final StatisticsRangeProperties properties;
+    private final TaskExecutor executor;
+    private final Supplier<YearMonth> currentMonth;
+
+    @Autowired
+    StatisticsRangeAggregator(StatisticsRangeProperties properties,
+                              @Qualifier("statisticsExecutor") TaskExecutor executor) {
+        this(properties, executor, YearMonth::now);
+    }
+
+    StatisticsRangeAggregator(StatisticsRangeProperties properties,
+                              TaskExecutor executor,
+                              Supplier<YearMonth> currentMonth) {
+        this.properties = properties;
+        this.executor = executor;
+        this.currentMonth = currentMonth;
+    }
+
+    /**
+     * @param monthLoader loads one month; months whose import did not complete are reported instead of failing
+     *                    the range
+     */
+    StatisticsRangeResponseDto aggregate(String workspaceId,
+                                         StatisticsRangeQuery query,
+                                         Function<YearMonth, MonthlyStatisticsResponseDto> monthLoader) {
+        var months = months(query);
+
+        var loads = months.stream()
+                .map(month -> CompletableFuture.supplyAsync(() -> loadIfReady(month, monthLoader), executor))
+                .toList();
+
+        var ready = new ArrayList<MonthlyStatisticsResponseDto>();
+        var notReady = new ArrayList<YearMonth>();
+        for (int i = 0; i < months.size(); i++) {
+            var loaded = join(loads.get(i));
+            if (loaded.isPresent()) {
+                ready.add(loaded.get());
+            } else {
+                notReady.add(months.get(i));
+            }
+        }
+
+        return new StatisticsRangeResponseDto(
+                workspaceId,
+                months.getFirst(),
+                months.getLast(),
+                query.groupBy(),
+                ready,
+                totals(ready),
+                notReady
+        );
+    }
+
+    /**
+     * Months of the range, in order.
+     */
+    List<YearMonth> months(StatisticsRangeQuery query) {
+        var to = query.to() != null ? query.to() : currentMonth.get();
+        var from = rangeStart(query, to);
+        return Stream.iterate(from, month -> !month.isAfter(to), month -> month.plusMonths(1)).toList();
+    }
+
+    private YearMonth rangeStart(StatisticsRangeQuery query, YearMonth to) {
+        var bounds = Stream.of(query.from() != null, query.trailingMonths() != null, query.yearToDate())
+                .filter(Boolean::booleanValue)
+                .count();
+        if (bounds != 1) {
+            throw InvalidStatisticsRangeException.ambiguous();
+        }
+
+        YearMonth from;
+        if (query.from() != null) {
+            from = query.from();
+        } else if (query.trailingMonths() != null) {
+            from = to.minusMonths(query.trailingMonths() - 1L);
+        } else {
+            from = YearMonth.of(to.getYear(), 1);
+        }
+
+        if (from.isAfter(to)) {
+            throw InvalidStatisticsRangeException.reversed(from, to);
+        }
+        var length = ChronoUnit.MONTHS.between(from, to) + 1;
+        if (length > properties.getMaxMonths()) {
+            throw InvalidStatisticsRangeException.tooLong(length, properties.getMaxMonths());
+        }
+        return from;
+    }
+
+    private static Optional<MonthlyStatisticsResponseDto> loadIfReady(YearMonth month,
+                                                                      Function<YearMonth, MonthlyStatisticsResponseDto> monthLoader) {
+        try {
+            return Optional.of(monthLoader.apply(month));
+        } catch (StatisticsNotReadyException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static List<MonthlyStatisticsRowDto> totals(List<MonthlyStatisticsResponseDto> months) {
+        return sum(months.stream().flatMap(month -> month.rows().stream()));
+    }
+
+    /**
+     * Rows summed per key, ordered by total amount, descending.
+     */
+    static List<MonthlyStatisticsRowDto> sum(Stream<MonthlyStatisticsRowDto> rows) {
+        var totals = new LinkedHashMap<String, MonthlyStatisticsRowDto>();
+        rows.forEach(row -> totals.merge(row.key(), row, (total, next) -> new MonthlyStatisticsRowDto(
+                total.key(),
+                total.transactionsCount() + next.transactionsCount(),
+                total.totalAmount().add(next.totalAmount())
+        )));
+        return totals.values().stream()
+                .sorted(BY_TOTAL_AMOUNT_DESC)
+                .toList();
+    }
+}
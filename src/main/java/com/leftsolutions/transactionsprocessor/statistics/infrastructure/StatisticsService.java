@@ -1,18 +1,40 @@
 package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
 
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
 import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
 import com.leftsolutions.transactionsprocessor.statistics.domain.StatisticsFacade;
 import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRollupDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCacheStatsDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDimension;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDistributionResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
 import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineResponseDto;
 import com.leftsolutions.transactionsprocessor.statistics.exception.StatisticsNotReadyException;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
 import org.springframework.data.mongodb.core.aggregation.MatchOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.YearMonth;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
@@ -24,12 +46,22 @@ import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort
 @RequiredArgsConstructor
 class StatisticsService implements StatisticsFacade {
 
+    /**
+     * Marks the reads of every row of a month that no transactions index covers: the cube, timeline and sketch
+     * fallbacks and rollup rebuilds. They run once per month until its rollup is stored and use the month prefix
+     * of the indexes; they are the only reads that fetch documents
+     */
+    static final String MONTH_SCAN_COMMENT = "statistics-month-scan";
+    static final AggregationOptions MONTH_SCAN = AggregationOptions.builder().comment(MONTH_SCAN_COMMENT).build();
+
     private static final String TRANSACTIONS_COLLECTION = "transactions";
     private static final String FIELD_WORKSPACE_ID = "workspaceId";
     private static final String FIELD_YEAR = "year";
     private static final String FIELD_MONTH = "month";
     private static final String FIELD_CATEGORY = "category";
     private static final String FIELD_IBAN = "iban";
+    private static final String FIELD_CURRENCY = "currency";
+    private static final String FIELD_GENERATION = "generation";
 
     private static final String AGG_SUMMARY_KEY = "SUMMARY";
     private static final String AGG_TRANSACTIONS_COUNT = "transactionsCount";
@@ -40,19 +72,65 @@ class StatisticsService implements StatisticsFacade {
     private final ImportingFacade importingFacade;
     private final MongoTemplate mongoTemplate;
     private final StatisticsMapper mapper;
+    private final MongoOperationLimiter mongoOperationLimiter;
+    private final StatisticsCache statisticsCache;
+    private final StatisticsRangeAggregator statisticsRangeAggregator;
+    private final DailyStatisticsBuckets dailyStatisticsBuckets;
+    private final StatisticsSketches statisticsSketches;
+    private final MonthlyStatisticsPages monthlyStatisticsPages;
 
     @Override
     public MonthlyStatisticsResponseDto getMonthlyStatistics(String workspaceId, StatisticsQuery query) {
+        return statisticsCache.get(workspaceId, query.yearMonth(), query.groupBy(),
+                () -> loadMonthlyStatistics(workspaceId, query));
+    }
+
+    @Override
+    public StatisticsRangeResponseDto getRangeStatistics(String workspaceId, StatisticsRangeQuery query) {
+        return statisticsRangeAggregator.aggregate(workspaceId, query,
+                month -> getMonthlyStatistics(workspaceId, new StatisticsQuery(month, query.groupBy())));
+    }
+
+    @Override
+    public StatisticsCubeResponseDto getCubeStatistics(String workspaceId, StatisticsCubeQuery query) {
         var month = query.yearMonth();
         ensureReady(workspaceId, month);
+        var generation = importingFacade.activeGeneration(workspaceId, month);
 
-        var rows = switch (query.groupBy()) {
-            case CATEGORY -> aggregateGrouped(workspaceId, month, FIELD_CATEGORY);
-            case IBAN -> aggregateGrouped(workspaceId, month, FIELD_IBAN);
-            case SUMMARY -> aggregateSummary(workspaceId, month);
-            case null -> aggregateSummary(workspaceId, month);
-        };
+        var cells = monthlyStatisticsPages.findCube(workspaceId, month, generation)
+                .orElseGet(() -> aggregateCube(workspaceId, month, generation));
+        var dimensions = dimensions(query.dimensions());
 
+        return new StatisticsCubeResponseDto(
+                workspaceId,
+                month,
+                dimensions,
+                StatisticsCube.rollUp(mapper.toCubeDtos(cells), dimensions)
+        );
+    }
+
+    @Override
+    public StatisticsTimelineResponseDto getTimeline(String workspaceId, StatisticsTimelineQuery query) {
+        return dailyStatisticsBuckets.timeline(workspaceId, query);
+    }
+
+    @Override
+    public StatisticsDistributionResponseDto getDistribution(String workspaceId, StatisticsRangeQuery query) {
+        return statisticsSketches.distribution(workspaceId, query);
+    }
+
+    @Override
+    public StatisticsCacheStatsDto getCacheStats() {
+        return statisticsCache.stats();
+    }
+
+    private MonthlyStatisticsResponseDto loadMonthlyStatistics(String workspaceId, StatisticsQuery query) {
+        var month = query.yearMonth();
+        ensureReady(workspaceId, month);
+        var generation = importingFacade.activeGeneration(workspaceId, month);
+
+        var rows = findRollupRows(workspaceId, month, generation, query.groupBy())
+                .orElseGet(() -> aggregate(workspaceId, month, generation, query.groupBy()));
 
         return new MonthlyStatisticsResponseDto(
                 workspaceId,
@@ -62,14 +140,124 @@ class StatisticsService implements StatisticsFacade {
         );
     }
 
+    @Override
+    public void storeRollup(MonthlyStatisticsRollupDto rollup) {
+        storePages(rollup);
+        mongoOperationLimiter.run(() -> mongoTemplate.upsert(
+                Query.query(rollupCriteria(rollup.workspaceId(), rollup.month())),
+                storedRollup(rollup),
+                MonthlyStatisticsDocument.class
+        ));
+        dailyStatisticsBuckets.store(rollup.workspaceId(), rollup.month(), rollup.generation(), rollup.days());
+    }
+
+    /**
+     * Writes only over a rollup of another generation, or one stored before its IBAN rows, cube and sketches were
+     * paged. A concurrent import storing a rollup of the same generation wins, so a rollup aggregated from data the
+     * import just replaced never overwrites it, and its pages and buckets are then left alone too.
+     */
+    @Override
+    public boolean rebuildRollup(String workspaceId, YearMonth month) {
+        var generation = importingFacade.activeGeneration(workspaceId, month);
+        var current = Query.query(rollupCriteria(workspaceId, month)
+                .and(FIELD_GENERATION).is(generation)
+                .and(MonthlyStatisticsDocument.FIELD_PAGED).exists(true));
+        if (mongoOperationLimiter.call(() -> mongoTemplate.exists(current, MonthlyStatisticsDocument.class))) {
+            return false;
+        }
+
+        var rollup = new MonthlyStatisticsRollupDto(
+                workspaceId,
+                month,
+                generation,
+                aggregateSummary(workspaceId, month, generation).stream().findFirst().map(mapper::toDto).orElse(null),
+                mapper.toDtos(aggregateGrouped(workspaceId, month, generation, FIELD_CATEGORY)),
+                mapper.toDtos(aggregateGrouped(workspaceId, month, generation, FIELD_IBAN)),
+                mapper.toCubeDtos(aggregateCube(workspaceId, month, generation)),
+                dailyStatisticsBuckets.aggregate(workspaceId, month, generation),
+                statisticsSketches.aggregate(workspaceId, month, generation)
+        );
+        try {
+            var result = mongoOperationLimiter.call(() -> mongoTemplate.upsert(
+                    Query.query(rollupCriteria(workspaceId, month).orOperator(
+                            Criteria.where(FIELD_GENERATION).ne(generation),
+                            Criteria.where(MonthlyStatisticsDocument.FIELD_PAGED).exists(false)
+                    )),
+                    storedRollup(rollup),
+                    MonthlyStatisticsDocument.class
+            ));
+            if (result.getMatchedCount() == 0 && result.getUpsertedId() == null) {
+                return false;
+            }
+            storePages(rollup);
+            dailyStatisticsBuckets.store(workspaceId, month, generation, rollup.days());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<YearMonth> rebuildRollups(String workspaceId) {
+        return findImportedMonths(workspaceId).stream()
+                .filter(month -> importingFacade.isCompleted(workspaceId, month))
+                .filter(month -> rebuildRollup(workspaceId, month))
+                .toList();
+    }
+
     private void ensureReady(String workspaceId, YearMonth month) {
         if (!importingFacade.isCompleted(workspaceId, month)) {
             throw new StatisticsNotReadyException(workspaceId, month);
         }
     }
 
-    private List<MonthlyStatsAggregationRow> aggregateGrouped(String workspaceId, YearMonth month, String groupField) {
-        var matchOp = matchForMonth(workspaceId, month);
+    /**
+     * Reads only the grouping asked for, so the cost depends on the number of its groups.
+     */
+    private Optional<List<MonthlyStatsAggregationRow>> findRollupRows(String workspaceId,
+                                                                      YearMonth month,
+                                                                      long generation,
+                                                                      StatisticsGroupBy groupBy) {
+        if (groupBy == StatisticsGroupBy.IBAN) {
+            return monthlyStatisticsPages.findIbans(workspaceId, month, generation);
+        }
+        var field = groupBy == StatisticsGroupBy.CATEGORY
+                ? MonthlyStatisticsDocument.FIELD_CATEGORIES
+                : MonthlyStatisticsDocument.FIELD_SUMMARY;
+        var query = Query.query(rollupCriteria(workspaceId, month).and(FIELD_GENERATION).is(generation));
+        query.fields().include(field);
+
+        return Optional.ofNullable(mongoOperationLimiter.call(() -> mongoTemplate.findOne(query, MonthlyStatisticsDocument.class)))
+                .map(rollup -> groupBy == StatisticsGroupBy.CATEGORY ? rollup.getCategories() : summaryRows(rollup));
+    }
+
+    private static Set<StatisticsDimension> dimensions(Set<StatisticsDimension> dimensions) {
+        return dimensions == null || dimensions.isEmpty()
+                ? EnumSet.noneOf(StatisticsDimension.class)
+                : EnumSet.copyOf(dimensions);
+    }
+
+    private static List<MonthlyStatsAggregationRow> summaryRows(MonthlyStatisticsDocument rollup) {
+        return rollup.getSummary() == null ? List.of() : List.of(rollup.getSummary());
+    }
+
+    private List<MonthlyStatsAggregationRow> aggregate(String workspaceId,
+                                                       YearMonth month,
+                                                       long generation,
+                                                       StatisticsGroupBy groupBy) {
+        return switch (groupBy) {
+            case CATEGORY -> aggregateGrouped(workspaceId, month, generation, FIELD_CATEGORY);
+            case IBAN -> aggregateGrouped(workspaceId, month, generation, FIELD_IBAN);
+            case SUMMARY -> aggregateSummary(workspaceId, month, generation);
+            case null -> aggregateSummary(workspaceId, month, generation);
+        };
+    }
+
+    private List<MonthlyStatsAggregationRow> aggregateGrouped(String workspaceId,
+                                                              YearMonth month,
+                                                              long generation,
+                                                              String groupField) {
+        var matchOp = matchForMonth(workspaceId, month, generation);
 
         var groupOp = group("$" + groupField)
                 .count().as(AGG_TRANSACTIONS_COUNT)
@@ -84,12 +272,11 @@ class StatisticsService implements StatisticsFacade {
 
         var aggregation = newAggregation(matchOp, groupOp, projectOp, sortOp);
 
-        return mongoTemplate.aggregate(aggregation, TRANSACTIONS_COLLECTION, MonthlyStatsAggregationRow.class)
-                .getMappedResults();
+        return aggregate(aggregation);
     }
 
-    private List<MonthlyStatsAggregationRow> aggregateSummary(String workspaceId, YearMonth month) {
-        var matchOp = matchForMonth(workspaceId, month);
+    private List<MonthlyStatsAggregationRow> aggregateSummary(String workspaceId, YearMonth month, long generation) {
+        var matchOp = matchForMonth(workspaceId, month, generation);
 
         var groupOp = group()
                 .count().as(AGG_TRANSACTIONS_COUNT)
@@ -102,15 +289,87 @@ class StatisticsService implements StatisticsFacade {
 
         var aggregation = newAggregation(matchOp, groupOp, projectOp);
 
-        return mongoTemplate.aggregate(aggregation, TRANSACTIONS_COLLECTION, MonthlyStatsAggregationRow.class)
-                .getMappedResults();
+        return aggregate(aggregation);
+    }
+
+    /**
+     * One pass over the month's transactions, grouped by every dimension of the cube at once.
+     */
+    private List<MonthlyStatsCubeCell> aggregateCube(String workspaceId, YearMonth month, long generation) {
+        var matchOp = matchForMonth(workspaceId, month, generation);
+
+        var groupOp = group(FIELD_CATEGORY, FIELD_IBAN, FIELD_CURRENCY)
+                .count().as(AGG_TRANSACTIONS_COUNT)
+                .sum(AMOUNT).as(AGG_TOTAL_AMOUNT);
+
+        var projectOp = project(FIELD_CATEGORY, FIELD_IBAN, FIELD_CURRENCY, AGG_TRANSACTIONS_COUNT, AGG_TOTAL_AMOUNT)
+                .andExclude("_id");
+
+        var aggregation = newAggregation(matchOp, groupOp, projectOp).withOptions(MONTH_SCAN);
+
+        return mongoOperationLimiter.call(() -> mongoTemplate
+                .aggregate(aggregation, TRANSACTIONS_COLLECTION, MonthlyStatsCubeCell.class)
+                .getMappedResults());
+    }
+
+    private List<MonthlyStatsAggregationRow> aggregate(Aggregation aggregation) {
+        return mongoOperationLimiter.call(() -> mongoTemplate
+                .aggregate(aggregation, TRANSACTIONS_COLLECTION, MonthlyStatsAggregationRow.class)
+                .getMappedResults());
+    }
+
+    private List<YearMonth> findImportedMonths(String workspaceId) {
+        var aggregation = newAggregation(
+                match(Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId)),
+                group(FIELD_YEAR, FIELD_MONTH),
+                sort(Sort.by("_id." + FIELD_YEAR, "_id." + FIELD_MONTH))
+        );
+
+        return mongoOperationLimiter.call(() -> mongoTemplate
+                        .aggregate(aggregation, TRANSACTIONS_COLLECTION, Document.class)
+                        .getMappedResults()).stream()
+                .map(group -> group.get("_id", Document.class))
+                .map(key -> YearMonth.of(key.getInteger(FIELD_YEAR), key.getInteger(FIELD_MONTH)))
+                .toList();
+    }
+
+    private Update storedRollup(MonthlyStatisticsRollupDto rollup) {
+        return MonthlyStatisticsDocument.stored(
+                rollup.generation(),
+                rollup.summary() == null ? null : mapper.toRow(rollup.summary()),
+                mapper.toRows(rollup.categories()),
+                rollup.days().size(),
+                rollup.sketches() == null ? null : rollup.sketches().summary()
+        );
+    }
+
+    private void storePages(MonthlyStatisticsRollupDto rollup) {
+        monthlyStatisticsPages.store(
+                rollup.workspaceId(),
+                rollup.month(),
+                rollup.generation(),
+                mapper.toRows(rollup.ibans()),
+                mapper.toCubeCells(rollup.cube()),
+                rollup.sketches() == null ? List.of() : rollup.sketches().categories()
+        );
+    }
+
+    private static Criteria rollupCriteria(String workspaceId, YearMonth month) {
+        return Criteria.where(MonthlyStatisticsDocument.FIELD_WORKSPACE_ID).is(workspaceId)
+                .and(MonthlyStatisticsDocument.FIELD_YEAR).is(month.getYear())
+                .and(MonthlyStatisticsDocument.FIELD_MONTH).is(month.getMonthValue());
     }
 
-    private MatchOperation matchForMonth(String workspaceId, YearMonth month) {
+    /**
+     * Only the active import generation is visible. The generation is matched exactly, an equality on
+     * {@code null} could not be answered from the index alone.
+     */
+    private MatchOperation matchForMonth(String workspaceId, YearMonth month, long generation) {
         return match(
-                org.springframework.data.mongodb.core.query.Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId)
+                Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId)
                         .and(FIELD_YEAR).is(month.getYear())
                         .and(FIELD_MONTH).is(month.getMonthValue())
+                        .and(FIELD_GENERATION).is(generation)
         );
     }
 }
@@ -0,0 +1,173 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.statistics.sketch.AmountSketch;
+import com.leftsolutions.transactionsprocessor.statistics.sketch.DistinctCountSketch;
+import com.leftsolutions.transactionsprocessor.statistics.sketch.MonthlySketches;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsSketchesDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDistributionResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDistributionRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsSketchDto;
+import com.leftsolutions.transactionsprocessor.statistics.exception.InvalidStatisticsRangeException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Serves quantiles of amounts and distinct IBAN counts from the sketches stored with the monthly rollups, the
+ * summary sketch in the rollup itself and the category sketches in its pages. The sketches of all months of a
+ * range are read with one query and merged in memory; a month whose rollup has no sketches of its active
+ * generation is sketched in one pass over its transactions.
+ */
+@Component
+@RequiredArgsConstructor
+class StatisticsSketches {
+
+    private static final String TRANSACTIONS_COLLECTION = "transactions";
+    private static final String FIELD_WORKSPACE_ID = "workspaceId";
+    private static final String FIELD_YEAR = "year";
+    private static final String FIELD_MONTH = "month";
+    private static final String FIELD_GENERATION = "generation";
+    private static final String FIELD_IBAN = "iban";
+    private static final String FIELD_CATEGORY = "category";
+    private static final String AMOUNT = "amount";
+
+    private static final Comparator<StatisticsDistributionRowDto> BY_TRANSACTIONS_COUNT_DESC =
+            Comparator.comparingLong(StatisticsDistributionRowDto::transactionsCount).reversed()
+                    .thenComparing(StatisticsDistributionRowDto::key, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ImportingFacade importingFacade;
+    private final MongoTemplate mongoTemplate;
+    private final MongoOperationLimiter mongoOperationLimiter;
+    private final StatisticsRangeAggregator statisticsRangeAggregator;
+    private final MonthlyStatisticsPages monthlyStatisticsPages;
+
+    StatisticsDistributionResponseDto distribution(String workspaceId, StatisticsRangeQuery query) {
+        var groupBy = query.groupBy() == null ? StatisticsGroupBy.SUMMARY : query.groupBy();
+        if (groupBy == StatisticsGroupBy.IBAN) {
+            throw InvalidStatisticsRangeException.notSketched(groupBy);
+        }
+        var months = statisticsRangeAggregator.months(query);
+
+        var generations = new LinkedHashMap<YearMonth, Long>();
+        var notReady = new ArrayList<YearMonth>();
+        for (var month : months) {
+            if (importingFacade.isCompleted(workspaceId, month)) {
+                generations.put(month, importingFacade.activeGeneration(workspaceId, month));
+            } else {
+                notReady.add(month);
+            }
+        }
+
+        var stored = find(workspaceId, generations, groupBy);
+        var merged = new HashMap<String, Merged>();
+        generations.forEach((month, generation) -> {
+            var groups = stored.get(month);
+            if (groups == null) {
+                var sketches = aggregate(workspaceId, month, generation);
+                groups = groupBy == StatisticsGroupBy.CATEGORY ? sketches.categories() : List.of(sketches.summary());
+            }
+            groups.forEach(group -> merged.computeIfAbsent(group.key(), key -> new Merged()).add(group));
+        });
+
+        return new StatisticsDistributionResponseDto(
+                workspaceId,
+                months.getFirst(),
+                months.getLast(),
+                groupBy,
+                merged.entrySet().stream()
+                        .map(entry -> entry.getValue().toRow(entry.getKey()))
+                        .filter(row -> row.transactionsCount() > 0)
+                        .sorted(BY_TRANSACTIONS_COUNT_DESC)
+                        .toList(),
+                notReady
+        );
+    }
+
+    /**
+     * Sketches the transactions of the generation in one pass, streaming only the fields the sketches need.
+     */
+    MonthlyStatisticsSketchesDto aggregate(String workspaceId, YearMonth month, long generation) {
+        var query = Query.query(Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId)
+                .and(FIELD_YEAR).is(month.getYear())
+                .and(FIELD_MONTH).is(month.getMonthValue())
+                .and(FIELD_GENERATION).is(generation));
+        query.fields().include(FIELD_IBAN, FIELD_CATEGORY, AMOUNT);
+        query.comment(StatisticsService.MONTH_SCAN_COMMENT);
+
+        var sketches = new MonthlySketches();
+        mongoOperationLimiter.run(() -> {
+            try (var rows = mongoTemplate.stream(query, TransactionSketchRow.class, TRANSACTIONS_COLLECTION)) {
+                rows.forEach(row -> sketches.add(row.getCategory(), row.getIban(), row.getAmount()));
+            }
+        });
+        return sketches.toDto();
+    }
+
+    /**
+     * Reads the sketches of all ready months with one query, only those of the grouping asked for, and only from
+     * rollups of each month's active generation.
+     */
+    private Map<YearMonth, List<StatisticsSketchDto>> find(String workspaceId,
+                                                           Map<YearMonth, Long> generations,
+                                                           StatisticsGroupBy groupBy) {
+        if (groupBy == StatisticsGroupBy.CATEGORY) {
+            return monthlyStatisticsPages.findSketches(workspaceId, generations);
+        }
+        if (generations.isEmpty()) {
+            return Map.of();
+        }
+        var field = MonthlyStatisticsDocument.FIELD_SUMMARY_SKETCH;
+        var query = Query.query(Criteria.where(MonthlyStatisticsDocument.FIELD_WORKSPACE_ID).is(workspaceId)
+                .and(field).exists(true)
+                .orOperator(generations.entrySet().stream()
+                        .map(month -> Criteria.where(MonthlyStatisticsDocument.FIELD_YEAR).is(month.getKey().getYear())
+                                .and(MonthlyStatisticsDocument.FIELD_MONTH).is(month.getKey().getMonthValue())
+                                .and(MonthlyStatisticsDocument.FIELD_GENERATION).is(month.getValue()))
+                        .toList()));
+        query.fields()
+                .include(MonthlyStatisticsDocument.FIELD_YEAR)
+                .include(MonthlyStatisticsDocument.FIELD_MONTH)
+                .include(field);
+
+        return mongoOperationLimiter.call(() -> mongoTemplate.find(query, MonthlyStatisticsDocument.class)).stream()
+                .collect(Collectors.toMap(rollup -> YearMonth.of(rollup.getYear(), rollup.getMonth()),
+                        rollup -> List.of(rollup.getSummarySketch())));
+    }
+
+    private static final class Merged {
+
+        private final AmountSketch amounts = new AmountSketch();
+        private final DistinctCountSketch ibans = new DistinctCountSketch();
+
+        void add(StatisticsSketchDto sketch) {
+            amounts.merge(AmountSketch.of(sketch.amounts()));
+            ibans.merge(DistinctCountSketch.of(sketch.ibans()));
+        }
+
+        StatisticsDistributionRowDto toRow(String key) {
+            return new StatisticsDistributionRowDto(
+                    key,
+                    amounts.count(),
+                    amounts.quantile(0.5),
+                    amounts.quantile(0.9),
+                    amounts.quantile(0.99),
+                    ibans.estimate()
+            );
+        }
+    }
+}
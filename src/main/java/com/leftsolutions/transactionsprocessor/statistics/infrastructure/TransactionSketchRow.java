@@ -0,0 +1,16 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+class TransactionSketchRow {
+    private String iban;
+    private String category;
+    private BigDecimal amount;
+}
@@ -0,0 +1,194 @@
+package com.leftsolutions.transactionsprocessor.statistics.sketch;
+
+import com.leftsolutions.transactionsprocessor.statistics.dto.AmountSketchDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Mergeable sketch of a distribution of amounts that answers quantiles within a relative error of 1%.
+ * <p>
+ * Amounts are counted in bins whose bounds grow geometrically, separately for positive and negative amounts, so a
+ * quantile is off by at most 1% of the true amount at its rank. Sketches of disjoint sets of amounts merge by
+ * adding their bins, which gives exactly the sketch of all amounts. Size depends on the spread of the amounts, not
+ * on their number: amounts from 0.01 to 10 million take at most about 1040 bins per sign. A sign keeps at most
+ * {@link #MAX_BINS} bins; amounts spread wider than that have their lowest bins collapsed into one, so only the
+ * smallest amounts lose accuracy. Amounts too small or too large for a {@code double} fall into the first or last
+ * bin there is.
+ * <p>
+ * Not thread safe.
+ */
+public class AmountSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int SCALE = 2;
+
+    /**
+     * Covers 0.01 to about 35 million at full accuracy
+     */
+    static final int MAX_BINS = 1100;
+
+    private static final int MIN_INDEX = (int) Math.ceil(Math.log(Double.MIN_NORMAL) / LOG_GAMMA);
+    private static final int MAX_INDEX = (int) Math.floor(Math.log(Double.MAX_VALUE) / LOG_GAMMA) - 1;
+
+    private final Bins positive;
+    private final Bins negative;
+    private long zeroCount;
+
+    public AmountSketch() {
+        this(new Bins(0, new long[0]), new Bins(0, new long[0]), 0);
+    }
+
+    private AmountSketch(Bins positive, Bins negative, long zeroCount) {
+        this.positive = positive;
+        this.negative = negative;
+        this.zeroCount = zeroCount;
+    }
+
+    public static AmountSketch of(AmountSketchDto dto) {
+        return new AmountSketch(
+                new Bins(dto.positiveOffset(), dto.positiveCounts().clone()),
+                new Bins(dto.negativeOffset(), dto.negativeCounts().clone()),
+                dto.zeroCount()
+        );
+    }
+
+    public void add(BigDecimal amount) {
+        switch (amount.signum()) {
+            case 1 -> positive.add(index(amount.doubleValue()), 1);
+            case -1 -> negative.add(index(-amount.doubleValue()), 1);
+            default -> zeroCount++;
+        }
+    }
+
+    public void merge(AmountSketch other) {
+        positive.addAll(other.positive);
+        negative.addAll(other.negative);
+        zeroCount += other.zeroCount;
+    }
+
+    public long count() {
+        return positive.total() + negative.total() + zeroCount;
+    }
+
+    /**
+     * @param quantile from 0 to 1, e.g. 0.5 for the median
+     * @return {@code null} when the sketch is empty
+     */
+    public BigDecimal quantile(double quantile) {
+        var count = count();
+        if (count == 0) {
+            return null;
+        }
+        var rank = (long) Math.floor(quantile * (count - 1));
+
+        var seen = 0L;
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return value(negative.offset + i).negate();
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return BigDecimal.ZERO.setScale(SCALE, RoundingMode.UNNECESSARY);
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return value(positive.offset + i);
+            }
+        }
+        return value(positive.offset + positive.counts.length - 1);
+    }
+
+    public AmountSketchDto toDto() {
+        return new AmountSketchDto(
+                zeroCount,
+                positive.offset,
+                positive.counts.clone(),
+                negative.offset,
+                negative.counts.clone()
+        );
+    }
+
+    /**
+     * Bin {@code i} holds the amounts in {@code (GAMMA^(i-1), GAMMA^i]}; an amount that became 0 or infinity as a
+     * {@code double} goes to the first or last bin.
+     */
+    private static int index(double amount) {
+        return (int) Math.clamp(Math.ceil(Math.log(amount) / LOG_GAMMA), MIN_INDEX, MAX_INDEX);
+    }
+
+    /**
+     * The value within 1% of every amount of the bin.
+     */
+    private static BigDecimal value(int index) {
+        return BigDecimal.valueOf(2 / (GAMMA + 1) * Math.pow(GAMMA, index)).setScale(SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Counts of consecutive bins, the first one at {@code offset}; grown to cover every bin added up to
+     * {@link #MAX_BINS}, past which the lowest bins are collapsed.
+     */
+    private static final class Bins {
+
+        private int offset;
+        private long[] counts;
+
+        Bins(int offset, long[] counts) {
+            this.offset = offset;
+            this.counts = counts;
+        }
+
+        void add(int index, long count) {
+            if (counts.length > 0) {
+                var lowest = Math.max(index, offset + counts.length - 1) - MAX_BINS + 1;
+                if (offset < lowest) {
+                    collapseBelow(lowest);
+                }
+                index = Math.max(index, lowest);
+            }
+
+            if (counts.length == 0) {
+                offset = index;
+                counts = new long[1];
+            } else if (index < offset) {
+                var grown = new long[counts.length + offset - index];
+                System.arraycopy(counts, 0, grown, offset - index, counts.length);
+                counts = grown;
+                offset = index;
+            } else if (index >= offset + counts.length) {
+                counts = Arrays.copyOf(counts, index - offset + 1);
+            }
+            counts[index - offset] += count;
+        }
+
+        /**
+         * Moves the counts of the bins below {@code lowest} into it.
+         */
+        private void collapseBelow(int lowest) {
+            var collapsed = new long[Math.max(offset + counts.length, lowest + 1) - lowest];
+            for (int i = 0; i < counts.length; i++) {
+                collapsed[Math.max(offset + i, lowest) - lowest] += counts[i];
+            }
+            counts = collapsed;
+            offset = lowest;
+        }
+
+        void addAll(Bins other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        long total() {
+            return Arrays.stream(counts).sum();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.leftsolutions.transactionsprocessor.statistics.sketch;
+
+import com.leftsolutions.transactionsprocessor.statistics.dto.DistinctCountSketchDto;
+
+/**
+ * HyperLogLog sketch counting distinct values with a standard error of about 1.6%, in 4 KiB.
+ * <p>
+ * Each value is hashed to 64 bits; the first 12 bits pick one of 4096 registers, which keeps the longest run of
+ * leading zeros seen in the remaining bits. Sketches merge by taking the maximum of each register, which gives
+ * exactly the sketch of the union of their values, so distinct counts of several months are merged rather than
+ * added up.
+ * <p>
+ * Not thread safe.
+ */
+public class DistinctCountSketch {
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final byte[] registers;
+
+    public DistinctCountSketch() {
+        this(new byte[REGISTERS]);
+    }
+
+    private DistinctCountSketch(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public static DistinctCountSketch of(DistinctCountSketchDto dto) {
+        if (dto.registers().length != REGISTERS) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers, got " + dto.registers().length);
+        }
+        return new DistinctCountSketch(dto.registers().clone());
+    }
+
+    public void add(String value) {
+        var hash = hash(value);
+        var register = (int) (hash >>> (Long.SIZE - PRECISION));
+        var rank = (byte) (Long.numberOfLeadingZeros(hash << PRECISION | 1L << (PRECISION - 1)) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+        }
+    }
+
+    public void merge(DistinctCountSketch other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Counts below about 10 000 are estimated from the share of empty registers, which is more accurate there.
+     */
+    public long estimate() {
+        var sum = 0.0;
+        var empty = 0;
+        for (var register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                empty++;
+            }
+        }
+        var estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && empty > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / empty);
+        }
+        return Math.round(estimate);
+    }
+
+    public DistinctCountSketchDto toDto() {
+        return new DistinctCountSketchDto(registers.clone());
+    }
+
+    /**
+     * FNV-1a over the chars, spread by the MurmurHash3 finalizer so every bit depends on the whole value.
+     */
+    private static long hash(String value) {
+        var hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
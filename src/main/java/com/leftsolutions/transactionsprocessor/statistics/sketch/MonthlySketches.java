@@ -0,0 +1,51 @@
+package com.leftsolutions.transactionsprocessor.statistics.sketch;
+
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsSketchesDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsSketchDto;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds the sketches of a month in one pass over its transactions: over all of them and per category.
+ * <p>
+ * Not thread safe.
+ */
+public class MonthlySketches {
+
+    private static final String SUMMARY_KEY = "SUMMARY";
+
+    private final Sketches summary = new Sketches();
+    private final Map<String, Sketches> categories = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    public void add(String category, String iban, BigDecimal amount) {
+        summary.add(iban, amount);
+        categories.computeIfAbsent(category, key -> new Sketches()).add(iban, amount);
+    }
+
+    public MonthlyStatisticsSketchesDto toDto() {
+        return new MonthlyStatisticsSketchesDto(
+                summary.toDto(SUMMARY_KEY),
+                categories.entrySet().stream()
+                        .map(entry -> entry.getValue().toDto(entry.getKey()))
+                        .toList()
+        );
+    }
+
+    private static final class Sketches {
+
+        private final AmountSketch amounts = new AmountSketch();
+        private final DistinctCountSketch ibans = new DistinctCountSketch();
+
+        void add(String iban, BigDecimal amount) {
+            amounts.add(amount);
+            ibans.add(iban);
+        }
+
+        StatisticsSketchDto toDto(String key) {
+            return new StatisticsSketchDto(key, amounts.toDto(), ibans.toDto());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.leftsolutions.transactionsprocessor.transaction.domain;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportQueueStatsDto;
+
+public interface ImportQueueFacade {
+
+    ImportQueueStatsDto getQueueStats(String workspaceId);
+}
@@ -0,0 +1,14 @@
+package com.leftsolutions.transactionsprocessor.transaction.domain;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.RejectedRowsReportDto;
+
+import java.time.YearMonth;
+import java.util.Optional;
+
+public interface RejectedRowsReportFacade {
+
+    /**
+     * @return empty when the month's last completed import rejected no rows
+     */
+    Optional<RejectedRowsReportDto> findReport(String workspaceId, YearMonth month);
+}
@@ -1,10 +1,24 @@
 package com.leftsolutions.transactionsprocessor.transaction.domain;
 
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportSubmissionDto;
 
 import java.nio.file.Path;
 import java.time.YearMonth;
 
 public interface TransactionImportFacade {
-    ImportJobStatusDto importMonthlyAsync(String workspaceId, YearMonth month, Path csvFile);
+    default ImportJobStatusDto importMonthlyAsync(String workspaceId, YearMonth month, Path csvFile) {
+        return importMonthlyAsync(workspaceId, month, csvFile, ImportMode.REPLACE);
+    }
+
+    default ImportJobStatusDto importMonthlyAsync(String workspaceId, YearMonth month, Path csvFile, ImportMode mode) {
+        return importMonthlyAsync(workspaceId, month, ImportSubmissionDto.of(csvFile, mode));
+    }
+
+    /**
+     * Starts the import, unless the same idempotency key or file content was already submitted for the month
+     * and is processing or completed - then that job's status is returned and the file is discarded.
+     */
+    ImportJobStatusDto importMonthlyAsync(String workspaceId, YearMonth month, ImportSubmissionDto submission);
 }
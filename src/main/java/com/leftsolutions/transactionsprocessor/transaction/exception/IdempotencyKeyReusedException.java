@@ -0,0 +1,16 @@
+package com.leftsolutions.transactionsprocessor.transaction.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.YearMonth;
+
+public class IdempotencyKeyReusedException extends ResponseStatusException {
+
+    private static final String MSG_KEY_REUSED =
+            "Idempotency-Key %s was already used for a different file of workspaceId=%s and month=%s";
+
+    public IdempotencyKeyReusedException(String workspaceId, YearMonth month, String idempotencyKey) {
+        super(HttpStatus.UNPROCESSABLE_CONTENT, MSG_KEY_REUSED.formatted(idempotencyKey, workspaceId, month));
+    }
+}
@@ -0,0 +1,45 @@
+package com.leftsolutions.transactionsprocessor.transaction.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+public class ImportQueueFullException extends ResponseStatusException {
+
+    private static final String MSG_QUEUE_FULL = "Import queue is full, retry in %d seconds";
+    private static final String MSG_WORKSPACE_QUEUE_FULL = "Too many queued imports for workspaceId=%s, retry in %d seconds";
+
+    private final long retryAfterSeconds;
+
+    private ImportQueueFullException(String message, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public static ImportQueueFullException queueFull(Duration retryAfter) {
+        var seconds = toSeconds(retryAfter);
+        return new ImportQueueFullException(MSG_QUEUE_FULL.formatted(seconds), seconds);
+    }
+
+    public static ImportQueueFullException workspaceQueueFull(String workspaceId, Duration retryAfter) {
+        var seconds = toSeconds(retryAfter);
+        return new ImportQueueFullException(MSG_WORKSPACE_QUEUE_FULL.formatted(workspaceId, seconds), seconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return headers;
+    }
+
+    private static long toSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,45 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import java.time.Duration;
+
+/**
+ * Latency-driven controller for the bulk insert batch size.
+ * Full batches that finish well under the target latency grow the next batch by a quarter, slow batches halve it.
+ */
+class AdaptiveBatchSizer {
+
+    private static final double GROW_FACTOR = 1.25;
+    private static final double FAST_BATCH_RATIO = 0.5;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetLatencyNanos;
+
+    private volatile int currentBatchSize;
+
+    AdaptiveBatchSizer(int initialBatchSize, int minBatchSize, int maxBatchSize, Duration targetLatency) {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("Invalid batch size bounds: min=%d, max=%d".formatted(minBatchSize, maxBatchSize));
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.currentBatchSize = clamp(initialBatchSize);
+    }
+
+    int currentBatchSize() {
+        return currentBatchSize;
+    }
+
+    synchronized void onBatchWritten(int batchSize, long elapsedNanos) {
+        if (elapsedNanos > targetLatencyNanos) {
+            currentBatchSize = clamp(Math.min(currentBatchSize, batchSize) / 2);
+        } else if (elapsedNanos < targetLatencyNanos * FAST_BATCH_RATIO && batchSize >= currentBatchSize) {
+            currentBatchSize = clamp((int) Math.ceil(currentBatchSize * GROW_FACTOR));
+        }
+    }
+
+    private int clamp(int batchSize) {
+        return Math.max(minBatchSize, Math.min(maxBatchSize, batchSize));
+    }
+}
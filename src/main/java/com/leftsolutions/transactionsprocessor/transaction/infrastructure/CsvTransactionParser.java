@@ -8,22 +8,20 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Component
 class CsvTransactionParser {
 
-    private static final Pattern CURRENCY_PATTERN = Pattern.compile("^[A-Z]{3}$");
-    private static final Pattern IBAN_PATTERN = Pattern.compile("^[A-Z]{2}\\d{2}[A-Z0-9]{10,30}$");
+    private static final int FIRST_DATA_LINE = 2; // header is line 1
+    private static final int MAX_CATEGORY_LENGTH = 100;
+    private static final int PROGRESS_REPORT_ROWS = 4096;
 
     private static final String FIELD_IBAN = "iban";
     private static final String FIELD_DATE = "date";
@@ -31,7 +29,10 @@ class CsvTransactionParser {
     private static final String FIELD_CATEGORY = "category";
     private static final String FIELD_AMOUNT = "amount";
 
-    List<ParseResultRow> parse(String workspaceId, InputStream inputStream, YearMonth expectedMonth) throws IOException {
+    void parse(String workspaceId,
+               InputStream inputStream,
+               YearMonth expectedMonth,
+               Consumer<ParseResultRow> rowConsumer) throws IOException {
         try (var reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
             var records = CSVFormat.DEFAULT
                     .builder()
@@ -43,16 +44,163 @@ class CsvTransactionParser {
 
             validateHeaders(records.getHeaderMap());
 
-            var results = new ArrayList<ParseResultRow>();
+            parseRecords(workspaceId, records, expectedMonth, FIRST_DATA_LINE, rowConsumer);
+        }
+    }
+
+    /**
+     * Parses a spooled file. When the header is exactly the five transaction columns the file is tokenized
+     * through memory-mapped windows, any other dialect goes through commons-csv.
+     */
+    void parse(String workspaceId,
+               FileChannel channel,
+               YearMonth expectedMonth,
+               Consumer<ParseResultRow> rowConsumer) throws IOException {
+        var size = channel.size();
+        var tokenizer = new MappedCsvTokenizer(channel, 0, size);
+        if (tokenizer.next() != MappedCsvTokenizer.Status.RECORD) {
+            parse(workspaceId, new FileRangeInputStream(channel, 0, size), expectedMonth, rowConsumer);
+            return;
+        }
+
+        var headerEnd = tokenizer.position();
+        var header = readHeader(new FileRangeInputStream(channel, 0, headerEnd));
+        ProgressListener.of(rowConsumer).onBytesParsed(headerEnd);
+        parseChunk(workspaceId, channel, headerEnd, size, expectedMonth, header, FIRST_DATA_LINE, rowConsumer);
+    }
+
+    /**
+     * Reads and validates the header record, so chunks of the same file can later be parsed without it.
+     */
+    String[] readHeader(InputStream inputStream) throws IOException {
+        try (var reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            var records = CSVFormat.DEFAULT
+                    .builder()
+                    .setHeader()
+                    .setSkipHeaderRecord(true)
+                    .setTrim(true)
+                    .build()
+                    .parse(reader);
+
+            validateHeaders(records.getHeaderMap());
+
+            return records.getHeaderNames().toArray(String[]::new);
+        }
+    }
+
+    /**
+     * Parses the header-less {@code [start, end)} range of a file whose first record sits on {@code firstLineNumber}.
+     * A consumer that is also a {@link ProgressListener} is told about the parsed bytes every few thousand rows.
+     */
+    void parseChunk(String workspaceId,
+                    FileChannel channel,
+                    long start,
+                    long end,
+                    YearMonth expectedMonth,
+                    String[] header,
+                    int firstLineNumber,
+                    Consumer<ParseResultRow> rowConsumer) throws IOException {
+        var listener = ProgressListener.of(rowConsumer);
+        var details = RejectionDetails.of(rowConsumer);
+        var columns = FixedLayoutColumns.resolve(header);
+        if (columns == null) {
+            parseChunk(workspaceId, channel, start, end, expectedMonth, header, firstLineNumber, rowConsumer, listener);
+            return;
+        }
+
+        var tokenizer = new MappedCsvTokenizer(channel, start, end);
+        var fields = new MappedRowFields(tokenizer, columns);
+        var decoder = new TransactionFieldDecoder();
+        var fingerprinter = new TransactionFingerprinter();
+        var ids = new TransactionIdGenerator(workspaceId, expectedMonth);
+        var lineNumber = firstLineNumber;
+        var reported = start;
 
-            var lineNumber = 2; // header is line 1
-            for (var record : records) {
-                results.add(parseRow(workspaceId, record, expectedMonth, lineNumber));
-                lineNumber++;
+        while (true) {
+            var status = tokenizer.next();
+            if (status == MappedCsvTokenizer.Status.END) {
+                listener.onBytesParsed(end - reported);
+                return;
             }
+            if (status == MappedCsvTokenizer.Status.UNSUPPORTED) {
+                listener.onBytesParsed(tokenizer.recordStart() - reported);
+                parseChunk(workspaceId, channel, tokenizer.recordStart(), end, expectedMonth, header, lineNumber, rowConsumer, listener);
+                return;
+            }
+
+            rowConsumer.accept(parseRow(workspaceId, fields, decoder, fingerprinter, ids, expectedMonth, lineNumber, details));
+            lineNumber++;
+
+            if ((lineNumber - firstLineNumber) % PROGRESS_REPORT_ROWS == 0) {
+                var position = tokenizer.position();
+                listener.onBytesParsed(position - reported);
+                reported = position;
+            }
+        }
+    }
+
+    /**
+     * Parses the range through commons-csv; the bytes not reported while parsing are reported at the end.
+     */
+    private void parseChunk(String workspaceId,
+                            FileChannel channel,
+                            long start,
+                            long end,
+                            YearMonth expectedMonth,
+                            String[] header,
+                            int firstLineNumber,
+                            Consumer<ParseResultRow> rowConsumer,
+                            ProgressListener listener) throws IOException {
+        var reported = parseChunk(workspaceId, new FileRangeInputStream(channel, start, end), expectedMonth, header,
+                firstLineNumber, rowConsumer);
+        listener.onBytesParsed(Math.max(0, end - start - reported));
+    }
+
+    private long parseChunk(String workspaceId,
+                            InputStream inputStream,
+                            YearMonth expectedMonth,
+                            String[] header,
+                            int firstLineNumber,
+                            Consumer<ParseResultRow> rowConsumer) throws IOException {
+        try (var reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            var records = CSVFormat.DEFAULT
+                    .builder()
+                    .setHeader(header)
+                    .setSkipHeaderRecord(false)
+                    .setTrim(true)
+                    .build()
+                    .parse(reader);
+
+            return parseRecords(workspaceId, records, expectedMonth, firstLineNumber, rowConsumer);
+        }
+    }
+
+    /**
+     * @return characters reported as parsed to the progress listener, which stand in for bytes
+     */
+    private long parseRecords(String workspaceId,
+                              Iterable<CSVRecord> records,
+                              YearMonth expectedMonth,
+                              int firstLineNumber,
+                              Consumer<ParseResultRow> rowConsumer) {
+        var decoder = new TransactionFieldDecoder();
+        var fingerprinter = new TransactionFingerprinter();
+        var ids = new TransactionIdGenerator(workspaceId, expectedMonth);
+        var listener = ProgressListener.of(rowConsumer);
+        var details = RejectionDetails.of(rowConsumer);
+        var lineNumber = firstLineNumber;
+        var reported = 0L;
+        for (var record : records) {
+            rowConsumer.accept(parseRow(workspaceId, new CsvRecordFields(record), decoder, fingerprinter, ids,
+                    expectedMonth, lineNumber, details));
+            lineNumber++;
 
-            return results;
+            if ((lineNumber - firstLineNumber) % PROGRESS_REPORT_ROWS == 0) {
+                listener.onBytesParsed(record.getCharacterPosition() - reported);
+                reported = record.getCharacterPosition();
+            }
         }
+        return reported;
     }
 
     private void validateHeaders(Map<String, Integer> headerMap) {
@@ -63,118 +211,314 @@ class CsvTransactionParser {
         requireHeader(headerMap, FIELD_AMOUNT);
     }
 
-    private ParseResultRow parseRow(String workspaceId, CSVRecord record, YearMonth expectedMonth, int lineNumber) {
-        try {
-            var iban = getRequiredField(record, FIELD_IBAN, lineNumber).trim().toUpperCase();
-            var date = parseDate(getRequiredField(record, FIELD_DATE, lineNumber).trim(), lineNumber);
-            var currency = getRequiredField(record, FIELD_CURRENCY, lineNumber).trim().toUpperCase();
-            var category = getRequiredField(record, FIELD_CATEGORY, lineNumber).trim();
-            var amount = parseAmount(getRequiredField(record, FIELD_AMOUNT, lineNumber).trim(), lineNumber);
-
-            validateIban(iban, lineNumber);
-            validateDateInMonth(date, expectedMonth, lineNumber);
-            validateCurrency(currency, lineNumber);
-            validateCategory(category, lineNumber);
-            validateAmountNonZero(amount, lineNumber);
+    /**
+     * Rejected rows keep the text of their record, for the rejected rows report; the offending value is only
+     * copied out of the record when the consumer is going to store the rejection message.
+     */
+    private ParseResultRow parseRow(String workspaceId,
+                                    RowFields fields,
+                                    TransactionFieldDecoder decoder,
+                                    TransactionFingerprinter fingerprinter,
+                                    TransactionIdGenerator ids,
+                                    YearMonth expectedMonth,
+                                    int lineNumber,
+                                    RejectionDetails details) {
+        var row = decodeRow(workspaceId, fields, decoder, fingerprinter, ids, expectedMonth, lineNumber, details);
+        return row.isValid() ? row : row.withLine(fields.line());
+    }
 
-            var document = TransactionDocument.builder()
-                    .id(UUID.randomUUID())
-                    .workspaceId(workspaceId)
-                    .year(expectedMonth.getYear())
-                    .month(expectedMonth.getMonthValue())
-                    .iban(iban)
-                    .transactionDate(date)
-                    .currency(currency)
-                    .category(category)
-                    .amount(amount)
-                    .build();
+    private ParseResultRow decodeRow(String workspaceId,
+                                     RowFields fields,
+                                     TransactionFieldDecoder decoder,
+                                     TransactionFingerprinter fingerprinter,
+                                     TransactionIdGenerator ids,
+                                     YearMonth expectedMonth,
+                                     int lineNumber,
+                                     RejectionDetails details) {
+        var ibanValue = fields.value(Column.IBAN);
+        if (ibanValue == null) {
+            return ParseResultRow.failure(RowRejection.MISSING_FIELD, lineNumber, FIELD_IBAN);
+        }
+        var dateValue = fields.value(Column.DATE);
+        if (dateValue == null) {
+            return ParseResultRow.failure(RowRejection.MISSING_FIELD, lineNumber, FIELD_DATE);
+        }
+        var date = TransactionFieldDecoder.decodeDate(dateValue);
+        if (date == null) {
+            return ParseResultRow.failure(RowRejection.INVALID_DATE_FORMAT, lineNumber, details.copy(dateValue));
+        }
+        var currencyValue = fields.value(Column.CURRENCY);
+        if (currencyValue == null) {
+            return ParseResultRow.failure(RowRejection.MISSING_FIELD, lineNumber, FIELD_CURRENCY);
+        }
+        var categoryValue = fields.value(Column.CATEGORY);
+        if (categoryValue == null) {
+            return ParseResultRow.failure(RowRejection.MISSING_FIELD, lineNumber, FIELD_CATEGORY);
+        }
+        var amountValue = fields.value(Column.AMOUNT);
+        if (amountValue == null) {
+            return ParseResultRow.failure(RowRejection.MISSING_FIELD, lineNumber, FIELD_AMOUNT);
+        }
+        var amount = decoder.decodeAmount(amountValue);
+        if (amount == null) {
+            return ParseResultRow.failure(RowRejection.INVALID_AMOUNT_FORMAT, lineNumber, details.copy(amountValue));
+        }
 
-            return ParseResultRow.success(document);
-        } catch (ParseException e) {
-            return ParseResultRow.failure(e.getMessage());
-        } catch (RuntimeException e) {
-            // Avoid leaking low-level details (commons-csv exceptions etc.)
-            return ParseResultRow.failure("Line " + lineNumber + ": invalid record format");
+        if (!TransactionFieldDecoder.isIban(ibanValue)) {
+            return ParseResultRow.failure(RowRejection.INVALID_IBAN_FORMAT, lineNumber, null);
+        }
+        if (date.getYear() != expectedMonth.getYear() || date.getMonthValue() != expectedMonth.getMonthValue()) {
+            return ParseResultRow.failure(RowRejection.DATE_NOT_IN_EXPECTED_MONTH, lineNumber, expectedMonth);
+        }
+        if (!TransactionFieldDecoder.isCurrency(currencyValue)) {
+            return ParseResultRow.failure(RowRejection.INVALID_CURRENCY, lineNumber, null);
+        }
+        if (categoryValue.length() > MAX_CATEGORY_LENGTH) {
+            return ParseResultRow.failure(RowRejection.INVALID_CATEGORY, lineNumber, null);
+        }
+        if (amount.signum() == 0) {
+            return ParseResultRow.failure(RowRejection.AMOUNT_MUST_BE_NON_ZERO, lineNumber, null);
         }
+
+        var iban = TransactionFieldDecoder.toUpperAscii(ibanValue);
+        var currency = TransactionFieldDecoder.toUpperAscii(currencyValue);
+        var category = categoryValue.toString();
+
+        var document = TransactionDocument.builder()
+                .id(ids.next())
+                .workspaceId(workspaceId)
+                .year(expectedMonth.getYear())
+                .month(expectedMonth.getMonthValue())
+                .iban(iban)
+                .transactionDate(date)
+                .currency(currency)
+                .category(category)
+                .amount(amount)
+                .fingerprint(fingerprinter.fingerprint(iban, date, currency, category, amount))
+                .build();
+
+        return ParseResultRow.success(document);
     }
 
-    private String getRequiredField(CSVRecord record, String fieldName, int lineNumber) {
-        final String value;
-        try {
-            value = record.get(fieldName);
-        } catch (RuntimeException e) {
-            throw ParseException.missingField(lineNumber, fieldName);
+    private void requireHeader(Map<String, Integer> header, String field) {
+        if (header == null || !header.containsKey(field)) {
+            throw ParseException.missingHeader(field);
         }
+    }
 
-        if (value == null || value.isBlank()) {
-            throw ParseException.missingField(lineNumber, fieldName);
+    private enum Column {
+        IBAN(FIELD_IBAN),
+        DATE(FIELD_DATE),
+        CURRENCY(FIELD_CURRENCY),
+        CATEGORY(FIELD_CATEGORY),
+        AMOUNT(FIELD_AMOUNT);
+
+        private final String headerName;
+
+        Column(String headerName) {
+            this.headerName = headerName;
         }
-        return value;
     }
 
-    private LocalDate parseDate(String dateString, int lineNumber) {
-        try {
-            return LocalDate.parse(dateString);
-        } catch (DateTimeParseException e) {
-            throw ParseException.invalidDateFormat(lineNumber, dateString);
-        }
+    /**
+     * Trimmed field values of one record.
+     */
+    private interface RowFields {
+
+        /**
+         * @return the value, or {@code null} when the field is missing or blank
+         */
+        CharSequence value(Column column);
+
+        /**
+         * Text of the whole record
+         */
+        String line();
     }
 
-    private BigDecimal parseAmount(String amountString, int lineNumber) {
-        try {
-            return new BigDecimal(amountString);
-        } catch (NumberFormatException e) {
-            throw ParseException.invalidAmountFormat(lineNumber, amountString);
+    private record CsvRecordFields(CSVRecord record) implements RowFields {
+
+        @Override
+        public CharSequence value(Column column) {
+            if (!record.isSet(column.headerName)) {
+                return null;
+            }
+            var value = record.get(column.headerName);
+            return value == null || value.isBlank() ? null : value;
+        }
+
+        /**
+         * Rebuilt from the trimmed values, commons-csv does not keep the raw record.
+         */
+        @Override
+        public String line() {
+            return CSVFormat.DEFAULT.format((Object[]) record.values());
         }
     }
 
-    private void validateDateInMonth(LocalDate date, YearMonth expectedMonth, int lineNumber) {
-        if (!YearMonth.from(date).equals(expectedMonth)) {
-            throw ParseException.dateNotInExpectedMonth(lineNumber, expectedMonth);
+    /**
+     * Column positions of the fixed {@code iban,date,currency,category,amount} layout, in any order.
+     */
+    private record FixedLayoutColumns(int[] positions) {
+
+        static FixedLayoutColumns resolve(String[] header) {
+            if (header.length != Column.values().length || Set.of(header).size() != header.length) {
+                return null;
+            }
+            var names = List.of(header);
+            var positions = new int[header.length];
+            for (var column : Column.values()) {
+                positions[column.ordinal()] = names.indexOf(column.headerName);
+                if (positions[column.ordinal()] < 0) {
+                    return null;
+                }
+            }
+            return new FixedLayoutColumns(positions);
         }
-    }
 
-    private void validateIban(String iban, int lineNumber) {
-        if (!IBAN_PATTERN.matcher(iban).matches()) {
-            throw ParseException.invalidIbanFormat(lineNumber);
+        int position(Column column) {
+            return positions[column.ordinal()];
         }
     }
 
-    private void validateCurrency(String currency, int lineNumber) {
-        if (!CURRENCY_PATTERN.matcher(currency).matches()) {
-            throw ParseException.invalidCurrency(lineNumber);
+    /**
+     * Exposes plain ASCII fields as views over the tokenizer slices, so a value is only copied into a string
+     * when it ends up in the document or in an error message.
+     */
+    private static final class MappedRowFields implements RowFields {
+
+        private final MappedCsvTokenizer tokenizer;
+        private final FixedLayoutColumns columns;
+        private final FieldSlice[] slices = new FieldSlice[Column.values().length];
+
+        private MappedRowFields(MappedCsvTokenizer tokenizer, FixedLayoutColumns columns) {
+            this.tokenizer = tokenizer;
+            this.columns = columns;
+            for (var column : Column.values()) {
+                slices[column.ordinal()] = new FieldSlice(tokenizer, columns.position(column));
+            }
+        }
+
+        @Override
+        public CharSequence value(Column column) {
+            var field = columns.position(column);
+            if (field >= tokenizer.fieldCount()) {
+                return null;
+            }
+            if (!tokenizer.isPlainAscii(field)) {
+                var text = tokenizer.text(field);
+                return text.isBlank() ? null : text;
+            }
+            return tokenizer.length(field) == 0 ? null : slices[column.ordinal()].bind();
+        }
+
+        @Override
+        public String line() {
+            return tokenizer.recordText();
         }
     }
 
-    private void validateCategory(String category, int lineNumber) {
-        if (category.isBlank() || category.length() > 100) {
-            throw ParseException.invalidCategory(lineNumber);
+    private static final class FieldSlice implements CharSequence {
+
+        private final MappedCsvTokenizer tokenizer;
+        private final int field;
+        private int length;
+
+        private FieldSlice(MappedCsvTokenizer tokenizer, int field) {
+            this.tokenizer = tokenizer;
+            this.field = field;
+        }
+
+        FieldSlice bind() {
+            length = tokenizer.length(field);
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) tokenizer.byteAt(field, index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return tokenizer.text(field);
         }
     }
 
-    private void validateAmountNonZero(BigDecimal amount, int lineNumber) {
-        if (amount.compareTo(BigDecimal.ZERO) == 0) {
-            throw ParseException.amountMustBeNonZero(lineNumber);
+    /**
+     * Implemented by row consumers that track how far into the file the parse got.
+     */
+    interface ProgressListener {
+
+        ProgressListener NONE = bytes -> {
+        };
+
+        void onBytesParsed(long bytes);
+
+        static ProgressListener of(Consumer<ParseResultRow> rowConsumer) {
+            return rowConsumer instanceof ProgressListener listener ? listener : NONE;
         }
     }
 
-    private void requireHeader(Map<String, Integer> header, String field) {
-        if (header == null || !header.containsKey(field)) {
-            throw ParseException.missingHeader(field);
+    /**
+     * Implemented by row consumers that store the rejection message of only some rejected rows, so the value a
+     * row was rejected for is not copied out of the record for the others.
+     */
+    interface RejectionDetails {
+
+        RejectionDetails ALL = () -> true;
+
+        /**
+         * @return whether the message of the next rejected row will be stored
+         */
+        boolean isRejectionDetailWanted();
+
+        /**
+         * @return the value as a string, or {@code null} when the message will not be stored
+         */
+        default String copy(CharSequence value) {
+            return isRejectionDetailWanted() ? value.toString() : null;
+        }
+
+        static RejectionDetails of(Consumer<ParseResultRow> rowConsumer) {
+            return rowConsumer instanceof RejectionDetails details ? details : ALL;
         }
     }
 
-    record ParseResultRow(TransactionDocument document, String error) {
+    /**
+     * Either a document or the reason the row was rejected; the rejection message is only formatted on demand.
+     *
+     * @param line text of a rejected record
+     */
+    record ParseResultRow(TransactionDocument document, RowRejection rejection, int lineNumber, Object detail, String line) {
         static ParseResultRow success(TransactionDocument document) {
-            return new ParseResultRow(document, null);
+            return new ParseResultRow(document, null, 0, null, null);
         }
 
-        static ParseResultRow failure(String error) {
-            return new ParseResultRow(null, error);
+        static ParseResultRow failure(RowRejection rejection, int lineNumber, Object detail) {
+            return new ParseResultRow(null, rejection, lineNumber, detail, null);
+        }
+
+        ParseResultRow withLine(String line) {
+            return new ParseResultRow(document, rejection, lineNumber, detail, line);
         }
 
         boolean isValid() {
-            return error == null;
+            return rejection == null;
+        }
+
+        String error() {
+            return isValid() ? null : rejection.message(lineNumber, detail);
         }
     }
 }
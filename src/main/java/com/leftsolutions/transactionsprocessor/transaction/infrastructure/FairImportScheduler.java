@@ -0,0 +1,276 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportAsyncProperties;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportQueueStatsDto;
+import com.leftsolutions.transactionsprocessor.transaction.exception.ImportQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Schedules imports onto the import executor. Every workspace waits in its own lane and lanes are served
+ * round-robin, so one workspace submitting many months cannot starve the others. Small files have a
+ * priority lane that is served every other dispatch while both lanes have work.
+ * <p>
+ * Submissions are admitted (or rejected with 429) before the caller writes any import state, and the
+ * admitted slot is kept until the import is enqueued or the admission is cancelled. With the shared import
+ * queue in front of it, this node only admits the imports it claimed.
+ */
+@Component
+@Slf4j
+class FairImportScheduler {
+
+    private static final double DURATION_SMOOTHING = 0.2;
+
+    private final TaskExecutor importExecutor;
+    private final ImportAsyncProperties properties;
+
+    private final Object lock = new Object();
+    private final LaneGroup priorityLanes = new LaneGroup();
+    private final LaneGroup regularLanes = new LaneGroup();
+    private final Map<String, WorkspaceCounters> counters = new HashMap<>();
+
+    private int queued;
+    private int running;
+    private boolean lastFromPriority;
+    private double averageImportMillis;
+
+    FairImportScheduler(@Qualifier("importExecutor") TaskExecutor importExecutor, ImportAsyncProperties properties) {
+        this.importExecutor = importExecutor;
+        this.properties = properties;
+        this.averageImportMillis = properties.getInitialImportDuration().toMillis();
+    }
+
+    /**
+     * Reserves a queue slot for an import of the workspace.
+     *
+     * @throws ImportQueueFullException when the global or the workspace queue is full
+     */
+    Admission admit(String workspaceId, long sizeBytes) {
+        synchronized (lock) {
+            if (queued >= properties.getQueueCapacity()) {
+                throw ImportQueueFullException.queueFull(estimateWait(running));
+            }
+
+            var workspace = counters.computeIfAbsent(workspaceId, id -> new WorkspaceCounters());
+            if (workspace.queued >= properties.getMaxQueuedPerWorkspace()) {
+                throw ImportQueueFullException.workspaceQueueFull(workspaceId, estimateWait(counters.size()));
+            }
+
+            queued++;
+            workspace.queued++;
+        }
+
+        return new Admission(workspaceId, sizeBytes <= properties.getSmallFileThreshold().toBytes());
+    }
+
+    /**
+     * Whether an import admitted now would start right away instead of waiting in a lane.
+     */
+    boolean hasFreeSlot() {
+        synchronized (lock) {
+            return queued + running < properties.getMaxPoolSize();
+        }
+    }
+
+    ImportQueueStatsDto getQueueStats(String workspaceId) {
+        synchronized (lock) {
+            var workspace = counters.getOrDefault(workspaceId, new WorkspaceCounters());
+            var oldest = Math.min(priorityLanes.oldestEnqueuedAt(workspaceId), regularLanes.oldestEnqueuedAt(workspaceId));
+            var oldestWaitMillis = oldest == Long.MAX_VALUE ? 0 : (System.nanoTime() - oldest) / 1_000_000;
+
+            return new ImportQueueStatsDto(
+                    workspaceId,
+                    workspace.queued,
+                    workspace.running,
+                    oldestWaitMillis,
+                    workspace.dispatched == 0 ? 0 : workspace.totalWaitMillis / workspace.dispatched,
+                    queued,
+                    running,
+                    properties.getQueueCapacity()
+            );
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            QueuedImport next;
+            synchronized (lock) {
+                if (running >= properties.getMaxPoolSize()) {
+                    return;
+                }
+                next = pollNext();
+                if (next == null) {
+                    return;
+                }
+
+                var waitMillis = (System.nanoTime() - next.enqueuedAt()) / 1_000_000;
+                var workspace = counters.get(next.workspaceId());
+                workspace.queued--;
+                workspace.running++;
+                workspace.dispatched++;
+                workspace.totalWaitMillis += waitMillis;
+                queued--;
+                running++;
+            }
+
+            try {
+                importExecutor.execute(() -> run(next));
+            } catch (TaskRejectedException e) {
+                log.warn("Import executor rejected import of workspaceId={}, keeping it queued", next.workspaceId(), e);
+                synchronized (lock) {
+                    var workspace = counters.get(next.workspaceId());
+                    workspace.running--;
+                    workspace.queued++;
+                    workspace.dispatched--;
+                    queued++;
+                    running--;
+                    (next.small() ? priorityLanes : regularLanes).pushFront(next);
+                }
+                return;
+            }
+        }
+    }
+
+    private void run(QueuedImport queuedImport) {
+        var start = System.nanoTime();
+        try {
+            queuedImport.task().run();
+        } finally {
+            var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            synchronized (lock) {
+                running--;
+                var workspace = counters.get(queuedImport.workspaceId());
+                workspace.running--;
+                releaseIfIdle(queuedImport.workspaceId(), workspace);
+                averageImportMillis += DURATION_SMOOTHING * (elapsedMillis - averageImportMillis);
+            }
+            dispatch();
+        }
+    }
+
+    private QueuedImport pollNext() {
+        var preferPriority = !lastFromPriority || regularLanes.isEmpty();
+        if (preferPriority && !priorityLanes.isEmpty()) {
+            lastFromPriority = true;
+            return priorityLanes.poll();
+        }
+
+        lastFromPriority = false;
+        return regularLanes.isEmpty() ? priorityLanes.poll() : regularLanes.poll();
+    }
+
+    /**
+     * Rough time until a queued import gets a slot: the imports ahead of it finish {@code maxPoolSize}
+     * at a time. A full queue waits for one running import, a full workspace lane for one round-robin cycle
+     * over the busy workspaces.
+     */
+    Duration estimateWait(int importsAhead) {
+        var slots = Math.max(1, properties.getMaxPoolSize());
+        var rounds = Math.max(1, (importsAhead + slots - 1) / slots);
+        return Duration.ofMillis(Math.round(rounds * averageImportMillis));
+    }
+
+    /**
+     * Smoothed duration of the imports this node ran, the initial estimate until it ran some.
+     */
+    Duration averageImportDuration() {
+        synchronized (lock) {
+            return Duration.ofMillis(Math.round(averageImportMillis));
+        }
+    }
+
+    private void releaseIfIdle(String workspaceId, WorkspaceCounters workspace) {
+        if (workspace.queued == 0 && workspace.running == 0) {
+            counters.remove(workspaceId);
+        }
+    }
+
+    /**
+     * A reserved queue slot; exactly one of {@link #submit} or {@link #cancel} has to be called.
+     */
+    final class Admission {
+
+        private final String workspaceId;
+        private final boolean small;
+
+        private Admission(String workspaceId, boolean small) {
+            this.workspaceId = workspaceId;
+            this.small = small;
+        }
+
+        void submit(Runnable task) {
+            synchronized (lock) {
+                (small ? priorityLanes : regularLanes).add(new QueuedImport(workspaceId, small, task, System.nanoTime()));
+            }
+            dispatch();
+        }
+
+        void cancel() {
+            synchronized (lock) {
+                var workspace = counters.get(workspaceId);
+                workspace.queued--;
+                queued--;
+                releaseIfIdle(workspaceId, workspace);
+            }
+        }
+    }
+
+    private record QueuedImport(String workspaceId, boolean small, Runnable task, long enqueuedAt) {
+    }
+
+    private static final class WorkspaceCounters {
+        private int queued;
+        private int running;
+        private long dispatched;
+        private long totalWaitMillis;
+    }
+
+    /**
+     * Per-workspace FIFO lanes served round-robin: the served workspace moves to the end of the rotation.
+     */
+    private static final class LaneGroup {
+
+        private final LinkedHashMap<String, ArrayDeque<QueuedImport>> lanes = new LinkedHashMap<>();
+
+        void add(QueuedImport queuedImport) {
+            lanes.computeIfAbsent(queuedImport.workspaceId(), id -> new ArrayDeque<>()).addLast(queuedImport);
+        }
+
+        void pushFront(QueuedImport queuedImport) {
+            lanes.computeIfAbsent(queuedImport.workspaceId(), id -> new ArrayDeque<>()).addFirst(queuedImport);
+        }
+
+        boolean isEmpty() {
+            return lanes.isEmpty();
+        }
+
+        QueuedImport poll() {
+            var iterator = lanes.entrySet().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+
+            var lane = iterator.next();
+            iterator.remove();
+            var next = lane.getValue().pollFirst();
+            if (!lane.getValue().isEmpty()) {
+                lanes.put(lane.getKey(), lane.getValue());
+            }
+            return next;
+        }
+
+        long oldestEnqueuedAt(String workspaceId) {
+            var lane = lanes.get(workspaceId);
+            return lane == null || lane.isEmpty() ? Long.MAX_VALUE : lane.peekFirst().enqueuedAt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads the {@code [start, end)} byte range of a file with positional reads, so several ranges
+ * can be consumed concurrently from one shared {@link FileChannel}.
+ */
+class FileRangeInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+
+    private long position;
+
+    FileRangeInputStream(FileChannel channel, long start, long end) {
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+
+        var count = Math.min(length, buffer.remaining());
+        buffer.get(target, offset, count);
+        return count;
+    }
+
+    private boolean fill() throws IOException {
+        if (buffer.hasRemaining()) {
+            return true;
+        }
+        if (position >= end) {
+            return false;
+        }
+
+        buffer.clear();
+        buffer.limit((int) Math.min(BUFFER_SIZE, end - position));
+        var read = channel.read(buffer, position);
+        buffer.flip();
+
+        if (read <= 0) {
+            return false;
+        }
+        position += read;
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the rejected rows of an import in constant memory: a counter per rejection reason, the messages of
+ * the first rows as a sample, and every rejected row in the optional {@link RejectedRowsReport}.
+ */
+class ImportErrorSink {
+
+    private final int maxSampledErrors;
+    private final RejectedRowsReport report;
+
+    private final long[] counts = new long[RowRejection.values().length];
+    private final List<String> sample = new ArrayList<>();
+
+    private int rejectedRows;
+
+    /**
+     * @param report receives every rejected row, {@code null} to keep only the counters and the sample
+     */
+    ImportErrorSink(int maxSampledErrors, RejectedRowsReport report) {
+        this.maxSampledErrors = maxSampledErrors;
+        this.report = report;
+    }
+
+    void accept(CsvTransactionParser.ParseResultRow row) {
+        rejectedRows++;
+        counts[row.rejection().ordinal()]++;
+        if (isSampling()) {
+            sample.add(row.error());
+        }
+        if (report != null) {
+            report.write(row);
+        }
+    }
+
+    /**
+     * @return whether the message of the next rejected row goes into the sample
+     */
+    boolean isSampling() {
+        return sample.size() < maxSampledErrors;
+    }
+
+    ImportErrorSink newChunkSink() {
+        return new ImportErrorSink(maxSampledErrors, report == null ? null : report.newChunkReport());
+    }
+
+    /**
+     * Finishes the chunk's part of the report, so a parallel parse keeps at most one open file per parse thread.
+     */
+    void finishChunk() {
+        if (report != null) {
+            report.close();
+        }
+    }
+
+    /**
+     * Folds a chunk's rejections in; chunks have to be merged in file order.
+     */
+    void merge(ImportErrorSink chunk) {
+        rejectedRows += chunk.rejectedRows;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += chunk.counts[i];
+        }
+        for (var error : chunk.sample) {
+            if (sample.size() >= maxSampledErrors) {
+                break;
+            }
+            sample.add(error);
+        }
+        if (report != null && chunk.report != null) {
+            report.append(chunk.report);
+        }
+    }
+
+    void discardReport() {
+        if (report != null) {
+            report.delete();
+        }
+    }
+
+    int rejectedRows() {
+        return rejectedRows;
+    }
+
+    List<String> sample() {
+        return List.copyOf(sample);
+    }
+
+    /**
+     * Rejected rows per {@link RowRejection} name, reasons without rejections are left out.
+     */
+    Map<String, Long> counts() {
+        var result = new LinkedHashMap<String, Long>();
+        for (var rejection : RowRejection.values()) {
+            if (counts[rejection.ordinal()] > 0) {
+                result.put(rejection.name(), counts[rejection.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the finished report, or {@code null} when there is none or no row was rejected
+     */
+    Path finishReport() {
+        return report == null ? null : report.finish();
+    }
+}
@@ -0,0 +1,56 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportLeaseDto;
+
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Lease this node holds on a claimed queue entry while it runs the import. Once the heartbeat could not renew
+ * it, the import stops before its next write; writes that race the heartbeat are rejected by the import job,
+ * which only accepts them under the lease it last recorded.
+ */
+final class ImportLease {
+
+    private static final String MSG_LOST = "Import lease of workspaceId=%s, month=%s was taken over by another attempt";
+
+    private final UUID entryId;
+    private final String workspaceId;
+    private final YearMonth month;
+    private final ImportLeaseDto token;
+
+    private volatile boolean lost;
+
+    ImportLease(ImportQueueDocument entry) {
+        this.entryId = entry.getId();
+        this.workspaceId = entry.getWorkspaceId();
+        this.month = entry.yearMonth();
+        this.token = new ImportLeaseDto(entry.getLeaseOwner(), entry.getAttempts());
+    }
+
+    UUID entryId() {
+        return entryId;
+    }
+
+    String workspaceId() {
+        return workspaceId;
+    }
+
+    ImportLeaseDto token() {
+        return token;
+    }
+
+    void lose() {
+        lost = true;
+    }
+
+    /**
+     * @throws CancellationException once the lease was lost
+     */
+    void checkHeld() {
+        if (lost) {
+            throw new CancellationException(MSG_LOST.formatted(workspaceId, month));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportProgressDto;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a running import, updated by the parse and write threads and read by the progress publisher.
+ */
+class ImportProgress {
+
+    private final long totalBytes;
+    private final long startedAt;
+
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder rowsParsed = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+
+    ImportProgress(long totalBytes) {
+        this(totalBytes, System.nanoTime());
+    }
+
+    ImportProgress(long totalBytes, long startedAt) {
+        this.totalBytes = totalBytes;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * For sinks whose progress nobody reads.
+     */
+    static ImportProgress untracked() {
+        return new ImportProgress(0);
+    }
+
+    void bytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    void rowParsed() {
+        rowsParsed.increment();
+    }
+
+    void rowsWritten(int rows) {
+        rowsWritten.add(rows);
+    }
+
+    ImportProgressDto snapshot() {
+        return snapshot(System.nanoTime());
+    }
+
+    /**
+     * The ETA assumes the rest of the file is read at the average speed so far; the revision and timestamp
+     * are assigned when the snapshot is stored.
+     */
+    ImportProgressDto snapshot(long now) {
+        var elapsed = Duration.ofNanos(Math.max(1, now - startedAt));
+        var read = Math.min(bytesRead.sum(), totalBytes);
+        var written = rowsWritten.sum();
+
+        var rowsPerSecond = written * 1_000_000_000d / elapsed.toNanos();
+        var etaSeconds = read > 0 && totalBytes > 0
+                ? (long) Math.ceil(elapsed.toNanos() / 1_000_000_000d * (totalBytes - read) / read)
+                : null;
+
+        return new ImportProgressDto(0, read, totalBytes, rowsParsed.sum(), written, rowsPerSecond, etaSeconds, null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobKeyDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the progress of the imports running on this node at a fixed interval, so the pipeline threads only
+ * bump in-memory counters and every import costs one write per interval, whatever its size.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class ImportProgressPublisher {
+
+    private final ImportingFacade importingFacade;
+
+    private final Map<ImportJobKeyDto, ImportProgress> running = new ConcurrentHashMap<>();
+
+    ImportProgress track(String workspaceId, YearMonth month, long totalBytes) {
+        var progress = new ImportProgress(totalBytes);
+        running.put(new ImportJobKeyDto(workspaceId, month), progress);
+        return progress;
+    }
+
+    void untrack(String workspaceId, YearMonth month, ImportProgress progress) {
+        running.remove(new ImportJobKeyDto(workspaceId, month), progress);
+    }
+
+    @Scheduled(fixedDelayString = "${import.progress.publish-interval:PT2S}")
+    void publish() {
+        running.forEach((job, progress) -> {
+            try {
+                importingFacade.publishProgress(job.workspaceId(), job.month(), progress.snapshot());
+            } catch (RuntimeException e) {
+                log.warn("Could not publish import progress workspaceId={}, month={}: {}",
+                        job.workspaceId(), job.month(), e.getMessage());
+            }
+        });
+    }
+}
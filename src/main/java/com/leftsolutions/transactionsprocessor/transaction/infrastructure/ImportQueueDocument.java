@@ -0,0 +1,91 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * An import waiting for or claimed by a worker node. The CSV file lives in GridFS, so any node can run it.
+ * At most one entry exists per workspace and month; it is removed once the import finished.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Document("import_queue")
+@CompoundIndexes({
+        @CompoundIndex(
+                name = "import_queue_workspace_year_month_uq",
+                def = "{'workspaceId': 1, 'year': 1, 'month': 1}",
+                unique = true
+        ),
+        @CompoundIndex(
+                name = "import_queue_state_enqueued_idx",
+                def = "{'state': 1, 'enqueuedAt': 1}"
+        )
+})
+class ImportQueueDocument {
+
+    @Id
+    private UUID id;
+
+    private String workspaceId;
+
+    private int year;
+    private int month;
+
+    private ImportMode mode;
+
+    /**
+     * GridFS file holding the CSV
+     */
+    private ObjectId fileId;
+
+    private long sizeBytes;
+
+    private State state;
+
+    /**
+     * Claims so far, including the current one
+     */
+    private int attempts;
+
+    private String leaseOwner;
+    private Instant leaseExpiresAt;
+
+    private Instant enqueuedAt;
+
+    static ImportQueueDocument queued(String workspaceId, YearMonth month, ImportMode mode, ObjectId fileId, long sizeBytes) {
+        return ImportQueueDocument.builder()
+                .id(UUID.randomUUID())
+                .workspaceId(workspaceId)
+                .year(month.getYear())
+                .month(month.getMonthValue())
+                .mode(mode)
+                .fileId(fileId)
+                .sizeBytes(sizeBytes)
+                .state(State.QUEUED)
+                .enqueuedAt(Instant.now())
+                .build();
+    }
+
+    YearMonth yearMonth() {
+        return YearMonth.of(year, month);
+    }
+
+    enum State {
+        QUEUED,
+        RUNNING
+    }
+}
@@ -0,0 +1,404 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportAsyncProperties;
+import com.leftsolutions.transactionsprocessor.config.ImportQueueProperties;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportQueueStatsDto;
+import com.leftsolutions.transactionsprocessor.transaction.domain.ImportQueueFacade;
+import com.leftsolutions.transactionsprocessor.transaction.exception.ImportAlreadyProcessingException;
+import com.leftsolutions.transactionsprocessor.transaction.exception.ImportQueueFullException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Mongo-backed queue of imports shared by all nodes. API nodes store the CSV in GridFS, reserve a slot of the
+ * queue and enqueue it, worker nodes claim entries with an atomic {@code findAndModify} that takes a lease on them
+ * and frees the slot. Leases are renewed by heartbeats while the import runs; an entry whose lease expired (its
+ * node died) is claimed again by another node until it runs out of attempts.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+class ImportQueueService implements ImportQueueFacade {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_WORKSPACE_ID = "workspaceId";
+    private static final String FIELD_YEAR = "year";
+    private static final String FIELD_MONTH = "month";
+    private static final String FIELD_STATE = "state";
+    private static final String FIELD_ATTEMPTS = "attempts";
+    private static final String FIELD_LEASE_OWNER = "leaseOwner";
+    private static final String FIELD_LEASE_EXPIRES_AT = "leaseExpiresAt";
+    private static final String FIELD_ENQUEUED_AT = "enqueuedAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final GridFsTemplate gridFsTemplate;
+    private final ImportQueueProperties properties;
+    private final ImportAsyncProperties asyncProperties;
+    private final FairImportScheduler importScheduler;
+
+    /**
+     * Rejects the submission with 429 when the shared queue or the workspace's share of it is full, before its
+     * file is stored. Only a hint: the slot itself is taken by {@link #reserve}.
+     */
+    void checkAdmission(String workspaceId) {
+        var slots = mongoTemplate.find(
+                Query.query(Criteria.where(FIELD_ID).in(ImportQueueSlotsDocument.ALL, ImportQueueSlotsDocument.workspace(workspaceId))),
+                ImportQueueSlotsDocument.class
+        );
+        for (var slot : slots) {
+            if (slot.getId().equals(ImportQueueSlotsDocument.ALL) && slot.reserved() >= asyncProperties.getQueueCapacity()) {
+                throw queueFull(slot.reserved());
+            }
+            if (!slot.getId().equals(ImportQueueSlotsDocument.ALL) && slot.reserved() >= asyncProperties.getMaxQueuedPerWorkspace()) {
+                throw workspaceQueueFull(workspaceId);
+            }
+        }
+    }
+
+    /**
+     * Takes a slot of the shared queue and one of the workspace's share for the stored entry; call before the
+     * import job is moved to processing. The slot is freed when the entry is claimed or discarded.
+     *
+     * @throws ImportQueueFullException when either is full
+     */
+    void reserve(ImportQueueDocument entry) {
+        var reservation = new ImportQueueSlotsDocument.Reservation(entry.getId(), Instant.now());
+        if (!reserve(ImportQueueSlotsDocument.ALL, asyncProperties.getQueueCapacity(), reservation)) {
+            throw queueFull(asyncProperties.getQueueCapacity());
+        }
+        if (!reserve(ImportQueueSlotsDocument.workspace(entry.getWorkspaceId()), asyncProperties.getMaxQueuedPerWorkspace(), reservation)) {
+            release(entry);
+            throw workspaceQueueFull(entry.getWorkspaceId());
+        }
+    }
+
+    /**
+     * Pushes the reservation only while the document holds fewer than {@code limit}; a full document does not match,
+     * and the upsert then collides with it on {@code _id}.
+     */
+    private boolean reserve(String slotsId, int limit, ImportQueueSlotsDocument.Reservation reservation) {
+        var notFull = Criteria.where(FIELD_ID).is(slotsId)
+                .and(ImportQueueSlotsDocument.FIELD_RESERVATIONS + "." + (limit - 1)).exists(false);
+        try {
+            mongoTemplate.upsert(Query.query(notFull),
+                    new Update().push(ImportQueueSlotsDocument.FIELD_RESERVATIONS, reservation),
+                    ImportQueueSlotsDocument.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void release(ImportQueueDocument entry) {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where(FIELD_ID).in(ImportQueueSlotsDocument.ALL, ImportQueueSlotsDocument.workspace(entry.getWorkspaceId()))),
+                new Update().pull(ImportQueueSlotsDocument.FIELD_RESERVATIONS,
+                        Query.query(Criteria.where(ImportQueueSlotsDocument.FIELD_ENTRY_ID).is(entry.getId()))),
+                ImportQueueSlotsDocument.class
+        );
+    }
+
+    /**
+     * Frees slots reserved longer than a lease ago for entries that are not waiting in the queue, left behind by a
+     * node that died between reserving and queueing.
+     */
+    void releaseAbandonedReservations() {
+        var waiting = Query.query(Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.QUEUED));
+        waiting.fields().include(FIELD_ID);
+        var waitingIds = mongoTemplate.find(waiting, ImportQueueDocument.class).stream()
+                .map(ImportQueueDocument::getId)
+                .toList();
+
+        mongoTemplate.updateMulti(
+                new Query(),
+                new Update().pull(ImportQueueSlotsDocument.FIELD_RESERVATIONS, Query.query(
+                        Criteria.where(ImportQueueSlotsDocument.FIELD_ENTRY_ID).nin(waitingIds)
+                                .and(ImportQueueSlotsDocument.FIELD_RESERVED_AT).lt(Instant.now().minus(properties.getLeaseDuration())))),
+                ImportQueueSlotsDocument.class
+        );
+    }
+
+    private ImportQueueFullException queueFull(int reserved) {
+        return ImportQueueFullException.queueFull(estimateWait(reserved - asyncProperties.getQueueCapacity() + 1));
+    }
+
+    /**
+     * The workspace waits until its oldest queued entry is claimed, behind every entry queued before it.
+     */
+    private ImportQueueFullException workspaceQueueFull(String workspaceId) {
+        var oldest = mongoTemplate.findOne(
+                waitingFor(workspaceId).with(Sort.by(Sort.Direction.ASC, FIELD_ENQUEUED_AT)),
+                ImportQueueDocument.class);
+        var ahead = oldest == null ? 1 : mongoTemplate.count(
+                Query.query(Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.QUEUED)
+                        .and(FIELD_ENQUEUED_AT).lte(oldest.getEnqueuedAt())),
+                ImportQueueDocument.class);
+        return ImportQueueFullException.workspaceQueueFull(workspaceId, estimateWait(ahead));
+    }
+
+    /**
+     * Rough time until the cluster claimed {@code importsAhead} more entries: one is claimed whenever one of the
+     * imports running on all nodes finishes, each taking the average import duration.
+     */
+    private Duration estimateWait(long importsAhead) {
+        var running = mongoTemplate.count(
+                Query.query(Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.RUNNING)), ImportQueueDocument.class);
+        return importScheduler.averageImportDuration()
+                .multipliedBy(Math.max(1, importsAhead))
+                .dividedBy(Math.max(1, running));
+    }
+
+    /**
+     * Copies the CSV into GridFS, where every node can read it, and returns the entry to {@link #enqueue}
+     * or {@link #discard}.
+     */
+    ImportQueueDocument store(String workspaceId, YearMonth month, ImportMode mode, Path csvFile) {
+        try (var input = Files.newInputStream(csvFile)) {
+            var sizeBytes = Files.size(csvFile);
+            var fileId = gridFsTemplate.store(input, csvFile.getFileName().toString(),
+                    new Document("workspaceId", workspaceId).append("month", month.toString()));
+            return ImportQueueDocument.queued(workspaceId, month, mode, fileId, sizeBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Queues a stored entry; call once the import job was moved to processing.
+     *
+     * @throws ImportAlreadyProcessingException when the month already has a queued or running import
+     */
+    void enqueue(ImportQueueDocument entry) {
+        try {
+            mongoTemplate.insert(entry);
+        } catch (DuplicateKeyException e) {
+            discard(entry);
+            throw new ImportAlreadyProcessingException(entry.getWorkspaceId(), entry.yearMonth());
+        }
+    }
+
+    /**
+     * Frees the entry's slot, if it holds one, and deletes its file.
+     */
+    void discard(ImportQueueDocument entry) {
+        release(entry);
+        deleteFile(entry.getFileId());
+    }
+
+    boolean isQueued(String workspaceId, YearMonth month) {
+        return mongoTemplate.exists(
+                Query.query(Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId)
+                        .and(FIELD_YEAR).is(month.getYear())
+                        .and(FIELD_MONTH).is(month.getMonthValue())),
+                ImportQueueDocument.class
+        );
+    }
+
+    /**
+     * Claims the oldest claimable entry of a workspace other than {@code busyWorkspaces}, falling back to any
+     * workspace, so a node spreads its slots across workspaces before running two imports of one.
+     */
+    Optional<ImportQueueDocument> claim(Collection<String> busyWorkspaces) {
+        var claimed = busyWorkspaces.isEmpty()
+                ? Optional.<ImportQueueDocument>empty()
+                : claimMatching(List.of(Criteria.where(FIELD_WORKSPACE_ID).nin(busyWorkspaces)));
+        if (claimed.isEmpty()) {
+            claimed = claimMatching(List.of());
+        }
+        claimed.ifPresent(this::release);
+        return claimed;
+    }
+
+    private Optional<ImportQueueDocument> claimMatching(List<Criteria> workspaceCriteria) {
+        var now = Instant.now();
+        var claimable = new Criteria().orOperator(
+                Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.QUEUED),
+                Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.RUNNING)
+                        .and(FIELD_LEASE_EXPIRES_AT).lt(now)
+        );
+        var criteria = new ArrayList<>(workspaceCriteria);
+        criteria.add(claimable);
+        criteria.add(Criteria.where(FIELD_ATTEMPTS).lt(properties.getMaxAttempts()));
+        var query = Query.query(new Criteria().andOperator(criteria))
+                .with(Sort.by(Sort.Direction.ASC, FIELD_ENQUEUED_AT));
+
+        var update = new Update()
+                .set(FIELD_STATE, ImportQueueDocument.State.RUNNING)
+                .set(FIELD_LEASE_OWNER, properties.getNodeId())
+                .set(FIELD_LEASE_EXPIRES_AT, now.plus(properties.getLeaseDuration()))
+                .inc(FIELD_ATTEMPTS, 1);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), ImportQueueDocument.class));
+    }
+
+    /**
+     * Hands a claimed entry back without counting the attempt, e.g. when the local slots filled up meanwhile. The
+     * entry takes its queue slots back even when the queue filled up meanwhile, it was admitted already.
+     */
+    void unclaim(ImportQueueDocument entry) {
+        var reservation = new ImportQueueSlotsDocument.Reservation(entry.getId(), Instant.now());
+        for (var slotsId : List.of(ImportQueueSlotsDocument.ALL, ImportQueueSlotsDocument.workspace(entry.getWorkspaceId()))) {
+            mongoTemplate.upsert(Query.query(Criteria.where(FIELD_ID).is(slotsId)),
+                    new Update().push(ImportQueueSlotsDocument.FIELD_RESERVATIONS, reservation),
+                    ImportQueueSlotsDocument.class);
+        }
+        mongoTemplate.updateFirst(
+                ownedBy(entry),
+                new Update()
+                        .set(FIELD_STATE, ImportQueueDocument.State.QUEUED)
+                        .unset(FIELD_LEASE_OWNER)
+                        .unset(FIELD_LEASE_EXPIRES_AT)
+                        .inc(FIELD_ATTEMPTS, -1),
+                ImportQueueDocument.class
+        );
+    }
+
+    /**
+     * Extends the given leases while this node still holds them at the attempt it claimed.
+     *
+     * @return entry ids of the leases still held; a missing one was taken over by another attempt
+     */
+    Set<UUID> renewLeases(Collection<ImportLease> leases) {
+        var held = leases.stream()
+                .map(lease -> Criteria.where(FIELD_ID).is(lease.entryId()).and(FIELD_ATTEMPTS).is(lease.token().attempt()))
+                .toList();
+        var query = Query.query(Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.RUNNING)
+                .and(FIELD_LEASE_OWNER).is(properties.getNodeId())
+                .orOperator(held));
+
+        mongoTemplate.updateMulti(
+                query,
+                new Update().set(FIELD_LEASE_EXPIRES_AT, Instant.now().plus(properties.getLeaseDuration())),
+                ImportQueueDocument.class
+        );
+        query.fields().include(FIELD_ID);
+        return mongoTemplate.find(query, ImportQueueDocument.class).stream()
+                .map(ImportQueueDocument::getId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Removes a finished entry and its file, unless another attempt took it over after this one lost the lease.
+     */
+    void complete(ImportQueueDocument entry) {
+        var removed = mongoTemplate.remove(ownedBy(entry), ImportQueueDocument.class).getDeletedCount();
+        if (removed == 0) {
+            log.warn("Import queue entry id={} workspaceId={}, month={} was taken over by another node",
+                    entry.getId(), entry.getWorkspaceId(), entry.yearMonth());
+            return;
+        }
+        deleteFile(entry.getFileId());
+    }
+
+    /**
+     * Removes entries whose lease expired on their last allowed attempt; the caller marks their imports failed.
+     */
+    List<ImportQueueDocument> removeExhausted() {
+        var now = Instant.now();
+        var exhausted = Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.RUNNING)
+                .and(FIELD_LEASE_EXPIRES_AT).lt(now)
+                .and(FIELD_ATTEMPTS).gte(properties.getMaxAttempts());
+
+        var removed = new ArrayList<ImportQueueDocument>();
+        for (var candidate : mongoTemplate.find(Query.query(exhausted), ImportQueueDocument.class)) {
+            var entry = mongoTemplate.findAndRemove(
+                    Query.query(Criteria.where(FIELD_ID).is(candidate.getId()).and(FIELD_LEASE_EXPIRES_AT).lt(now)),
+                    ImportQueueDocument.class);
+            if (entry != null) {
+                deleteFile(entry.getFileId());
+                removed.add(entry);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Copies the entry's CSV from GridFS into a local file for the parsers, which need random access.
+     */
+    Path download(ImportQueueDocument entry, Path directory) throws IOException {
+        var file = gridFsTemplate.findOne(Query.query(Criteria.where(FIELD_ID).is(entry.getFileId())));
+        if (file == null) {
+            throw new IOException("Import file %s of queue entry %s is missing".formatted(entry.getFileId(), entry.getId()));
+        }
+
+        Files.createDirectories(directory);
+        var target = Files.createTempFile(directory,
+                "transactions-" + entry.getWorkspaceId() + "-" + entry.yearMonth() + "-", ".csv");
+        try (var input = gridFsTemplate.getResource(file).getInputStream()) {
+            Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    @Override
+    public ImportQueueStatsDto getQueueStats(String workspaceId) {
+        var local = importScheduler.getQueueStats(workspaceId);
+        var oldest = mongoTemplate.findOne(
+                waitingFor(workspaceId).with(Sort.by(Sort.Direction.ASC, FIELD_ENQUEUED_AT)),
+                ImportQueueDocument.class);
+
+        return new ImportQueueStatsDto(
+                workspaceId,
+                (int) mongoTemplate.count(waitingFor(workspaceId), ImportQueueDocument.class),
+                (int) mongoTemplate.count(runningFor(workspaceId), ImportQueueDocument.class),
+                oldest == null ? 0 : Duration.between(oldest.getEnqueuedAt(), Instant.now()).toMillis(),
+                local.averageWaitMillis(),
+                (int) mongoTemplate.count(Query.query(Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.QUEUED)), ImportQueueDocument.class),
+                (int) mongoTemplate.count(Query.query(Criteria.where(FIELD_STATE).is(ImportQueueDocument.State.RUNNING)), ImportQueueDocument.class),
+                asyncProperties.getQueueCapacity()
+        );
+    }
+
+    /**
+     * Matches the entry while it is still claimed by this node at the entry's attempt.
+     */
+    private Query ownedBy(ImportQueueDocument entry) {
+        return Query.query(Criteria.where(FIELD_ID).is(entry.getId())
+                .and(FIELD_LEASE_OWNER).is(properties.getNodeId())
+                .and(FIELD_ATTEMPTS).is(entry.getAttempts()));
+    }
+
+    private static Query waitingFor(String workspaceId) {
+        return Query.query(Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId).and(FIELD_STATE).is(ImportQueueDocument.State.QUEUED));
+    }
+
+    private static Query runningFor(String workspaceId) {
+        return Query.query(Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId).and(FIELD_STATE).is(ImportQueueDocument.State.RUNNING));
+    }
+
+    private void deleteFile(ObjectId fileId) {
+        gridFsTemplate.delete(Query.query(Criteria.where(FIELD_ID).is(fileId)));
+    }
+}
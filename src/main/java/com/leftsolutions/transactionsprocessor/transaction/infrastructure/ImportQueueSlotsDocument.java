@@ -0,0 +1,48 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Slots of the shared import queue, one document for the whole queue and one per workspace. An entry holds a slot
+ * from just before it is queued until a worker claims it; a slot is taken by a single conditional update that
+ * fails once the document holds as many reservations as the limit allows, so concurrent submissions on any number
+ * of nodes never overfill the queue.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("import_queue_slots")
+class ImportQueueSlotsDocument {
+
+    static final String ALL = "all";
+    static final String FIELD_RESERVATIONS = "reservations";
+    static final String FIELD_ENTRY_ID = "entryId";
+    static final String FIELD_RESERVED_AT = "reservedAt";
+
+    @Id
+    private String id;
+
+    private List<Reservation> reservations;
+
+    static String workspace(String workspaceId) {
+        return "workspace:" + workspaceId;
+    }
+
+    int reserved() {
+        return reservations == null ? 0 : reservations.size();
+    }
+
+    /**
+     * @param entryId queue entry holding the slot
+     */
+    record Reservation(UUID entryId, Instant reservedAt) {
+    }
+}
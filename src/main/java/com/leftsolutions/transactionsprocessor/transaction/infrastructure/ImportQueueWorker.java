@@ -0,0 +1,143 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportQueueProperties;
+import com.leftsolutions.transactionsprocessor.config.ImportUploadProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.transaction.exception.ImportQueueFullException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Claims imports from the shared queue while this node has free import slots and runs them through the
+ * local fair scheduler. Leases of the running imports are renewed by a heartbeat, and an import whose lease
+ * was taken over stops; imports whose lease ran out on their last attempt are marked failed, so a dead node
+ * never leaves a month blocked.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class ImportQueueWorker {
+
+    private static final String MSG_ATTEMPTS_EXHAUSTED = "Import abandoned after %d attempts, the nodes running it stopped responding";
+    private static final String MSG_NEVER_QUEUED = "Import abandoned, the node accepting it stopped before queueing it";
+
+    private final ImportQueueService importQueueService;
+    private final FairImportScheduler importScheduler;
+    private final MonthlyImportRunner monthlyImportRunner;
+    private final ImportingFacade importingFacade;
+    private final ImportQueueProperties properties;
+    private final ImportUploadProperties uploadProperties;
+
+    /**
+     * Lease of every import this node claimed and has not finished yet, keyed by queue entry id
+     */
+    private final Map<UUID, ImportLease> claimed = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${import.queue.poll-interval:PT2S}")
+    void poll() {
+        if (!properties.getRole().runsImports()) {
+            return;
+        }
+
+        while (importScheduler.hasFreeSlot()) {
+            var busyWorkspaces = claimed.values().stream().map(ImportLease::workspaceId).collect(Collectors.toSet());
+            var entry = importQueueService.claim(busyWorkspaces);
+            if (entry.isEmpty()) {
+                return;
+            }
+            if (!start(entry.get())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Also fails jobs left {@code PROCESSING} without a queue entry, by an API node that died between
+     * starting the job and queueing its file.
+     */
+    @Scheduled(fixedDelayString = "${import.queue.heartbeat-interval:PT20S}", scheduler = "importLeaseScheduler")
+    void heartbeat() {
+        if (!properties.getRole().runsImports()) {
+            return;
+        }
+
+        var running = List.copyOf(claimed.values());
+        if (!running.isEmpty()) {
+            var renewed = importQueueService.renewLeases(running);
+            running.stream()
+                    .filter(lease -> !renewed.contains(lease.entryId()))
+                    .forEach(lease -> {
+                        lease.lose();
+                        log.warn("Import lease of workspaceId={} lost, attempt={} is stopped", lease.workspaceId(), lease.token().attempt());
+                    });
+        }
+
+        importQueueService.releaseAbandonedReservations();
+        for (var exhausted : importQueueService.removeExhausted()) {
+            importingFacade.markFailed(exhausted.getWorkspaceId(), exhausted.yearMonth(),
+                    MSG_ATTEMPTS_EXHAUSTED.formatted(exhausted.getAttempts()));
+            log.warn("Import abandoned workspaceId={}, month={}, attempts={}",
+                    exhausted.getWorkspaceId(), exhausted.yearMonth(), exhausted.getAttempts());
+        }
+
+        var unqueuedThreshold = Instant.now().minus(properties.getLeaseDuration());
+        for (var job : importingFacade.findProcessingSince(unqueuedThreshold)) {
+            if (!importQueueService.isQueued(job.workspaceId(), job.month())) {
+                importingFacade.markFailed(job.workspaceId(), job.month(), MSG_NEVER_QUEUED);
+                log.warn("Import abandoned workspaceId={}, month={}, it was never queued", job.workspaceId(), job.month());
+            }
+        }
+    }
+
+    private boolean start(ImportQueueDocument entry) {
+        FairImportScheduler.Admission admission;
+        try {
+            admission = importScheduler.admit(entry.getWorkspaceId(), entry.getSizeBytes());
+        } catch (ImportQueueFullException e) {
+            importQueueService.unclaim(entry);
+            return false;
+        }
+
+        log.info("Claimed import workspaceId={}, month={}, mode={}, attempt={}",
+                entry.getWorkspaceId(), entry.yearMonth(), entry.getMode(), entry.getAttempts());
+        var lease = new ImportLease(entry);
+        var previous = claimed.put(entry.getId(), lease);
+        if (previous != null) {
+            previous.lose();
+        }
+        admission.submit(() -> process(entry, lease));
+        return true;
+    }
+
+    /**
+     * Records the lease on the import job first, so from then on the job ignores the attempt this one took over.
+     */
+    private void process(ImportQueueDocument entry, ImportLease lease) {
+        try {
+            if (!importingFacade.acquireLease(entry.getWorkspaceId(), entry.yearMonth(), lease.token())) {
+                log.warn("Import workspaceId={}, month={}, attempt={} was taken over before it started",
+                        entry.getWorkspaceId(), entry.yearMonth(), entry.getAttempts());
+                return;
+            }
+            var csvFile = importQueueService.download(entry, uploadProperties.getSpoolDirectory());
+            monthlyImportRunner.run(entry.getWorkspaceId(), entry.yearMonth(), csvFile, entry.getMode(), lease);
+        } catch (IOException | RuntimeException e) {
+            importingFacade.markFailed(entry.getWorkspaceId(), entry.yearMonth(), e.getMessage(), lease.token());
+            log.warn("Could not run queued import workspaceId={}, month={}: {}",
+                    entry.getWorkspaceId(), entry.yearMonth(), e.getMessage(), e);
+        } finally {
+            claimed.remove(entry.getId(), lease);
+            importQueueService.complete(entry);
+        }
+    }
+}
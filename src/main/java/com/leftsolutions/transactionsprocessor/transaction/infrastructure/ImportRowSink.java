@@ -0,0 +1,147 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Receives parsed rows one by one, hands valid documents to the writer in fixed-size batches
+ * and passes rejected rows to the {@link ImportErrorSink}, so memory depends on the batch size only.
+ */
+class ImportRowSink implements Consumer<CsvTransactionParser.ParseResultRow>, CsvTransactionParser.ProgressListener,
+        CsvTransactionParser.RejectionDetails {
+
+    private final IntSupplier batchSize;
+    private final ImportErrorSink errorSink;
+    private final Consumer<List<TransactionDocument>> batchWriter;
+    private final ImportProgress progress;
+    private final MonthlyRollup rollup;
+
+    private List<TransactionDocument> batch;
+
+    private int importedRows;
+
+    ImportRowSink(int batchSize, int maxStoredErrors, Consumer<List<TransactionDocument>> batchWriter) {
+        this(() -> batchSize, maxStoredErrors, batchWriter);
+    }
+
+    /**
+     * @param batchSize read before every batch, so the writer can adapt it while the import runs
+     */
+    ImportRowSink(IntSupplier batchSize, int maxStoredErrors, Consumer<List<TransactionDocument>> batchWriter) {
+        this(batchSize, new ImportErrorSink(maxStoredErrors, null), batchWriter, ImportProgress.untracked());
+    }
+
+    /**
+     * @param progress counts parsed rows and bytes; shared with the chunk sinks of a parallel parse
+     */
+    ImportRowSink(IntSupplier batchSize,
+                  ImportErrorSink errorSink,
+                  Consumer<List<TransactionDocument>> batchWriter,
+                  ImportProgress progress) {
+        this(batchSize, errorSink, batchWriter, progress, new MonthlyRollup());
+    }
+
+    private ImportRowSink(IntSupplier batchSize,
+                          ImportErrorSink errorSink,
+                          Consumer<List<TransactionDocument>> batchWriter,
+                          ImportProgress progress,
+                          MonthlyRollup rollup) {
+        this.batchSize = batchSize;
+        this.errorSink = errorSink;
+        this.batchWriter = batchWriter;
+        this.progress = progress;
+        this.rollup = rollup;
+        this.batch = new ArrayList<>(batchSize.getAsInt());
+    }
+
+    @Override
+    public void accept(CsvTransactionParser.ParseResultRow row) {
+        progress.rowParsed();
+        if (!row.isValid()) {
+            errorSink.accept(row);
+            return;
+        }
+
+        batch.add(row.document());
+        if (batch.size() >= batchSize.getAsInt()) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        var full = batch;
+        batch = new ArrayList<>(batchSize.getAsInt());
+        writeBatch(full);
+    }
+
+    void writeBatch(List<TransactionDocument> documents) {
+        batchWriter.accept(documents);
+        importedRows += documents.size();
+        if (rollup != null) {
+            rollup.add(documents);
+        }
+    }
+
+    /**
+     * Creates a sink for one chunk of a parallel parse; its batches go to {@code chunkBatchWriter}
+     * and its rejections are folded back with {@link #mergeRejections(ImportRowSink)}. The chunk sink keeps
+     * no rollup, its batches are counted once the main sink writes them.
+     */
+    ImportRowSink newChunkSink(Consumer<List<TransactionDocument>> chunkBatchWriter) {
+        return new ImportRowSink(batchSize, errorSink.newChunkSink(), chunkBatchWriter, progress, null);
+    }
+
+    /**
+     * Called once the chunk was parsed and flushed.
+     */
+    void finishChunk() {
+        errorSink.finishChunk();
+    }
+
+    /**
+     * Deletes the rejected rows report of a chunk that will not be merged.
+     */
+    void discardRejections() {
+        errorSink.discardReport();
+    }
+
+    void mergeRejections(ImportRowSink chunkSink) {
+        errorSink.merge(chunkSink.errorSink);
+    }
+
+    @Override
+    public void onBytesParsed(long bytes) {
+        progress.bytesRead(bytes);
+    }
+
+    @Override
+    public boolean isRejectionDetailWanted() {
+        return errorSink.isSampling();
+    }
+
+    int importedRows() {
+        return importedRows;
+    }
+
+    int rejectedRows() {
+        return errorSink.rejectedRows();
+    }
+
+    List<String> errors() {
+        return errorSink.sample();
+    }
+
+    MonthlyRollup rollup() {
+        return rollup;
+    }
+
+    ImportErrorSink errorSink() {
+        return errorSink;
+    }
+}
@@ -0,0 +1,330 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tokenizes a byte range of a CSV file through memory-mapped windows, following the rules of
+ * {@code CSVFormat.DEFAULT} with trimming: {@code ,} delimiter, {@code "} quoting with {@code ""} escapes,
+ * CR/LF/CRLF record separators and skipped empty lines.
+ * <p>
+ * Fields are exposed as trimmed slices of the mapped window and are only turned into strings on request.
+ * Constructs commons-csv would reject or treat specially (text after a closing quote, an unterminated quote,
+ * a record larger than a window) stop the tokenizer with {@link Status#UNSUPPORTED}, so the caller can hand
+ * the rest of the range, starting at {@link #recordStart()}, to commons-csv.
+ */
+class MappedCsvTokenizer {
+
+    static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private static final byte DELIMITER = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte SPACE = ' ';
+    private static final byte TAB = '\t';
+
+    private static final int MAX_TRACKED_FIELDS = 16;
+
+    private static final int INCOMPLETE_MARKER = -1;
+    private static final int UNSUPPORTED_MARKER = -2;
+
+    enum Status {
+        RECORD,
+        END,
+        UNSUPPORTED
+    }
+
+    private final FileChannel channel;
+    private final long end;
+    private final long windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLimit;
+
+    private long position;
+    private long recordStart;
+
+    private int fieldCount;
+    private final int[] fieldStart = new int[MAX_TRACKED_FIELDS];
+    private final int[] fieldEnd = new int[MAX_TRACKED_FIELDS];
+    private final boolean[] fieldEscaped = new boolean[MAX_TRACKED_FIELDS];
+
+    private byte[] scratch = new byte[256];
+
+    MappedCsvTokenizer(FileChannel channel, long start, long end) {
+        this(channel, start, end, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedCsvTokenizer(FileChannel channel, long start, long end, long windowSize) {
+        this.channel = channel;
+        this.position = start;
+        this.recordStart = start;
+        this.end = end;
+        this.windowSize = Math.min(windowSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Advances to the next non-empty record.
+     */
+    Status next() throws IOException {
+        while (true) {
+            if (position >= end) {
+                return Status.END;
+            }
+            if (window == null || position < windowStart || position >= windowStart + windowLimit) {
+                map(position);
+            }
+
+            var result = tokenize((int) (position - windowStart));
+            switch (result) {
+                case RECORD -> {
+                    return Status.RECORD;
+                }
+                case END -> {
+                    return Status.END;
+                }
+                case UNSUPPORTED -> {
+                    return Status.UNSUPPORTED;
+                }
+                case INCOMPLETE -> {
+                    if (recordStart == windowStart) {
+                        // a single record does not fit into one window
+                        return Status.UNSUPPORTED;
+                    }
+                    map(recordStart);
+                    position = recordStart;
+                }
+            }
+        }
+    }
+
+    /**
+     * Absolute file offset of the record returned by the last {@link #next()} call.
+     */
+    long recordStart() {
+        return recordStart;
+    }
+
+    /**
+     * Absolute file offset right after the record returned by the last {@link #next()} call.
+     */
+    long position() {
+        return position;
+    }
+
+    /**
+     * Raw text of the record returned by the last {@link #next()} call, without its record separator.
+     */
+    String recordText() {
+        var from = (int) (recordStart - windowStart);
+        var to = (int) (position - windowStart);
+        while (to > from && (window.get(to - 1) == LF || window.get(to - 1) == CR)) {
+            to--;
+        }
+
+        var bytes = new byte[to - from];
+        window.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    int length(int field) {
+        return fieldEscaped[field] ? unescape(field) : fieldEnd[field] - fieldStart[field];
+    }
+
+    byte byteAt(int field, int index) {
+        return fieldEscaped[field] ? scratch[index] : window.get(fieldStart[field] + index);
+    }
+
+    /**
+     * @return {@code true} when the field has no {@code ""} escapes and only ASCII bytes, so every byte is a char
+     */
+    boolean isPlainAscii(int field) {
+        if (fieldEscaped[field]) {
+            return false;
+        }
+        for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+            if (window.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String text(int field) {
+        var length = length(field);
+        if (fieldEscaped[field]) {
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        var bytes = new byte[length];
+        window.get(fieldStart[field], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void map(long from) throws IOException {
+        var length = (int) Math.min(windowSize, end - from);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+        windowStart = from;
+        windowLimit = length;
+    }
+
+    private TokenizeResult tokenize(int pos) {
+        var atEof = windowStart + windowLimit >= end;
+
+        while (true) {
+            if (pos >= windowLimit) {
+                position = windowStart + pos;
+                recordStart = position;
+                return atEof ? TokenizeResult.END : TokenizeResult.INCOMPLETE;
+            }
+            var b = window.get(pos);
+            if (b != CR && b != LF) {
+                break;
+            }
+            pos++;
+        }
+
+        recordStart = windowStart + pos;
+        fieldCount = 0;
+
+        while (true) {
+            int next;
+            if (pos < windowLimit && window.get(pos) == QUOTE) {
+                next = quotedField(pos, atEof);
+            } else {
+                next = simpleField(pos, atEof);
+            }
+
+            if (next == INCOMPLETE_MARKER || next == UNSUPPORTED_MARKER) {
+                position = windowStart + pos;
+                return next == INCOMPLETE_MARKER ? TokenizeResult.INCOMPLETE : TokenizeResult.UNSUPPORTED;
+            }
+
+            if (next >= windowLimit) {
+                position = windowStart + next;
+                return TokenizeResult.RECORD;
+            }
+
+            var separator = window.get(next);
+            if (separator == DELIMITER) {
+                pos = next + 1;
+                continue;
+            }
+
+            position = windowStart + next + 1;
+            return TokenizeResult.RECORD;
+        }
+    }
+
+    /**
+     * @return index of the delimiter / record separator ending the field, or window limit at EOF
+     */
+    private int simpleField(int pos, boolean atEof) {
+        var p = pos;
+        while (p < windowLimit) {
+            var c = window.get(p);
+            if (c == DELIMITER || c == CR || c == LF) {
+                break;
+            }
+            p++;
+        }
+        if (p >= windowLimit && !atEof) {
+            return INCOMPLETE_MARKER;
+        }
+
+        addField(pos, p, false);
+        return p;
+    }
+
+    private int quotedField(int pos, boolean atEof) {
+        var p = pos + 1;
+        var escaped = false;
+        while (true) {
+            if (p >= windowLimit) {
+                return atEof ? UNSUPPORTED_MARKER : INCOMPLETE_MARKER;
+            }
+            if (window.get(p) == QUOTE) {
+                if (p + 1 >= windowLimit && !atEof) {
+                    return INCOMPLETE_MARKER;
+                }
+                if (p + 1 < windowLimit && window.get(p + 1) == QUOTE) {
+                    escaped = true;
+                    p += 2;
+                    continue;
+                }
+                break;
+            }
+            p++;
+        }
+
+        var contentEnd = p;
+        p++;
+        while (p < windowLimit) {
+            var c = window.get(p);
+            if (c == DELIMITER || c == CR || c == LF) {
+                break;
+            }
+            if (c != SPACE && c != TAB) {
+                return UNSUPPORTED_MARKER;
+            }
+            p++;
+        }
+        if (p >= windowLimit && !atEof) {
+            return INCOMPLETE_MARKER;
+        }
+
+        addField(pos + 1, contentEnd, escaped);
+        return p;
+    }
+
+    private void addField(int start, int stop, boolean escaped) {
+        var index = fieldCount++;
+        if (index >= MAX_TRACKED_FIELDS) {
+            return;
+        }
+
+        while (start < stop && (window.get(start) & 0xFF) <= SPACE) {
+            start++;
+        }
+        while (stop > start && (window.get(stop - 1) & 0xFF) <= SPACE) {
+            stop--;
+        }
+
+        fieldStart[index] = start;
+        fieldEnd[index] = stop;
+        fieldEscaped[index] = escaped;
+    }
+
+    private int unescape(int field) {
+        var start = fieldStart[field];
+        var stop = fieldEnd[field];
+        if (scratch.length < stop - start) {
+            scratch = new byte[stop - start];
+        }
+
+        var length = 0;
+        for (int i = start; i < stop; i++) {
+            var b = window.get(i);
+            scratch[length++] = b;
+            if (b == QUOTE) {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private enum TokenizeResult {
+        RECORD,
+        END,
+        INCOMPLETE,
+        UNSUPPORTED
+    }
+}
@@ -0,0 +1,199 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportUploadProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportDeltaStatsDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportWriteStatsDto;
+import com.leftsolutions.transactionsprocessor.statistics.domain.StatisticsFacade;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs a single monthly import on the calling thread: parses the local CSV and writes it in the way the
+ * import mode asks for. The import stops before its next batch once its queue lease was lost, and it switches
+ * generations and completes the job only while the job still records that lease.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class MonthlyImportRunner {
+
+    private static final int MAX_STORED_ERRORS = 200;
+    private static final String MSG_LEASE_TAKEN_OVER = "Import of workspaceId=%s, month=%s was taken over by another attempt";
+
+    private final ImportingFacade importingFacade;
+    private final CsvTransactionParser csvTransactionParser;
+    private final ParallelCsvParser parallelCsvParser;
+    private final TransactionRepository transactionRepository;
+    private final TransactionBulkWriter transactionBulkWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProgressPublisher importProgressPublisher;
+    private final RejectedRowsReportService rejectedRowsReportService;
+    private final StatisticsFacade statisticsFacade;
+    private final ImportUploadProperties uploadProperties;
+
+    /**
+     * Imports the file and records the outcome on the import job; the file is deleted afterwards. Progress is
+     * published while the import runs, rejected rows are collected into a report stored with the outcome.
+     */
+    void run(String workspaceId, YearMonth month, Path csvFile, ImportMode mode, ImportLease lease) {
+        ImportProgress progress = null;
+        var errorSink = new ImportErrorSink(MAX_STORED_ERRORS, new RejectedRowsReport(uploadProperties.getSpoolDirectory()));
+        try {
+            progress = importProgressPublisher.track(workspaceId, month, Files.size(csvFile));
+            var tracking = new ImportTracking(progress, errorSink, lease);
+            var outcome = mode == ImportMode.STAGED
+                    ? importStaged(workspaceId, month, csvFile, tracking)
+                    : transactionTemplate.execute(status -> importInTransaction(workspaceId, month, csvFile, mode, tracking));
+
+            log.info("Import finished workspaceId={}, month={}, mode={}, importedRows={}, rejectedRows={}, rowsPerSecond={}, delta={}",
+                    workspaceId, month, mode, outcome.importedRows(), outcome.rejectedRows(),
+                    Math.round(outcome.writeStats().rowsPerSecond()), outcome.deltaStats());
+
+        } catch (Exception e) {
+            importingFacade.markFailed(workspaceId, month, e.getMessage(), lease.token());
+            log.warn("Import failed workspaceId={}, month={}, error={}", workspaceId, month, e.getMessage(), e);
+        } finally {
+            if (progress != null) {
+                importProgressPublisher.untrack(workspaceId, month, progress);
+            }
+            errorSink.discardReport();
+            deleteImportFile(csvFile);
+        }
+    }
+
+    private ImportOutcome importInTransaction(String workspaceId,
+                                              YearMonth month,
+                                              Path csvFile,
+                                              ImportMode mode,
+                                              ImportTracking tracking) {
+        if (mode == ImportMode.REPLACE) {
+            transactionRepository.deleteByWorkspaceIdAndYearAndMonth(
+                    workspaceId,
+                    month.getYear(),
+                    month.getMonthValue()
+            );
+        }
+
+        var generation = importingFacade.readActiveGeneration(workspaceId, month);
+        var writer = transactionBulkWriter.open(generation, tracking.progress());
+        var delta = mode == ImportMode.DELTA
+                ? TransactionDeltaFilter.load(transactionRepository, workspaceId, month, generation, writer)
+                : null;
+        var sink = tracking.newSink(writer::currentBatchSize, delta != null ? delta : writer);
+
+        parse(workspaceId, csvFile, month, sink);
+        sink.flush();
+        var writeStats = writer.complete();
+        var deltaStats = delta != null ? delta.deleteRemovedRows() : null;
+
+        complete(workspaceId, month, generation, false, sink, writeStats, deltaStats, tracking.lease());
+        return new ImportOutcome(sink.importedRows(), sink.rejectedRows(), writeStats, deltaStats);
+    }
+
+    /**
+     * Writes the rows outside a transaction under a fresh generation, which readers do not see until it is
+     * activated. The superseded (or, on failure, the partially written) generation is left to the reaper.
+     */
+    private ImportOutcome importStaged(String workspaceId, YearMonth month, Path csvFile, ImportTracking tracking) {
+        var generation = importingFacade.allocateGeneration(workspaceId, month);
+        try {
+            var writer = transactionBulkWriter.open(generation, tracking.progress());
+            var sink = tracking.newSink(writer::currentBatchSize, writer);
+
+            parse(workspaceId, csvFile, month, sink);
+            sink.flush();
+            var writeStats = writer.complete();
+
+            complete(workspaceId, month, generation, true, sink, writeStats, null, tracking.lease());
+            return new ImportOutcome(sink.importedRows(), sink.rejectedRows(), writeStats, null);
+        } catch (RuntimeException e) {
+            importingFacade.discardGeneration(workspaceId, month, generation);
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the rejected rows report and the statistics rollup before the job completes, and records the report
+     * on the job in the completing update, so a completed job never points to the report of an earlier import and
+     * the report of an import that did not complete is never served. Inside the import's transaction the rollup commits
+     * together with the rows; a staged import stores it right before the job completes and switches to its
+     * generation in the same update, so until then reads of the previous generation aggregate the rows. When
+     * another attempt took the import over, completing fails and rolls the import's transaction back.
+     */
+    private void complete(String workspaceId,
+                          YearMonth month,
+                          long generation,
+                          boolean activate,
+                          ImportRowSink sink,
+                          ImportWriteStatsDto writeStats,
+                          ImportDeltaStatsDto deltaStats,
+                          ImportLease lease) {
+        lease.checkHeld();
+        var errorSink = sink.errorSink();
+        statisticsFacade.storeRollup(sink.rollup().toDto(workspaceId, month, generation));
+        var reportId = rejectedRowsReportService.store(workspaceId, month, errorSink.finishReport());
+        var completed = rejectedRowsReportService.complete(workspaceId, month, reportId, () -> importingFacade.markCompleted(
+                workspaceId, month, sink.importedRows(), errorSink.rejectedRows(), errorSink.sample(), errorSink.counts(),
+                writeStats, deltaStats, reportId, activate ? generation : null, lease.token()));
+        if (!completed) {
+            throw new CancellationException(MSG_LEASE_TAKEN_OVER.formatted(workspaceId, month));
+        }
+    }
+
+    static void deleteImportFile(Path csvFile) {
+        try {
+            Files.deleteIfExists(csvFile);
+        } catch (Exception deleteError) {
+            log.warn("Could not delete temp import file {}: {}", csvFile, deleteError.getMessage(), deleteError);
+        }
+    }
+
+    private void parse(String workspaceId, Path csvFile, YearMonth month, ImportRowSink sink) {
+        try {
+            if (parallelCsvParser.isEligible(csvFile) && parallelCsvParser.parse(workspaceId, csvFile, month, sink)) {
+                return;
+            }
+
+            try (var channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+                csvTransactionParser.parse(workspaceId, channel, month, sink);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record ImportTracking(ImportProgress progress, ImportErrorSink errorSink, ImportLease lease) {
+
+        /**
+         * Every batch first checks that the lease is still held, so an import that lost it writes nothing more.
+         */
+        ImportRowSink newSink(IntSupplier batchSize, Consumer<List<TransactionDocument>> batchWriter) {
+            return new ImportRowSink(batchSize, errorSink, batch -> {
+                lease.checkHeld();
+                batchWriter.accept(batch);
+            }, progress);
+        }
+    }
+
+    private record ImportOutcome(int importedRows,
+                                 int rejectedRows,
+                                 ImportWriteStatsDto writeStats,
+                                 ImportDeltaStatsDto deltaStats) {
+    }
+}
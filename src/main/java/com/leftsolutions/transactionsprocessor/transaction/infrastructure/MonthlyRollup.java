@@ -0,0 +1,113 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.statistics.sketch.MonthlySketches;
+import com.leftsolutions.transactionsprocessor.statistics.dto.DailyStatisticsDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRollupDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeCellDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sums up the written rows of an import per category, per IBAN, per category, IBAN and currency, per day and in
+ * total, and sketches their amounts and IBANs, so the month's statistics are known when the import completes. Memory depends on the number of groups only.
+ * <p>
+ * Not thread safe; every batch of an import is written from the import thread.
+ */
+class MonthlyRollup {
+
+    private static final String SUMMARY_KEY = "SUMMARY";
+
+    private static final Comparator<MonthlyStatisticsRowDto> BY_TOTAL_AMOUNT_DESC =
+            Comparator.comparing(MonthlyStatisticsRowDto::totalAmount).reversed()
+                    .thenComparing(MonthlyStatisticsRowDto::key, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<String, Group> categories = new HashMap<>();
+    private final Map<String, Group> ibans = new HashMap<>();
+    private final Map<CubeKey, Group> cube = new HashMap<>();
+    private final Map<LocalDate, Day> days = new TreeMap<>();
+    private final MonthlySketches sketches = new MonthlySketches();
+    private final Group summary = new Group();
+
+    void add(List<TransactionDocument> documents) {
+        for (var document : documents) {
+            var amount = document.getAmount();
+            summary.add(amount);
+            categories.computeIfAbsent(document.getCategory(), key -> new Group()).add(amount);
+            ibans.computeIfAbsent(document.getIban(), key -> new Group()).add(amount);
+            cube.computeIfAbsent(new CubeKey(document.getCategory(), document.getIban(), document.getCurrency()),
+                    key -> new Group()).add(amount);
+            days.computeIfAbsent(document.getTransactionDate(), key -> new Day()).add(document.getCategory(), amount);
+            sketches.add(document.getCategory(), document.getIban(), amount);
+        }
+    }
+
+    MonthlyStatisticsRollupDto toDto(String workspaceId, YearMonth month, long generation) {
+        return new MonthlyStatisticsRollupDto(
+                workspaceId,
+                month,
+                generation,
+                summary.count == 0 ? null : summary.toRow(SUMMARY_KEY),
+                toRows(categories),
+                toRows(ibans),
+                cube.entrySet().stream()
+                        .map(entry -> entry.getValue().toCell(entry.getKey()))
+                        .toList(),
+                days.entrySet().stream()
+                        .map(entry -> entry.getValue().toDto(entry.getKey()))
+                        .toList(),
+                sketches.toDto()
+        );
+    }
+
+    private static List<MonthlyStatisticsRowDto> toRows(Map<String, Group> groups) {
+        return groups.entrySet().stream()
+                .map(entry -> entry.getValue().toRow(entry.getKey()))
+                .sorted(BY_TOTAL_AMOUNT_DESC)
+                .toList();
+    }
+
+    private static final class Group {
+
+        private long count;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+
+        void add(BigDecimal amount) {
+            count++;
+            totalAmount = totalAmount.add(amount);
+        }
+
+        MonthlyStatisticsRowDto toRow(String key) {
+            return new MonthlyStatisticsRowDto(key, count, totalAmount);
+        }
+
+        StatisticsCubeCellDto toCell(CubeKey key) {
+            return new StatisticsCubeCellDto(key.category(), key.iban(), key.currency(), count, totalAmount);
+        }
+    }
+
+    private static final class Day {
+
+        private final Group summary = new Group();
+        private final Map<String, Group> categories = new HashMap<>();
+
+        void add(String category, BigDecimal amount) {
+            summary.add(amount);
+            categories.computeIfAbsent(category, key -> new Group()).add(amount);
+        }
+
+        DailyStatisticsDto toDto(LocalDate date) {
+            return new DailyStatisticsDto(date, summary.toRow(SUMMARY_KEY), toRows(categories));
+        }
+    }
+
+    private record CubeKey(String category, String iban, String currency) {
+    }
+}
@@ -0,0 +1,318 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportPipelineProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Splits a spooled CSV file into newline-aligned byte ranges and parses them on the fork/join pool.
+ * Parsed batches are handed back to the calling thread, which stays the only writer, so the import
+ * keeps running inside its Mongo transaction.
+ */
+@Component
+class ParallelCsvParser {
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final byte QUOTE = '"';
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    private static final long POLL_MILLIS = 100;
+    private static final int FIRST_DATA_LINE = 2; // header is line 1
+
+    private final CsvTransactionParser csvTransactionParser;
+    private final ForkJoinPool importParsePool;
+    private final ImportPipelineProperties properties;
+
+    ParallelCsvParser(CsvTransactionParser csvTransactionParser,
+                      @Qualifier("importParsePool") ForkJoinPool importParsePool,
+                      ImportPipelineProperties properties) {
+        this.csvTransactionParser = csvTransactionParser;
+        this.importParsePool = importParsePool;
+        this.properties = properties;
+    }
+
+    boolean isEligible(Path csvFile) throws IOException {
+        return Files.size(csvFile) >= properties.getParallelParseThreshold().toBytes();
+    }
+
+    /**
+     * @return {@code false} when the file cannot be split safely (quoted fields may span lines, or the line
+     * endings are not {@code \n} based); nothing has been emitted then and the caller parses sequentially
+     */
+    boolean parse(String workspaceId, Path csvFile, YearMonth month, ImportRowSink sink) throws IOException {
+        try (var channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var headerEnd = nextLineStart(channel, 0, size);
+            if (headerEnd < 0 || headerEnd >= size || isBlankLine(channel, 0, headerEnd)) {
+                return false;
+            }
+
+            var header = csvTransactionParser.readHeader(new FileRangeInputStream(channel, 0, headerEnd));
+            var chunks = planChunks(channel, headerEnd, size);
+            if (chunks.isEmpty()) {
+                return false;
+            }
+            sink.onBytesParsed(headerEnd);
+
+            parseChunks(workspaceId, channel, month, header, chunks, sink);
+            return true;
+        }
+    }
+
+    private List<Chunk> planChunks(FileChannel channel, long dataStart, long size) throws IOException {
+        var ranges = split(channel, dataStart, size);
+
+        var scanTasks = ranges.stream()
+                .map(range -> ForkJoinTask.adapt(() -> scan(channel, range[0], range[1])))
+                .toList();
+        importParsePool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(scanTasks)));
+
+        var chunks = new ArrayList<Chunk>(ranges.size());
+        var firstLineNumber = FIRST_DATA_LINE;
+        for (int i = 0; i < ranges.size(); i++) {
+            var scan = scanTasks.get(i).join();
+            if (!scan.splittable()) {
+                return List.of();
+            }
+            chunks.add(new Chunk(ranges.get(i)[0], ranges.get(i)[1], firstLineNumber));
+            firstLineNumber += scan.records();
+        }
+        return chunks;
+    }
+
+    private List<long[]> split(FileChannel channel, long dataStart, long size) throws IOException {
+        var dataSize = size - dataStart;
+        var chunkSize = Math.max(1, properties.getParseChunkSize().toBytes());
+        var chunkCount = Math.max(importParsePool.getParallelism(), (int) Math.ceilDiv(dataSize, chunkSize));
+        var targetLength = Math.max(1, dataSize / chunkCount);
+
+        var ranges = new ArrayList<long[]>(chunkCount);
+        var start = dataStart;
+        while (start < size) {
+            var end = start + targetLength >= size ? size : nextLineStart(channel, start + targetLength - 1, size);
+            if (end < 0) {
+                end = size;
+            }
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    private void parseChunks(String workspaceId,
+                             FileChannel channel,
+                             YearMonth month,
+                             String[] header,
+                             List<Chunk> chunks,
+                             ImportRowSink sink) {
+        BlockingQueue<List<TransactionDocument>> batches = new ArrayBlockingQueue<>(importParsePool.getParallelism() * 2);
+        var aborted = new AtomicBoolean();
+
+        var chunkSinks = chunks.stream()
+                .map(chunk -> sink.newChunkSink(batch -> offer(batches, batch, aborted)))
+                .toList();
+
+        var parseTasks = new ArrayList<ForkJoinTask<?>>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            var chunk = chunks.get(i);
+            var chunkSink = chunkSinks.get(i);
+            parseTasks.add(ForkJoinTask.adapt(() -> parseChunk(workspaceId, channel, month, header, chunk, chunkSink)));
+        }
+
+        var parsing = importParsePool.submit(() -> ForkJoinTask.invokeAll(parseTasks));
+        try {
+            drain(batches, parsing, sink);
+            parsing.join();
+        } catch (RuntimeException e) {
+            aborted.set(true);
+            parsing.cancel(true);
+            chunkSinks.forEach(ImportRowSink::discardRejections);
+            throw e;
+        }
+
+        chunkSinks.forEach(sink::mergeRejections);
+    }
+
+    private void parseChunk(String workspaceId,
+                            FileChannel channel,
+                            YearMonth month,
+                            String[] header,
+                            Chunk chunk,
+                            ImportRowSink chunkSink) {
+        try {
+            csvTransactionParser.parseChunk(workspaceId, channel, chunk.start(), chunk.end(), month, header,
+                    chunk.firstLineNumber(), chunkSink);
+            chunkSink.flush();
+            chunkSink.finishChunk();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain(BlockingQueue<List<TransactionDocument>> batches, ForkJoinTask<?> parsing, ImportRowSink sink) {
+        try {
+            while (true) {
+                var batch = batches.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    sink.writeBatch(batch);
+                } else if (parsing.isDone()) {
+                    while ((batch = batches.poll()) != null) {
+                        sink.writeBatch(batch);
+                    }
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for parsed batches");
+        }
+    }
+
+    /**
+     * Blocks through {@link ForkJoinPool#managedBlock}, so the pool can run other parse tasks on a spare thread
+     * while this worker waits for the writing thread to make room.
+     */
+    private static void offer(BlockingQueue<List<TransactionDocument>> batches,
+                              List<TransactionDocument> batch,
+                              AtomicBoolean aborted) {
+        try {
+            ForkJoinPool.managedBlock(new BatchHandOver(batches, batch, aborted));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while handing over parsed batch");
+        }
+    }
+
+    /**
+     * Counts the records of a range the way commons-csv does with {@code ignoreEmptyLines}: every line with
+     * at least one character besides the line terminator is a record.
+     */
+    private static ChunkScan scan(FileChannel channel, long start, long end) throws IOException {
+        var buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        var records = 0;
+        var lineHasContent = false;
+        var previousWasCr = false;
+
+        var position = start;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(SCAN_BUFFER_SIZE, end - position));
+            var read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            position += read;
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                var b = buffer.get();
+                if (previousWasCr && b != LF) {
+                    return ChunkScan.UNSPLITTABLE;
+                }
+                previousWasCr = b == CR;
+
+                if (b == QUOTE) {
+                    return ChunkScan.UNSPLITTABLE;
+                } else if (b == LF) {
+                    if (lineHasContent) {
+                        records++;
+                    }
+                    lineHasContent = false;
+                } else if (b != CR) {
+                    lineHasContent = true;
+                }
+            }
+        }
+
+        if (lineHasContent) {
+            records++;
+        }
+        return new ChunkScan(records, true);
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        var buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        var position = from;
+        while (position < size) {
+            buffer.clear();
+            var read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LF) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    private static boolean isBlankLine(FileChannel channel, long start, long end) throws IOException {
+        var scan = scan(channel, start, end);
+        return scan.splittable() && scan.records() == 0;
+    }
+
+    private record Chunk(long start, long end, int firstLineNumber) {
+    }
+
+    private static final class BatchHandOver implements ForkJoinPool.ManagedBlocker {
+
+        private final BlockingQueue<List<TransactionDocument>> batches;
+        private final List<TransactionDocument> batch;
+        private final AtomicBoolean aborted;
+        private boolean handedOver;
+
+        private BatchHandOver(BlockingQueue<List<TransactionDocument>> batches,
+                              List<TransactionDocument> batch,
+                              AtomicBoolean aborted) {
+            this.batches = batches;
+            this.batch = batch;
+            this.aborted = aborted;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            while (!handedOver) {
+                handedOver = batches.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (!handedOver && aborted.get()) {
+                    throw new CancellationException("Import aborted");
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!handedOver) {
+                handedOver = batches.offer(batch);
+            }
+            return handedOver;
+        }
+    }
+
+    private record ChunkScan(int records, boolean splittable) {
+        static final ChunkScan UNSPLITTABLE = new ChunkScan(0, false);
+    }
+}
@@ -0,0 +1,148 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed CSV of rejected rows ({@code line,reason,row}), streamed to a local file so memory does not
+ * depend on the number of rejections. The file is only created with the first rejection.
+ * <p>
+ * Chunks of a parallel parse write their own reports, which are appended in file order with
+ * {@link #append(RejectedRowsReport)}; a sequence of gzip members is itself a valid gzip file.
+ */
+class RejectedRowsReport implements AutoCloseable {
+
+    private static final String HEADER = "line,reason,row";
+
+    private final Path directory;
+    private final boolean withHeader;
+
+    private Path file;
+    private Writer writer;
+
+    RejectedRowsReport(Path directory) {
+        this(directory, true);
+    }
+
+    private RejectedRowsReport(Path directory, boolean withHeader) {
+        this.directory = directory;
+        this.withHeader = withHeader;
+    }
+
+    RejectedRowsReport newChunkReport() {
+        return new RejectedRowsReport(directory, false);
+    }
+
+    void write(CsvTransactionParser.ParseResultRow row) {
+        try {
+            openWriter();
+            writer.write(Integer.toString(row.lineNumber()));
+            writer.write(',');
+            writer.write(row.rejection().name());
+            writer.write(',');
+            writer.write(CSVFormat.DEFAULT.format(row.line() == null ? "" : row.line()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Moves the rows of a chunk report to the end of this one and deletes the chunk's file.
+     */
+    void append(RejectedRowsReport chunk) {
+        chunk.close();
+        if (chunk.file == null) {
+            return;
+        }
+
+        try {
+            openWriter();
+            closeWriter();
+            try (var target = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 var source = FileChannel.open(chunk.file, StandardOpenOption.READ)) {
+                var size = source.size();
+                for (long position = 0; position < size; ) {
+                    position += source.transferTo(position, size - position, target);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            chunk.delete();
+        }
+    }
+
+    /**
+     * @return the finished report, or {@code null} when no row was rejected
+     */
+    Path finish() {
+        close();
+        return file;
+    }
+
+    void delete() {
+        close();
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finishes the current gzip member; a later write starts a new one.
+     */
+    @Override
+    public void close() {
+        try {
+            closeWriter();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openWriter() throws IOException {
+        if (writer != null) {
+            return;
+        }
+
+        var created = file == null;
+        if (created) {
+            Files.createDirectories(directory);
+            file = Files.createTempFile(directory, "rejected-rows-", ".csv.gz");
+        }
+
+        var output = Files.newOutputStream(file, StandardOpenOption.APPEND);
+        writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(output), StandardCharsets.UTF_8));
+        if (created && withHeader) {
+            writer.write(HEADER);
+            writer.write('\n');
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } finally {
+            writer = null;
+        }
+    }
+}
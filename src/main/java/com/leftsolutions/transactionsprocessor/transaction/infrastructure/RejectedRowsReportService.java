@@ -0,0 +1,140 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.RejectedRowsReportDto;
+import com.leftsolutions.transactionsprocessor.transaction.domain.RejectedRowsReportFacade;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps the rejected rows report of each month's last completed import in GridFS, so it can be downloaded
+ * through any node. A report is stored before its import completes and served only once the completed job refers
+ * to it. GridFS writes are not part of the import's transaction, so the month's earlier reports are deleted only
+ * after the completion is committed, and the report of an import that did not complete is deleted instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+class RejectedRowsReportService implements RejectedRowsReportFacade {
+
+    private static final String FIELD_ID = "_id";
+    private static final String METADATA_TYPE = "type";
+    private static final String METADATA_WORKSPACE_ID = "workspaceId";
+    private static final String METADATA_MONTH = "month";
+    private static final String TYPE_REJECTED_ROWS = "rejected-rows";
+
+    private final GridFsTemplate gridFsTemplate;
+    private final ImportingFacade importingFacade;
+
+    /**
+     * @return id of the stored file, {@code null} without a report file (no rejected rows)
+     */
+    String store(String workspaceId, YearMonth month, Path reportFile) {
+        if (reportFile == null) {
+            return null;
+        }
+
+        try (var input = Files.newInputStream(reportFile)) {
+            return gridFsTemplate.store(input, filename(month), "application/gzip",
+                    new Document(METADATA_TYPE, TYPE_REJECTED_ROWS)
+                            .append(METADATA_WORKSPACE_ID, workspaceId)
+                            .append(METADATA_MONTH, month.toString())).toHexString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs the completion of the import that stored the report. Once the completion is final, committed when it
+     * runs inside a transaction, the month's other reports are deleted; when it did not complete the job or
+     * rolled back, the report itself is.
+     *
+     * @return what the completion returned
+     */
+    boolean complete(String workspaceId, YearMonth month, String reportId, BooleanSupplier completion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    settle(workspaceId, month, reportId, status == STATUS_COMMITTED);
+                }
+            });
+            return completion.getAsBoolean();
+        }
+
+        var completed = false;
+        try {
+            completed = completion.getAsBoolean();
+            return completed;
+        } finally {
+            settle(workspaceId, month, reportId, completed);
+        }
+    }
+
+    @Override
+    public Optional<RejectedRowsReportDto> findReport(String workspaceId, YearMonth month) {
+        var file = importingFacade.findRejectedRowsReportId(workspaceId, month)
+                .map(reportId -> gridFsTemplate.findOne(byId(reportId)))
+                .orElse(null);
+        if (file == null) {
+            return Optional.empty();
+        }
+
+        try {
+            var content = gridFsTemplate.getResource(file).getInputStream();
+            return Optional.of(new RejectedRowsReportDto(file.getFilename(), file.getLength(), content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A failed cleanup only leaves a file nothing refers to; the next completed import of the month removes it.
+     */
+    private void settle(String workspaceId, YearMonth month, String reportId, boolean completed) {
+        try {
+            if (completed) {
+                var others = ofMonth(workspaceId, month);
+                if (reportId != null) {
+                    others.addCriteria(Criteria.where(FIELD_ID).ne(new ObjectId(reportId)));
+                }
+                gridFsTemplate.delete(others);
+            } else if (reportId != null) {
+                gridFsTemplate.delete(byId(reportId));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not clean up rejected rows reports workspaceId={}, month={}: {}", workspaceId, month,
+                    e.getMessage(), e);
+        }
+    }
+
+    private static Query byId(String reportId) {
+        return Query.query(Criteria.where(FIELD_ID).is(new ObjectId(reportId)));
+    }
+
+    private static Query ofMonth(String workspaceId, YearMonth month) {
+        return Query.query(Criteria.where("metadata." + METADATA_TYPE).is(TYPE_REJECTED_ROWS)
+                .and("metadata." + METADATA_WORKSPACE_ID).is(workspaceId)
+                .and("metadata." + METADATA_MONTH).is(month.toString()));
+    }
+
+    private static String filename(YearMonth month) {
+        return "rejected-rows-" + month + ".csv.gz";
+    }
+}
@@ -0,0 +1,26 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+/**
+ * Reason a CSV row was rejected. Rows are rejected by returning one of these codes instead of throwing,
+ * the message is only formatted for rejections that actually get stored on the import job.
+ */
+enum RowRejection {
+    MISSING_FIELD("Line %d: missing or empty field: %s"),
+    INVALID_DATE_FORMAT("Line %d Invalid date format: %s (expected YYYY-MM-DD)"),
+    INVALID_AMOUNT_FORMAT("Line %d Invalid amount format: %s (expected decimal number)"),
+    DATE_NOT_IN_EXPECTED_MONTH("Line %d: date not in expected month: %s"),
+    INVALID_IBAN_FORMAT("Line %d: invalid IBAN format"),
+    INVALID_CURRENCY("Line %d: invalid currency (expected ISO-4217, e.g. PLN)"),
+    INVALID_CATEGORY("Line %d: invalid category (must be non-empty and <= 100 characters)"),
+    AMOUNT_MUST_BE_NON_ZERO("Line %d: amount must be non-zero");
+
+    private final String messageFormat;
+
+    RowRejection(String messageFormat) {
+        this.messageFormat = messageFormat;
+    }
+
+    String message(int lineNumber, Object detail) {
+        return String.format(messageFormat, lineNumber, detail);
+    }
+}
@@ -0,0 +1,169 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportPipelineProperties;
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportWriteStatsDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Writes transactions with unordered bulk inserts instead of {@code saveAll}, which treats documents
+ * with a preassigned id as existing and replaces them one by one.
+ */
+@Component
+class TransactionBulkWriter {
+
+    private final MongoTemplate mongoTemplate;
+    private final ImportPipelineProperties properties;
+    private final TaskExecutor importWriteExecutor;
+    private final MongoOperationLimiter importWriteLimiter;
+
+    TransactionBulkWriter(MongoTemplate mongoTemplate,
+                          ImportPipelineProperties properties,
+                          @Qualifier("importWriteExecutor") TaskExecutor importWriteExecutor,
+                          @Qualifier("importWriteLimiter") MongoOperationLimiter importWriteLimiter) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.importWriteExecutor = importWriteExecutor;
+        this.importWriteLimiter = importWriteLimiter;
+    }
+
+    /**
+     * Opens a write session for a single import, stamping every row with the generation. Inside a Mongo
+     * transaction the session is bound to the calling thread, so batches are then written synchronously
+     * instead of in parallel. Written rows are also counted on {@code progress}.
+     */
+    Session open(long generation, ImportProgress progress) {
+        var maxInFlight = TransactionSynchronizationManager.isActualTransactionActive()
+                ? 1
+                : Math.max(1, properties.getMaxInFlightBatches());
+
+        var sizer = new AdaptiveBatchSizer(
+                properties.getBatchSize(),
+                properties.getMinBatchSize(),
+                properties.getMaxBatchSize(),
+                properties.getTargetBatchLatency()
+        );
+
+        return new Session(sizer, maxInFlight, generation, progress);
+    }
+
+    void insert(List<TransactionDocument> batch) {
+        importWriteLimiter.run(() -> mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TransactionDocument.class)
+                .insert(batch)
+                .execute());
+    }
+
+    class Session implements Consumer<List<TransactionDocument>> {
+
+        private final AdaptiveBatchSizer sizer;
+        private final int maxInFlight;
+        private final Semaphore inFlight;
+        private final long generation;
+        private final ImportProgress progress;
+
+        private final AtomicLong rowsWritten = new AtomicLong();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicLong writeNanos = new AtomicLong();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final long startedAt = System.nanoTime();
+
+        private Session(AdaptiveBatchSizer sizer, int maxInFlight, long generation, ImportProgress progress) {
+            this.sizer = sizer;
+            this.maxInFlight = maxInFlight;
+            this.inFlight = new Semaphore(maxInFlight);
+            this.generation = generation;
+            this.progress = progress;
+        }
+
+        int currentBatchSize() {
+            return sizer.currentBatchSize();
+        }
+
+        @Override
+        public void accept(List<TransactionDocument> batch) {
+            rethrowFailure();
+            batch.forEach(document -> document.setGeneration(generation));
+
+            if (maxInFlight == 1) {
+                write(batch);
+                return;
+            }
+
+            acquire(1);
+            try {
+                importWriteExecutor.execute(() -> {
+                    try {
+                        write(batch);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Waits for all in-flight batches and returns the write statistics of the session.
+         */
+        ImportWriteStatsDto complete() {
+            acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+            rethrowFailure();
+
+            var elapsedNanos = Math.max(1, System.nanoTime() - startedAt);
+            var rows = rowsWritten.get();
+
+            return new ImportWriteStatsDto(
+                    rows,
+                    batches.get(),
+                    TimeUnit.NANOSECONDS.toMillis(writeNanos.get()),
+                    rows * 1_000_000_000d / elapsedNanos
+            );
+        }
+
+        private void write(List<TransactionDocument> batch) {
+            var start = System.nanoTime();
+            insert(batch);
+            var elapsed = System.nanoTime() - start;
+
+            sizer.onBatchWritten(batch.size(), elapsed);
+            rowsWritten.addAndGet(batch.size());
+            progress.rowsWritten(batch.size());
+            batches.incrementAndGet();
+            writeNanos.addAndGet(elapsed);
+        }
+
+        private void acquire(int permits) {
+            try {
+                inFlight.acquire(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for in-flight batches", e);
+            }
+        }
+
+        private void rethrowFailure() {
+            var error = failure.get();
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+}
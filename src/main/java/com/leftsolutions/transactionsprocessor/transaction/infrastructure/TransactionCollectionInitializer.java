@@ -0,0 +1,154 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.TransactionStorageProperties;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.ClusteredIndexOptions;
+import com.mongodb.client.model.CreateCollectionOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sets up the transactions collection right after startup: creates it clustered on {@code _id} when configured,
+ * moves rows written before generations existed into generation 0, then creates the index set and drops the
+ * indexes it replaced. Like the other index setup, it does not hold up
+ * startup and is retried until it succeeded once.
+ * <p>
+ * Every query reads a single workspace month and generation, so all indexes start with these fields and no index
+ * is a prefix of another. Each one then covers one query shape, so it is answered from the index alone:
+ * <ul>
+ *     <li>category statistics and the summary: {@code category, amount}</li>
+ *     <li>iban statistics: {@code iban, amount}</li>
+ *     <li>delta import fingerprints and the reaper: {@code fingerprint, _id}</li>
+ * </ul>
+ * Month deletes of replace imports use the common prefix, as do rollup rebuilds and the cube, timeline and sketch
+ * fallbacks, which read a whole month once until its rollup is rebuilt. Grouping by currency or transaction date
+ * would need indexes every import writes to, so these reads fetch the month's rows instead and are marked with a
+ * query comment that exempts them from the covered-read check of {@code TransactionQueryPlanIT}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class TransactionCollectionInitializer {
+
+    private static final int NAMESPACE_EXISTS = 48;
+    private static final String FIELD_GENERATION = "generation";
+    private static final String MIGRATIONS_COLLECTION = "schema_migrations";
+    private static final String GENERATION_BACKFILL = "transactions_generation_backfill";
+
+    private static final List<Index> INDEXES = List.of(
+            monthIndex("transactions_month_category_amount_idx", "category", "amount"),
+            monthIndex("transactions_month_iban_amount_idx", "iban", "amount"),
+            monthIndex("transactions_month_fingerprint_id_idx", "fingerprint", "_id")
+    );
+
+    /**
+     * Indexes declared on the document before the index set was derived from the queries
+     */
+    private static final Set<String> REPLACED_INDEXES = Set.of(
+            "workspaceId",
+            "iban",
+            "transactions_workspace_year_month_idx",
+            "transactions_workspace_year_month_generation_idx",
+            "transactions_workspace_year_month_fingerprint_idx"
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionStorageProperties properties;
+
+    private volatile boolean done;
+
+    @Scheduled(fixedDelayString = "${mongo.operations.index-setup-interval:PT1M}", scheduler = "maintenanceScheduler")
+    void initializeOnce() {
+        if (done) {
+            return;
+        }
+        try {
+            initialize();
+            done = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not set up the transactions collection, retrying later: {}", e.getMessage());
+        }
+    }
+
+    void initialize() {
+        if (properties.isClustered()) {
+            createClustered();
+        }
+        backfillGeneration();
+
+        var indexOps = mongoTemplate.indexOps(TransactionDocument.class);
+        INDEXES.forEach(indexOps::createIndex);
+        indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(REPLACED_INDEXES::contains)
+                .forEach(name -> {
+                    indexOps.dropIndex(name);
+                    log.info("Dropped transactions index {}, replaced by the query-driven index set", name);
+                });
+    }
+
+    /**
+     * Readers match the generation exactly, so rows written before generations existed get generation 0, the active
+     * generation of every month imported back then. Runs once per database, recorded in {@code schema_migrations}.
+     */
+    private void backfillGeneration() {
+        var marker = Query.query(Criteria.where("_id").is(GENERATION_BACKFILL));
+        if (mongoTemplate.exists(marker, MIGRATIONS_COLLECTION)) {
+            return;
+        }
+        var result = mongoTemplate.updateMulti(
+                Query.query(Criteria.where(FIELD_GENERATION).is(null)),
+                Update.update(FIELD_GENERATION, 0L),
+                TransactionDocument.class
+        );
+        mongoTemplate.upsert(marker, Update.update("completedAt", Instant.now()), MIGRATIONS_COLLECTION);
+        log.info("Moved {} transactions stored before generations into generation 0", result.getModifiedCount());
+    }
+
+    private void createClustered() {
+        var name = mongoTemplate.getCollectionName(TransactionDocument.class);
+        var existing = mongoTemplate.getDb().listCollections().filter(new Document("name", name)).first();
+        if (existing != null) {
+            if (!existing.get("options", Document.class).containsKey("clusteredIndex")) {
+                log.warn("Collection {} exists and is not clustered, see README on how to convert it", name);
+            }
+            return;
+        }
+
+        try {
+            mongoTemplate.getDb().createCollection(name, new CreateCollectionOptions()
+                    .clusteredIndexOptions(new ClusteredIndexOptions(new Document("_id", 1), true)));
+            log.info("Created clustered collection {}", name);
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != NAMESPACE_EXISTS) {
+                throw e;
+            }
+        }
+    }
+
+    private static Index monthIndex(String name, String... coveredFields) {
+        var index = new Index()
+                .on("workspaceId", Sort.Direction.ASC)
+                .on("year", Sort.Direction.ASC)
+                .on("month", Sort.Direction.ASC)
+                .on("generation", Sort.Direction.ASC);
+        for (var field : coveredFields) {
+            index.on(field, Sort.Direction.ASC);
+        }
+        return index.named(name);
+    }
+}
@@ -0,0 +1,110 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportDeltaStatsDto;
+
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Sits between the row sink and the writer during a delta import. Parsed rows whose fingerprint is already
+ * stored for the month are dropped, the rest are passed on as additions, and stored rows that were never
+ * matched are removed at the end. Identical rows are matched one to one, so repeated rows of a statement
+ * are kept apart.
+ */
+class TransactionDeltaFilter implements Consumer<List<TransactionDocument>> {
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final Map<String, ArrayDeque<UUID>> storedIdsByFingerprint;
+    private final Consumer<List<TransactionDocument>> writer;
+
+    private int addedRows;
+    private int unchangedRows;
+
+    private TransactionDeltaFilter(TransactionRepository transactionRepository,
+                                   Map<String, ArrayDeque<UUID>> storedIdsByFingerprint,
+                                   Consumer<List<TransactionDocument>> writer) {
+        this.transactionRepository = transactionRepository;
+        this.storedIdsByFingerprint = storedIdsByFingerprint;
+        this.writer = writer;
+    }
+
+    /**
+     * Loads the fingerprints stored for the month's generation. Rows written before fingerprints existed are
+     * fingerprinted from their fields.
+     */
+    static TransactionDeltaFilter load(TransactionRepository transactionRepository,
+                                       String workspaceId,
+                                       YearMonth month,
+                                       long generation,
+                                       Consumer<List<TransactionDocument>> writer) {
+        var stored = new HashMap<String, ArrayDeque<UUID>>();
+        var unfingerprintedIds = new ArrayList<UUID>();
+
+        try (var rows = transactionRepository.streamByWorkspaceIdAndYearAndMonthAndGeneration(
+                workspaceId, month.getYear(), month.getMonthValue(), generation)) {
+            rows.forEach(row -> {
+                if (row.fingerprint() == null) {
+                    unfingerprintedIds.add(row.id());
+                } else {
+                    stored.computeIfAbsent(row.fingerprint(), fingerprint -> new ArrayDeque<>()).add(row.id());
+                }
+            });
+        }
+
+        var fingerprinter = new TransactionFingerprinter();
+        for (int from = 0; from < unfingerprintedIds.size(); from += DELETE_BATCH_SIZE) {
+            var batch = unfingerprintedIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, unfingerprintedIds.size()));
+            for (var document : transactionRepository.findAllById(batch)) {
+                stored.computeIfAbsent(fingerprinter.fingerprint(document), fingerprint -> new ArrayDeque<>()).add(document.getId());
+            }
+        }
+
+        return new TransactionDeltaFilter(transactionRepository, stored, writer);
+    }
+
+    @Override
+    public void accept(List<TransactionDocument> batch) {
+        var added = new ArrayList<TransactionDocument>(batch.size());
+        for (var document : batch) {
+            var storedIds = storedIdsByFingerprint.get(document.getFingerprint());
+            if (storedIds == null) {
+                added.add(document);
+                continue;
+            }
+
+            storedIds.poll();
+            if (storedIds.isEmpty()) {
+                storedIdsByFingerprint.remove(document.getFingerprint());
+            }
+            unchangedRows++;
+        }
+
+        if (!added.isEmpty()) {
+            writer.accept(added);
+            addedRows += added.size();
+        }
+    }
+
+    /**
+     * Deletes the stored rows no parsed row matched; call once the whole file went through the filter.
+     */
+    ImportDeltaStatsDto deleteRemovedRows() {
+        var removedIds = new ArrayList<UUID>();
+        storedIdsByFingerprint.values().forEach(removedIds::addAll);
+        storedIdsByFingerprint.clear();
+
+        for (int from = 0; from < removedIds.size(); from += DELETE_BATCH_SIZE) {
+            transactionRepository.deleteAllById(removedIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, removedIds.size())));
+        }
+
+        return new ImportDeltaStatsDto(addedRows, removedIds.size(), unchangedRows);
+    }
+}
@@ -6,40 +6,46 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.CompoundIndex;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
+/**
+ * Indexes are created by {@link TransactionCollectionInitializer}, after the collection itself.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Document("transactions")
-@CompoundIndex(
-        name = "transactions_workspace_year_month_idx",
-        def = "{'workspaceId': 1, 'year': 1, 'month': 1}"
-)
 class TransactionDocument {
 
     @Id
     private UUID id;
 
-    @Indexed
     private String workspaceId;
 
     int year;
     int month;
 
-    @Indexed
     private String iban;
 
     LocalDate transactionDate;
     private String currency;
     private String category;
     private BigDecimal amount;
+
+    /**
+     * Hash of the row content, used by delta imports to match rows of a re-uploaded statement
+     */
+    private String fingerprint;
+
+    /**
+     * Import generation the row was written under, see {@code ImportJobDocument#activeGeneration}. Rows written
+     * before generations existed are moved into generation 0 by {@link TransactionCollectionInitializer}
+     */
+    private long generation;
 }
@@ -0,0 +1,209 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Char-level decoding and validation of transaction fields. Invalid input is reported with {@code null}
+ * or {@code false} rather than exceptions, and values are only copied when they have to be.
+ * <p>
+ * Keeps a scratch buffer, so one instance serves one parse at a time.
+ */
+class TransactionFieldDecoder {
+
+    private static final int IBAN_MIN_LENGTH = 14;
+    private static final int IBAN_MAX_LENGTH = 34;
+    private static final int CURRENCY_LENGTH = 3;
+    private static final int DATE_LENGTH = 10;
+
+    /**
+     * Significant digits of an amount, as many as a Decimal128 holds
+     */
+    private static final int AMOUNT_MAX_PRECISION = 34;
+
+    /**
+     * Largest power of ten an amount may be scaled by, either way
+     */
+    private static final int AMOUNT_MAX_SCALE = 34;
+
+    private char[] scratch = new char[32];
+
+    /**
+     * Two letters, two digits and 10 to 30 letters or digits; letters may be lower case.
+     */
+    static boolean isIban(CharSequence value) {
+        var length = value.length();
+        if (length < IBAN_MIN_LENGTH || length > IBAN_MAX_LENGTH) {
+            return false;
+        }
+        if (!isLetter(value.charAt(0)) || !isLetter(value.charAt(1))
+                || !isDigit(value.charAt(2)) || !isDigit(value.charAt(3))) {
+            return false;
+        }
+        for (int i = 4; i < length; i++) {
+            var c = value.charAt(i);
+            if (!isLetter(c) && !isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Three letters; letters may be lower case.
+     */
+    static boolean isCurrency(CharSequence value) {
+        if (value.length() != CURRENCY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < CURRENCY_LENGTH; i++) {
+            if (!isLetter(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Upper-cases an ASCII value, returning the same instance when it already is a string in upper case.
+     */
+    static String toUpperAscii(CharSequence value) {
+        var length = value.length();
+        var hasLowerCase = false;
+        for (int i = 0; i < length && !hasLowerCase; i++) {
+            var c = value.charAt(i);
+            hasLowerCase = c >= 'a' && c <= 'z';
+        }
+        if (!hasLowerCase && value instanceof String string) {
+            return string;
+        }
+
+        var chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            var c = value.charAt(i);
+            chars[i] = c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return the date of a {@code YYYY-MM-DD} value, or {@code null} when the shape or the calendar date is invalid
+     */
+    static LocalDate decodeDate(CharSequence value) {
+        if (value.length() != DATE_LENGTH || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return null;
+        }
+
+        var year = digits(value, 0, 4);
+        var month = digits(value, 5, 2);
+        var day = digits(value, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * @return the amount of a plain or scientific decimal value, or {@code null} when it is not a number or,
+     * without its trailing zeros, has more than {@value #AMOUNT_MAX_PRECISION} digits or a scale beyond
+     * &plusmn;{@value #AMOUNT_MAX_SCALE}
+     */
+    BigDecimal decodeAmount(CharSequence value) {
+        if (!isDecimal(value)) {
+            return null;
+        }
+
+        var length = value.length();
+        if (scratch.length < length) {
+            scratch = new char[length];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = value.charAt(i);
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(scratch, 0, length);
+        } catch (NumberFormatException e) {
+            // exponent out of range, the syntax check above covers everything else
+            return null;
+        }
+        var stripped = amount.stripTrailingZeros();
+        if (stripped.precision() > AMOUNT_MAX_PRECISION || Math.abs(stripped.scale()) > AMOUNT_MAX_SCALE) {
+            return null;
+        }
+        return amount;
+    }
+
+    /**
+     * Same syntax {@link BigDecimal#BigDecimal(String)} accepts: optional sign, digits with an optional
+     * fraction, and an optional exponent.
+     */
+    static boolean isDecimal(CharSequence value) {
+        var length = value.length();
+        var i = 0;
+        if (i < length && isSign(value.charAt(i))) {
+            i++;
+        }
+
+        var mantissaDigits = 0;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+            mantissaDigits++;
+        }
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(value.charAt(i))) {
+                i++;
+                mantissaDigits++;
+            }
+        }
+        if (mantissaDigits == 0) {
+            return false;
+        }
+
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && isSign(value.charAt(i))) {
+                i++;
+            }
+            var exponentDigits = 0;
+            while (i < length && isDigit(value.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static int digits(CharSequence value, int offset, int count) {
+        var result = 0;
+        for (int i = offset; i < offset + count; i++) {
+            var c = value.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSign(char c) {
+        return c == '+' || c == '-';
+    }
+}
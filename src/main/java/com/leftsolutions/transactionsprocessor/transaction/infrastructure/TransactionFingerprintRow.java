@@ -0,0 +1,9 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import java.util.UUID;
+
+/**
+ * Projection of a stored transaction to what a delta import compares.
+ */
+record TransactionFingerprintRow(UUID id, String fingerprint) {
+}
@@ -0,0 +1,53 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+/**
+ * Content fingerprint of a transaction row: the first 128 bits of a SHA-256 over the normalized fields.
+ * Amounts are compared by value, so {@code -10.5} and {@code -10.50} are the same row; the amount is hashed as the
+ * unscaled value and scale of its stripped form, never as text, whose length grows with the exponent.
+ * <p>
+ * Reuses its digest, so one instance serves one parse at a time.
+ */
+class TransactionFingerprinter {
+
+    private static final int FINGERPRINT_BYTES = 16;
+    private static final char SEPARATOR = '|';
+
+    private final MessageDigest digest;
+    private final StringBuilder content = new StringBuilder(128);
+
+    TransactionFingerprinter() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    String fingerprint(String iban, LocalDate date, String currency, String category, BigDecimal amount) {
+        content.setLength(0);
+        content.append(iban).append(SEPARATOR)
+                .append(date).append(SEPARATOR)
+                .append(currency).append(SEPARATOR)
+                .append(category).append(SEPARATOR);
+        var value = amount.stripTrailingZeros();
+
+        digest.update(content.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(value.unscaledValue().toByteArray());
+        var scale = value.scale();
+        digest.update(new byte[]{(byte) (scale >>> 24), (byte) (scale >>> 16), (byte) (scale >>> 8), (byte) scale});
+        var hash = digest.digest();
+        return HexFormat.of().formatHex(hash, 0, FINGERPRINT_BYTES);
+    }
+
+    String fingerprint(TransactionDocument document) {
+        return fingerprint(document.getIban(), document.getTransactionDate(), document.getCurrency(),
+                document.getCategory(), document.getAmount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportPipelineProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.StaleGenerationDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes transactions of superseded and abandoned staged import generations in small, paced deletes,
+ * so the cleanup of a large month never becomes one long-running operation.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class TransactionGenerationReaper {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_WORKSPACE_ID = "workspaceId";
+    private static final String FIELD_YEAR = "year";
+    private static final String FIELD_MONTH = "month";
+    private static final String FIELD_GENERATION = "generation";
+
+    private final ImportingFacade importingFacade;
+    private final MongoTemplate mongoTemplate;
+    private final ImportPipelineProperties properties;
+
+    @Scheduled(fixedDelayString = "${import.pipeline.reaper-interval:PT1M}", scheduler = "maintenanceScheduler")
+    void reapStaleGenerations() {
+        for (var stale : importingFacade.findStaleGenerations()) {
+            try {
+                var removed = reap(stale);
+                importingFacade.markGenerationReaped(stale.workspaceId(), stale.month(), stale.generation());
+                log.info("Reaped import generation workspaceId={}, month={}, generation={}, removedRows={}",
+                        stale.workspaceId(), stale.month(), stale.generation(), removed);
+            } catch (RuntimeException e) {
+                log.warn("Could not reap import generation workspaceId={}, month={}, generation={}: {}",
+                        stale.workspaceId(), stale.month(), stale.generation(), e.getMessage(), e);
+            }
+        }
+    }
+
+    long reap(StaleGenerationDto stale) {
+        var criteria = Criteria.where(FIELD_WORKSPACE_ID).is(stale.workspaceId())
+                .and(FIELD_YEAR).is(stale.month().getYear())
+                .and(FIELD_MONTH).is(stale.month().getMonthValue())
+                .and(FIELD_GENERATION).is(stale.generation());
+
+        var removed = 0L;
+        while (true) {
+            var batch = Query.query(criteria).limit(properties.getReaperBatchSize());
+            batch.fields().include(FIELD_ID);
+
+            var ids = mongoTemplate.find(batch, TransactionDocument.class).stream()
+                    .map(TransactionDocument::getId)
+                    .toList();
+            if (ids.isEmpty()) {
+                return removed;
+            }
+
+            removed += mongoTemplate.remove(Query.query(Criteria.where(FIELD_ID).in(ids)), TransactionDocument.class)
+                    .getDeletedCount();
+            pause();
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getReaperBatchPause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reaping import generation", e);
+        }
+    }
+}
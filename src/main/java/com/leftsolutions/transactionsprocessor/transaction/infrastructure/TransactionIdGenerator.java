@@ -0,0 +1,81 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Hands out transaction ids that keep the rows of one workspace month next to each other in the {@code _id}
+ * index (or, for a clustered collection, in the collection itself) and are increasing within it, so bulk
+ * inserts append to the right edge of the B-tree and a month is a single contiguous {@code _id} range.
+ * <p>
+ * The ids stay version 8 UUIDs stored big-endian (standard representation), laid out as:
+ * <pre>
+ * 32 bits  CRC32C of the workspace id
+ * 16 bits  month index (year * 12 + month - 1)
+ *  4 bits  version (8)
+ * 58 bits  sequence, seeded from the clock at startup; 12 bits here and 46 after the variant
+ *  2 bits  variant
+ * 16 bits  random node id of this process
+ * </pre>
+ * The sequence is reserved in blocks, so parse threads share no state per row. Rows written before this
+ * scheme carry random ids outside every month range, {@link TransactionIdMigration} rewrites them.
+ * <p>
+ * One instance serves one parse at a time.
+ */
+class TransactionIdGenerator {
+
+    private static final int BLOCK_SIZE = 1024;
+    private static final int NODE_BITS = 16;
+    private static final long LOW_SEQUENCE_MASK = (1L << 46) - 1;
+    private static final long VERSION = 0x8000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.currentTimeMillis() << NODE_BITS);
+    private static final long NODE = new SecureRandom().nextInt(1 << NODE_BITS);
+
+    private final long prefix;
+    private long next;
+    private long blockEnd;
+
+    TransactionIdGenerator(String workspaceId, YearMonth month) {
+        this.prefix = prefix(workspaceId, month);
+    }
+
+    UUID next() {
+        if (next == blockEnd) {
+            next = SEQUENCE.getAndAdd(BLOCK_SIZE);
+            blockEnd = next + BLOCK_SIZE;
+        }
+        var sequence = next++;
+        return new UUID(prefix | VERSION | (sequence >>> 46) & 0xFFF,
+                VARIANT | (sequence & LOW_SEQUENCE_MASK) << NODE_BITS | NODE);
+    }
+
+    /**
+     * Matches the {@code _id} range holding every id generated for the month. Workspaces whose id hashes
+     * collide share the range, so it narrows a query by workspace and month instead of replacing it.
+     */
+    static Criteria monthRange(String workspaceId, YearMonth month) {
+        var prefix = prefix(workspaceId, month);
+        return Criteria.where("_id")
+                .gte(new UUID(prefix, 0L))
+                .lte(new UUID(prefix | 0xFFFF, -1L));
+    }
+
+    static boolean isInMonthRange(UUID id, String workspaceId, YearMonth month) {
+        return (id.getMostSignificantBits() & ~0xFFFFL) == prefix(workspaceId, month);
+    }
+
+    private static long prefix(String workspaceId, YearMonth month) {
+        var crc = new CRC32C();
+        crc.update(workspaceId.getBytes(StandardCharsets.UTF_8));
+        var monthIndex = (month.getYear() * 12L + month.getMonthValue() - 1) & 0xFFFF;
+        return crc.getValue() << 32 | monthIndex << 16;
+    }
+}
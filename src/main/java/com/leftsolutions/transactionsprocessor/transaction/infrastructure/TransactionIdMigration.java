@@ -0,0 +1,166 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.TransactionStorageProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
+import com.leftsolutions.transactionsprocessor.statistics.domain.StatisticsFacade;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Moves rows stored under random ids, or without a generation, to {@link TransactionIdGenerator} ids. A month
+ * is copied under a fresh generation and switched to only if no import of the month started or finished
+ * meanwhile, so readers never see a half migrated month and an import is never overwritten by a stale copy.
+ * The old rows are left to the reaper. Once a pass finds nothing left to migrate, the migration stops until the next restart.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class TransactionIdMigration {
+
+    private static final String FIELD_WORKSPACE_ID = "workspaceId";
+    private static final String FIELD_YEAR = "year";
+    private static final String FIELD_MONTH = "month";
+    private static final String FIELD_GENERATION = "generation";
+
+    private final ImportingFacade importingFacade;
+    private final MongoTemplate mongoTemplate;
+    private final TransactionBulkWriter transactionBulkWriter;
+    private final TransactionStorageProperties properties;
+    private final StatisticsFacade statisticsFacade;
+
+    private volatile boolean finished;
+
+    @Scheduled(fixedDelayString = "${mongo.transactions.id-migration-interval:PT10M}", scheduler = "maintenanceScheduler")
+    void migrate() {
+        if (!properties.isIdMigrationEnabled() || finished) {
+            return;
+        }
+
+        var pending = 0;
+        for (var month : findMonths()) {
+            try {
+                if (needsMigration(month.workspaceId(), month.month()) && !migrate(month.workspaceId(), month.month())) {
+                    pending++;
+                }
+            } catch (RuntimeException e) {
+                pending++;
+                log.warn("Could not migrate transaction ids workspaceId={}, month={}: {}",
+                        month.workspaceId(), month.month(), e.getMessage(), e);
+            }
+        }
+
+        if (pending == 0) {
+            finished = true;
+            log.info("All transactions are stored under month-ordered ids");
+        }
+    }
+
+    /**
+     * @return whether the month was migrated; {@code false} when an import got in the way and it has to be
+     * retried on a later pass
+     */
+    boolean migrate(String workspaceId, YearMonth month) {
+        var status = importingFacade.getStatus(workspaceId, month);
+        if (status.state() == ImportJobState.NOT_FOUND || status.state() == ImportJobState.PROCESSING) {
+            return false;
+        }
+
+        var source = importingFacade.readActiveGeneration(workspaceId, month);
+        var target = importingFacade.allocateGeneration(workspaceId, month);
+        long copied;
+        try {
+            copied = copy(workspaceId, month, source, target);
+        } catch (RuntimeException e) {
+            importingFacade.discardGeneration(workspaceId, month, target);
+            throw e;
+        }
+
+        if (!importingFacade.activateGeneration(workspaceId, month, target, status.revision())) {
+            importingFacade.discardGeneration(workspaceId, month, target);
+            return false;
+        }
+        mongoTemplate.remove(Query.query(monthRows(workspaceId, month).and(FIELD_GENERATION).is(null)),
+                TransactionDocument.class);
+        statisticsFacade.rebuildRollup(workspaceId, month);
+        log.info("Migrated transaction ids workspaceId={}, month={}, rows={}", workspaceId, month, copied);
+        return true;
+    }
+
+    private long copy(String workspaceId, YearMonth month, long source, long target) {
+        var writer = transactionBulkWriter.open(target, ImportProgress.untracked());
+        var ids = new TransactionIdGenerator(workspaceId, month);
+        var batch = new ArrayList<TransactionDocument>();
+        try (var rows = mongoTemplate.stream(Query.query(activeRows(workspaceId, month, source)), TransactionDocument.class)) {
+            rows.forEach(row -> {
+                row.setId(ids.next());
+                batch.add(row);
+                if (batch.size() >= writer.currentBatchSize()) {
+                    writer.accept(List.copyOf(batch));
+                    batch.clear();
+                }
+            });
+        }
+        if (!batch.isEmpty()) {
+            writer.accept(List.copyOf(batch));
+        }
+        return writer.complete().rowsWritten();
+    }
+
+    /**
+     * A month is migrated when some of its active rows have a random id, or were stored without a generation.
+     */
+    private boolean needsMigration(String workspaceId, YearMonth month) {
+        var generation = importingFacade.activeGeneration(workspaceId, month);
+        var all = mongoTemplate.count(Query.query(activeRows(workspaceId, month, generation)), TransactionDocument.class);
+        var migrated = mongoTemplate.count(
+                Query.query(new Criteria().andOperator(
+                        TransactionIdGenerator.monthRange(workspaceId, month),
+                        monthRows(workspaceId, month).and(FIELD_GENERATION).is(generation)
+                )),
+                TransactionDocument.class
+        );
+        return migrated < all;
+    }
+
+    private List<MonthKey> findMonths() {
+        var aggregation = Aggregation.newAggregation(Aggregation.group(FIELD_WORKSPACE_ID, FIELD_YEAR, FIELD_MONTH));
+        return mongoTemplate.aggregate(aggregation, TransactionDocument.class, Document.class).getMappedResults().stream()
+                .map(group -> group.get("_id", Document.class))
+                .map(key -> new MonthKey(
+                        key.getString(FIELD_WORKSPACE_ID),
+                        YearMonth.of(key.getInteger(FIELD_YEAR), key.getInteger(FIELD_MONTH))
+                ))
+                .toList();
+    }
+
+    /**
+     * Rows of the generation, for generation 0 including the rows stored without one. Those are removed right
+     * after the switch, the reaper only matches stored generations.
+     */
+    private static Criteria activeRows(String workspaceId, YearMonth month, long generation) {
+        var generations = generation == 0 ? Arrays.asList(0L, null) : List.of(generation);
+        return monthRows(workspaceId, month).and(FIELD_GENERATION).in(generations);
+    }
+
+    private static Criteria monthRows(String workspaceId, YearMonth month) {
+        return Criteria.where(FIELD_WORKSPACE_ID).is(workspaceId)
+                .and(FIELD_YEAR).is(month.getYear())
+                .and(FIELD_MONTH).is(month.getMonthValue());
+    }
+
+    private record MonthKey(String workspaceId, YearMonth month) {
+    }
+}
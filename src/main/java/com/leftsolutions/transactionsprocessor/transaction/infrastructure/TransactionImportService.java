@@ -1,114 +1,124 @@
 package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
 
 import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
-import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportStartDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportSubmissionDto;
 import com.leftsolutions.transactionsprocessor.transaction.domain.TransactionImportFacade;
+import com.leftsolutions.transactionsprocessor.transaction.exception.IdempotencyKeyReusedException;
 import com.leftsolutions.transactionsprocessor.transaction.exception.ImportAlreadyProcessingException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.YearMonth;
-
+import java.util.HexFormat;
+
+/**
+ * Accepts imports into the shared import queue; whichever worker node claims them runs them. The job's move to
+ * {@code PROCESSING}, together with the duplicate and repeated-submission checks, is a single conditional update.
+ * The file is stored before that update, so the job never stays processing for the length of an upload
+ * without a queue entry; a submission that repeats the month's job or meets a running import is refused by a read
+ * before admission and the copy, so retries cost neither.
+ */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 class TransactionImportService implements TransactionImportFacade {
 
-    private static final int MAX_STORED_ERRORS = 200;
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+    private static final String MSG_NOT_QUEUED = "Import could not be queued: %s";
 
     private final ImportingFacade importingFacade;
-    private final CsvTransactionParser csvTransactionParser;
-    private final TransactionRepository transactionRepository;
-    private final TransactionTemplate transactionTemplate;
-
-    private final TaskExecutor importExecutor;
-
-    public TransactionImportService(ImportingFacade importingFacade,
-                                    CsvTransactionParser csvTransactionParser,
-                                    TransactionRepository transactionRepository,
-                                    TransactionTemplate transactionTemplate,
-                                    @Qualifier("importExecutor") TaskExecutor importExecutor) {
-        this.importingFacade = importingFacade;
-        this.csvTransactionParser = csvTransactionParser;
-        this.transactionRepository = transactionRepository;
-        this.transactionTemplate = transactionTemplate;
-        this.importExecutor = importExecutor;
-    }
+    private final ImportQueueService importQueueService;
+    private final ImportQueueWorker importQueueWorker;
 
     @Override
-    public ImportJobStatusDto importMonthlyAsync(String workspaceId, YearMonth month, Path csvFile) {
-        var currentStatus = importingFacade.getStatus(workspaceId, month);
-        if (currentStatus.state() == ImportJobState.PROCESSING) {
-            throw new ImportAlreadyProcessingException(workspaceId, month);
-        }
+    public ImportJobStatusDto importMonthlyAsync(String workspaceId, YearMonth month, ImportSubmissionDto submission) {
+        var csvFile = submission.csvFile();
+        ImportStartDto start;
+        try {
+            var contentSha256 = submission.contentSha256() != null ? submission.contentSha256() : sha256(csvFile);
+            var refused = importingFacade.findRefusedStart(workspaceId, month, contentSha256, submission.idempotencyKey());
+            if (refused.isPresent()) {
+                return refuse(workspaceId, month, submission, contentSha256, refused.get());
+            }
 
-        importingFacade.markProcessing(workspaceId, month);
+            importQueueService.checkAdmission(workspaceId);
+            var entry = importQueueService.store(workspaceId, month, submission.mode(), csvFile);
 
-        importExecutor.execute(() -> runImport(workspaceId, month, csvFile));
+            try {
+                importQueueService.reserve(entry);
+                start = importingFacade.startProcessing(workspaceId, month, contentSha256, submission.idempotencyKey());
+            } catch (RuntimeException e) {
+                importQueueService.discard(entry);
+                throw e;
+            }
+            if (start.outcome() != ImportStartDto.Outcome.STARTED) {
+                importQueueService.discard(entry);
+                return refuse(workspaceId, month, submission, contentSha256, start);
+            }
+            enqueue(workspaceId, month, entry);
+        } finally {
+            MonthlyImportRunner.deleteImportFile(csvFile);
+        }
 
-        return importingFacade.getStatus(workspaceId, month);
+        try {
+            importQueueWorker.poll();
+        } catch (RuntimeException e) {
+            log.warn("Could not poll the import queue after submitting workspaceId={}, month={}: {}",
+                    workspaceId, month, e.getMessage(), e);
+        }
+        return start.status();
     }
 
-    private void runImport(String workspaceId, YearMonth month, Path csvFile) {
-        try (InputStream input = Files.newInputStream(csvFile)) {
-            var rows = csvTransactionParser.parse(workspaceId, input, month);
-
-            var validDocs = rows.stream()
-                    .filter(CsvTransactionParser.ParseResultRow::isValid)
-                    .map(CsvTransactionParser.ParseResultRow::document)
-                    .toList();
-
-            var rejectedErrors = rows.stream()
-                    .filter(r -> !r.isValid())
-                    .map(CsvTransactionParser.ParseResultRow::error)
-                    .map(this::normalizeErrorMessage)
-                    .limit(MAX_STORED_ERRORS)
-                    .toList();
-
-            var rejectedRows = rows.size() - validDocs.size();
-
-            transactionTemplate.executeWithoutResult(status -> {
-                transactionRepository.deleteByWorkspaceIdAndYearAndMonth(
-                        workspaceId,
-                        month.getYear(),
-                        month.getMonthValue()
-                );
-
-                transactionRepository.saveAll(validDocs);
-
-                importingFacade.markCompleted(workspaceId, month, validDocs.size(), rejectedRows, rejectedErrors);
-            });
-
-            log.info("Import finished workspaceId={}, month={}, importedRows={}, rejectedRows={}",
-                    workspaceId, month, validDocs.size(), rejectedRows);
-
-        } catch (Exception e) {
-            importingFacade.markFailed(workspaceId, month, e.getMessage());
-            log.warn("Import failed workspaceId={}, month={}, error={}", workspaceId, month, e.getMessage(), e);
-        } finally {
-            try {
-                Files.deleteIfExists(csvFile);
-            } catch (Exception deleteError) {
-                log.warn("Could not delete temp import file {}: {}", csvFile, deleteError.getMessage(), deleteError);
-            }
+    /**
+     * A repeated submission gets the status of the job it repeats; one made while another import of the month is
+     * processing, or one reusing the job's idempotency key for another file, is rejected.
+     */
+    private ImportJobStatusDto refuse(String workspaceId,
+                                      YearMonth month,
+                                      ImportSubmissionDto submission,
+                                      String contentSha256,
+                                      ImportStartDto start) {
+        if (start.outcome() == ImportStartDto.Outcome.ALREADY_PROCESSING) {
+            throw new ImportAlreadyProcessingException(workspaceId, month);
+        }
+        if (start.outcome() == ImportStartDto.Outcome.KEY_REUSED) {
+            throw new IdempotencyKeyReusedException(workspaceId, month, submission.idempotencyKey());
         }
+        log.info("Import already submitted workspaceId={}, month={}, sha256={}, idempotencyKey={}, state={}",
+                workspaceId, month, contentSha256, submission.idempotencyKey(), start.status().state());
+        return start.status();
     }
 
-    private String normalizeErrorMessage(String error) {
-        if (error == null) {
-            return null;
+    private void enqueue(String workspaceId, YearMonth month, ImportQueueDocument entry) {
+        try {
+            importQueueService.enqueue(entry);
+        } catch (RuntimeException e) {
+            importingFacade.markFailed(workspaceId, month, MSG_NOT_QUEUED.formatted(e.getMessage()));
+            throw e;
         }
+    }
 
-        return error
-                .replaceAll("^\\d+\\s+\\w+\\s+\"", "")
-                .replaceAll("\"$", "")
-                .replaceAll("[\\r\\n]", "")
-                .trim();
+    private static String sha256(Path csvFile) {
+        try (var input = Files.newInputStream(csvFile)) {
+            var digest = MessageDigest.getInstance("SHA-256");
+            var buffer = new byte[DIGEST_BUFFER_SIZE];
+            for (int read; (read = input.read(buffer)) != -1; ) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
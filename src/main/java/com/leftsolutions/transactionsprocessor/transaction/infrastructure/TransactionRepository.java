@@ -4,8 +4,14 @@ import org.jetbrains.annotations.NotNull;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.UUID;
+import java.util.stream.Stream;
 
 
 interface TransactionRepository extends MongoRepository<@NotNull TransactionDocument, @NotNull UUID> {
     void deleteByWorkspaceIdAndYearAndMonth(String workspaceId, int year, int month);
+
+    Stream<TransactionFingerprintRow> streamByWorkspaceIdAndYearAndMonthAndGeneration(String workspaceId,
+                                                                                       int year,
+                                                                                       int month,
+                                                                                       long generation);
 }
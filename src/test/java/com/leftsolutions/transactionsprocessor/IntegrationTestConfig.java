@@ -24,5 +24,6 @@ public abstract class IntegrationTestConfig {
     @DynamicPropertySource
     static void registerProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.mongodb.uri", mongo::getReplicaSetUrl);
+        registry.add("import.queue.poll-interval", () -> "PT1H");
     }
 }
@@ -0,0 +1,63 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MongoOperationLimiterTest {
+
+    @Test
+    void shouldFailOperationThatGetsNoSlotWithinAcquireTimeout() throws Exception {
+        // given
+        var limiter = new MongoOperationLimiter(1, Duration.ofMillis(10));
+        var release = new CountDownLatch(1);
+        var holder = hold(limiter, release);
+
+        // when / then
+        assertThatThrownBy(() -> limiter.run(() -> {
+        })).isInstanceOf(MongoOperationsBusyException.class);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldLetOperationOfWaitingLimiterWaitUntilSlotFreesUp() throws Exception {
+        // given
+        var limiter = new MongoOperationLimiter(1);
+        var release = new CountDownLatch(1);
+        var holder = hold(limiter, release);
+
+        // when
+        var waiting = CompletableFuture.supplyAsync(() -> limiter.call(() -> "written"));
+        release.countDown();
+
+        // then
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("written");
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+    }
+
+    /**
+     * Takes the only slot and keeps it until released.
+     */
+    private static CompletableFuture<Void> hold(MongoOperationLimiter limiter, CountDownLatch release) throws Exception {
+        var held = new CountDownLatch(1);
+        var holder = CompletableFuture.runAsync(() -> limiter.run(() -> {
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+        return holder;
+    }
+}
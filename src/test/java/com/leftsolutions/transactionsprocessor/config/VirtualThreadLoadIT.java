@@ -0,0 +1,210 @@
+package com.leftsolutions.transactionsprocessor.config;
+
+import com.leftsolutions.transactionsprocessor.IntegrationTestConfig;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.transaction.domain.TransactionImportFacade;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sends the same HTTP load of status and statistics requests to the application started once with
+ * {@code spring.threads.virtual.enabled} off and once with it on. Both runs cap Tomcat's platform pool at
+ * {@link #PLATFORM_THREADS} threads, which virtual threads do not use, and turn the statistics cache off, so every
+ * request waits on Mongo. Throughput and latency of both runs are logged side by side; the build checks that each
+ * run served every request and left the Mongo slots free.
+ */
+class VirtualThreadLoadIT extends IntegrationTestConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadIT.class);
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+    private static final String CLAIM_WORKSPACE_ID = "workspace_id";
+    private static final int PLATFORM_THREADS = 8;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final List<String> PATHS = List.of(
+            "/api/imports/2026-01/status",
+            "/api/statistics?yearMonth=2026-01&groupBy=CATEGORY"
+    );
+
+    private static final Map<String, LoadResult> RESULTS = new ConcurrentHashMap<>();
+
+    @AfterAll
+    static void reportComparison() {
+        var platform = RESULTS.get(PlatformThreads.class.getSimpleName());
+        var virtual = RESULTS.get(VirtualThreads.class.getSimpleName());
+        if (platform != null && virtual != null) {
+            log.info("Status and statistics load of {} requests: platform threads {}, virtual threads {}",
+                    platform.requests(), platform, virtual);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.threads.virtual.enabled=false",
+            "server.tomcat.threads.max=" + PLATFORM_THREADS,
+            "statistics.cache.enabled=false"
+    })
+    class PlatformThreads extends LoadRun {
+    }
+
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.threads.virtual.enabled=true",
+            "server.tomcat.threads.max=" + PLATFORM_THREADS,
+            "statistics.cache.enabled=false"
+    })
+    class VirtualThreads extends LoadRun {
+    }
+
+    abstract class LoadRun {
+
+        @LocalServerPort
+        private int port;
+
+        @MockitoBean
+        private JwtDecoder jwtDecoder;
+
+        @Autowired
+        private TransactionImportFacade transactionImportFacade;
+
+        @Autowired
+        private ImportingFacade importingFacade;
+
+        @Autowired
+        private MongoOperationLimiter mongoOperationLimiter;
+
+        @BeforeEach
+        void importMonth() throws Exception {
+            when(jwtDecoder.decode(anyString())).thenReturn(Jwt.withTokenValue("token")
+                    .header("alg", "none")
+                    .claim(CLAIM_WORKSPACE_ID, WORKSPACE_ID)
+                    .build());
+            if (!importingFacade.isCompleted(WORKSPACE_ID, MONTH)) {
+                transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, writeTempCsv());
+            }
+        }
+
+        @Test
+        void shouldServeStatusAndStatisticsLoad() throws Exception {
+            // given
+            var permits = mongoOperationLimiter.availablePermits();
+            var clients = permits;
+
+            // when
+            var result = runLoad(clients);
+            RESULTS.put(getClass().getSimpleName(), result);
+            log.info("{}: {}", getClass().getSimpleName(), result);
+
+            // then
+            assertThat(result.failures()).isEmpty();
+            assertThat(result.requests()).isEqualTo(clients * REQUESTS_PER_CLIENT);
+            assertThat(result.requestsPerSecond()).isPositive();
+            assertThat(mongoOperationLimiter.availablePermits()).isEqualTo(permits);
+        }
+
+        private LoadResult runLoad(int clients) throws Exception {
+            var latencies = new ConcurrentLinkedQueue<Long>();
+            var failures = new ConcurrentLinkedQueue<String>();
+
+            var start = System.nanoTime();
+            try (var client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+                 var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    var offset = c;
+                    executor.submit(() -> {
+                        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                            send(client, PATHS.get((offset + i) % PATHS.size()), latencies, failures);
+                        }
+                    });
+                }
+            }
+            return LoadResult.of(Duration.ofNanos(System.nanoTime() - start), new ArrayList<>(latencies), failures);
+        }
+
+        private void send(HttpClient client, String path, Queue<Long> latencies, Queue<String> failures) {
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("Authorization", "Bearer token")
+                    .timeout(Duration.ofMinutes(1))
+                    .build();
+            var sent = System.nanoTime();
+            try {
+                var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                latencies.add(System.nanoTime() - sent);
+                if (response.statusCode() != 200) {
+                    failures.add(path + " -> " + response.statusCode());
+                }
+            } catch (Exception e) {
+                failures.add(path + " -> " + e);
+            }
+        }
+    }
+
+    private static Path writeTempCsv() throws Exception {
+        var csv = """
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                PL61109010140000071219812874,2026-01-11,PLN,FOOD,-20.00
+                PL12109010140000071219812875,2026-01-12,PLN,RENT,-2000.00
+                """;
+        var file = Files.createTempFile("it-import-", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private record LoadResult(Duration elapsed, int requests, Duration p50, Duration p99, Queue<String> failures) {
+
+        static LoadResult of(Duration elapsed, List<Long> latencies, Queue<String> failures) {
+            var sorted = latencies.stream().sorted().toList();
+            return new LoadResult(elapsed, sorted.size(), percentile(sorted, 0.50), percentile(sorted, 0.99), failures);
+        }
+
+        double requestsPerSecond() {
+            return requests / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+
+        private static Duration percentile(List<Long> sorted, double quantile) {
+            if (sorted.isEmpty()) {
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos(sorted.get((int) Math.ceil(quantile * sorted.size()) - 1));
+        }
+
+        @Override
+        public String toString() {
+            return "%.0f requests/s, p50 %d ms, p99 %d ms, %d failed".formatted(
+                    requestsPerSecond(), p50.toMillis(), p99.toMillis(), failures.size());
+        }
+    }
+}
@@ -7,15 +7,20 @@ import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
 import com.leftsolutions.transactionsprocessor.transaction.domain.TransactionImportFacade;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
 import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -28,6 +33,7 @@ class ImportApiSecurityIT extends IntegrationTestConfig {
     private static final ImportJobState IMPORT_JOB_STATE = ImportJobState.COMPLETED;
     private static final int IMPORTED_ROWS = 10;
     private static final int REJECTED_ROWS = 2;
+    private static final long REVISION = 3;
 
     @MockitoBean
     private TransactionImportFacade transactionImportFacade;
@@ -57,7 +63,12 @@ class ImportApiSecurityIT extends IntegrationTestConfig {
                 IMPORTED_ROWS,
                 REJECTED_ROWS,
                 null,
-                Instant.parse("2026-01-10T10:00:00Z")
+                null,
+                Instant.parse("2026-01-10T10:00:00Z"),
+                null,
+                null,
+                REVISION,
+                null
         );
 
         when(importingFacade.getStatus(WORKSPACE_ID, MONTH)).thenReturn(dto);
@@ -72,6 +83,23 @@ class ImportApiSecurityIT extends IntegrationTestConfig {
                 .andExpect(jsonPath("$.month").value("2026-01"))
                 .andExpect(jsonPath("$.state").value(IMPORT_JOB_STATE.name()))
                 .andExpect(jsonPath("$.importedRows").value(IMPORTED_ROWS))
-                .andExpect(jsonPath("$.rejectedRows").value(REJECTED_ROWS));
+                .andExpect(jsonPath("$.rejectedRows").value(REJECTED_ROWS))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + REVISION + "\""));
+    }
+
+    @Test
+    void shouldReturn304WhenStatusDidNotChange() throws Exception {
+        // given
+        when(importingFacade.getStatus(WORKSPACE_ID, MONTH)).thenReturn(new ImportJobStatusDto(
+                WORKSPACE_ID, MONTH, ImportJobState.PROCESSING, 0, 0, List.of(), Map.of(), Instant.now(), null, null, REVISION, null));
+
+        // when // then
+        mockMvc.perform(
+                        get(STATUS_URL)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"" + REVISION + "\"")
+                                .with(jwt().jwt(j -> j.claim(CLAIM_WORKSPACE_ID, WORKSPACE_ID)))
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
     }
 }
\ No newline at end of file
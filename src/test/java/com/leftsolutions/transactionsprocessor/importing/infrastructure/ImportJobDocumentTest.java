@@ -1,11 +1,14 @@
 package com.leftsolutions.transactionsprocessor.importing.infrastructure;
 
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.Instant;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,86 +48,158 @@ class ImportJobDocumentTest {
     @Test
     void shouldMarkJobAsCompletedWhenRejectedRowsIsZero() {
         // given
-        var base = baseProcessingJob();
         var importedRows = 10;
         var rejectedRows = 0;
 
         // when
-        var updated = base.markCompleted(importedRows, rejectedRows, List.of());
+        var update = ImportJobDocument.completed(importedRows, rejectedRows, List.of(), Map.of(), null, null, null);
 
         // then
-        assertThat(updated)
-                .returns(JOB_ID, ImportJobDocument::getId)
-                .returns(WORKSPACE_ID, ImportJobDocument::getWorkspaceId)
-                .returns(MONTH.getYear(), ImportJobDocument::getYear)
-                .returns(MONTH.getMonthValue(), ImportJobDocument::getMonth)
-                .returns(ImportJobState.COMPLETED, ImportJobDocument::getState)
-                .returns(importedRows, ImportJobDocument::getImportedRows)
-                .returns(rejectedRows, ImportJobDocument::getRejectedRows)
-                .returns(List.of(), ImportJobDocument::getErrors);
+        assertThat(setFields(update))
+                .containsEntry(ImportJobDocument.FIELD_STATE, ImportJobState.COMPLETED)
+                .containsEntry(ImportJobDocument.FIELD_IMPORTED_ROWS, importedRows)
+                .containsEntry(ImportJobDocument.FIELD_REJECTED_ROWS, rejectedRows)
+                .containsEntry(ImportJobDocument.FIELD_ERRORS, List.of());
 
-        assertThat(updated.getUpdatedAt()).isNotNull();
-        assertThat(updated.getUpdatedAt()).isAfter(UPDATED_AT);
+        assertThat(setFields(update).get(ImportJobDocument.FIELD_UPDATED_AT, Instant.class)).isAfter(UPDATED_AT);
     }
 
     @Test
     void shouldMarkJobAsWithWarningWhenRejectedRowsIsGreaterThanZero() {
         // given
-        var base = baseProcessingJob();
         var errors = List.of("Line 2: invalid iban", "Line 5: missing field amount");
+        var rejectionCounts = Map.of("INVALID_IBAN_FORMAT", 1L, "MISSING_FIELD", 1L);
 
         // when
-        var updated = base.markCompleted(IMPORTED_ROWS, REJECTED_ROWS, errors);
+        var update = ImportJobDocument.completed(IMPORTED_ROWS, REJECTED_ROWS, errors, rejectionCounts, null, null, null);
 
         // then
-        assertThat(updated)
-                .returns(JOB_ID, ImportJobDocument::getId)
-                .returns(WORKSPACE_ID, ImportJobDocument::getWorkspaceId)
-                .returns(MONTH.getYear(), ImportJobDocument::getYear)
-                .returns(MONTH.getMonthValue(), ImportJobDocument::getMonth)
-                .returns(ImportJobState.WITH_WARNING, ImportJobDocument::getState)
-                .returns(IMPORTED_ROWS, ImportJobDocument::getImportedRows)
-                .returns(REJECTED_ROWS, ImportJobDocument::getRejectedRows)
-                .returns(errors, ImportJobDocument::getErrors);
-
-        assertThat(updated.getUpdatedAt()).isNotNull();
-        assertThat(updated.getUpdatedAt()).isAfter(UPDATED_AT);
+        assertThat(setFields(update))
+                .containsEntry(ImportJobDocument.FIELD_STATE, ImportJobState.WITH_WARNING)
+                .containsEntry(ImportJobDocument.FIELD_IMPORTED_ROWS, IMPORTED_ROWS)
+                .containsEntry(ImportJobDocument.FIELD_REJECTED_ROWS, REJECTED_ROWS)
+                .containsEntry(ImportJobDocument.FIELD_ERRORS, errors)
+                .containsEntry(ImportJobDocument.FIELD_REJECTION_COUNTS, rejectionCounts);
+
+        assertThat(setFields(update).get(ImportJobDocument.FIELD_UPDATED_AT, Instant.class)).isAfter(UPDATED_AT);
     }
 
     @Test
     void shouldMarkJobAsFailedAndPreserveCounters() {
-        // given
-        var base = baseProcessingJobWithCounters();
+        // given // when
+        var update = ImportJobDocument.failed(ERROR_MESSAGE);
 
-        // when
-        var updated = base.markFailed(ERROR_MESSAGE);
+        // then
+        assertThat(setFields(update))
+                .containsEntry(ImportJobDocument.FIELD_STATE, ImportJobState.FAILED)
+                .containsEntry(ImportJobDocument.FIELD_ERRORS, List.of(ERROR_MESSAGE))
+                .doesNotContainKeys(ImportJobDocument.FIELD_IMPORTED_ROWS, ImportJobDocument.FIELD_REJECTED_ROWS);
+
+        assertThat(setFields(update).get(ImportJobDocument.FIELD_UPDATED_AT, Instant.class)).isAfter(UPDATED_AT);
+    }
+
+    @Test
+    void shouldResetErrorsAndStatsButKeepCountersWhenProcessingStarts() {
+        // given // when
+        var update = ImportJobDocument.processing("sha-1", "key-1");
 
         // then
-        assertThat(updated)
-                .returns(JOB_ID, ImportJobDocument::getId)
-                .returns(WORKSPACE_ID, ImportJobDocument::getWorkspaceId)
-                .returns(MONTH.getYear(), ImportJobDocument::getYear)
-                .returns(MONTH.getMonthValue(), ImportJobDocument::getMonth)
-                .returns(ImportJobState.FAILED, ImportJobDocument::getState)
-                .returns(IMPORTED_ROWS, ImportJobDocument::getImportedRows)
-                .returns(REJECTED_ROWS, ImportJobDocument::getRejectedRows)
-                .returns(List.of(ERROR_MESSAGE), ImportJobDocument::getErrors);
+        assertThat(setFields(update))
+                .containsEntry(ImportJobDocument.FIELD_STATE, ImportJobState.PROCESSING)
+                .containsEntry(ImportJobDocument.FIELD_CONTENT_SHA256, "sha-1")
+                .containsEntry(ImportJobDocument.FIELD_IDEMPOTENCY_KEY, "key-1")
+                .containsEntry(ImportJobDocument.FIELD_ERRORS, List.of())
+                .doesNotContainKeys(ImportJobDocument.FIELD_IMPORTED_ROWS, ImportJobDocument.FIELD_REJECTED_ROWS);
+        assertThat(update.getUpdateObject().get("$unset", Document.class))
+                .containsKeys(ImportJobDocument.FIELD_WRITE_STATS, ImportJobDocument.FIELD_DELTA_STATS);
+        assertThat(update.getUpdateObject().get("$setOnInsert", Document.class))
+                .containsKeys(ImportJobDocument.FIELD_ID, ImportJobDocument.FIELD_IMPORTED_ROWS, ImportJobDocument.FIELD_REJECTED_ROWS);
+    }
+
+    @Test
+    void shouldIncreaseRevisionWithEveryStateChange() {
+        // given
+        var updates = List.of(
+                ImportJobDocument.processing("sha-1", null),
+                ImportJobDocument.completed(IMPORTED_ROWS, REJECTED_ROWS, List.of(), Map.of(), null, null, null),
+                ImportJobDocument.failed(ERROR_MESSAGE)
+        );
 
-        assertThat(updated.getUpdatedAt()).isNotNull();
-        assertThat(updated.getUpdatedAt()).isAfter(UPDATED_AT);
+        // then
+        assertThat(updates)
+                .extracting(update -> update.getUpdateObject().get("$inc", Document.class))
+                .allSatisfy(inc -> assertThat(inc).containsEntry(ImportJobDocument.FIELD_REVISION, 1));
     }
 
     @Test
     void shouldTreatCompletedAndWithWarningAsCompleted() {
         // given
-        var completed = baseProcessingJob().markCompleted(IMPORTED_ROWS, 0, List.of());
-        var withWarning = baseProcessingJob().markCompleted(IMPORTED_ROWS, 1, List.of("Line 2: invalid record"));
+        var completed = baseProcessingJob().toBuilder().state(ImportJobState.COMPLETED).build();
+        var withWarning = baseProcessingJob().toBuilder().state(ImportJobState.WITH_WARNING).build();
 
         // then
         assertThat(completed.isCompleted()).isTrue();
         assertThat(withWarning.isCompleted()).isTrue();
     }
 
+    @Test
+    void shouldRecognizeSameSubmissionByKeyOrContentUnlessFailedOrKeyReused() {
+        // given
+        var completed = baseProcessingJob().toBuilder()
+                .state(ImportJobState.COMPLETED)
+                .contentSha256("sha-1")
+                .idempotencyKey("key-1")
+                .build();
+        var failed = completed.toBuilder().state(ImportJobState.FAILED).build();
+
+        // then
+        assertThat(completed.isSameSubmission("sha-1", "key-1")).isTrue();
+        assertThat(completed.isSameSubmission(null, "key-1")).isTrue();
+        assertThat(completed.isSameSubmission("sha-1", null)).isTrue();
+        assertThat(completed.isSameSubmission("sha-2", "key-1")).isFalse();
+        assertThat(completed.isSameSubmission("sha-2", "key-2")).isFalse();
+        assertThat(completed.isSameSubmission(null, null)).isFalse();
+        assertThat(failed.isSameSubmission("sha-1", "key-1")).isFalse();
+        assertThat(completed.isKeyReused("sha-2", "key-1")).isTrue();
+        assertThat(completed.isKeyReused("sha-1", "key-1")).isFalse();
+        assertThat(completed.isKeyReused("sha-2", "key-2")).isFalse();
+        assertThat(failed.isKeyReused("sha-2", "key-1")).isFalse();
+    }
+
+    @Test
+    void shouldSwitchGenerationAndMarkPreviousAsStale() {
+        // given
+        var job = baseProcessingJob().nextGeneration();
+        var staged = job.getLatestGeneration();
+
+        // when
+        var activated = job.activateGeneration(staged);
+        var failedStage = activated.nextGeneration();
+        var discarded = failedStage.discardGeneration(failedStage.getLatestGeneration());
+
+        // then
+        assertThat(activated)
+                .returns(1L, ImportJobDocument::getActiveGeneration)
+                .returns(List.of(0L), ImportJobDocument::getStaleGenerations);
+        assertThat(discarded.getStaleGenerations()).containsExactly(0L, 2L);
+        assertThat(discarded.discardGeneration(1L)).isSameAs(discarded);
+    }
+
+    @Test
+    void shouldMarkGenerationOfCrashedStageAsStaleOnNextAllocation() {
+        // given
+        var crashedStage = baseProcessingJob().nextGeneration();
+
+        // when
+        var retried = crashedStage.nextGeneration();
+
+        // then
+        assertThat(retried)
+                .returns(2L, ImportJobDocument::getLatestGeneration)
+                .returns(0L, ImportJobDocument::getActiveGeneration)
+                .returns(List.of(1L), ImportJobDocument::getStaleGenerations);
+    }
+
     private static ImportJobDocument baseProcessingJob() {
         return ImportJobDocument.builder()
                 .id(JOB_ID)
@@ -139,17 +214,7 @@ class ImportJobDocumentTest {
                 .build();
     }
 
-    private static ImportJobDocument baseProcessingJobWithCounters() {
-        return ImportJobDocument.builder()
-                .id(JOB_ID)
-                .workspaceId(WORKSPACE_ID)
-                .year(MONTH.getYear())
-                .month(MONTH.getMonthValue())
-                .state(ImportJobState.PROCESSING)
-                .importedRows(IMPORTED_ROWS)
-                .rejectedRows(REJECTED_ROWS)
-                .errors(List.of())
-                .updatedAt(UPDATED_AT)
-                .build();
+    private static Document setFields(Update update) {
+        return update.getUpdateObject().get("$set", Document.class);
     }
 }
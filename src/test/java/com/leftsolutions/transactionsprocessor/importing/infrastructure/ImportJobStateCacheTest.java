@@ -0,0 +1,176 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportJobCacheProperties;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportJobStateCacheTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private final ImportJobCacheProperties properties = new ImportJobCacheProperties();
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private final ImportJobStateCache cache = new ImportJobStateCache(properties, null, nanoTime::get);
+
+    @Test
+    void shouldReadFromMongoWhileStreamIsClosed() {
+        // given
+        var job = job(ImportJobState.COMPLETED);
+
+        // when
+        find(() -> job);
+        var second = find(() -> job);
+
+        // then
+        assertThat(second).contains(ImportJobStateCache.CachedJob.of(job));
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void shouldKeepJobReadOnceAndReplaceItWithStreamedChanges() {
+        // given
+        cache.opened(false);
+        var processing = job(ImportJobState.PROCESSING);
+        var completed = job(ImportJobState.COMPLETED);
+
+        // when
+        var first = find(() -> processing);
+        var cached = find(() -> completed);
+        cache.changed(completed);
+        var changed = find(() -> processing);
+
+        // then
+        assertThat(first).map(ImportJobStateCache.CachedJob::state).contains(ImportJobState.PROCESSING);
+        assertThat(cached).map(ImportJobStateCache.CachedJob::state).contains(ImportJobState.PROCESSING);
+        assertThat(changed).map(ImportJobStateCache.CachedJob::state).contains(ImportJobState.COMPLETED);
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void shouldNotLetReadOverwriteChangeThatArrivedMeanwhile() {
+        // given
+        cache.opened(false);
+        var processing = job(ImportJobState.PROCESSING);
+        var completed = job(ImportJobState.COMPLETED);
+
+        // when
+        find(() -> {
+            cache.changed(completed);
+            return processing;
+        });
+        var afterRace = find(() -> completed);
+
+        // then
+        assertThat(afterRace).map(ImportJobStateCache.CachedJob::state).contains(ImportJobState.COMPLETED);
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void shouldSkipChangesOfJobsNeverRead() {
+        // given
+        cache.opened(false);
+
+        // when
+        cache.changed(job(ImportJobState.COMPLETED));
+
+        // then
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyReadJobsBeyondMaxEntries() {
+        // given
+        properties.setMaxEntries(2);
+        cache.opened(false);
+        var job = job(ImportJobState.COMPLETED);
+
+        // when
+        find(() -> job);
+        find(MONTH.plusMonths(1), () -> job);
+        find(() -> job);
+        find(MONTH.plusMonths(2), () -> job);
+        find(() -> job);
+        find(MONTH.plusMonths(1), () -> job);
+
+        // then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(reads).hasValue(4);
+    }
+
+    @Test
+    void shouldRememberMonthWithoutJob() {
+        // given
+        cache.opened(false);
+
+        // when
+        find(() -> null);
+        var second = find(() -> job(ImportJobState.COMPLETED));
+
+        // then
+        assertThat(second).isEmpty();
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void shouldReadFromMongoWhenStreamLagsOrJobWasWrittenHere() {
+        // given
+        cache.opened(false);
+        var job = job(ImportJobState.PROCESSING);
+        find(() -> job);
+
+        // when
+        cache.written(WORKSPACE_ID, MONTH);
+        find(() -> job);
+        nanoTime.addAndGet(properties.getMaxLag().toNanos());
+        find(() -> job);
+        cache.heard();
+        find(() -> job);
+
+        // then
+        assertThat(reads).hasValue(3);
+    }
+
+    @Test
+    void shouldDropCopyWhenStreamCannotResume() {
+        // given
+        cache.opened(false);
+        find(() -> job(ImportJobState.PROCESSING));
+        cache.closed();
+
+        // when
+        cache.opened(false);
+        var afterReopen = find(() -> job(ImportJobState.COMPLETED));
+
+        // then
+        assertThat(afterReopen).map(ImportJobStateCache.CachedJob::state).contains(ImportJobState.COMPLETED);
+        assertThat(reads).hasValue(2);
+    }
+
+    private Optional<ImportJobStateCache.CachedJob> find(Supplier<ImportJobDocument> read) {
+        return find(MONTH, read);
+    }
+
+    private Optional<ImportJobStateCache.CachedJob> find(YearMonth month, Supplier<ImportJobDocument> read) {
+        return cache.find(WORKSPACE_ID, month, () -> {
+            reads.incrementAndGet();
+            return Optional.ofNullable(read.get());
+        });
+    }
+
+    private static ImportJobDocument job(ImportJobState state) {
+        return ImportJobDocument.newProcessing(WORKSPACE_ID, MONTH).toBuilder()
+                .state(state)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportUploadProperties;
+import com.leftsolutions.transactionsprocessor.importing.dto.SpooledUploadDto;
+import com.leftsolutions.transactionsprocessor.importing.exception.UnsupportedContentEncodingException;
+import com.leftsolutions.transactionsprocessor.importing.exception.UploadTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportSpoolServiceTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private static final String CSV = "iban,date,currency,category,amount\n"
+            + "PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50\n".repeat(1000);
+
+    @TempDir
+    private Path spoolDirectory;
+
+    private final ImportUploadProperties properties = new ImportUploadProperties();
+    private ImportSpoolService importSpoolService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setSpoolDirectory(spoolDirectory.resolve("spool"));
+        properties.setTransferChunkSize(DataSize.ofKilobytes(4));
+        importSpoolService = new ImportSpoolService(properties);
+    }
+
+    @Test
+    void shouldSpoolPlainBodyWithChecksum() throws Exception {
+        // given
+        var body = new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        var upload = importSpoolService.spool(WORKSPACE_ID, MONTH, body, null);
+
+        // then
+        assertThat(upload.file()).startsWith(properties.getSpoolDirectory());
+        assertThat(Files.readString(upload.file())).isEqualTo(CSV);
+        assertThat(upload)
+                .returns((long) CSV.length(), SpooledUploadDto::sizeBytes)
+                .returns(sha256(CSV), SpooledUploadDto::sha256);
+    }
+
+    @Test
+    void shouldDecodeGzipBody() throws Exception {
+        // given
+        var body = new ByteArrayInputStream(gzip(CSV));
+
+        // when
+        var upload = importSpoolService.spool(WORKSPACE_ID, MONTH, body, "gzip");
+
+        // then
+        assertThat(Files.readString(upload.file())).isEqualTo(CSV);
+        assertThat(upload.sha256()).isEqualTo(sha256(CSV));
+    }
+
+    @Test
+    void shouldRejectAndRemoveUploadAboveLimit() {
+        // given
+        properties.setMaxUploadSize(DataSize.ofKilobytes(10));
+        var body = new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+
+        // when // then
+        assertThatThrownBy(() -> importSpoolService.spool(WORKSPACE_ID, MONTH, body, null))
+                .isInstanceOf(UploadTooLargeException.class);
+        assertThat(properties.getSpoolDirectory()).isEmptyDirectory();
+    }
+
+    @Test
+    void shouldRejectUnsupportedEncoding() {
+        // given
+        var body = new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+
+        // when // then
+        assertThatThrownBy(() -> importSpoolService.spool(WORKSPACE_ID, MONTH, body, "br"))
+                .isInstanceOf(UnsupportedContentEncodingException.class);
+    }
+
+    private static byte[] gzip(String content) throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String sha256(String content) throws Exception {
+        var digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,199 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.IntegrationTestConfig;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportLeaseDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportProgressDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportStartDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.StaleGenerationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportingServiceIT extends IntegrationTestConfig {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    @Autowired
+    private ImportingFacade importingFacade;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ImportJobStateCache importJobStateCache;
+
+    @BeforeEach
+    void cleanup() {
+        mongoTemplate.remove(new Query(), ImportJobDocument.class);
+        mongoTemplate.remove(new Query(), ImportProgressDocument.class);
+    }
+
+    @Test
+    void shouldLetOnlyOneOfConcurrentSubmissionsStart() throws Exception {
+        // given
+        Callable<ImportStartDto> first = () -> importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        Callable<ImportStartDto> second = () -> importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-2", null);
+
+        // when
+        List<ImportStartDto> results;
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            results = executor.invokeAll(List.of(first, second)).stream()
+                    .map(future -> future.resultNow())
+                    .toList();
+        }
+
+        // then
+        assertThat(results)
+                .extracting(ImportStartDto::outcome)
+                .containsExactlyInAnyOrder(ImportStartDto.Outcome.STARTED, ImportStartDto.Outcome.ALREADY_PROCESSING);
+    }
+
+    @Test
+    void shouldReturnExistingJobForSameContentAndRestartAfterFailure() {
+        // given
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        importingFacade.markCompleted(WORKSPACE_ID, MONTH, 3, 0, List.of(), Map.of(), null, null, null, null, null);
+
+        // when
+        var repeated = importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-2", null);
+        importingFacade.markFailed(WORKSPACE_ID, MONTH, "boom");
+        var retried = importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-2", null);
+
+        // then
+        assertThat(repeated.outcome()).isEqualTo(ImportStartDto.Outcome.SAME_SUBMISSION);
+        assertThat(repeated.status())
+                .returns(ImportJobState.COMPLETED, ImportJobStatusDto::state)
+                .returns(3, ImportJobStatusDto::importedRows);
+        assertThat(retried.outcome()).isEqualTo(ImportStartDto.Outcome.STARTED);
+        assertThat(retried.status())
+                .returns(ImportJobState.PROCESSING, ImportJobStatusDto::state)
+                .returns(List.of(), ImportJobStatusDto::errors);
+    }
+
+    @Test
+    void shouldIgnoreCompletionOfJobThatIsNotProcessing() {
+        // given
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        importingFacade.markFailed(WORKSPACE_ID, MONTH, "abandoned");
+
+        // when
+        importingFacade.markCompleted(WORKSPACE_ID, MONTH, 3, 0, List.of(), Map.of(), null, null, null, null, null);
+
+        // then
+        assertThat(importingFacade.getStatus(WORKSPACE_ID, MONTH))
+                .returns(ImportJobState.FAILED, ImportJobStatusDto::state)
+                .returns(List.of("abandoned"), ImportJobStatusDto::errors);
+    }
+
+    @Test
+    void shouldIgnoreWritesOfAttemptWhoseLeaseWasTakenOver() {
+        // given
+        var first = new ImportLeaseDto("node-1", 1);
+        var second = new ImportLeaseDto("node-2", 2);
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        importingFacade.acquireLease(WORKSPACE_ID, MONTH, first);
+        var firstGeneration = importingFacade.allocateGeneration(WORKSPACE_ID, MONTH);
+        importingFacade.acquireLease(WORKSPACE_ID, MONTH, second);
+
+        // when
+        var reacquired = importingFacade.acquireLease(WORKSPACE_ID, MONTH, first);
+        var completed = importingFacade.markCompleted(WORKSPACE_ID, MONTH, 3, 0, List.of(), Map.of(), null, null, null,
+                firstGeneration, first);
+        importingFacade.markFailed(WORKSPACE_ID, MONTH, "lost", first);
+
+        // then
+        assertThat(reacquired).isFalse();
+        assertThat(completed).isFalse();
+        assertThat(importingFacade.activeGeneration(WORKSPACE_ID, MONTH)).isZero();
+        assertThat(importingFacade.getStatus(WORKSPACE_ID, MONTH).state()).isEqualTo(ImportJobState.PROCESSING);
+        assertThat(importingFacade.markCompleted(WORKSPACE_ID, MONTH, 3, 0, List.of(), Map.of(), null, null, null, null, second)).isTrue();
+    }
+
+    @Test
+    void shouldSwitchGenerationInTheUpdateThatCompletesTheJob() {
+        // given
+        var lease = new ImportLeaseDto("node-1", 1);
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        importingFacade.acquireLease(WORKSPACE_ID, MONTH, lease);
+        var generation = importingFacade.allocateGeneration(WORKSPACE_ID, MONTH);
+
+        // when
+        var completed = importingFacade.markCompleted(WORKSPACE_ID, MONTH, 3, 0, List.of(), Map.of(), null, null, null,
+                generation, lease);
+
+        // then
+        assertThat(completed).isTrue();
+        assertThat(importingFacade.getStatus(WORKSPACE_ID, MONTH).state()).isEqualTo(ImportJobState.COMPLETED);
+        assertThat(importingFacade.activeGeneration(WORKSPACE_ID, MONTH)).isEqualTo(generation);
+        assertThat(importingFacade.readActiveGeneration(WORKSPACE_ID, MONTH)).isEqualTo(generation);
+        assertThat(importingFacade.findStaleGenerations())
+                .containsExactly(new StaleGenerationDto(WORKSPACE_ID, MONTH, 0L));
+    }
+
+    @Test
+    void shouldShowPublishedProgressOnlyWhileProcessing() {
+        // given
+        var started = importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null).status();
+        var progress = new ImportProgressDto(0, 100, 400, 5, 4, 2.0, 3L, null);
+
+        // when
+        importingFacade.publishProgress(WORKSPACE_ID, MONTH, progress);
+        var running = importingFacade.getStatus(WORKSPACE_ID, MONTH);
+        importingFacade.markCompleted(WORKSPACE_ID, MONTH, 5, 0, List.of(), Map.of(), null, null, null, null, null);
+        importingFacade.publishProgress(WORKSPACE_ID, MONTH, progress);
+        var completed = importingFacade.getStatus(WORKSPACE_ID, MONTH);
+
+        // then
+        assertThat(running.revision()).isEqualTo(started.revision());
+        assertThat(running.progress())
+                .returns(1L, ImportProgressDto::revision)
+                .returns(100L, ImportProgressDto::bytesRead)
+                .returns(3L, ImportProgressDto::etaSeconds);
+        assertThat(completed.revision()).isGreaterThan(running.revision());
+        assertThat(completed.progress()).isNull();
+    }
+
+    @Test
+    void shouldSeeJobChangedByAnotherNodeThroughChangeStream() throws Exception {
+        // given
+        awaitUntil(importJobStateCache::isLive);
+        mongoTemplate.insert(ImportJobDocument.newProcessing(WORKSPACE_ID, MONTH));
+        assertThat(importingFacade.isCompleted(WORKSPACE_ID, MONTH)).isFalse();
+
+        // when
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where(ImportJobDocument.FIELD_WORKSPACE_ID).is(WORKSPACE_ID)),
+                ImportJobDocument.completed(3, 0, List.of(), Map.of(), null, null, null),
+                ImportJobDocument.class
+        );
+
+        // then
+        awaitUntil(() -> importingFacade.isCompleted(WORKSPACE_ID, MONTH));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.leftsolutions.transactionsprocessor.importing.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.IntegrationTestConfig;
+import com.leftsolutions.transactionsprocessor.config.ImportUploadProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportUploadSessionFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ByteRangeDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.SpooledUploadDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.UploadSessionDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.UploadSessionState;
+import com.leftsolutions.transactionsprocessor.importing.exception.InvalidUploadException;
+import com.leftsolutions.transactionsprocessor.importing.exception.UploadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadSessionServiceIT extends IntegrationTestConfig {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private static final String PART_1 = "iban,date,currency,category,amount\n";
+    private static final String PART_2 = "PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50\n";
+    private static final String PART_3 = "PL61109010140000071219812874,2026-01-11,PLN,FOOD,-20.00\n";
+
+    @Autowired
+    private ImportUploadSessionFacade importUploadSessionFacade;
+
+    @Autowired
+    private ImportUploadProperties importUploadProperties;
+
+    @Test
+    void shouldReportReceivedRangesAndAssembleChunksOnCompletion() throws Exception {
+        // given
+        var csv = PART_1 + PART_2 + PART_3;
+        var session = importUploadSessionFacade.openSession(WORKSPACE_ID, MONTH, (long) csv.length());
+        var uploadId = session.uploadId();
+
+        // when
+        putChunk(session, 2, PART_1.length() + PART_2.length(), PART_3);
+        putChunk(session, 0, 0, "broken");
+        putChunk(session, 0, 0, PART_1);
+        var partial = importUploadSessionFacade.getSession(WORKSPACE_ID, MONTH, uploadId);
+
+        putChunk(session, 1, PART_1.length(), PART_2);
+        var upload = importUploadSessionFacade.completeSession(WORKSPACE_ID, MONTH, uploadId, sha256(csv), Function.identity());
+
+        // then
+        assertThat(partial.receivedRanges()).containsExactly(
+                new ByteRangeDto(0, PART_1.length()),
+                new ByteRangeDto(PART_1.length() + PART_2.length(), csv.length())
+        );
+        assertThat(Files.readString(upload.file())).isEqualTo(csv);
+        assertThat(importUploadSessionFacade.getSession(WORKSPACE_ID, MONTH, uploadId))
+                .returns(UploadSessionState.COMPLETED, UploadSessionDto::state)
+                .returns((long) csv.length(), UploadSessionDto::receivedBytes);
+    }
+
+    @Test
+    void shouldRejectCompletionWithMissingChunk() throws Exception {
+        // given
+        var session = importUploadSessionFacade.openSession(WORKSPACE_ID, MONTH, null);
+        putChunk(session, 0, 0, PART_1);
+        putChunk(session, 2, PART_1.length() + PART_2.length(), PART_3);
+
+        // when // then
+        assertThatThrownBy(() -> importUploadSessionFacade.completeSession(WORKSPACE_ID, MONTH, session.uploadId(), sha256(PART_1), Function.identity()))
+                .isInstanceOf(InvalidUploadException.class)
+                .hasMessageContaining("missing bytes from offset " + PART_1.length());
+        assertThat(importUploadSessionFacade.getSession(WORKSPACE_ID, MONTH, session.uploadId()).state())
+                .isEqualTo(UploadSessionState.OPEN);
+    }
+
+    @Test
+    void shouldRejectCompletionWithWrongDigest() throws Exception {
+        // given
+        var session = importUploadSessionFacade.openSession(WORKSPACE_ID, MONTH, null);
+        putChunk(session, 0, 0, PART_1);
+
+        // when // then
+        assertThatThrownBy(() -> importUploadSessionFacade.completeSession(WORKSPACE_ID, MONTH, session.uploadId(), sha256(PART_2), Function.identity()))
+                .isInstanceOf(InvalidUploadException.class)
+                .hasMessageContaining("does not match");
+    }
+
+    @Test
+    void shouldKeepSessionOpenWhenImportIsRejected() throws Exception {
+        // given
+        var csv = PART_1 + PART_2;
+        var session = importUploadSessionFacade.openSession(WORKSPACE_ID, MONTH, (long) csv.length());
+        putChunk(session, 0, 0, PART_1);
+        putChunk(session, 1, PART_1.length(), PART_2);
+
+        // when
+        assertThatThrownBy(() -> importUploadSessionFacade.completeSession(WORKSPACE_ID, MONTH, session.uploadId(), sha256(csv),
+                upload -> {
+                    throw new IllegalStateException("import queue is full");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+        var reopened = importUploadSessionFacade.getSession(WORKSPACE_ID, MONTH, session.uploadId());
+        var retried = importUploadSessionFacade.completeSession(WORKSPACE_ID, MONTH, session.uploadId(), sha256(csv),
+                SpooledUploadDto::file);
+
+        // then
+        assertThat(reopened)
+                .returns(UploadSessionState.OPEN, UploadSessionDto::state)
+                .returns((long) csv.length(), UploadSessionDto::receivedBytes);
+        assertThat(Files.readString(retried)).isEqualTo(csv);
+    }
+
+    @Test
+    void shouldRejectChunkBeyondUploadLimitWithoutDeclaredSize() throws Exception {
+        // given
+        var limit = importUploadProperties.getMaxUploadSize();
+        importUploadProperties.setMaxUploadSize(DataSize.ofBytes(PART_1.length() + PART_2.length()));
+        try {
+            var session = importUploadSessionFacade.openSession(WORKSPACE_ID, MONTH, null);
+            putChunk(session, 0, 0, PART_1);
+
+            // when // then
+            assertThatThrownBy(() -> putChunk(session, 1, PART_1.length(), PART_2 + PART_3))
+                    .isInstanceOf(UploadTooLargeException.class);
+            assertThatThrownBy(() -> putChunk(session, 7, 1L << 40, PART_3))
+                    .isInstanceOf(UploadTooLargeException.class);
+            putChunk(session, 1, PART_1.length(), PART_2);
+            assertThat(importUploadSessionFacade.getSession(WORKSPACE_ID, MONTH, session.uploadId()).receivedBytes())
+                    .isEqualTo(PART_1.length() + PART_2.length());
+        } finally {
+            importUploadProperties.setMaxUploadSize(limit);
+        }
+    }
+
+    private void putChunk(UploadSessionDto session, int chunkNumber, long offset, String content) throws Exception {
+        var body = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        importUploadSessionFacade.writeChunk(WORKSPACE_ID, MONTH, session.uploadId(), chunkNumber, offset, body);
+    }
+
+    private static String sha256(String content) throws Exception {
+        var digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,167 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
+import com.leftsolutions.transactionsprocessor.config.StatisticsRangeProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsBucketDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGranularity;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineQuery;
+import com.leftsolutions.transactionsprocessor.statistics.exception.InvalidStatisticsRangeException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailyStatisticsBucketsTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth JANUARY = YearMonth.of(2026, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2026, 2);
+
+    @Mock
+    private ImportingFacade importingFacade;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final StatisticsRangeProperties rangeProperties = new StatisticsRangeProperties();
+
+    private DailyStatisticsBuckets buckets() {
+        return new DailyStatisticsBuckets(importingFacade, mongoTemplate, new StatisticsMapperImpl(),
+                new MongoOperationLimiter(1, Duration.ofSeconds(1)), rangeProperties);
+    }
+
+    @Test
+    void shouldReadDaysAcrossMonthBoundaryWithOneQuery() {
+        // given
+        var query = new StatisticsTimelineQuery(JANUARY.atDay(30), FEBRUARY.atDay(2), null, null);
+
+        when(importingFacade.isCompleted(WORKSPACE_ID, JANUARY)).thenReturn(true);
+        when(importingFacade.isCompleted(WORKSPACE_ID, FEBRUARY)).thenReturn(true);
+        when(importingFacade.activeGeneration(WORKSPACE_ID, JANUARY)).thenReturn(1L);
+        when(importingFacade.activeGeneration(WORKSPACE_ID, FEBRUARY)).thenReturn(4L);
+        when(mongoTemplate.find(any(Query.class), eq(DailyStatisticsDocument.class))).thenReturn(List.of(
+                bucket(JANUARY.atDay(30), 1L, "-10.00"),
+                bucket(JANUARY.atDay(31), 1L, null),
+                bucket(FEBRUARY.atDay(1), 4L, "-20.00"),
+                bucket(FEBRUARY.atDay(2), 4L, "100.00")
+        ));
+
+        // when
+        var response = buckets().timeline(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.buckets()).containsExactly(
+                new StatisticsBucketDto(JANUARY.atDay(30), List.of(summary(1L, "-10.00"))),
+                new StatisticsBucketDto(JANUARY.atDay(31), List.of()),
+                new StatisticsBucketDto(FEBRUARY.atDay(1), List.of(summary(1L, "-20.00"))),
+                new StatisticsBucketDto(FEBRUARY.atDay(2), List.of(summary(1L, "100.00")))
+        );
+        assertThat(response.notReadyMonths()).isEmpty();
+        verify(mongoTemplate).find(any(Query.class), eq(DailyStatisticsDocument.class));
+        verifyNoMoreInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldAggregateMonthWhoseBucketsDescribeAnotherGeneration() {
+        // given
+        var query = new StatisticsTimelineQuery(JANUARY.atDay(10), JANUARY.atDay(11), null, StatisticsGroupBy.CATEGORY);
+
+        when(importingFacade.isCompleted(WORKSPACE_ID, JANUARY)).thenReturn(true);
+        when(importingFacade.activeGeneration(WORKSPACE_ID, JANUARY)).thenReturn(2L);
+        when(mongoTemplate.find(any(Query.class), eq(DailyStatisticsDocument.class))).thenReturn(List.of(
+                bucket(JANUARY.atDay(10), 1L, "-10.00"),
+                bucket(JANUARY.atDay(11), 1L, null)
+        ));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("transactions"), eq(DailyStatsAggregationRow.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new DailyStatsAggregationRow(JANUARY.atDay(11), "FOOD", 2L, new BigDecimal("-30.50")),
+                        new DailyStatsAggregationRow(JANUARY.atDay(12), "RENT", 1L, new BigDecimal("-2000.00"))
+                ), new Document()));
+
+        // when
+        var response = buckets().timeline(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.buckets()).containsExactly(
+                new StatisticsBucketDto(JANUARY.atDay(10), List.of()),
+                new StatisticsBucketDto(JANUARY.atDay(11), List.of(new MonthlyStatisticsRowDto("FOOD", 2L, new BigDecimal("-30.50"))))
+        );
+    }
+
+    @Test
+    void shouldSumDaysIntoWeeksAndReportMonthsNotReady() {
+        // given
+        var query = new StatisticsTimelineQuery(JANUARY.atDay(28), FEBRUARY.atDay(3), StatisticsGranularity.WEEK, null);
+
+        when(importingFacade.isCompleted(WORKSPACE_ID, JANUARY)).thenReturn(true);
+        when(importingFacade.isCompleted(WORKSPACE_ID, FEBRUARY)).thenReturn(false);
+        when(importingFacade.activeGeneration(WORKSPACE_ID, JANUARY)).thenReturn(1L);
+        when(mongoTemplate.find(any(Query.class), eq(DailyStatisticsDocument.class))).thenReturn(List.of(
+                bucket(JANUARY.atDay(28), 1L, "-10.00"),
+                bucket(JANUARY.atDay(29), 1L, null),
+                bucket(JANUARY.atDay(30), 1L, "-5.00"),
+                bucket(JANUARY.atDay(31), 1L, null)
+        ));
+
+        // when
+        var response = buckets().timeline(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.buckets()).containsExactly(
+                new StatisticsBucketDto(JANUARY.atDay(28), List.of(summary(2L, "-15.00")))
+        );
+        assertThat(response.notReadyMonths()).containsExactly(FEBRUARY);
+    }
+
+    @Test
+    void shouldRejectIbanGroupingAndTooLongTimelines() {
+        // given
+        rangeProperties.setMaxMonths(2);
+        var byIban = new StatisticsTimelineQuery(JANUARY.atDay(1), JANUARY.atDay(2), null, StatisticsGroupBy.IBAN);
+        var tooLong = new StatisticsTimelineQuery(JANUARY.atDay(31), YearMonth.of(2026, 3).atDay(1), null, null);
+
+        // when // then
+        assertThatThrownBy(() -> buckets().timeline(WORKSPACE_ID, byIban))
+                .isInstanceOf(InvalidStatisticsRangeException.class);
+        assertThatThrownBy(() -> buckets().timeline(WORKSPACE_ID, tooLong))
+                .isInstanceOf(InvalidStatisticsRangeException.class);
+        verifyNoInteractions(importingFacade, mongoTemplate);
+    }
+
+    private static DailyStatisticsDocument bucket(LocalDate date, long generation, String totalAmount) {
+        return DailyStatisticsDocument.builder()
+                .workspaceId(WORKSPACE_ID)
+                .date(date)
+                .generation(generation)
+                .summary(totalAmount == null ? null : new MonthlyStatsAggregationRow("SUMMARY", 1L, new BigDecimal(totalAmount)))
+                .build();
+    }
+
+    private static MonthlyStatisticsRowDto summary(long count, String totalAmount) {
+        return new MonthlyStatisticsRowDto("SUMMARY", count, new BigDecimal(totalAmount));
+    }
+}
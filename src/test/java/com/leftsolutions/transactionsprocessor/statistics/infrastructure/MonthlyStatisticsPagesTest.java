@@ -0,0 +1,93 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
+import com.leftsolutions.transactionsprocessor.statistics.infrastructure.MonthlyStatisticsPageDocument.Part;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MonthlyStatisticsPagesTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final MongoOperationLimiter mongoOperationLimiter = new MongoOperationLimiter(1, Duration.ofSeconds(1));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSplitIbanRowsIntoBoundedPagesAndStoreEmptyParts() {
+        // given
+        var pages = new MonthlyStatisticsPages(mongoTemplate, mongoOperationLimiter);
+        var ibans = IntStream.range(0, MonthlyStatisticsPages.ROWS_PER_PAGE * 2 + 1)
+                .mapToObj(i -> new MonthlyStatsAggregationRow("IBAN-" + i, 1L, BigDecimal.ONE))
+                .toList();
+
+        // when
+        pages.store(WORKSPACE_ID, MONTH, 3L, ibans, List.of(), List.of());
+
+        // then
+        var stored = ArgumentCaptor.forClass(Collection.class);
+        var removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(MonthlyStatisticsPageDocument.class));
+        assertThat(removed.getValue().getQueryObject().get(MonthlyStatisticsPageDocument.FIELD_GENERATION))
+                .isEqualTo(new Document("$lte", 3L));
+        verify(mongoTemplate).insert(stored.capture(), eq(MonthlyStatisticsPageDocument.class));
+        List<MonthlyStatisticsPageDocument> documents = List.copyOf(stored.getValue());
+
+        assertThat(documents)
+                .extracting(MonthlyStatisticsPageDocument::getPart, MonthlyStatisticsPageDocument::getPage,
+                        MonthlyStatisticsPageDocument::getPages)
+                .containsExactly(
+                        tuple(Part.IBANS, 0, 3),
+                        tuple(Part.IBANS, 1, 3),
+                        tuple(Part.IBANS, 2, 3),
+                        tuple(Part.CUBE, 0, 1),
+                        tuple(Part.SKETCHES, 0, 1)
+                );
+        assertThat(documents.get(2).getIbans()).containsExactly(ibans.getLast());
+        assertThat(documents).allMatch(page -> page.getGeneration() == 3L);
+    }
+
+    @Test
+    void shouldNotServePartWhosePagesAreIncomplete() {
+        // given
+        var pages = new MonthlyStatisticsPages(mongoTemplate, mongoOperationLimiter);
+        var first = MonthlyStatisticsPageDocument.builder()
+                .part(Part.IBANS)
+                .page(0)
+                .pages(2)
+                .ibans(List.of(new MonthlyStatsAggregationRow("IBAN-0", 1L, BigDecimal.ONE)))
+                .build();
+
+        when(mongoTemplate.find(any(Query.class), eq(MonthlyStatisticsPageDocument.class))).thenReturn(List.of(first));
+
+        // when
+        var ibans = pages.findIbans(WORKSPACE_ID, MONTH, 3L);
+
+        // then
+        assertThat(ibans).isEmpty();
+    }
+}
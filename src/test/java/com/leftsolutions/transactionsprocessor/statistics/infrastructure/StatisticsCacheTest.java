@@ -0,0 +1,191 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.StatisticsCacheProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportCompletedEvent;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCacheStatsDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatisticsCacheTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private static final MonthlyStatisticsResponseDto FIRST = response("-10.00");
+    private static final MonthlyStatisticsResponseDto SECOND = response("-20.00");
+
+    private final ImportingFacade importingFacade = mock(ImportingFacade.class);
+    private final StatisticsCacheProperties properties = new StatisticsCacheProperties();
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldServeEntryWhileImportJobRevisionIsUnchanged() {
+        // given
+        var cache = cache(new SyncTaskExecutor());
+        when(importingFacade.revision(WORKSPACE_ID, MONTH)).thenReturn(1L);
+
+        // when
+        var first = get(cache, () -> FIRST);
+        var second = get(cache, () -> SECOND);
+
+        // then
+        assertThat(first).isSameAs(FIRST);
+        assertThat(second).isSameAs(FIRST);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats())
+                .returns(1L, StatisticsCacheStatsDto::hits)
+                .returns(1L, StatisticsCacheStatsDto::misses);
+    }
+
+    @Test
+    void shouldAggregateAgainOnlyWhenImportJobMoved() {
+        // given
+        var cache = cache(new SyncTaskExecutor());
+        when(importingFacade.revision(WORKSPACE_ID, MONTH)).thenReturn(1L, 1L, 2L);
+        get(cache, () -> FIRST);
+
+        // when
+        var unchanged = get(cache, () -> SECOND);
+        var changed = get(cache, () -> SECOND);
+
+        // then
+        assertThat(unchanged).isSameAs(FIRST);
+        assertThat(changed).isSameAs(SECOND);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldEvictMonthWhenImportCompleted() {
+        // given
+        var cache = cache(new SyncTaskExecutor());
+        when(importingFacade.revision(WORKSPACE_ID, MONTH)).thenReturn(1L);
+        get(cache, () -> FIRST);
+
+        // when
+        cache.onImportCompleted(new ImportCompletedEvent(WORKSPACE_ID, MONTH));
+        var afterImport = get(cache, () -> SECOND);
+
+        // then
+        assertThat(afterImport).isSameAs(SECOND);
+        assertThat(cache.stats().misses()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        // given
+        var cache = cache(new SimpleAsyncTaskExecutor());
+        var release = new CountDownLatch(1);
+        when(importingFacade.revision(WORKSPACE_ID, MONTH)).thenReturn(1L);
+        Callable<MonthlyStatisticsResponseDto> request = () -> get(cache, () -> {
+            await(release);
+            return FIRST;
+        });
+
+        // when
+        List<Future<MonthlyStatisticsResponseDto>> responses;
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            responses = IntStream.range(0, 8).mapToObj(i -> executor.submit(request)).toList();
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        // then
+        assertThat(responses).allSatisfy(response -> assertThat(response.get()).isSameAs(FIRST));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldServeOutdatedEntryWhileRevalidationIsSlow() {
+        // given
+        properties.setRevalidateTimeout(Duration.ofMillis(50));
+        var cache = cache(new SimpleAsyncTaskExecutor());
+        var release = new CountDownLatch(1);
+        when(importingFacade.revision(WORKSPACE_ID, MONTH)).thenReturn(1L, 2L);
+        get(cache, () -> FIRST);
+
+        // when
+        var whileSlow = get(cache, () -> {
+            await(release);
+            return SECOND;
+        });
+        release.countDown();
+        var afterRevalidation = get(cache, () -> SECOND);
+
+        // then
+        assertThat(whileSlow).isSameAs(FIRST);
+        assertThat(afterRevalidation).isSameAs(SECOND);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().staleHits()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntriesOverWeightLimit() {
+        // given
+        properties.setMaxWeight(4);
+        var cache = cache(new SyncTaskExecutor());
+        when(importingFacade.revision(WORKSPACE_ID, MONTH)).thenReturn(1L);
+
+        // when
+        cache.get(WORKSPACE_ID, MONTH, StatisticsGroupBy.CATEGORY, () -> FIRST);
+        cache.get(WORKSPACE_ID, MONTH, StatisticsGroupBy.IBAN, () -> FIRST);
+        cache.get(WORKSPACE_ID, MONTH, StatisticsGroupBy.CATEGORY, () -> FIRST);
+        cache.get(WORKSPACE_ID, MONTH, StatisticsGroupBy.SUMMARY, () -> FIRST);
+
+        // then
+        assertThat(cache.stats())
+                .returns(1L, StatisticsCacheStatsDto::hits)
+                .returns(1L, StatisticsCacheStatsDto::evictions)
+                .returns(2, StatisticsCacheStatsDto::entries)
+                .returns(4L, StatisticsCacheStatsDto::weight);
+        cache.get(WORKSPACE_ID, MONTH, StatisticsGroupBy.CATEGORY, () -> SECOND);
+        assertThat(cache.stats().hits()).isEqualTo(2L);
+    }
+
+    private StatisticsCache cache(TaskExecutor executor) {
+        return new StatisticsCache(properties, importingFacade, executor, nanoTime::get);
+    }
+
+    private MonthlyStatisticsResponseDto get(StatisticsCache cache, Supplier<MonthlyStatisticsResponseDto> loader) {
+        return cache.get(WORKSPACE_ID, MONTH, StatisticsGroupBy.CATEGORY, () -> {
+            loads.incrementAndGet();
+            return loader.get();
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MonthlyStatisticsResponseDto response(String totalAmount) {
+        return new MonthlyStatisticsResponseDto(WORKSPACE_ID, MONTH, StatisticsGroupBy.CATEGORY,
+                List.of(new MonthlyStatisticsRowDto("FOOD", 1L, new BigDecimal(totalAmount))));
+    }
+}
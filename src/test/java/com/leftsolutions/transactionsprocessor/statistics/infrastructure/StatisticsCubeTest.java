@@ -0,0 +1,70 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeCellDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDimension;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatisticsCubeTest {
+
+    private static final String IBAN_1 = "PL61109010140000071219812874";
+    private static final String IBAN_2 = "PL12109010140000071219812875";
+
+    private static final List<StatisticsCubeCellDto> CUBE = List.of(
+            cell("FOOD", IBAN_1, "PLN", 2, "-30.50"),
+            cell("FOOD", IBAN_2, "PLN", 1, "-5.00"),
+            cell("FOOD", IBAN_1, "EUR", 1, "-4.00"),
+            cell("RENT", IBAN_2, "PLN", 1, "-2000.00"),
+            cell("SALARY", IBAN_2, "EUR", 1, "1500.00")
+    );
+
+    @Test
+    void shouldKeepCellsWhenGroupedByEveryDimension() {
+        // given // when
+        var cells = StatisticsCube.rollUp(CUBE, Set.of(StatisticsDimension.CATEGORY, StatisticsDimension.IBAN));
+
+        // then
+        assertThat(cells).containsExactly(
+                cell("SALARY", IBAN_2, "EUR", 1, "1500.00"),
+                cell("FOOD", IBAN_1, "EUR", 1, "-4.00"),
+                cell("FOOD", IBAN_2, "PLN", 1, "-5.00"),
+                cell("FOOD", IBAN_1, "PLN", 2, "-30.50"),
+                cell("RENT", IBAN_2, "PLN", 1, "-2000.00")
+        );
+    }
+
+    @Test
+    void shouldSumCategoriesPerCurrency() {
+        // given // when
+        var cells = StatisticsCube.rollUp(CUBE, Set.of(StatisticsDimension.CATEGORY));
+
+        // then
+        assertThat(cells).containsExactly(
+                cell("SALARY", null, "EUR", 1, "1500.00"),
+                cell("FOOD", null, "EUR", 1, "-4.00"),
+                cell("FOOD", null, "PLN", 3, "-35.50"),
+                cell("RENT", null, "PLN", 1, "-2000.00")
+        );
+    }
+
+    @Test
+    void shouldSumEverythingPerCurrencyWithoutDimensions() {
+        // given // when
+        var cells = StatisticsCube.rollUp(CUBE, Set.of());
+
+        // then
+        assertThat(cells).containsExactly(
+                cell(null, null, "EUR", 2, "1496.00"),
+                cell(null, null, "PLN", 4, "-2035.50")
+        );
+    }
+
+    private static StatisticsCubeCellDto cell(String category, String iban, String currency, long count, String totalAmount) {
+        return new StatisticsCubeCellDto(category, iban, currency, count, new BigDecimal(totalAmount));
+    }
+}
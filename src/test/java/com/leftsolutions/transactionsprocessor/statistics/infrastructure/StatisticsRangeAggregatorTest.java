@@ -0,0 +1,129 @@
+package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.StatisticsRangeProperties;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.exception.InvalidStatisticsRangeException;
+import com.leftsolutions.transactionsprocessor.statistics.exception.StatisticsNotReadyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatisticsRangeAggregatorTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth CURRENT_MONTH = YearMonth.of(2026, 3);
+
+    private final StatisticsRangeProperties properties = new StatisticsRangeProperties();
+
+    private final StatisticsRangeAggregator aggregator =
+            new StatisticsRangeAggregator(properties, new SyncTaskExecutor(), () -> CURRENT_MONTH);
+
+    @Test
+    void shouldSumReadyMonthsAndReportTheOthers() {
+        // given
+        var query = new StatisticsRangeQuery(YearMonth.of(2026, 1), YearMonth.of(2026, 3), null, false, StatisticsGroupBy.CATEGORY);
+        Function<YearMonth, MonthlyStatisticsResponseDto> loader = month -> switch (month.getMonthValue()) {
+            case 1 -> month(month, row("FOOD", 2, "-30.00"), row("RENT", 1, "-2000.00"));
+            case 2 -> throw new StatisticsNotReadyException(WORKSPACE_ID, month);
+            default -> month(month, row("FOOD", 1, "-10.00"), row("SALARY", 1, "5000.00"));
+        };
+
+        // when
+        var response = aggregator.aggregate(WORKSPACE_ID, query, loader);
+
+        // then
+        assertThat(response)
+                .returns(YearMonth.of(2026, 1), StatisticsRangeResponseDto::from)
+                .returns(YearMonth.of(2026, 3), StatisticsRangeResponseDto::to)
+                .returns(List.of(YearMonth.of(2026, 2)), StatisticsRangeResponseDto::notReadyMonths);
+        assertThat(response.months())
+                .extracting(MonthlyStatisticsResponseDto::month)
+                .containsExactly(YearMonth.of(2026, 1), YearMonth.of(2026, 3));
+        assertThat(response.totals()).containsExactly(
+                row("SALARY", 1, "5000.00"),
+                row("FOOD", 3, "-40.00"),
+                row("RENT", 1, "-2000.00")
+        );
+    }
+
+    @Test
+    void shouldResolveYearToDateAndTrailingMonthsFromCurrentMonth() {
+        // given
+        var yearToDate = new StatisticsRangeQuery(null, null, null, true, StatisticsGroupBy.SUMMARY);
+        var trailing = new StatisticsRangeQuery(null, null, 12, false, StatisticsGroupBy.SUMMARY);
+
+        // when
+        var yearToDateResponse = aggregator.aggregate(WORKSPACE_ID, yearToDate, month -> month(month));
+        var trailingResponse = aggregator.aggregate(WORKSPACE_ID, trailing, month -> month(month));
+
+        // then
+        assertThat(yearToDateResponse)
+                .returns(YearMonth.of(2026, 1), StatisticsRangeResponseDto::from)
+                .returns(CURRENT_MONTH, StatisticsRangeResponseDto::to);
+        assertThat(trailingResponse)
+                .returns(YearMonth.of(2025, 4), StatisticsRangeResponseDto::from)
+                .returns(CURRENT_MONTH, StatisticsRangeResponseDto::to);
+        assertThat(trailingResponse.months()).hasSize(12);
+    }
+
+    @Test
+    void shouldRejectAmbiguousReversedAndTooLongRanges() {
+        // given
+        properties.setMaxMonths(12);
+        var ambiguous = new StatisticsRangeQuery(YearMonth.of(2026, 1), null, 3, false, null);
+        var reversed = new StatisticsRangeQuery(YearMonth.of(2026, 4), null, null, false, null);
+        var tooLong = new StatisticsRangeQuery(null, null, 13, false, null);
+
+        // when // then
+        assertThatThrownBy(() -> aggregator.aggregate(WORKSPACE_ID, ambiguous, month -> month(month)))
+                .isInstanceOf(InvalidStatisticsRangeException.class);
+        assertThatThrownBy(() -> aggregator.aggregate(WORKSPACE_ID, reversed, month -> month(month)))
+                .isInstanceOf(InvalidStatisticsRangeException.class);
+        assertThatThrownBy(() -> aggregator.aggregate(WORKSPACE_ID, tooLong, month -> month(month)))
+                .isInstanceOf(InvalidStatisticsRangeException.class);
+    }
+
+    @Test
+    void shouldLoadMonthsInParallel() {
+        // given
+        var parallel = new StatisticsRangeAggregator(properties, new SimpleAsyncTaskExecutor(), () -> CURRENT_MONTH);
+        var query = new StatisticsRangeQuery(null, null, 12, false, StatisticsGroupBy.SUMMARY);
+        var allStarted = new CountDownLatch(12);
+
+        // when
+        var response = parallel.aggregate(WORKSPACE_ID, query, month -> {
+            allStarted.countDown();
+            try {
+                assertThat(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return month(month, row("SUMMARY", 1, "1.00"));
+        });
+
+        // then
+        assertThat(response.totals()).containsExactly(row("SUMMARY", 12, "12.00"));
+    }
+
+    private static MonthlyStatisticsResponseDto month(YearMonth month, MonthlyStatisticsRowDto... rows) {
+        return new MonthlyStatisticsResponseDto(WORKSPACE_ID, month, StatisticsGroupBy.CATEGORY, List.of(rows));
+    }
+
+    private static MonthlyStatisticsRowDto row(String key, long count, String totalAmount) {
+        return new MonthlyStatisticsRowDto(key, count, new BigDecimal(totalAmount));
+    }
+}
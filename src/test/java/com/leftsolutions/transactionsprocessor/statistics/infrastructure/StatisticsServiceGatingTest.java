@@ -1,23 +1,35 @@
 package com.leftsolutions.transactionsprocessor.statistics.infrastructure;
 
+import com.leftsolutions.transactionsprocessor.config.MongoOperationLimiter;
+import com.leftsolutions.transactionsprocessor.config.StatisticsCacheProperties;
 import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
 import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
 import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeCellDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeResponseDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDimension;
 import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
 import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsQuery;
 import com.leftsolutions.transactionsprocessor.statistics.exception.StatisticsNotReadyException;
 import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -49,10 +61,21 @@ class StatisticsServiceGatingTest {
     @Mock
     private StatisticsMapper mapper;
 
+    private final MongoOperationLimiter mongoOperationLimiter = new MongoOperationLimiter(1, Duration.ofSeconds(1));
+
+    private final StatisticsCache statisticsCache = disabledCache();
+
+    private MonthlyStatisticsPages pages;
+
+    @BeforeEach
+    void setUp() {
+        pages = new MonthlyStatisticsPages(mongoTemplate, mongoOperationLimiter);
+    }
+
     @Test
     void shouldThrowWhenImportIsNotCompleted() {
         // given
-        var service = new StatisticsService(importingFacade, mongoTemplate, mapper);
+        var service = new StatisticsService(importingFacade, mongoTemplate, mapper, mongoOperationLimiter, statisticsCache, null, null, null, pages);
         var query = new StatisticsQuery(MONTH, StatisticsGroupBy.SUMMARY);
 
         when(importingFacade.isCompleted(WORKSPACE_ID, MONTH)).thenReturn(false);
@@ -67,12 +90,44 @@ class StatisticsServiceGatingTest {
     }
 
     @Test
-    void shouldAggregateWhenImportIsCompleted() {
+    void shouldServeRollupOfActiveGeneration() {
+        // given
+        var service = new StatisticsService(importingFacade, mongoTemplate, mapper, mongoOperationLimiter, statisticsCache, null, null, null, pages);
+        var query = new StatisticsQuery(MONTH, StatisticsGroupBy.SUMMARY);
+        var rollup = MonthlyStatisticsDocument.builder()
+                .workspaceId(WORKSPACE_ID)
+                .generation(2L)
+                .summary(SUMMARY_ROW)
+                .build();
+
+        when(importingFacade.isCompleted(WORKSPACE_ID, MONTH)).thenReturn(true);
+        when(importingFacade.activeGeneration(WORKSPACE_ID, MONTH)).thenReturn(2L);
+        when(mongoTemplate.findOne(any(Query.class), eq(MonthlyStatisticsDocument.class))).thenReturn(rollup);
+        when(mapper.toDto(SUMMARY_ROW)).thenReturn(SUMMARY_DTO);
+
+        // when
+        var response = service.getMonthlyStatistics(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.rows()).containsExactly(SUMMARY_DTO);
+
+        var rollupQuery = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(rollupQuery.capture(), eq(MonthlyStatisticsDocument.class));
+        assertThat(rollupQuery.getValue().getQueryObject())
+                .containsEntry(MonthlyStatisticsDocument.FIELD_GENERATION, 2L);
+        assertThat(rollupQuery.getValue().getFieldsObject())
+                .containsOnlyKeys(MonthlyStatisticsDocument.FIELD_SUMMARY);
+        verifyNoMoreInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldAggregateWhenMonthHasNoRollupOfActiveGeneration() {
         // given
-        var service = new StatisticsService(importingFacade, mongoTemplate, mapper);
+        var service = new StatisticsService(importingFacade, mongoTemplate, mapper, mongoOperationLimiter, statisticsCache, null, null, null, pages);
         var query = new StatisticsQuery(MONTH, StatisticsGroupBy.SUMMARY);
 
         when(importingFacade.isCompleted(WORKSPACE_ID, MONTH)).thenReturn(true);
+        when(importingFacade.activeGeneration(WORKSPACE_ID, MONTH)).thenReturn(0L);
 
         var aggregationResults = new AggregationResults<>(
                 List.of(SUMMARY_ROW),
@@ -105,8 +160,61 @@ class StatisticsServiceGatingTest {
                 .returns(new BigDecimal("-2030.50"), MonthlyStatisticsRowDto::totalAmount);
 
         verify(importingFacade).isCompleted(WORKSPACE_ID, MONTH);
+        verify(importingFacade).activeGeneration(WORKSPACE_ID, MONTH);
+        verify(mongoTemplate).findOne(any(Query.class), eq(MonthlyStatisticsDocument.class));
         verify(mongoTemplate).aggregate(any(Aggregation.class), eq("transactions"), eq(MonthlyStatsAggregationRow.class));
         verify(mapper).toDto(SUMMARY_ROW);
         verifyNoMoreInteractions(importingFacade, mongoTemplate, mapper);
     }
+
+    @Test
+    void shouldRollUpCubeOfActiveGenerationWithoutAggregating() {
+        // given
+        var service = new StatisticsService(importingFacade, mongoTemplate, mapper, mongoOperationLimiter, statisticsCache, null, null, null, pages);
+        var query = new StatisticsCubeQuery(MONTH, Set.of(StatisticsDimension.CATEGORY));
+        var cube = List.of(
+                new MonthlyStatsCubeCell("FOOD", "PL61109010140000071219812874", "PLN", 2L, new BigDecimal("-30.50")),
+                new MonthlyStatsCubeCell("FOOD", "PL12109010140000071219812875", "PLN", 1L, new BigDecimal("-5.00"))
+        );
+        var page = MonthlyStatisticsPageDocument.builder()
+                .workspaceId(WORKSPACE_ID)
+                .generation(2L)
+                .part(MonthlyStatisticsPageDocument.Part.CUBE)
+                .pages(1)
+                .cube(cube)
+                .build();
+
+        when(importingFacade.isCompleted(WORKSPACE_ID, MONTH)).thenReturn(true);
+        when(importingFacade.activeGeneration(WORKSPACE_ID, MONTH)).thenReturn(2L);
+        when(mongoTemplate.find(any(Query.class), eq(MonthlyStatisticsPageDocument.class))).thenReturn(List.of(page));
+        when(mapper.toCubeDtos(cube)).thenReturn(List.of(
+                new StatisticsCubeCellDto("FOOD", "PL61109010140000071219812874", "PLN", 2L, new BigDecimal("-30.50")),
+                new StatisticsCubeCellDto("FOOD", "PL12109010140000071219812875", "PLN", 1L, new BigDecimal("-5.00"))
+        ));
+
+        // when
+        var response = service.getCubeStatistics(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response)
+                .returns(Set.of(StatisticsDimension.CATEGORY), StatisticsCubeResponseDto::groupedBy);
+        assertThat(response.cells()).containsExactly(
+                new StatisticsCubeCellDto("FOOD", null, "PLN", 3L, new BigDecimal("-35.50"))
+        );
+
+        var pageQuery = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(pageQuery.capture(), eq(MonthlyStatisticsPageDocument.class));
+        assertThat(pageQuery.getValue().getQueryObject())
+                .containsEntry(MonthlyStatisticsPageDocument.FIELD_PART, MonthlyStatisticsPageDocument.Part.CUBE)
+                .containsEntry(MonthlyStatisticsPageDocument.FIELD_GENERATION, 2L);
+        assertThat(pageQuery.getValue().getFieldsObject())
+                .containsKey(MonthlyStatisticsPageDocument.FIELD_CUBE);
+        verifyNoMoreInteractions(mongoTemplate);
+    }
+
+    private StatisticsCache disabledCache() {
+        var properties = new StatisticsCacheProperties();
+        properties.setEnabled(false);
+        return new StatisticsCache(properties, importingFacade, new SyncTaskExecutor(), System::nanoTime);
+    }
 }
@@ -5,18 +5,33 @@ import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
 import com.leftsolutions.transactionsprocessor.statistics.domain.StatisticsFacade;
 import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsResponseDto;
 import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsBucketDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeCellDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDimension;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsDistributionRowDto;
 import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
 import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineQuery;
 import com.leftsolutions.transactionsprocessor.transaction.domain.TransactionImportFacade;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
 
 class StatisticsServiceIT extends IntegrationTestConfig {
 
@@ -32,6 +47,15 @@ class StatisticsServiceIT extends IntegrationTestConfig {
     @Autowired
     private StatisticsFacade statisticsFacade;
 
+    @Autowired
+    private MonthlyStatisticsPages monthlyStatisticsPages;
+
+    @Autowired
+    private DailyStatisticsBuckets dailyStatisticsBuckets;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Test
     void shouldReturnStatisticsGroupedByCategory() throws Exception {
         // given
@@ -100,6 +124,156 @@ class StatisticsServiceIT extends IntegrationTestConfig {
                 .returns(3L, MonthlyStatisticsRowDto::transactionsCount);
     }
 
+    @Test
+    void shouldServeStatisticsFromRollupStoredWithImport() throws Exception {
+        // given
+        importSampleDataAndWait();
+        mongoTemplate.remove(Query.query(Criteria.where("workspaceId").is(WORKSPACE_ID)), "transactions");
+
+        var query = new StatisticsQuery(MONTH, StatisticsGroupBy.CATEGORY);
+
+        // when
+        var response = statisticsFacade.getMonthlyStatistics(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.rows()).containsExactly(
+                new MonthlyStatisticsRowDto("FOOD", 2L, new BigDecimal("-30.50")),
+                new MonthlyStatisticsRowDto("RENT", 1L, new BigDecimal("-2000.00"))
+        );
+    }
+
+    @Test
+    void shouldBackfillRollupOfMonthImportedWithoutOne() throws Exception {
+        // given
+        importSampleDataAndWait();
+        mongoTemplate.remove(new Query(), MonthlyStatisticsDocument.class);
+        mongoTemplate.remove(new Query(), MonthlyStatisticsPageDocument.class);
+
+        // when
+        var rebuilt = statisticsFacade.rebuildRollups(WORKSPACE_ID);
+        var repeated = statisticsFacade.rebuildRollups(WORKSPACE_ID);
+
+        // then
+        assertThat(rebuilt).containsExactly(MONTH);
+        assertThat(repeated).isEmpty();
+        assertThat(mongoTemplate.findOne(new Query(), MonthlyStatisticsDocument.class))
+                .returns(importingFacade.activeGeneration(WORKSPACE_ID, MONTH), MonthlyStatisticsDocument::getGeneration)
+                .returns(3L, rollup -> rollup.getSummary().getTransactionsCount());
+    }
+
+    @Test
+    void shouldSumRangeAndReportMonthsWithoutImport() throws Exception {
+        // given
+        importSampleDataAndWait();
+        var query = new StatisticsRangeQuery(MONTH.minusMonths(1), MONTH, null, false, StatisticsGroupBy.SUMMARY);
+
+        // when
+        var response = statisticsFacade.getRangeStatistics(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.notReadyMonths()).containsExactly(MONTH.minusMonths(1));
+        assertThat(response.months()).extracting(MonthlyStatisticsResponseDto::month).containsExactly(MONTH);
+        assertThat(response.totals()).containsExactly(
+                new MonthlyStatisticsRowDto("SUMMARY", 3L, new BigDecimal("-2030.50"))
+        );
+    }
+
+    @Test
+    void shouldRollUpCubeStoredWithImportPerCurrency() throws Exception {
+        // given
+        importSampleDataAndWait();
+        mongoTemplate.remove(Query.query(Criteria.where("workspaceId").is(WORKSPACE_ID)), "transactions");
+
+        var query = new StatisticsCubeQuery(MONTH, Set.of(StatisticsDimension.CATEGORY));
+
+        // when
+        var response = statisticsFacade.getCubeStatistics(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.cells()).containsExactly(
+                new StatisticsCubeCellDto("FOOD", null, "PLN", 2L, new BigDecimal("-30.50")),
+                new StatisticsCubeCellDto("RENT", null, "PLN", 1L, new BigDecimal("-2000.00"))
+        );
+    }
+
+    @Test
+    void shouldAggregateCubeOfMonthWithoutOne() throws Exception {
+        // given
+        importSampleDataAndWait();
+        mongoTemplate.remove(new Query(), MonthlyStatisticsDocument.class);
+        mongoTemplate.remove(new Query(), MonthlyStatisticsPageDocument.class);
+
+        var query = new StatisticsCubeQuery(MONTH, Set.of(StatisticsDimension.IBAN));
+
+        // when
+        var response = statisticsFacade.getCubeStatistics(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.cells()).containsExactly(
+                new StatisticsCubeCellDto(null, "PL61109010140000071219812874", "PLN", 2L, new BigDecimal("-30.50")),
+                new StatisticsCubeCellDto(null, "PL12109010140000071219812875", "PLN", 1L, new BigDecimal("-2000.00"))
+        );
+    }
+
+    @Test
+    void shouldServeTimelineFromDailyBucketsStoredWithImport() throws Exception {
+        // given
+        importSampleDataAndWait();
+        mongoTemplate.remove(Query.query(Criteria.where("workspaceId").is(WORKSPACE_ID)), "transactions");
+
+        var query = new StatisticsTimelineQuery(MONTH.atDay(10), MONTH.atDay(13), null, StatisticsGroupBy.CATEGORY);
+
+        // when
+        var response = statisticsFacade.getTimeline(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.buckets()).containsExactly(
+                new StatisticsBucketDto(MONTH.atDay(10), List.of(new MonthlyStatisticsRowDto("FOOD", 1L, new BigDecimal("-10.50")))),
+                new StatisticsBucketDto(MONTH.atDay(11), List.of(new MonthlyStatisticsRowDto("FOOD", 1L, new BigDecimal("-20.00")))),
+                new StatisticsBucketDto(MONTH.atDay(12), List.of(new MonthlyStatisticsRowDto("RENT", 1L, new BigDecimal("-2000.00")))),
+                new StatisticsBucketDto(MONTH.atDay(13), List.of())
+        );
+    }
+
+    @Test
+    void shouldServeDistributionFromSketchesStoredWithImport() throws Exception {
+        // given
+        importSampleDataAndWait();
+        mongoTemplate.remove(Query.query(Criteria.where("workspaceId").is(WORKSPACE_ID)), "transactions");
+
+        var query = new StatisticsRangeQuery(MONTH.minusMonths(1), MONTH, null, false, StatisticsGroupBy.CATEGORY);
+
+        // when
+        var response = statisticsFacade.getDistribution(WORKSPACE_ID, query);
+
+        // then
+        assertThat(response.notReadyMonths()).containsExactly(MONTH.minusMonths(1));
+        assertThat(response.rows())
+                .extracting(StatisticsDistributionRowDto::key, StatisticsDistributionRowDto::transactionsCount,
+                        StatisticsDistributionRowDto::distinctIbans)
+                .containsExactly(tuple("FOOD", 2L, 1L), tuple("RENT", 1L, 1L));
+        assertThat(response.rows().getLast().medianAmount().doubleValue()).isCloseTo(-2000.00, within(20.0));
+    }
+
+    @Test
+    void shouldKeepPagesAndBucketsOfActiveGenerationWhenOlderGenerationIsStored() throws Exception {
+        // given
+        importSampleDataAndWait();
+        var generation = importingFacade.activeGeneration(WORKSPACE_ID, MONTH);
+
+        // when
+        monthlyStatisticsPages.store(WORKSPACE_ID, MONTH, generation - 1, List.of(), List.of(), List.of());
+        dailyStatisticsBuckets.store(WORKSPACE_ID, MONTH, generation - 1, List.of());
+
+        // then
+        assertThat(monthlyStatisticsPages.findCube(WORKSPACE_ID, MONTH, generation)).hasValueSatisfying(cells ->
+                assertThat(cells).hasSize(2));
+        assertThat(mongoTemplate.count(
+                Query.query(Criteria.where(DailyStatisticsDocument.FIELD_GENERATION).is(generation)),
+                DailyStatisticsDocument.class
+        )).isEqualTo(MONTH.lengthOfMonth());
+    }
+
     private void importSampleDataAndWait() throws Exception {
         // given
         var csv = """
@@ -0,0 +1,116 @@
+package com.leftsolutions.transactionsprocessor.statistics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AmountSketchTest {
+
+    @Test
+    void shouldAnswerQuantilesWithinOnePercent() {
+        // given
+        var sketch = new AmountSketch();
+
+        // when
+        IntStream.rangeClosed(1, 10_000).forEach(i -> sketch.add(BigDecimal.valueOf(i, 2)));
+
+        // then
+        assertThat(sketch.count()).isEqualTo(10_000L);
+        assertThat(sketch.quantile(0.5).doubleValue()).isCloseTo(50.00, within(0.51));
+        assertThat(sketch.quantile(0.9).doubleValue()).isCloseTo(90.00, within(0.91));
+        assertThat(sketch.quantile(0.99).doubleValue()).isCloseTo(99.00, within(1.0));
+    }
+
+    @Test
+    void shouldOrderNegativeAmountsZerosAndPositiveAmounts() {
+        // given
+        var sketch = new AmountSketch();
+
+        // when
+        sketch.add(new BigDecimal("-2000.00"));
+        sketch.add(new BigDecimal("-10.00"));
+        sketch.add(BigDecimal.ZERO);
+        sketch.add(new BigDecimal("5.00"));
+        sketch.add(new BigDecimal("5000.00"));
+
+        // then
+        assertThat(sketch.quantile(0).doubleValue()).isCloseTo(-2000.00, within(20.0));
+        assertThat(sketch.quantile(0.25).doubleValue()).isCloseTo(-10.00, within(0.1));
+        assertThat(sketch.quantile(0.5)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(sketch.quantile(1).doubleValue()).isCloseTo(5000.00, within(50.0));
+    }
+
+    @Test
+    void shouldMergeIntoSketchOfAllAmounts() {
+        // given
+        var january = new AmountSketch();
+        var february = new AmountSketch();
+        var both = new AmountSketch();
+        IntStream.rangeClosed(1, 500).forEach(i -> {
+            january.add(BigDecimal.valueOf(-i));
+            both.add(BigDecimal.valueOf(-i));
+        });
+        IntStream.rangeClosed(1, 500).forEach(i -> {
+            february.add(BigDecimal.valueOf(i * 3L));
+            both.add(BigDecimal.valueOf(i * 3L));
+        });
+
+        // when
+        var merged = AmountSketch.of(january.toDto());
+        merged.merge(AmountSketch.of(february.toDto()));
+
+        // then
+        assertThat(merged.toDto()).isEqualTo(both.toDto());
+    }
+
+    @Test
+    void shouldCountAmountsBeyondDoubleRangeInOutermostBins() {
+        // given
+        var sketch = new AmountSketch();
+
+        // when
+        sketch.add(new BigDecimal("1e-400"));
+        sketch.add(new BigDecimal("1e400"));
+        sketch.add(new BigDecimal("-1e400"));
+        sketch.add(new BigDecimal("12.50"));
+
+        // then
+        assertThat(sketch.count()).isEqualTo(4L);
+        assertThat(sketch.toDto().positiveCounts()).hasSizeLessThanOrEqualTo(AmountSketch.MAX_BINS);
+        assertThat(sketch.quantile(0)).isLessThan(BigDecimal.ZERO);
+        assertThat(sketch.quantile(1)).isGreaterThan(new BigDecimal("1e300"));
+    }
+
+    @Test
+    void shouldCollapseLowestBinsOfWidelySpreadAmounts() {
+        // given
+        var sketch = new AmountSketch();
+        var other = new AmountSketch();
+
+        // when
+        IntStream.rangeClosed(-300, 300).forEach(exponent -> sketch.add(BigDecimal.ONE.scaleByPowerOfTen(exponent)));
+        IntStream.rangeClosed(1, 100).forEach(i -> other.add(BigDecimal.valueOf(-i).scaleByPowerOfTen(i)));
+        sketch.merge(other);
+
+        // then
+        var dto = sketch.toDto();
+        assertThat(dto.positiveCounts()).hasSize(AmountSketch.MAX_BINS);
+        assertThat(dto.negativeCounts()).hasSize(AmountSketch.MAX_BINS);
+        assertThat(sketch.count()).isEqualTo(701L);
+        assertThat(sketch.quantile(1).doubleValue()).isCloseTo(1e300, within(1e298));
+    }
+
+    @Test
+    void shouldHaveNoQuantilesWhenEmpty() {
+        // given // when
+        var sketch = new AmountSketch();
+
+        // then
+        assertThat(sketch.count()).isZero();
+        assertThat(sketch.quantile(0.5)).isNull();
+    }
+}
@@ -0,0 +1,63 @@
+package com.leftsolutions.transactionsprocessor.statistics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DistinctCountSketchTest {
+
+    @Test
+    void shouldCountFewDistinctValuesAlmostExactly() {
+        // given
+        var sketch = new DistinctCountSketch();
+
+        // when
+        IntStream.range(0, 3).forEach(repeat -> IntStream.range(0, 100).forEach(i -> sketch.add(iban(i))));
+
+        // then
+        assertThat(sketch.estimate()).isCloseTo(100L, within(2L));
+    }
+
+    @Test
+    void shouldEstimateManyDistinctValuesWithinFivePercent() {
+        // given
+        var sketch = new DistinctCountSketch();
+
+        // when
+        IntStream.range(0, 200_000).forEach(i -> sketch.add(iban(i)));
+
+        // then
+        assertThat(sketch.estimate()).isCloseTo(200_000L, within(10_000L));
+    }
+
+    @Test
+    void shouldMergeIntoSketchOfUnion() {
+        // given
+        var january = new DistinctCountSketch();
+        var february = new DistinctCountSketch();
+        var both = new DistinctCountSketch();
+        IntStream.range(0, 30_000).forEach(i -> {
+            january.add(iban(i));
+            both.add(iban(i));
+        });
+        IntStream.range(20_000, 50_000).forEach(i -> {
+            february.add(iban(i));
+            both.add(iban(i));
+        });
+
+        // when
+        var merged = DistinctCountSketch.of(january.toDto());
+        merged.merge(DistinctCountSketch.of(february.toDto()));
+
+        // then
+        assertThat(merged.toDto()).isEqualTo(both.toDto());
+        assertThat(merged.estimate()).isCloseTo(50_000L, within(2_500L));
+    }
+
+    private static String iban(int i) {
+        return "PL%026d".formatted(i);
+    }
+}
@@ -0,0 +1,69 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBatchSizerTest {
+
+    private static final Duration TARGET_LATENCY = Duration.ofMillis(100);
+    private static final long FAST_BATCH_NANOS = Duration.ofMillis(10).toNanos();
+    private static final long SLOW_BATCH_NANOS = Duration.ofMillis(500).toNanos();
+
+    @Test
+    void shouldGrowBatchSizeWhenFullBatchesAreFast() {
+        // given
+        var sizer = new AdaptiveBatchSizer(1000, 100, 10_000, TARGET_LATENCY);
+
+        // when
+        sizer.onBatchWritten(1000, FAST_BATCH_NANOS);
+
+        // then
+        assertThat(sizer.currentBatchSize()).isEqualTo(1250);
+    }
+
+    @Test
+    void shouldNotGrowBatchSizeOnFastPartialBatch() {
+        // given
+        var sizer = new AdaptiveBatchSizer(1000, 100, 10_000, TARGET_LATENCY);
+
+        // when
+        sizer.onBatchWritten(10, FAST_BATCH_NANOS);
+
+        // then
+        assertThat(sizer.currentBatchSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldHalveBatchSizeWhenBatchIsSlow() {
+        // given
+        var sizer = new AdaptiveBatchSizer(1000, 100, 10_000, TARGET_LATENCY);
+
+        // when
+        sizer.onBatchWritten(1000, SLOW_BATCH_NANOS);
+
+        // then
+        assertThat(sizer.currentBatchSize()).isEqualTo(500);
+    }
+
+    @Test
+    void shouldStayWithinBounds() {
+        // given
+        var sizer = new AdaptiveBatchSizer(150, 100, 200, TARGET_LATENCY);
+
+        // when
+        sizer.onBatchWritten(150, SLOW_BATCH_NANOS);
+        sizer.onBatchWritten(100, SLOW_BATCH_NANOS);
+        var afterShrinking = sizer.currentBatchSize();
+
+        for (int i = 0; i < 10; i++) {
+            sizer.onBatchWritten(sizer.currentBatchSize(), FAST_BATCH_NANOS);
+        }
+
+        // then
+        assertThat(afterShrinking).isEqualTo(100);
+        assertThat(sizer.currentBatchSize()).isEqualTo(200);
+    }
+}
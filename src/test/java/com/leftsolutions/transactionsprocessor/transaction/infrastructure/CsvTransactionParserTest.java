@@ -11,7 +11,10 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,7 +51,7 @@ class CsvTransactionParserTest {
         );
 
         // when
-        var results = csvTransactionParser.parse(WORKSPACE_ID, inputStream(csv), EXPECTED_MONTH);
+        var results = parse(csv);
 
         // then
         assertThat(results)
@@ -77,7 +80,7 @@ class CsvTransactionParserTest {
         var csv = String.join("\n", HEADER, csvRow);
 
         // when
-        var results = csvTransactionParser.parse(WORKSPACE_ID, inputStream(csv), EXPECTED_MONTH);
+        var results = parse(csv);
 
         // then
         assertThat(results)
@@ -100,7 +103,7 @@ class CsvTransactionParserTest {
         );
 
         // when
-        var results = csvTransactionParser.parse(WORKSPACE_ID, inputStream(csv), EXPECTED_MONTH);
+        var results = parse(csv);
 
         // then
         assertThat(results)
@@ -121,6 +124,40 @@ class CsvTransactionParserTest {
         assertThat(errorMessages.getFirst()).containsIgnoringCase("iban");
     }
 
+    @Test
+    void shouldKeepTextOfRejectedRecord() throws Exception {
+        // given
+        var invalidRow = row("INVALID", DATE_IN_MONTH_2, VALID_CURRENCY, VALID_CATEGORY_FOOD, "-20.00");
+        var csv = String.join("\n", HEADER, invalidRow);
+
+        // when
+        var results = parse(csv);
+
+        // then
+        assertThat(results)
+                .singleElement()
+                .returns(RowRejection.INVALID_IBAN_FORMAT, CsvTransactionParser.ParseResultRow::rejection)
+                .returns(invalidRow, CsvTransactionParser.ParseResultRow::line);
+    }
+
+    @Test
+    void shouldNotCopyRejectedValueWhenConsumerStoresNoMessage() throws Exception {
+        // given
+        var invalidRow = row(VALID_IBAN_1, DATE_IN_MONTH_1, VALID_CURRENCY, VALID_CATEGORY_FOOD, AMOUNT_INVALID);
+        var csv = String.join("\n", HEADER, invalidRow);
+        var consumer = new FullSampleConsumer();
+
+        // when
+        csvTransactionParser.parse(WORKSPACE_ID, inputStream(csv), EXPECTED_MONTH, consumer);
+
+        // then
+        assertThat(consumer.rows)
+                .singleElement()
+                .returns(RowRejection.INVALID_AMOUNT_FORMAT, CsvTransactionParser.ParseResultRow::rejection)
+                .returns(null, CsvTransactionParser.ParseResultRow::detail)
+                .returns(invalidRow, CsvTransactionParser.ParseResultRow::line);
+    }
+
     private static Stream<Arguments> invalidRowCases() {
         return Stream.of(
                 Arguments.of(row("", DATE_IN_MONTH_1, VALID_CURRENCY, VALID_CATEGORY_FOOD, AMOUNT_NEGATIVE), "iban"),
@@ -140,6 +177,12 @@ class CsvTransactionParserTest {
         );
     }
 
+    private List<CsvTransactionParser.ParseResultRow> parse(String csv) throws Exception {
+        var results = new ArrayList<CsvTransactionParser.ParseResultRow>();
+        csvTransactionParser.parse(WORKSPACE_ID, inputStream(csv), EXPECTED_MONTH, results::add);
+        return results;
+    }
+
     private static String row(String iban, String date, String currency, String category, String amount) {
         return String.join(",", iban, date, currency, category, amount);
     }
@@ -151,4 +194,23 @@ class CsvTransactionParserTest {
     private static InputStream inputStream(String content) {
         return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
     }
+
+    /**
+     * Keeps the rows but no rejection message, like an import whose error sample is full.
+     */
+    private static final class FullSampleConsumer
+            implements Consumer<CsvTransactionParser.ParseResultRow>, CsvTransactionParser.RejectionDetails {
+
+        private final List<CsvTransactionParser.ParseResultRow> rows = new ArrayList<>();
+
+        @Override
+        public void accept(CsvTransactionParser.ParseResultRow row) {
+            rows.add(row);
+        }
+
+        @Override
+        public boolean isRejectionDetailWanted() {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,131 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportAsyncProperties;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportQueueStatsDto;
+import com.leftsolutions.transactionsprocessor.transaction.exception.ImportQueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FairImportSchedulerTest {
+
+    private static final long LARGE_FILE = DataSize.ofGigabytes(1).toBytes();
+    private static final long SMALL_FILE = DataSize.ofKilobytes(10).toBytes();
+
+    private final ArrayDeque<Runnable> executor = new ArrayDeque<>();
+    private final List<String> executed = new ArrayList<>();
+    private final ImportAsyncProperties properties = new ImportAsyncProperties();
+
+    private FairImportScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(10);
+        properties.setMaxQueuedPerWorkspace(5);
+        properties.setInitialImportDuration(Duration.ofSeconds(20));
+        scheduler = new FairImportScheduler(executor::add, properties);
+    }
+
+    @Test
+    void shouldServeWorkspacesRoundRobin() {
+        // given
+        submit("workspace-a", "a1", LARGE_FILE);
+        submit("workspace-a", "a2", LARGE_FILE);
+        submit("workspace-a", "a3", LARGE_FILE);
+        submit("workspace-b", "b1", LARGE_FILE);
+        submit("workspace-c", "c1", LARGE_FILE);
+
+        // when
+        runAll();
+
+        // then
+        assertThat(executed).containsExactly("a1", "a2", "b1", "c1", "a3");
+    }
+
+    @Test
+    void shouldPreferSmallFilesWithoutStarvingLargeOnes() {
+        // given
+        submit("workspace-a", "large-1", LARGE_FILE);
+        submit("workspace-a", "large-2", LARGE_FILE);
+        submit("workspace-b", "small-1", SMALL_FILE);
+        submit("workspace-c", "small-2", SMALL_FILE);
+
+        // when
+        runAll();
+
+        // then
+        assertThat(executed).containsExactly("large-1", "small-1", "large-2", "small-2");
+    }
+
+    @Test
+    void shouldRejectWithRetryAfterWhenWorkspaceQueueIsFull() {
+        // given
+        properties.setMaxQueuedPerWorkspace(2);
+        submit("workspace-a", "a1", LARGE_FILE);
+        submit("workspace-a", "a2", LARGE_FILE);
+        submit("workspace-a", "a3", LARGE_FILE);
+
+        // when // then
+        assertThatThrownBy(() -> scheduler.admit("workspace-a", LARGE_FILE))
+                .isInstanceOfSatisfying(ImportQueueFullException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("20");
+                });
+        assertThat(scheduler.admit("workspace-b", LARGE_FILE)).isNotNull();
+    }
+
+    @Test
+    void shouldReleaseSlotOfCancelledAdmission() {
+        // given
+        properties.setQueueCapacity(1);
+        var admission = scheduler.admit("workspace-a", LARGE_FILE);
+
+        // when
+        admission.cancel();
+
+        // then
+        assertThat(scheduler.getQueueStats("workspace-a"))
+                .returns(0, ImportQueueStatsDto::queuedImports)
+                .returns(0, ImportQueueStatsDto::totalQueuedImports);
+        assertThat(scheduler.admit("workspace-a", LARGE_FILE)).isNotNull();
+    }
+
+    @Test
+    void shouldReportQueueDepthPerWorkspace() {
+        // given
+        submit("workspace-a", "a1", LARGE_FILE);
+        submit("workspace-a", "a2", LARGE_FILE);
+        submit("workspace-b", "b1", LARGE_FILE);
+
+        // when
+        var stats = scheduler.getQueueStats("workspace-a");
+
+        // then
+        assertThat(stats)
+                .returns(1, ImportQueueStatsDto::queuedImports)
+                .returns(1, ImportQueueStatsDto::runningImports)
+                .returns(2, ImportQueueStatsDto::totalQueuedImports)
+                .returns(1, ImportQueueStatsDto::totalRunningImports);
+    }
+
+    private void submit(String workspaceId, String name, long sizeBytes) {
+        scheduler.admit(workspaceId, sizeBytes).submit(() -> executed.add(name));
+    }
+
+    private void runAll() {
+        while (!executor.isEmpty()) {
+            executor.poll().run();
+        }
+    }
+}
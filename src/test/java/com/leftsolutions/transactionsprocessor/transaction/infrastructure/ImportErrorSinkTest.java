@@ -0,0 +1,81 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ImportErrorSinkTest {
+
+    private static final int MAX_SAMPLED_ERRORS = 1;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldCountEveryRejectionByReasonButSampleOnlyFirstErrors() {
+        // given
+        var sink = new ImportErrorSink(MAX_SAMPLED_ERRORS, null);
+
+        // when
+        sink.accept(rejected(RowRejection.INVALID_IBAN_FORMAT, 2, "INVALID,2026-01-10,PLN,FOOD,-10.50"));
+        sink.accept(rejected(RowRejection.INVALID_IBAN_FORMAT, 3, "INVALID,2026-01-11,PLN,FOOD,-10.50"));
+        sink.accept(rejected(RowRejection.AMOUNT_MUST_BE_NON_ZERO, 4, "PL61109010140000071219812874,2026-01-10,PLN,FOOD,0"));
+
+        // then
+        assertThat(sink.rejectedRows()).isEqualTo(3);
+        assertThat(sink.sample()).containsExactly("Line 2: invalid IBAN format");
+        assertThat(sink.counts()).containsExactly(
+                entry(RowRejection.INVALID_IBAN_FORMAT.name(), 2L),
+                entry(RowRejection.AMOUNT_MUST_BE_NON_ZERO.name(), 1L)
+        );
+        assertThat(sink.finishReport()).isNull();
+    }
+
+    @Test
+    void shouldWriteRejectedRowsOfChunksToReportInFileOrder() throws Exception {
+        // given
+        var sink = new ImportErrorSink(MAX_SAMPLED_ERRORS, new RejectedRowsReport(tempDir));
+        var firstChunk = sink.newChunkSink();
+        var secondChunk = sink.newChunkSink();
+
+        secondChunk.accept(rejected(RowRejection.MISSING_FIELD, 7, "PL61109010140000071219812874,,PLN,FOOD,-1"));
+        secondChunk.finishChunk();
+        firstChunk.accept(rejected(RowRejection.INVALID_IBAN_FORMAT, 2, "INVALID,2026-01-10,PLN,\"FOOD, DRINKS\",-10.50"));
+        firstChunk.finishChunk();
+
+        // when
+        sink.merge(firstChunk);
+        sink.merge(secondChunk);
+        var report = sink.finishReport();
+
+        // then
+        assertThat(sink.counts()).containsOnlyKeys(RowRejection.INVALID_IBAN_FORMAT.name(), RowRejection.MISSING_FIELD.name());
+        assertThat(readGzip(report)).containsExactly(
+                "line,reason,row",
+                "2,INVALID_IBAN_FORMAT,\"INVALID,2026-01-10,PLN,\"\"FOOD, DRINKS\"\",-10.50\"",
+                "7,MISSING_FIELD,\"PL61109010140000071219812874,,PLN,FOOD,-1\""
+        );
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(report);
+        }
+    }
+
+    private static CsvTransactionParser.ParseResultRow rejected(RowRejection rejection, int lineNumber, String line) {
+        return CsvTransactionParser.ParseResultRow.failure(rejection, lineNumber, null).withLine(line);
+    }
+
+    private static List<String> readGzip(Path file) throws IOException {
+        try (var input = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportProgressDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportProgressTest {
+
+    private static final long TOTAL_BYTES = 1_000;
+    private static final long STARTED_AT = 0;
+
+    @Test
+    void shouldEstimateRemainingTimeFromShareOfFileRead() {
+        // given
+        var progress = new ImportProgress(TOTAL_BYTES, STARTED_AT);
+        progress.bytesRead(250);
+        progress.rowParsed();
+        progress.rowParsed();
+        progress.rowsWritten(20);
+
+        // when
+        var snapshot = progress.snapshot(TimeUnit.SECONDS.toNanos(10));
+
+        // then
+        assertThat(snapshot)
+                .returns(250L, ImportProgressDto::bytesRead)
+                .returns(TOTAL_BYTES, ImportProgressDto::totalBytes)
+                .returns(2L, ImportProgressDto::rowsParsed)
+                .returns(20L, ImportProgressDto::rowsWritten)
+                .returns(2.0, ImportProgressDto::rowsPerSecond)
+                .returns(30L, ImportProgressDto::etaSeconds);
+    }
+
+    @Test
+    void shouldLeaveEtaUnknownUntilFirstBytesAreRead() {
+        // given
+        var progress = new ImportProgress(TOTAL_BYTES, STARTED_AT);
+
+        // when
+        var snapshot = progress.snapshot(TimeUnit.SECONDS.toNanos(10));
+
+        // then
+        assertThat(snapshot.etaSeconds()).isNull();
+        assertThat(snapshot.rowsPerSecond()).isZero();
+    }
+}
@@ -0,0 +1,207 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.IntegrationTestConfig;
+import com.leftsolutions.transactionsprocessor.config.ImportAsyncProperties;
+import com.leftsolutions.transactionsprocessor.config.ImportQueueProperties;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import com.leftsolutions.transactionsprocessor.transaction.exception.ImportAlreadyProcessingException;
+import com.leftsolutions.transactionsprocessor.transaction.exception.ImportQueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportQueueIT extends IntegrationTestConfig {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+    private static final String DEAD_NODE_ID = "dead-node";
+
+    @Autowired
+    private ImportQueueService importQueueService;
+
+    @Autowired
+    private ImportQueueWorker importQueueWorker;
+
+    @Autowired
+    private ImportingFacade importingFacade;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ImportQueueProperties properties;
+
+    @Autowired
+    private ImportAsyncProperties asyncProperties;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void cleanup() {
+        transactionRepository.deleteAll();
+        mongoTemplate.remove(new Query(), "import_jobs");
+        mongoTemplate.remove(new Query(), ImportQueueDocument.class);
+        mongoTemplate.remove(new Query(), ImportQueueSlotsDocument.class);
+    }
+
+    @Test
+    void shouldRejectSecondSubmissionForMonthAlreadyInQueue() throws Exception {
+        // given
+        importQueueService.enqueue(importQueueService.store(WORKSPACE_ID, MONTH, ImportMode.REPLACE, writeTempCsv()));
+        var second = importQueueService.store(WORKSPACE_ID, MONTH, ImportMode.REPLACE, writeTempCsv());
+
+        // when // then
+        assertThatThrownBy(() -> importQueueService.enqueue(second))
+                .isInstanceOf(ImportAlreadyProcessingException.class);
+        assertThat(mongoTemplate.count(new Query(), ImportQueueDocument.class)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotReserveMoreSlotsThanQueueCapacityUnderConcurrentSubmissions() throws Exception {
+        // given
+        var capacity = asyncProperties.getQueueCapacity();
+        asyncProperties.setQueueCapacity(2);
+        try {
+            var entries = new ArrayList<ImportQueueDocument>();
+            for (int i = 0; i < 6; i++) {
+                entries.add(importQueueService.store(WORKSPACE_ID, MONTH.plusMonths(i), ImportMode.REPLACE, writeTempCsv()));
+            }
+
+            // when
+            var reserved = new ArrayList<ImportQueueDocument>();
+            var rejections = new ArrayList<ImportQueueFullException>();
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var results = new ArrayList<Future<ImportQueueDocument>>();
+                for (var entry : entries) {
+                    results.add(executor.submit((Callable<ImportQueueDocument>) () -> {
+                        importQueueService.reserve(entry);
+                        return entry;
+                    }));
+                }
+                for (var result : results) {
+                    try {
+                        reserved.add(result.get());
+                    } catch (ExecutionException e) {
+                        rejections.add((ImportQueueFullException) e.getCause());
+                    }
+                }
+            }
+
+            // then
+            assertThat(reserved).hasSize(2);
+            assertThat(rejections).hasSize(4)
+                    .allSatisfy(rejection -> assertThat(rejection.getRetryAfterSeconds()).isPositive());
+
+            reserved.forEach(importQueueService::enqueue);
+            assertThat(importQueueService.claim(Set.of())).isPresent();
+            var next = entries.stream().filter(entry -> !reserved.contains(entry)).findFirst().orElseThrow();
+            importQueueService.reserve(next);
+            assertThat(mongoTemplate.findById(ImportQueueSlotsDocument.ALL, ImportQueueSlotsDocument.class))
+                    .returns(2, ImportQueueSlotsDocument::reserved);
+        } finally {
+            asyncProperties.setQueueCapacity(capacity);
+        }
+    }
+
+    @Test
+    void shouldTakeOverImportWhoseLeaseExpired() throws Exception {
+        // given
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, null, null);
+        var entry = importQueueService.store(WORKSPACE_ID, MONTH, ImportMode.REPLACE, writeTempCsv());
+        importQueueService.enqueue(entry);
+        leaseToDeadNode(entry, 1);
+
+        // when
+        importQueueWorker.poll();
+
+        // then
+        assertThat(importingFacade.getStatus(WORKSPACE_ID, MONTH))
+                .returns(ImportJobState.COMPLETED, ImportJobStatusDto::state)
+                .returns(2, ImportJobStatusDto::importedRows);
+        assertThat(transactionRepository.findAll()).hasSize(2);
+        assertThat(mongoTemplate.count(new Query(), ImportQueueDocument.class)).isZero();
+    }
+
+    @Test
+    void shouldFailImportWhoseLeaseExpiredOnLastAttempt() throws Exception {
+        // given
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, null, null);
+        var entry = importQueueService.store(WORKSPACE_ID, MONTH, ImportMode.REPLACE, writeTempCsv());
+        importQueueService.enqueue(entry);
+        leaseToDeadNode(entry, properties.getMaxAttempts());
+
+        // when
+        importQueueWorker.poll();
+        importQueueWorker.heartbeat();
+
+        // then
+        assertThat(importingFacade.getStatus(WORKSPACE_ID, MONTH))
+                .returns(ImportJobState.FAILED, ImportJobStatusDto::state);
+        assertThat(transactionRepository.findAll()).isEmpty();
+        assertThat(mongoTemplate.count(new Query(), ImportQueueDocument.class)).isZero();
+    }
+
+    @Test
+    void shouldFailJobThatWasStartedButNeverQueued() {
+        // given
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, null, null);
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("workspaceId").is(WORKSPACE_ID)),
+                new Update().set("updatedAt", Instant.now().minus(properties.getLeaseDuration()).minusSeconds(1)),
+                "import_jobs"
+        );
+
+        // when
+        importQueueWorker.heartbeat();
+
+        // then
+        assertThat(importingFacade.getStatus(WORKSPACE_ID, MONTH))
+                .returns(ImportJobState.FAILED, ImportJobStatusDto::state);
+    }
+
+    private void leaseToDeadNode(ImportQueueDocument entry, int attempts) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(entry.getId())),
+                new Update()
+                        .set("state", ImportQueueDocument.State.RUNNING)
+                        .set("leaseOwner", DEAD_NODE_ID)
+                        .set("leaseExpiresAt", Instant.now().minusSeconds(1))
+                        .set("attempts", attempts),
+                ImportQueueDocument.class
+        );
+    }
+
+    private Path writeTempCsv() throws Exception {
+        var csv = """
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                PL12109010140000071219812875,2026-01-11,PLN,RENT,-2000.00
+                """;
+        var file = Files.createTempFile("it-import-", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,81 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportRowSinkTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_STORED_ERRORS = 2;
+
+    private final List<List<TransactionDocument>> writtenBatches = new ArrayList<>();
+
+    @Test
+    void shouldWriteValidRowsInFixedSizeBatches() {
+        // given
+        var sink = new ImportRowSink(BATCH_SIZE, MAX_STORED_ERRORS, writtenBatches::add);
+
+        // when
+        sink.accept(success());
+        sink.accept(success());
+        sink.accept(success());
+
+        // then
+        assertThat(writtenBatches).hasSize(1);
+        assertThat(writtenBatches.getFirst()).hasSize(BATCH_SIZE);
+        assertThat(sink.importedRows()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldWriteRemainingRowsOnFlush() {
+        // given
+        var sink = new ImportRowSink(BATCH_SIZE, MAX_STORED_ERRORS, writtenBatches::add);
+        sink.accept(success());
+        sink.accept(success());
+        sink.accept(success());
+
+        // when
+        sink.flush();
+        sink.flush();
+
+        // then
+        assertThat(writtenBatches)
+                .extracting(List::size)
+                .containsExactly(2, 1);
+        assertThat(sink.importedRows()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldCountAllRejectedRowsButStoreOnlyLimitedErrors() {
+        // given
+        var sink = new ImportRowSink(BATCH_SIZE, MAX_STORED_ERRORS, writtenBatches::add);
+
+        // when
+        sink.accept(CsvTransactionParser.ParseResultRow.failure(RowRejection.INVALID_IBAN_FORMAT, 2, null));
+        sink.accept(CsvTransactionParser.ParseResultRow.failure(RowRejection.INVALID_IBAN_FORMAT, 3, null));
+        sink.accept(CsvTransactionParser.ParseResultRow.failure(RowRejection.INVALID_IBAN_FORMAT, 4, null));
+        sink.flush();
+
+        // then
+        assertThat(writtenBatches).isEmpty();
+        assertThat(sink.importedRows()).isZero();
+        assertThat(sink.rejectedRows()).isEqualTo(3);
+        assertThat(sink.errors()).containsExactly("Line 2: invalid IBAN format", "Line 3: invalid IBAN format");
+    }
+
+    private static CsvTransactionParser.ParseResultRow success() {
+        return CsvTransactionParser.ParseResultRow.success(TransactionDocument.builder()
+                .id(UUID.randomUUID())
+                .iban("PL61109010140000071219812874")
+                .transactionDate(LocalDate.of(2026, 1, 10))
+                .amount(BigDecimal.ONE)
+                .build());
+    }
+}
@@ -0,0 +1,116 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedCsvTokenizerTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private final CsvTransactionParser csvTransactionParser = new CsvTransactionParser();
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldTokenizeQuotedFieldsAndMixedLineEndings() throws Exception {
+        // given
+        var file = write("a,\"b,\"\"c\"\" \" ,d\r\n\r\n\"\"\rlast");
+
+        // when
+        var records = new ArrayList<List<String>>();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var tokenizer = new MappedCsvTokenizer(channel, 0, channel.size(), 24);
+            while (tokenizer.next() == MappedCsvTokenizer.Status.RECORD) {
+                var fields = new ArrayList<String>();
+                for (int i = 0; i < tokenizer.fieldCount(); i++) {
+                    fields.add(tokenizer.text(i));
+                }
+                records.add(fields);
+            }
+        }
+
+        // then
+        assertThat(records).containsExactly(
+                List.of("a", "b,\"c\"", "d"),
+                List.of(""),
+                List.of("last")
+        );
+    }
+
+    @Test
+    void shouldReportUnsupportedRecordStart() throws Exception {
+        // given
+        var file = write("a,b\n\"x\"y,z\n");
+
+        // when
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var tokenizer = new MappedCsvTokenizer(channel, 0, channel.size());
+            var first = tokenizer.next();
+            var second = tokenizer.next();
+
+            // then
+            assertThat(first).isEqualTo(MappedCsvTokenizer.Status.RECORD);
+            assertThat(second).isEqualTo(MappedCsvTokenizer.Status.UNSUPPORTED);
+            assertThat(tokenizer.recordStart()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void shouldParseMappedFileLikeCommonsCsv() throws Exception {
+        // given
+        var csv = String.join("\n",
+                "amount,category,currency,date,iban",
+                "-10.50,FOOD,PLN,2026-01-10,PL61109010140000071219812874",
+                "  1e2 , \"SHOP, \"\"ONLINE\"\"\" ,eur,2026-01-31,pl61109010140000071219812874\r",
+                "",
+                "abc,FOOD,PLN,2026-01-10,PL61109010140000071219812874",
+                "-1,FOOD,PLN,2026-02-30,PL61109010140000071219812874",
+                "-1,FOOD,PLN,2026/01/10,PL61109010140000071219812874",
+                "-1,FOOD,PLN,2026-01-10",
+                "-1,\u017bABKA,PLN,2026-01-10,PL61109010140000071219812874",
+                "-2,FOOD,PLN,2026-01-11,PL61109010140000071219812874"
+        );
+        var file = write(csv);
+
+        // when
+        var expected = new ArrayList<CsvTransactionParser.ParseResultRow>();
+        csvTransactionParser.parse(WORKSPACE_ID, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MONTH, expected::add);
+
+        var actual = new ArrayList<CsvTransactionParser.ParseResultRow>();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            csvTransactionParser.parse(WORKSPACE_ID, channel, MONTH, actual::add);
+        }
+
+        // then
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).error()).isEqualTo(expected.get(i).error());
+            if (expected.get(i).document() != null) {
+                assertThat(actual.get(i).document())
+                        .usingRecursiveComparison()
+                        .ignoringFields("id")
+                        .isEqualTo(expected.get(i).document());
+            }
+        }
+    }
+
+    private Path write(String content) throws Exception {
+        var file = tempDir.resolve("import.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,107 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.statistics.sketch.AmountSketch;
+import com.leftsolutions.transactionsprocessor.statistics.sketch.DistinctCountSketch;
+import com.leftsolutions.transactionsprocessor.statistics.dto.DailyStatisticsDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRollupDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.MonthlyStatisticsRowDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeCellDto;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsSketchDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MonthlyRollupTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private static final String IBAN_1 = "PL61109010140000071219812874";
+    private static final String IBAN_2 = "PL12109010140000071219812875";
+
+    @Test
+    void shouldSumBatchesPerCategoryIbanCubeCellDayAndInTotal() {
+        // given
+        var rollup = new MonthlyRollup();
+
+        // when
+        rollup.add(List.of(row(IBAN_1, "FOOD", "-10.50"), row(IBAN_1, "FOOD", "-20.00")));
+        rollup.add(List.of(row(IBAN_2, "RENT", "-2000.00", 12), row(IBAN_2, "SALARY", "5000.00", 12)));
+        rollup.add(List.of(row(IBAN_1, "FOOD", "EUR", "-4.00")));
+        var dto = rollup.toDto(WORKSPACE_ID, MONTH, 3L);
+
+        // then
+        assertThat(dto)
+                .returns(WORKSPACE_ID, MonthlyStatisticsRollupDto::workspaceId)
+                .returns(MONTH, MonthlyStatisticsRollupDto::month)
+                .returns(3L, MonthlyStatisticsRollupDto::generation)
+                .returns(new MonthlyStatisticsRowDto("SUMMARY", 5L, new BigDecimal("2965.50")), MonthlyStatisticsRollupDto::summary);
+        assertThat(dto.categories()).containsExactly(
+                new MonthlyStatisticsRowDto("SALARY", 1L, new BigDecimal("5000.00")),
+                new MonthlyStatisticsRowDto("FOOD", 3L, new BigDecimal("-34.50")),
+                new MonthlyStatisticsRowDto("RENT", 1L, new BigDecimal("-2000.00"))
+        );
+        assertThat(dto.ibans()).containsExactly(
+                new MonthlyStatisticsRowDto(IBAN_2, 2L, new BigDecimal("3000.00")),
+                new MonthlyStatisticsRowDto(IBAN_1, 3L, new BigDecimal("-34.50"))
+        );
+        assertThat(dto.cube()).containsExactlyInAnyOrder(
+                new StatisticsCubeCellDto("FOOD", IBAN_1, "PLN", 2L, new BigDecimal("-30.50")),
+                new StatisticsCubeCellDto("FOOD", IBAN_1, "EUR", 1L, new BigDecimal("-4.00")),
+                new StatisticsCubeCellDto("RENT", IBAN_2, "PLN", 1L, new BigDecimal("-2000.00")),
+                new StatisticsCubeCellDto("SALARY", IBAN_2, "PLN", 1L, new BigDecimal("5000.00"))
+        );
+        assertThat(dto.sketches().categories())
+                .extracting(StatisticsSketchDto::key)
+                .containsExactly("FOOD", "RENT", "SALARY");
+        assertThat(AmountSketch.of(dto.sketches().summary().amounts()).count()).isEqualTo(5L);
+        assertThat(DistinctCountSketch.of(dto.sketches().summary().ibans()).estimate()).isEqualTo(2L);
+        assertThat(dto.days()).containsExactly(
+                new DailyStatisticsDto(MONTH.atDay(10),
+                        new MonthlyStatisticsRowDto("SUMMARY", 3L, new BigDecimal("-34.50")),
+                        List.of(new MonthlyStatisticsRowDto("FOOD", 3L, new BigDecimal("-34.50")))),
+                new DailyStatisticsDto(MONTH.atDay(12),
+                        new MonthlyStatisticsRowDto("SUMMARY", 2L, new BigDecimal("3000.00")),
+                        List.of(new MonthlyStatisticsRowDto("SALARY", 1L, new BigDecimal("5000.00")),
+                                new MonthlyStatisticsRowDto("RENT", 1L, new BigDecimal("-2000.00"))))
+        );
+    }
+
+    @Test
+    void shouldHaveNoSummaryForMonthWithoutRows() {
+        // given // when
+        var dto = new MonthlyRollup().toDto(WORKSPACE_ID, MONTH, 0L);
+
+        // then
+        assertThat(dto)
+                .returns(null, MonthlyStatisticsRollupDto::summary)
+                .returns(List.of(), MonthlyStatisticsRollupDto::categories)
+                .returns(List.of(), MonthlyStatisticsRollupDto::ibans)
+                .returns(List.of(), MonthlyStatisticsRollupDto::cube)
+                .returns(List.of(), MonthlyStatisticsRollupDto::days);
+    }
+
+    private static TransactionDocument row(String iban, String category, String amount) {
+        return row(iban, category, "PLN", amount);
+    }
+
+    private static TransactionDocument row(String iban, String category, String amount, int day) {
+        var row = row(iban, category, "PLN", amount);
+        row.setTransactionDate(MONTH.atDay(day));
+        return row;
+    }
+
+    private static TransactionDocument row(String iban, String category, String currency, String amount) {
+        return TransactionDocument.builder()
+                .transactionDate(MONTH.atDay(10))
+                .iban(iban)
+                .category(category)
+                .currency(currency)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
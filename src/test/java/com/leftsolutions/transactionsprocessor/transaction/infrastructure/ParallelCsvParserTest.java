@@ -0,0 +1,214 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.config.ImportPipelineProperties;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportProgressDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelCsvParserTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private static final String HEADER = "iban,date,currency,category,amount";
+    private static final String VALID_ROW = "PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50";
+    private static final String INVALID_IBAN_ROW = "INVALID,2026-01-10,PLN,FOOD,-10.50";
+    private static final String WRONG_MONTH_ROW = "PL61109010140000071219812874,2026-02-10,PLN,FOOD,-10.50";
+
+    private static final int ROWS = 2_000;
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_STORED_ERRORS = 200;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final CsvTransactionParser csvTransactionParser = new CsvTransactionParser();
+
+    @TempDir
+    private Path tempDir;
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldProduceSameResultsAsSequentialParse() throws Exception {
+        // given
+        var csvFile = writeCsv(sampleLines("\n"));
+        var parallelParser = new ParallelCsvParser(csvTransactionParser, pool, smallChunkProperties());
+
+        var sequentialDocuments = new ArrayList<TransactionDocument>();
+        var sequentialSink = new ImportRowSink(BATCH_SIZE, MAX_STORED_ERRORS, sequentialDocuments::addAll);
+
+        var parallelDocuments = new ArrayList<TransactionDocument>();
+        var parallelSink = new ImportRowSink(BATCH_SIZE, MAX_STORED_ERRORS, parallelDocuments::addAll);
+
+        // when
+        try (var input = Files.newInputStream(csvFile)) {
+            csvTransactionParser.parse(WORKSPACE_ID, input, MONTH, sequentialSink);
+        }
+        sequentialSink.flush();
+
+        var parsedInParallel = parallelParser.parse(WORKSPACE_ID, csvFile, MONTH, parallelSink);
+
+        // then
+        assertThat(parsedInParallel).isTrue();
+        assertThat(parallelSink.importedRows()).isEqualTo(sequentialSink.importedRows());
+        assertThat(parallelSink.rejectedRows()).isEqualTo(sequentialSink.rejectedRows());
+        assertThat(parallelSink.errors()).containsExactlyElementsOf(sequentialSink.errors());
+        assertThat(parallelDocuments).hasSameSizeAs(sequentialDocuments);
+        assertThat(parallelSink.rollup().toDto(WORKSPACE_ID, MONTH, 0L))
+                .isEqualTo(sequentialSink.rollup().toDto(WORKSPACE_ID, MONTH, 0L));
+    }
+
+    @Test
+    void shouldReportWholeFileAndEveryRowAsProgress() throws Exception {
+        // given
+        var csvFile = writeCsv(sampleLines("\n"));
+        var parallelParser = new ParallelCsvParser(csvTransactionParser, pool, smallChunkProperties());
+        var progress = new ImportProgress(Files.size(csvFile));
+        var sink = new ImportRowSink(() -> BATCH_SIZE, new ImportErrorSink(MAX_STORED_ERRORS, null), batch -> {
+        }, progress);
+
+        // when
+        var parsedInParallel = parallelParser.parse(WORKSPACE_ID, csvFile, MONTH, sink);
+
+        // then
+        assertThat(parsedInParallel).isTrue();
+        assertThat(progress.snapshot())
+                .returns(Files.size(csvFile), ImportProgressDto::bytesRead)
+                .returns((long) ROWS - 1, ImportProgressDto::rowsParsed)
+                .returns(0L, ImportProgressDto::etaSeconds);
+    }
+
+    @Test
+    void shouldKeepAbsoluteLineNumbersWithCrLfAndBlankLines() throws Exception {
+        // given
+        var csvFile = writeCsv(sampleLines("\r\n"));
+        var parallelParser = new ParallelCsvParser(csvTransactionParser, pool, smallChunkProperties());
+        var sink = new ImportRowSink(BATCH_SIZE, MAX_STORED_ERRORS, batch -> {
+        });
+
+        // when
+        var parsedInParallel = parallelParser.parse(WORKSPACE_ID, csvFile, MONTH, sink);
+
+        // then
+        assertThat(parsedInParallel).isTrue();
+        assertThat(sink.errors())
+                .first()
+                .asString()
+                .startsWith("Line 50:");
+        assertThat(sink.errors())
+                .anySatisfy(error -> assertThat(error).startsWith("Line 1501:"));
+    }
+
+    @Test
+    void shouldRefuseFilesWithQuotedFields() throws Exception {
+        // given
+        var lines = sampleLines("\n");
+        lines.add("PL61109010140000071219812874,2026-01-10,PLN,\"FOOD,\nDRINKS\",-10.50");
+        var csvFile = writeCsv(lines);
+        var parallelParser = new ParallelCsvParser(csvTransactionParser, pool, smallChunkProperties());
+        var written = new ArrayList<TransactionDocument>();
+        var sink = new ImportRowSink(BATCH_SIZE, MAX_STORED_ERRORS, written::addAll);
+
+        // when
+        var parsedInParallel = parallelParser.parse(WORKSPACE_ID, csvFile, MONTH, sink);
+
+        // then
+        assertThat(parsedInParallel).isFalse();
+        assertThat(written).isEmpty();
+        assertThat(sink.rejectedRows()).isZero();
+    }
+
+    @Test
+    void shouldLetPoolStartSpareThreadWhileParseWorkerWaitsForWriter() throws Exception {
+        // given
+        var singleWorkerPool = new ForkJoinPool(1);
+        var csvFile = writeCsv(sampleLines("\n"));
+        var parallelParser = new ParallelCsvParser(csvTransactionParser, singleWorkerPool, smallChunkProperties());
+        var writerReleased = new CountDownLatch(1);
+        var sink = new ImportRowSink(BATCH_SIZE, MAX_STORED_ERRORS, batch -> awaitQuietly(writerReleased));
+
+        // when
+        var parsing = CompletableFuture.supplyAsync(() -> parseQuietly(parallelParser, csvFile, sink),
+                Executors.newSingleThreadExecutor());
+
+        // then
+        try {
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (singleWorkerPool.getPoolSize() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(singleWorkerPool.getPoolSize()).isGreaterThan(1);
+        } finally {
+            writerReleased.countDown();
+        }
+        assertThat(parsing.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.importedRows() + sink.rejectedRows()).isEqualTo(ROWS - 1);
+        singleWorkerPool.shutdownNow();
+    }
+
+    private static boolean parseQuietly(ParallelCsvParser parser, Path csvFile, ImportRowSink sink) {
+        try {
+            return parser.parse(WORKSPACE_ID, csvFile, MONTH, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> sampleLines(String lineSeparator) {
+        var lines = new ArrayList<String>();
+        lines.add(HEADER + lineSeparator);
+        for (int line = 2; line <= ROWS; line++) {
+            if (line == 1000) {
+                lines.add(lineSeparator);
+            }
+            var row = switch (line % 100) {
+                case 1 -> INVALID_IBAN_ROW;
+                case 50 -> WRONG_MONTH_ROW;
+                default -> VALID_ROW;
+            };
+            lines.add(row + lineSeparator);
+        }
+        return lines;
+    }
+
+    private Path writeCsv(List<String> lines) throws Exception {
+        var file = tempDir.resolve("import.csv");
+        Files.writeString(file, String.join("", lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static ImportPipelineProperties smallChunkProperties() {
+        var properties = new ImportPipelineProperties();
+        properties.setParallelParseThreshold(DataSize.ofBytes(0));
+        properties.setParseChunkSize(DataSize.ofKilobytes(4));
+        return properties;
+    }
+}
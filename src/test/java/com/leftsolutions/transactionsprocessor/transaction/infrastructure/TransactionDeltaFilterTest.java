@@ -0,0 +1,88 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportDeltaStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionDeltaFilterTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final TransactionFingerprinter fingerprinter = new TransactionFingerprinter();
+    private final List<TransactionDocument> written = new ArrayList<>();
+
+    @Test
+    void shouldMatchRepeatedRowsOneToOneAndRemoveUnmatched() {
+        // given
+        var food = transaction("FOOD", "-10.50");
+        var rent = transaction("RENT", "-2000.00");
+        var firstFoodId = UUID.randomUUID();
+        var secondFoodId = UUID.randomUUID();
+        var rentId = UUID.randomUUID();
+        when(transactionRepository.streamByWorkspaceIdAndYearAndMonthAndGeneration(WORKSPACE_ID, 2026, 1, 0)).thenReturn(Stream.of(
+                new TransactionFingerprintRow(firstFoodId, food.getFingerprint()),
+                new TransactionFingerprintRow(secondFoodId, food.getFingerprint()),
+                new TransactionFingerprintRow(rentId, rent.getFingerprint())
+        ));
+        var filter = TransactionDeltaFilter.load(transactionRepository, WORKSPACE_ID, MONTH, 0, written::addAll);
+        var taxes = transaction("TAXES", "-300.00");
+
+        // when
+        filter.accept(List.of(food, transaction("FOOD", "-10.5"), taxes));
+        var stats = filter.deleteRemovedRows();
+
+        // then
+        assertThat(written).containsExactly(taxes);
+        assertThat(stats).isEqualTo(new ImportDeltaStatsDto(1, 1, 2));
+        verify(transactionRepository).deleteAllById(List.of(rentId));
+    }
+
+    @Test
+    void shouldFingerprintRowsStoredWithoutFingerprint() {
+        // given
+        var legacy = transaction("FOOD", "-10.50");
+        legacy.setId(UUID.randomUUID());
+        legacy.setFingerprint(null);
+        when(transactionRepository.streamByWorkspaceIdAndYearAndMonthAndGeneration(WORKSPACE_ID, 2026, 1, 0))
+                .thenReturn(Stream.of(new TransactionFingerprintRow(legacy.getId(), null)));
+        when(transactionRepository.findAllById(anyIterable())).thenReturn(List.of(legacy));
+        var filter = TransactionDeltaFilter.load(transactionRepository, WORKSPACE_ID, MONTH, 0, written::addAll);
+
+        // when
+        filter.accept(List.of(transaction("FOOD", "-10.50")));
+
+        // then
+        assertThat(written).isEmpty();
+        assertThat(filter.deleteRemovedRows()).isEqualTo(new ImportDeltaStatsDto(0, 0, 1));
+    }
+
+    private TransactionDocument transaction(String category, String amount) {
+        var iban = "PL61109010140000071219812874";
+        var date = LocalDate.of(2026, 1, 10);
+        var value = new BigDecimal(amount);
+        return TransactionDocument.builder()
+                .workspaceId(WORKSPACE_ID)
+                .iban(iban)
+                .transactionDate(date)
+                .currency("PLN")
+                .category(category)
+                .amount(value)
+                .fingerprint(fingerprinter.fingerprint(iban, date, "PLN", category, value))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionFieldDecoderTest {
+
+    private final TransactionFieldDecoder decoder = new TransactionFieldDecoder();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"PL61109010140000071219812874", "pl61109010140000071219812874", "DE89370400440532013000"})
+    void shouldAcceptIban(String iban) {
+        // when
+        var valid = TransactionFieldDecoder.isIban(iban);
+
+        // then
+        assertThat(valid).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"INVALID", "P161109010140000071219812874", "PL6X109010140000071219812874", "PL61-09010140000071219812874",
+            "PL611090101400000712198128741234567"})
+    void shouldRejectIban(String iban) {
+        // when
+        var valid = TransactionFieldDecoder.isIban(iban);
+
+        // then
+        assertThat(valid).isFalse();
+    }
+
+    @Test
+    void shouldValidateCurrency() {
+        // then
+        assertThat(TransactionFieldDecoder.isCurrency("PLN")).isTrue();
+        assertThat(TransactionFieldDecoder.isCurrency("eur")).isTrue();
+        assertThat(TransactionFieldDecoder.isCurrency("PL")).isFalse();
+        assertThat(TransactionFieldDecoder.isCurrency("P1N")).isFalse();
+    }
+
+    @Test
+    void shouldReuseUpperCaseString() {
+        // given
+        var value = "PLN";
+
+        // when
+        var upperCase = TransactionFieldDecoder.toUpperAscii(value);
+
+        // then
+        assertThat(upperCase).isSameAs(value);
+        assertThat(TransactionFieldDecoder.toUpperAscii("eur")).isEqualTo("EUR");
+    }
+
+    @Test
+    void shouldDecodeFixedFormatDate() {
+        // then
+        assertThat(TransactionFieldDecoder.decodeDate("2024-02-29")).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(TransactionFieldDecoder.decodeDate("2026-02-29")).isNull();
+        assertThat(TransactionFieldDecoder.decodeDate("2026-13-01")).isNull();
+        assertThat(TransactionFieldDecoder.decodeDate("2026-01-00")).isNull();
+        assertThat(TransactionFieldDecoder.decodeDate("2026-1-10")).isNull();
+        assertThat(TransactionFieldDecoder.decodeDate("2026-01-XX")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-10.50", "+1", "1.", ".5", "1e2", "-1.5E-3", "0", "1e34", "1.50000000000000000000000000000000000000"})
+    void shouldDecodeAmountLikeBigDecimal(String amount) {
+        // when
+        var decoded = decoder.decodeAmount(amount);
+
+        // then
+        assertThat(decoded).isEqualTo(new BigDecimal(amount));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not-a-number", "-", ".", "1e", "1.2.3", "1,5", "1e+", "--1", "1e9999999999",
+            "1e999999999", "1e-999999999", "1e35", "1e-35", "1234567890123456789012345678901234.5"})
+    void shouldRejectInvalidAmount(String amount) {
+        // when
+        var decoded = decoder.decodeAmount(amount);
+
+        // then
+        assertThat(decoded).isNull();
+    }
+}
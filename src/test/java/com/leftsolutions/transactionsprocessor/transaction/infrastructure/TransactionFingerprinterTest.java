@@ -0,0 +1,39 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionFingerprinterTest {
+
+    private static final String IBAN = "PL61109010140000071219812874";
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 10);
+
+    private final TransactionFingerprinter fingerprinter = new TransactionFingerprinter();
+
+    @Test
+    void shouldFingerprintAmountsByValue() {
+        // when
+        var shortForm = fingerprinter.fingerprint(IBAN, DATE, "PLN", "FOOD", new BigDecimal("-10.5"));
+        var paddedForm = fingerprinter.fingerprint(IBAN, DATE, "PLN", "FOOD", new BigDecimal("-10.50"));
+        var scientificForm = fingerprinter.fingerprint(IBAN, DATE, "PLN", "FOOD", new BigDecimal("-1.05e1"));
+        var otherAmount = fingerprinter.fingerprint(IBAN, DATE, "PLN", "FOOD", new BigDecimal("-105"));
+
+        // then
+        assertThat(paddedForm).isEqualTo(shortForm);
+        assertThat(scientificForm).isEqualTo(shortForm);
+        assertThat(otherAmount).isNotEqualTo(shortForm);
+    }
+
+    @Test
+    void shouldFingerprintAmountWithHugeExponentWithoutExpandingIt() {
+        // when
+        var fingerprint = fingerprinter.fingerprint(IBAN, DATE, "PLN", "FOOD", new BigDecimal("1e999999999"));
+
+        // then
+        assertThat(fingerprint).hasSize(32);
+    }
+}
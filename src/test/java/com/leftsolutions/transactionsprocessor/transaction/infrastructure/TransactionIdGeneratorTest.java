@@ -0,0 +1,55 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionIdGeneratorTest {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    /**
+     * Order of the ids in the {@code _id} index: standard UUIDs are compared as unsigned big-endian bytes
+     */
+    private static final Comparator<UUID> STORED_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    @Test
+    void shouldGenerateUniqueIncreasingIdsInsideMonthRange() {
+        // given
+        var first = new TransactionIdGenerator(WORKSPACE_ID, MONTH);
+        var second = new TransactionIdGenerator(WORKSPACE_ID, MONTH);
+
+        // when
+        var firstIds = IntStream.range(0, 3000).mapToObj(i -> first.next()).toList();
+        var secondIds = IntStream.range(0, 3000).mapToObj(i -> second.next()).toList();
+
+        // then
+        assertThat(firstIds).isSortedAccordingTo(STORED_ORDER).doesNotHaveDuplicates();
+        assertThat(secondIds).isSortedAccordingTo(STORED_ORDER).doesNotContainAnyElementsOf(firstIds);
+        assertThat(firstIds)
+                .allSatisfy(id -> assertThat(id.version()).isEqualTo(8))
+                .allSatisfy(id -> assertThat(id.variant()).isEqualTo(2))
+                .allMatch(id -> TransactionIdGenerator.isInMonthRange(id, WORKSPACE_ID, MONTH));
+    }
+
+    @Test
+    void shouldKeepOtherMonthsAndRandomIdsOutsideMonthRange() {
+        // given
+        var nextMonth = new TransactionIdGenerator(WORKSPACE_ID, MONTH.plusMonths(1)).next();
+        var otherWorkspace = new TransactionIdGenerator("workspace-2", MONTH).next();
+
+        // then
+        assertThat(TransactionIdGenerator.isInMonthRange(nextMonth, WORKSPACE_ID, MONTH)).isFalse();
+        assertThat(TransactionIdGenerator.isInMonthRange(otherWorkspace, WORKSPACE_ID, MONTH)).isFalse();
+        assertThat(TransactionIdGenerator.isInMonthRange(UUID.randomUUID(), WORKSPACE_ID, MONTH)).isFalse();
+        assertThat(STORED_ORDER.compare(new TransactionIdGenerator(WORKSPACE_ID, MONTH).next(), nextMonth)).isNegative();
+    }
+}
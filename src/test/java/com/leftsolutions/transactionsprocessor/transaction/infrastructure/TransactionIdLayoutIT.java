@@ -0,0 +1,178 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.IntegrationTestConfig;
+import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.mongodb.client.model.ClusteredIndexOptions;
+import com.mongodb.client.model.CreateCollectionOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migration of rows stored under random ids, and a comparison of random ids in a regular collection with
+ * month-ordered ids in a clustered one.
+ */
+class TransactionIdLayoutIT extends IntegrationTestConfig {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private static final int BENCHMARK_ROWS = 50_000;
+    private static final int BENCHMARK_BATCH_SIZE = 1000;
+    private static final String RANDOM_IDS_COLLECTION = "transactions_random_ids";
+    private static final String CLUSTERED_COLLECTION = "transactions_clustered";
+
+    @Autowired
+    private TransactionIdMigration transactionIdMigration;
+
+    @Autowired
+    private TransactionCollectionInitializer transactionCollectionInitializer;
+
+    @Autowired
+    private TransactionGenerationReaper transactionGenerationReaper;
+
+    @Autowired
+    private ImportingFacade importingFacade;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void cleanup() {
+        transactionRepository.deleteAll();
+        mongoTemplate.remove(new Query(), "import_jobs");
+        mongoTemplate.dropCollection("schema_migrations");
+        mongoTemplate.dropCollection(RANDOM_IDS_COLLECTION);
+        mongoTemplate.dropCollection(CLUSTERED_COLLECTION);
+    }
+
+    @Test
+    void shouldMoveRowsWithRandomIdsToMonthRange() {
+        // given
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        importingFacade.markCompleted(WORKSPACE_ID, MONTH, 3, 0, List.of(), Map.of(), null, null, null, null, null);
+        var legacy = List.of(transaction(UUID.randomUUID(), "-10.50"), transaction(UUID.randomUUID(), "-20.00"),
+                transaction(UUID.randomUUID(), "-30.00"));
+        mongoTemplate.insertAll(legacy);
+
+        // when
+        var migrated = transactionIdMigration.migrate(WORKSPACE_ID, MONTH);
+        transactionGenerationReaper.reapStaleGenerations();
+
+        // then
+        assertThat(migrated).isTrue();
+        assertThat(transactionRepository.findAll())
+                .hasSize(3)
+                .allMatch(row -> TransactionIdGenerator.isInMonthRange(row.getId(), WORKSPACE_ID, MONTH))
+                .extracting(TransactionDocument::getAmount)
+                .containsExactlyInAnyOrderElementsOf(legacy.stream().map(TransactionDocument::getAmount).toList());
+        assertThat(importingFacade.activeGeneration(WORKSPACE_ID, MONTH)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMoveRowsWithoutGenerationIntoGenerationZero() {
+        // given
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        importingFacade.markCompleted(WORKSPACE_ID, MONTH, 1, 0, List.of(), Map.of(), null, null, null, null, null);
+        var legacy = new Document();
+        mongoTemplate.getConverter().write(transaction(UUID.randomUUID(), "-10.50"), legacy);
+        legacy.remove("generation");
+        mongoTemplate.getCollection("transactions").insertOne(legacy);
+
+        // when
+        transactionCollectionInitializer.initialize();
+
+        // then
+        assertThat(transactionRepository.findAll())
+                .singleElement()
+                .extracting(TransactionDocument::getGeneration)
+                .isEqualTo(0L);
+        assertThat(mongoTemplate.getCollection("transactions")
+                .countDocuments(new Document("generation", new Document("$exists", false)))).isZero();
+    }
+
+    @Test
+    void shouldNotSwitchMonthToCopyWhenImportStartedMeanwhile() {
+        // given
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-1", null);
+        importingFacade.markCompleted(WORKSPACE_ID, MONTH, 1, 0, List.of(), Map.of(), null, null, null, null, null);
+        var revision = importingFacade.getStatus(WORKSPACE_ID, MONTH).revision();
+        importingFacade.startProcessing(WORKSPACE_ID, MONTH, "sha-2", null);
+        var generation = importingFacade.allocateGeneration(WORKSPACE_ID, MONTH);
+
+        // when
+        var activated = importingFacade.activateGeneration(WORKSPACE_ID, MONTH, generation, revision);
+
+        // then
+        assertThat(activated).isFalse();
+        assertThat(importingFacade.activeGeneration(WORKSPACE_ID, MONTH)).isZero();
+    }
+
+    @Test
+    void shouldInsertMonthOrderedIdsIntoClusteredCollectionWithoutIdIndex() {
+        // given
+        mongoTemplate.getDb().createCollection(CLUSTERED_COLLECTION, new CreateCollectionOptions()
+                .clusteredIndexOptions(new ClusteredIndexOptions(new Document("_id", 1), true)));
+        var ids = new TransactionIdGenerator(WORKSPACE_ID, MONTH);
+
+        // when
+        var random = insert(RANDOM_IDS_COLLECTION, UUID::randomUUID);
+        var ordered = insert(CLUSTERED_COLLECTION, ids::next);
+
+        // then
+        assertThat(mongoTemplate.count(new Query(), CLUSTERED_COLLECTION)).isEqualTo(BENCHMARK_ROWS);
+        assertThat(random.totalIndexSize()).isPositive();
+        assertThat(ordered.totalIndexSize()).isZero();
+        assertThat(ordered.elapsed()).isLessThan(random.elapsed().multipliedBy(2));
+    }
+
+    private InsertResult insert(String collection, Supplier<UUID> ids) {
+        var start = System.nanoTime();
+        for (int inserted = 0; inserted < BENCHMARK_ROWS; inserted += BENCHMARK_BATCH_SIZE) {
+            var batch = new ArrayList<TransactionDocument>(BENCHMARK_BATCH_SIZE);
+            for (int i = 0; i < BENCHMARK_BATCH_SIZE; i++) {
+                batch.add(transaction(ids.get(), "-" + (inserted + i + 1)));
+            }
+            mongoTemplate.insert(batch, collection);
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        var stats = mongoTemplate.getDb().runCommand(new Document("collStats", collection));
+        return new InsertResult(elapsed, stats.get("totalIndexSize", Number.class).longValue());
+    }
+
+    private static TransactionDocument transaction(UUID id, String amount) {
+        return TransactionDocument.builder()
+                .id(id)
+                .workspaceId(WORKSPACE_ID)
+                .year(MONTH.getYear())
+                .month(MONTH.getMonthValue())
+                .iban("PL61109010140000071219812874")
+                .transactionDate(LocalDate.of(2026, 1, 10))
+                .currency("PLN")
+                .category("FOOD")
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private record InsertResult(Duration elapsed, long totalIndexSize) {
+    }
+}
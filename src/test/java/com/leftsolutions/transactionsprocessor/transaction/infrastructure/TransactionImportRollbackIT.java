@@ -18,7 +18,7 @@ import java.time.YearMonth;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.reset;
 
@@ -39,9 +39,12 @@ class TransactionImportRollbackIT extends IntegrationTestConfig {
     @MockitoSpyBean
     private TransactionRepository transactionRepository;
 
+    @MockitoSpyBean
+    private TransactionBulkWriter transactionBulkWriter;
+
     @BeforeEach
     void cleanup() {
-        reset(transactionRepository);
+        reset(transactionRepository, transactionBulkWriter);
         transactionRepository.deleteAll();
     }
 
@@ -50,9 +53,9 @@ class TransactionImportRollbackIT extends IntegrationTestConfig {
         // given
         seedExistingTransactionsForMonth();
 
-        doThrow(new RuntimeException("saveAll boom"))
-                .when(transactionRepository)
-                .saveAll(any(Iterable.class));
+        doThrow(new RuntimeException("bulk insert boom"))
+                .when(transactionBulkWriter)
+                .insert(anyList());
 
         var csv = """
                 iban,date,currency,category,amount
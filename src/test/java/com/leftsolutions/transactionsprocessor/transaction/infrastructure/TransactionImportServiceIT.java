@@ -1,20 +1,33 @@
 package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
 
 import com.leftsolutions.transactionsprocessor.IntegrationTestConfig;
+import com.leftsolutions.transactionsprocessor.config.ImportAsyncProperties;
 import com.leftsolutions.transactionsprocessor.importing.domain.ImportingFacade;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportDeltaStatsDto;
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobState;
 import com.leftsolutions.transactionsprocessor.importing.dto.ImportJobStatusDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportSubmissionDto;
+import com.leftsolutions.transactionsprocessor.importing.dto.RejectedRowsReportDto;
+import com.leftsolutions.transactionsprocessor.transaction.domain.RejectedRowsReportFacade;
 import com.leftsolutions.transactionsprocessor.transaction.domain.TransactionImportFacade;
+import com.leftsolutions.transactionsprocessor.transaction.exception.IdempotencyKeyReusedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.YearMonth;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 
 class TransactionImportServiceIT extends IntegrationTestConfig {
 
@@ -30,9 +43,26 @@ class TransactionImportServiceIT extends IntegrationTestConfig {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RejectedRowsReportFacade rejectedRowsReportFacade;
+
+    @Autowired
+    private RejectedRowsReportService rejectedRowsReportService;
+
+    @Autowired
+    private TransactionGenerationReaper transactionGenerationReaper;
+
+    @Autowired
+    private ImportAsyncProperties importAsyncProperties;
+
     @BeforeEach
     void cleanup() {
         transactionRepository.deleteAll();
+        mongoTemplate.remove(new Query(), "import_jobs");
+        mongoTemplate.remove(new Query(), "import_queue");
     }
 
     @Test
@@ -87,7 +117,194 @@ class TransactionImportServiceIT extends IntegrationTestConfig {
                 .returns(2, ImportJobStatusDto::rejectedRows);
 
         assertThat(status.errors()).isNotEmpty();
+        assertThat(status.rejectionCounts()).containsOnly(
+                entry(RowRejection.INVALID_IBAN_FORMAT.name(), 1L),
+                entry(RowRejection.INVALID_AMOUNT_FORMAT.name(), 1L)
+        );
         assertThat(transactionRepository.findAll()).hasSize(2);
+
+        var report = rejectedRowsReportFacade.findReport(WORKSPACE_ID, MONTH).orElseThrow();
+        try (var input = new GZIPInputStream(report.content())) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8).lines()).containsExactly(
+                    "line,reason,row",
+                    "3,INVALID_IBAN_FORMAT,\"INVALID,2026-01-11,PLN,FOOD,-20.00\"",
+                    "4,INVALID_AMOUNT_FORMAT,\"PL12109010140000071219812875,2026-01-12,PLN,RENT,not-a-number\""
+            );
+        }
+    }
+
+    @Test
+    void shouldKeepServingReportOfCompletedImportWhenLaterCompletionFails() throws Exception {
+        // given
+        var csvFile = writeTempCsv("""
+                iban,date,currency,category,amount
+                INVALID,2026-01-11,PLN,FOOD,-20.00
+                """);
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, csvFile);
+        var completedReport = rejectedRowsReportFacade.findReport(WORKSPACE_ID, MONTH).orElseThrow();
+        var laterReport = Files.createTempFile("rejected-rows-", ".csv.gz");
+        Files.writeString(laterReport, "rows of an import that never completed");
+
+        // when
+        var reportId = rejectedRowsReportService.store(WORKSPACE_ID, MONTH, laterReport);
+        var completed = rejectedRowsReportService.complete(WORKSPACE_ID, MONTH, reportId, () -> false);
+
+        // then
+        assertThat(completed).isFalse();
+        assertThat(rejectedRowsReportFacade.findReport(WORKSPACE_ID, MONTH).orElseThrow())
+                .returns(completedReport.length(), RejectedRowsReportDto::length);
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("metadata.type").is("rejected-rows")
+                .and("metadata.workspaceId").is(WORKSPACE_ID)), "fs.files")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyOnlyChangedRowsInDeltaMode() throws Exception {
+        // given
+        var initial = writeTempCsv("""
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                PL12109010140000071219812875,2026-01-12,PLN,RENT,-2000.00
+                """);
+        var corrected = writeTempCsv("""
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.5
+                PL12109010140000071219812875,2026-01-12,PLN,RENT,-2100.00
+                PL12109010140000071219812875,2026-01-20,PLN,TAXES,-300.00
+                """);
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, initial);
+        var foodIds = transactionRepository.findAll().stream()
+                .filter(transaction -> transaction.getCategory().equals("FOOD"))
+                .map(TransactionDocument::getId)
+                .toList();
+
+        // when
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, corrected, ImportMode.DELTA);
+        var status = importingFacade.getStatus(WORKSPACE_ID, MONTH);
+
+        // then
+        assertThat(status)
+                .returns(ImportJobState.COMPLETED, ImportJobStatusDto::state)
+                .returns(new ImportDeltaStatsDto(2, 2, 1), ImportJobStatusDto::deltaStats);
+
+        assertThat(transactionRepository.findAll())
+                .hasSize(3)
+                .extracting(TransactionDocument::getId)
+                .containsAnyElementsOf(foodIds);
+    }
+
+    @Test
+    void shouldReturnCompletedStatusWithoutReimportingSameContent() throws Exception {
+        // given
+        var csv = """
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                """;
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, writeTempCsv(csv));
+        var completed = importingFacade.getStatus(WORKSPACE_ID, MONTH);
+        var retry = writeTempCsv(csv);
+
+        // when
+        var status = transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, retry);
+
+        // then
+        assertThat(status)
+                .returns(ImportJobState.COMPLETED, ImportJobStatusDto::state)
+                .returns(completed.updatedAt(), ImportJobStatusDto::updatedAt);
+        assertThat(retry).doesNotExist();
+        assertThat(transactionRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void shouldReturnCompletedStatusForRepeatedIdempotencyKey() throws Exception {
+        // given
+        var csv = """
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                """;
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH,
+                new ImportSubmissionDto(writeTempCsv(csv), null, "retry-key", ImportMode.REPLACE));
+
+        // when
+        var status = transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH,
+                new ImportSubmissionDto(writeTempCsv(csv), null, "retry-key", ImportMode.REPLACE));
+
+        // then
+        assertThat(status).returns(1, ImportJobStatusDto::importedRows);
+        assertThat(transactionRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectIdempotencyKeyReusedForDifferentFile() throws Exception {
+        // given
+        var csv = """
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                """;
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH,
+                new ImportSubmissionDto(writeTempCsv(csv), null, "retry-key", ImportMode.REPLACE));
+        var changed = writeTempCsv(csv + "PL61109010140000071219812874,2026-01-11,PLN,FOOD,-1.00\n");
+
+        // when / then
+        assertThatThrownBy(() -> transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH,
+                new ImportSubmissionDto(changed, null, "retry-key", ImportMode.REPLACE)))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(changed).doesNotExist();
+        assertThat(transactionRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void shouldAnswerRepeatedSubmissionBeforeAdmission() throws Exception {
+        // given
+        var csv = """
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                """;
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, writeTempCsv(csv));
+        var maxQueued = importAsyncProperties.getMaxQueuedPerWorkspace();
+        var retry = writeTempCsv(csv);
+
+        // when
+        ImportJobStatusDto status;
+        importAsyncProperties.setMaxQueuedPerWorkspace(0);
+        try {
+            status = transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, retry);
+        } finally {
+            importAsyncProperties.setMaxQueuedPerWorkspace(maxQueued);
+        }
+
+        // then
+        assertThat(status).returns(ImportJobState.COMPLETED, ImportJobStatusDto::state);
+        assertThat(retry).doesNotExist();
+    }
+
+    @Test
+    void shouldSwitchToStagedGenerationAndReapPreviousOne() throws Exception {
+        // given
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, writeTempCsv("""
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                PL61109010140000071219812874,2026-01-11,PLN,FOOD,-20.00
+                """));
+
+        // when
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, writeTempCsv("""
+                iban,date,currency,category,amount
+                PL12109010140000071219812875,2026-01-12,PLN,RENT,-2000.00
+                """), ImportMode.STAGED);
+        var generation = importingFacade.activeGeneration(WORKSPACE_ID, MONTH);
+        var storedBeforeReap = transactionRepository.count();
+        transactionGenerationReaper.reapStaleGenerations();
+
+        // then
+        assertThat(importingFacade.getStatus(WORKSPACE_ID, MONTH))
+                .returns(ImportJobState.COMPLETED, ImportJobStatusDto::state)
+                .returns(1, ImportJobStatusDto::importedRows);
+        assertThat(storedBeforeReap).isEqualTo(3);
+        assertThat(transactionRepository.findAll())
+                .singleElement()
+                .returns(generation, TransactionDocument::getGeneration);
+        assertThat(importingFacade.findStaleGenerations()).isEmpty();
     }
 
     private Path writeTempCsv(String csv) throws Exception {
@@ -0,0 +1,147 @@
+package com.leftsolutions.transactionsprocessor.transaction.infrastructure;
+
+import com.leftsolutions.transactionsprocessor.IntegrationTestConfig;
+import com.leftsolutions.transactionsprocessor.importing.dto.ImportMode;
+import com.leftsolutions.transactionsprocessor.statistics.domain.StatisticsFacade;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsCubeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsGroupBy;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsRangeQuery;
+import com.leftsolutions.transactionsprocessor.statistics.dto.StatisticsTimelineQuery;
+import com.leftsolutions.transactionsprocessor.transaction.domain.TransactionImportFacade;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records the plans of every query the imports and statistics run against the transactions collection with the
+ * database profiler, so the real query shapes are checked rather than copies of them. No query may scan the
+ * collection, and reads must be answered from the index alone, except the whole-month reads the statistics mark
+ * as such: the cube, timeline and sketch fallbacks and rollup rebuilds, which read a month once until its rollup
+ * is stored.
+ */
+class TransactionQueryPlanIT extends IntegrationTestConfig {
+
+    private static final String WORKSPACE_ID = "workspace-1";
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+
+    private static final String PROFILE_COLLECTION = "system.profile";
+    private static final Set<String> WRITE_OPS = Set.of("remove", "update", "insert");
+    private static final String MONTH_SCAN_COMMENT = "statistics-month-scan";
+
+    @Autowired
+    private TransactionImportFacade transactionImportFacade;
+
+    @Autowired
+    private StatisticsFacade statisticsFacade;
+
+    @Autowired
+    private TransactionGenerationReaper transactionGenerationReaper;
+
+    @Autowired
+    private TransactionCollectionInitializer transactionCollectionInitializer;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void startProfiling() {
+        transactionCollectionInitializer.initialize();
+        transactionRepository.deleteAll();
+        mongoTemplate.remove(new Query(), "import_jobs");
+        mongoTemplate.remove(new Query(), "import_queue");
+
+        profile(0);
+        mongoTemplate.dropCollection(PROFILE_COLLECTION);
+        profile(2);
+    }
+
+    @AfterEach
+    void stopProfiling() {
+        profile(0);
+    }
+
+    @Test
+    void shouldAnswerImportAndStatisticsQueriesFromIndexes() throws Exception {
+        // given
+        var csv = """
+                iban,date,currency,category,amount
+                PL61109010140000071219812874,2026-01-10,PLN,FOOD,-10.50
+                PL61109010140000071219812874,2026-01-11,PLN,FOOD,-20.00
+                PL12109010140000071219812875,2026-01-12,PLN,RENT,-2000.00
+                """;
+        var corrected = csv.replace("-20.00", "-25.00");
+
+        // when
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, writeTempCsv(csv));
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, writeTempCsv(corrected), ImportMode.DELTA);
+        transactionImportFacade.importMonthlyAsync(WORKSPACE_ID, MONTH, writeTempCsv(csv), ImportMode.STAGED);
+        transactionGenerationReaper.reapStaleGenerations();
+        mongoTemplate.remove(new Query(), "monthly_statistics");
+        mongoTemplate.remove(new Query(), "monthly_statistics_pages");
+        mongoTemplate.remove(new Query(), "daily_statistics");
+        for (var groupBy : StatisticsGroupBy.values()) {
+            statisticsFacade.getMonthlyStatistics(WORKSPACE_ID, new StatisticsQuery(MONTH, groupBy));
+            statisticsFacade.getTimeline(WORKSPACE_ID, new StatisticsTimelineQuery(MONTH.atDay(1), MONTH.atEndOfMonth(), null, groupBy));
+        }
+        statisticsFacade.getCubeStatistics(WORKSPACE_ID, new StatisticsCubeQuery(MONTH, Set.of()));
+        statisticsFacade.getDistribution(WORKSPACE_ID,
+                new StatisticsRangeQuery(MONTH, MONTH, null, false, StatisticsGroupBy.CATEGORY));
+        statisticsFacade.rebuildRollup(WORKSPACE_ID, MONTH);
+        profile(0);
+
+        // then
+        var plans = mongoTemplate.find(
+                Query.query(Criteria.where("ns").is(mongoTemplate.getDb().getName() + ".transactions")
+                        .and("planSummary").exists(true)),
+                Document.class,
+                PROFILE_COLLECTION
+        );
+
+        assertThat(plans)
+                .extracting(plan -> plan.getString("op"))
+                .contains("query", "command", "remove");
+        assertThat(plans)
+                .allSatisfy(plan -> assertThat(plan.getString("planSummary")).doesNotContain("COLLSCAN"));
+        assertThat(plans)
+                .anyMatch(TransactionQueryPlanIT::isMonthScan);
+        assertThat(plans)
+                .filteredOn(plan -> !WRITE_OPS.contains(plan.getString("op")) && !isMonthScan(plan))
+                .allSatisfy(plan -> assertThat(plan.get("docsExamined", Number.class).longValue())
+                        .as("documents fetched by %s", plan.get("command"))
+                        .isZero());
+    }
+
+    private static boolean isMonthScan(Document plan) {
+        return Stream.of("command", "originatingCommand")
+                .map(field -> plan.get(field, Document.class))
+                .anyMatch(command -> command != null && MONTH_SCAN_COMMENT.equals(command.get("comment")));
+    }
+
+    private void profile(int level) {
+        mongoTemplate.getDb().runCommand(new Document("profile", level));
+    }
+
+    private Path writeTempCsv(String csv) throws Exception {
+        var file = Files.createTempFile("it-import-", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+}